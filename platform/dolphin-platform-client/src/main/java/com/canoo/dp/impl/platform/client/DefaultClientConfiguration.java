@@ -165,17 +165,29 @@ public class DefaultClientConfiguration implements ClientConfiguration {
 
     @Override
     public boolean getBooleanProperty(final String key, final boolean defaultValue) {
-        return getObjectProperty(key, defaultValue);
+        final Object value = getObjectProperty(key, defaultValue);
+        if (value instanceof String) {
+            return Boolean.parseBoolean(((String) value).trim());
+        }
+        return (Boolean) value;
     }
 
     @Override
     public int getIntProperty(final String key, final int defaultValue) {
-        return getObjectProperty(key, defaultValue);
+        final Object value = getObjectProperty(key, defaultValue);
+        if (value instanceof String) {
+            return Integer.parseInt(((String) value).trim());
+        }
+        return ((Number) value).intValue();
     }
 
     @Override
     public long getLongProperty(final String key, final long defaultValue) {
-        return getObjectProperty(key, defaultValue);
+        final Object value = getObjectProperty(key, defaultValue);
+        if (value instanceof String) {
+            return Long.parseLong(((String) value).trim());
+        }
+        return ((Number) value).longValue();
     }
 
     @Override
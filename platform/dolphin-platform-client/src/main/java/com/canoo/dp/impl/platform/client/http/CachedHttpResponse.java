@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.platform.client.http;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Locale;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * The content and the cache information (validators and expiration) of a cached http response.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class CachedHttpResponse {
+
+    static final String CACHE_CONTROL_HEADER = "Cache-Control";
+
+    static final String ETAG_HEADER = "ETag";
+
+    static final String LAST_MODIFIED_HEADER = "Last-Modified";
+
+    static final String VARY_HEADER = "Vary";
+
+    static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+
+    static final long NOT_STORABLE = -1;
+
+    private final String key;
+
+    private final byte[] content;
+
+    private final String eTag;
+
+    private final String lastModified;
+
+    private final long expiration;
+
+    public CachedHttpResponse(final String key, final byte[] content, final String eTag, final String lastModified, final long expiration) {
+        this.key = Assert.requireNonNull(key, "key");
+        this.content = Assert.requireNonNull(content, "content");
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.expiration = expiration;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    public boolean isFresh(final long now) {
+        return expiration > now;
+    }
+
+    public boolean hasValidator() {
+        return eTag != null || lastModified != null;
+    }
+
+    /**
+     * Adds the validators of this response to the given request to create a conditional request.
+     * @param connection the request
+     */
+    public void addValidators(final HttpURLConnection connection) {
+        Assert.requireNonNull(connection, "connection");
+        if (eTag != null) {
+            connection.setRequestProperty(IF_NONE_MATCH_HEADER, eTag);
+        }
+        if (lastModified != null) {
+            connection.setRequestProperty(IF_MODIFIED_SINCE_HEADER, lastModified);
+        }
+    }
+
+    /**
+     * Creates the updated response after the server has confirmed (by a 304 response) that the content is still valid.
+     * @param connection the 304 response
+     * @param now the current time
+     * @return the updated response or {@code null} if the response must not be stored anymore
+     */
+    public CachedHttpResponse revalidate(final HttpURLConnection connection, final long now) {
+        final long newExpiration = getExpiration(connection, now);
+        if (newExpiration == NOT_STORABLE) {
+            return null;
+        }
+        final String newETag = connection.getHeaderField(ETAG_HEADER);
+        final String newLastModified = connection.getHeaderField(LAST_MODIFIED_HEADER);
+        return new CachedHttpResponse(key, content, newETag != null ? newETag : eTag, newLastModified != null ? newLastModified : lastModified, newExpiration);
+    }
+
+    /**
+     * Creates a cached response for the given response if the response can be stored in the cache.
+     * @param key the key of the request
+     * @param connection the response
+     * @param content the content of the response
+     * @param now the current time
+     * @return the cached response or {@code null} if the response must not be stored
+     */
+    public static CachedHttpResponse create(final String key, final HttpURLConnection connection, final byte[] content, final long now) throws IOException {
+        if (connection.getResponseCode() != HttpStatus.HTTP_OK) {
+            return null;
+        }
+        final long expiration = getExpiration(connection, now);
+        if (expiration == NOT_STORABLE) {
+            return null;
+        }
+        final CachedHttpResponse response = new CachedHttpResponse(key, content, connection.getHeaderField(ETAG_HEADER), connection.getHeaderField(LAST_MODIFIED_HEADER), expiration);
+        if (!response.isFresh(now) && !response.hasValidator()) {
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Returns the time until the response is fresh based on the Cache-Control and Expires headers.
+     * @param connection the response
+     * @param now the current time
+     * @return the expiration time or {@link #NOT_STORABLE} if the response must not be stored
+     */
+    static long getExpiration(final HttpURLConnection connection, final long now) {
+        if (connection.getHeaderField(VARY_HEADER) != null) {
+            return NOT_STORABLE;
+        }
+        final String cacheControl = connection.getHeaderField(CACHE_CONTROL_HEADER);
+        if (cacheControl != null) {
+            boolean noCache = false;
+            long expiration = 0;
+            for (String directive : cacheControl.split(",")) {
+                final String normalized = directive.trim().toLowerCase(Locale.ENGLISH);
+                if (normalized.equals("no-store")) {
+                    return NOT_STORABLE;
+                } else if (normalized.equals("no-cache")) {
+                    noCache = true;
+                } else if (normalized.startsWith("max-age=")) {
+                    try {
+                        expiration = now + Long.parseLong(normalized.substring("max-age=".length()).trim()) * 1000;
+                    } catch (final NumberFormatException e) {
+                        expiration = 0;
+                    }
+                }
+            }
+            if (noCache) {
+                return 0;
+            }
+            if (expiration > 0) {
+                return expiration;
+            }
+        }
+        return Math.max(connection.getExpiration(), 0);
+    }
+}
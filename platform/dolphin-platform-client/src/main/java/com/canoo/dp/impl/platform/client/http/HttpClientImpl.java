@@ -11,6 +11,7 @@ import com.canoo.platform.core.DolphinRuntimeException;
 import com.google.gson.Gson;
 import org.apiguardian.api.API;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
@@ -23,6 +24,12 @@ import static org.apiguardian.api.API.Status.INTERNAL;
 @API(since = "0.x", status = INTERNAL)
 public class HttpClientImpl implements HttpClient {
 
+    private static final String HTTP_KEEP_ALIVE_SYSTEM_PROPERTY = "http.keepAlive";
+
+    private static final String HTTP_MAX_CONNECTIONS_SYSTEM_PROPERTY = "http.maxConnections";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 5;
+
     private final Gson gson;
 
     private final HttpURLConnectionFactory httpURLConnectionFactory;
@@ -33,6 +40,10 @@ public class HttpClientImpl implements HttpClient {
 
     private final ClientConfiguration configuration;
 
+    private final HttpRequestDispatcher requestDispatcher;
+
+    private final HttpResponseCache responseCache;
+
     public HttpClientImpl(final Gson gson, ClientConfiguration configuration) {
         this(gson, new DefaultHttpURLConnectionFactory(), configuration);
     }
@@ -41,12 +52,57 @@ public class HttpClientImpl implements HttpClient {
         this.gson = Assert.requireNonNull(gson, "gson");
         this.httpURLConnectionFactory = Assert.requireNonNull(httpURLConnectionFactory, "httpURLConnectionFactory");
         this.configuration = configuration;
+        if (configuration != null) {
+            configureConnectionReuse(configuration);
+            this.requestDispatcher = new HttpRequestDispatcher(configuration.getBackgroundExecutor(), configuration.getIntProperty(ClientConfiguration.HTTP_MAX_PARALLEL_REQUESTS, 0));
+            this.responseCache = createResponseCache(configuration);
+        } else {
+            this.requestDispatcher = null;
+            this.responseCache = null;
+        }
+    }
+
+    private static HttpResponseCache createResponseCache(final ClientConfiguration configuration) {
+        final long cacheSize = configuration.getLongProperty(ClientConfiguration.HTTP_CACHE_SIZE, 0);
+        if (cacheSize <= 0) {
+            return null;
+        }
+        final String cacheDirectory = configuration.getProperty(ClientConfiguration.HTTP_CACHE_DIRECTORY, null);
+        final long diskCacheSize = configuration.getLongProperty(ClientConfiguration.HTTP_CACHE_DISK_SIZE, cacheSize * 10);
+        return new HttpResponseCache(cacheSize, cacheDirectory != null ? new File(cacheDirectory) : null, diskCacheSize);
+    }
+
+    /**
+     * The {@link HttpURLConnection} implementation of the JDK keeps idle connections in a pool that is shared by all
+     * connections of the VM. The pool is configured by system properties that are read once when the first
+     * connection is opened. Therefore values that are defined by the user (as system property) always win.
+     */
+    private static void configureConnectionReuse(final ClientConfiguration configuration) {
+        if (configuration.containsProperty(ClientConfiguration.HTTP_KEEP_ALIVE) && System.getProperty(HTTP_KEEP_ALIVE_SYSTEM_PROPERTY) == null) {
+            System.setProperty(HTTP_KEEP_ALIVE_SYSTEM_PROPERTY, Boolean.toString(configuration.getBooleanProperty(ClientConfiguration.HTTP_KEEP_ALIVE, true)));
+        }
+        if (configuration.containsProperty(ClientConfiguration.HTTP_MAX_CONNECTIONS) && System.getProperty(HTTP_MAX_CONNECTIONS_SYSTEM_PROPERTY) == null) {
+            final int maxConnections = configuration.getIntProperty(ClientConfiguration.HTTP_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS);
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("maxConnections must be > 0");
+            }
+            System.setProperty(HTTP_MAX_CONNECTIONS_SYSTEM_PROPERTY, Integer.toString(maxConnections));
+        }
     }
 
     public HttpURLConnectionFactory getConnectionFactory() {
         return httpURLConnectionFactory;
     }
 
+    /**
+     * Returns the response cache of this client or {@code null} if caching is not active
+     * (see {@link ClientConfiguration#HTTP_CACHE_SIZE}).
+     * @return the response cache
+     */
+    public HttpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
     @Override
     public void addRequestHandler(final HttpURLConnectionHandler handler) {
         Assert.requireNonNull(handler, "handler");
@@ -77,7 +133,17 @@ public class HttpClientImpl implements HttpClient {
             Assert.requireNonNull(connection, "connection");
 
             connection.setRequestMethod(method.getRawName());
-            return new HttpRequestImpl(connection, gson, requestHandlers, responseHandlers, configuration);
+            if (configuration != null) {
+                final int connectTimeout = configuration.getIntProperty(ClientConfiguration.HTTP_CONNECT_TIMEOUT, 0);
+                if (connectTimeout > 0) {
+                    connection.setConnectTimeout(connectTimeout);
+                }
+                final int readTimeout = configuration.getIntProperty(ClientConfiguration.HTTP_READ_TIMEOUT, 0);
+                if (readTimeout > 0) {
+                    connection.setReadTimeout(readTimeout);
+                }
+            }
+            return new HttpRequestImpl(connection, gson, requestHandlers, responseHandlers, configuration, requestDispatcher, responseCache);
         } catch (IOException e) {
             throw new DolphinRuntimeException("HTTP error", e);
         }
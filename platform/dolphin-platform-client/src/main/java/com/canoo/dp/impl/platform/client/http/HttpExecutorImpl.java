@@ -5,9 +5,9 @@ import com.canoo.platform.client.ClientConfiguration;
 import com.canoo.platform.core.http.HttpExecutor;
 import org.apiguardian.api.API;
 
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -15,7 +15,7 @@ import static org.apiguardian.api.API.Status.INTERNAL;
 @API(since = "0.x", status = INTERNAL)
 public class HttpExecutorImpl<R> implements HttpExecutor<R> {
 
-    private final ExecutorService executor;
+    private final Executor executor;
 
     private final HttpProvider<R> provider;
 
@@ -26,8 +26,12 @@ public class HttpExecutorImpl<R> implements HttpExecutor<R> {
     private Consumer<Throwable> onError;
 
     public HttpExecutorImpl(final ClientConfiguration configuration, final HttpProvider<R> provider) {
+        this(configuration, Assert.requireNonNull(configuration, "configuration").getBackgroundExecutor(), provider);
+    }
+
+    public HttpExecutorImpl(final ClientConfiguration configuration, final Executor executor, final HttpProvider<R> provider) {
         Assert.requireNonNull(configuration, "configuration");
-        this.executor = configuration.getBackgroundExecutor();
+        this.executor = Assert.requireNonNull(executor, "executor");
         this.uiExecutor = configuration.getUiExecutor();
         this.provider = Assert.requireNonNull(provider, "provider");
     }
@@ -47,34 +51,44 @@ public class HttpExecutorImpl<R> implements HttpExecutor<R> {
     @Override
     public CompletableFuture<R> execute() {
         final CompletableFuture<R> completableFuture = new CompletableFuture<R>();
-        executor.submit(new Runnable() {
+        executor.execute(new Runnable() {
 
             @Override
             public void run() {
                 try {
-                    final R result = provider.get();
-                    if(onDone != null) {
-                        uiExecutor.execute(new Runnable() {
-                            @Override
-                            public void run() {
-                                onDone.accept(result);
-                            }
-                        });
-                    }
-                    completableFuture.complete(result);
+                    completableFuture.complete(executeInCurrentThread());
                 } catch (final Throwable e) {
-                    if(onError != null) {
-                        uiExecutor.execute(new Runnable() {
-                            @Override
-                            public void run() {
-                                onError.accept(e);
-                            }
-                        });
-                    }
                     completableFuture.completeExceptionally(e);
                 }
             }
         });
         return completableFuture;
     }
+
+    @Override
+    public R executeInCurrentThread() throws IOException {
+        final R result;
+        try {
+            result = provider.get();
+        } catch (final IOException | RuntimeException | Error e) {
+            if(onError != null) {
+                uiExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        onError.accept(e);
+                    }
+                });
+            }
+            throw e;
+        }
+        if(onDone != null) {
+            uiExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    onDone.accept(result);
+                }
+            });
+        }
+        return result;
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.platform.client.http;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Executor that executes http calls on a shared executor but never uses more than a defined number of threads of the
+ * shared executor at the same time. Calls that can not be executed directly are queued and executed by the threads
+ * that are already in use once the current call of such a thread has been finished. By doing so many parallel calls
+ * do not result in a growing thread pool.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class HttpRequestDispatcher implements Executor {
+
+    private final Executor executor;
+
+    private final int maxParallelRequests;
+
+    private final Queue<Runnable> pendingRequests = new ArrayDeque<>();
+
+    private final Lock lock = new ReentrantLock();
+
+    private int runningWorkers = 0;
+
+    /**
+     * Constructor
+     * @param executor the shared executor
+     * @param maxParallelRequests the maximum number of calls that will be executed in parallel. A value <= 0 defines
+     *                            no limit.
+     */
+    public HttpRequestDispatcher(final Executor executor, final int maxParallelRequests) {
+        this.executor = Assert.requireNonNull(executor, "executor");
+        this.maxParallelRequests = maxParallelRequests;
+    }
+
+    @Override
+    public void execute(final Runnable request) {
+        Assert.requireNonNull(request, "request");
+        if (maxParallelRequests <= 0) {
+            executor.execute(request);
+            return;
+        }
+        lock.lock();
+        try {
+            if (runningWorkers >= maxParallelRequests) {
+                pendingRequests.add(request);
+                return;
+            }
+            runningWorkers++;
+        } finally {
+            lock.unlock();
+        }
+        startWorker(request);
+    }
+
+    private void startWorker(final Runnable firstRequest) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Runnable request = firstRequest;
+                    while (request != null) {
+                        try {
+                            request.run();
+                        } catch (final RuntimeException e) {
+                            final Thread thread = Thread.currentThread();
+                            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                        }
+                        request = nextRequest();
+                    }
+                }
+            });
+        } catch (final RuntimeException e) {
+            lock.lock();
+            try {
+                runningWorkers--;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private Runnable nextRequest() {
+        lock.lock();
+        try {
+            final Runnable next = pendingRequests.poll();
+            if (next == null) {
+                runningWorkers--;
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an executor that executes calls directly on the shared executor. Such calls are never queued and do not
+     * count against the maximum number of parallel calls.
+     * @return executor for high priority calls
+     */
+    public Executor getHighPriorityExecutor() {
+        return executor;
+    }
+
+    public int getMaxParallelRequests() {
+        return maxParallelRequests;
+    }
+
+    public int getPendingRequestCount() {
+        lock.lock();
+        try {
+            return pendingRequests.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -34,6 +35,12 @@ public class HttpRequestImpl implements HttpRequest {
 
     private final ClientConfiguration configuration;
 
+    private final HttpRequestDispatcher requestDispatcher;
+
+    private final HttpResponseCache cache;
+
+    private boolean highPriority = false;
+
     private ByteArrayProvider dataProvider = new ByteArrayProvider() {
         @Override
         public byte[] get() {
@@ -41,8 +48,10 @@ public class HttpRequestImpl implements HttpRequest {
         }
     };
 
-    public HttpRequestImpl(final HttpURLConnection connection, final Gson gson, final List<HttpURLConnectionHandler> requestHandlers, final List<HttpURLConnectionHandler> responseHandlers, ClientConfiguration configuration) {
+    public HttpRequestImpl(final HttpURLConnection connection, final Gson gson, final List<HttpURLConnectionHandler> requestHandlers, final List<HttpURLConnectionHandler> responseHandlers, final ClientConfiguration configuration, final HttpRequestDispatcher requestDispatcher, final HttpResponseCache cache) {
         this.connection = Assert.requireNonNull(connection, "connection");
+        this.requestDispatcher = requestDispatcher;
+        this.cache = cache;
         this.gson = Assert.requireNonNull(gson, "gson");
         this.configuration = configuration;
 
@@ -54,6 +63,19 @@ public class HttpRequestImpl implements HttpRequest {
         this.responseHandlers = Collections.unmodifiableList(responseHandlers);
     }
 
+    @Override
+    public HttpRequest withHeader(final String name, final String value) {
+        Assert.requireNonBlank(name, "name");
+        connection.setRequestProperty(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpRequest withHighPriority() {
+        highPriority = true;
+        return this;
+    }
+
     @Override
     public HttpResponse withContent(final byte[] content) {
         return withContent(content, "application/raw");
@@ -64,6 +86,9 @@ public class HttpRequestImpl implements HttpRequest {
         connection.setRequestProperty( "Content-Type", contentType);
         connection.setRequestProperty( "Content-Length", content.length + "");
         connection.setUseCaches( false );
+        if (content.length > 0) {
+            connection.setFixedLengthStreamingMode(content.length);
+        }
 
         connection.setDoOutput(true);
         dataProvider = new ByteArrayProvider() {
@@ -108,7 +133,11 @@ public class HttpRequestImpl implements HttpRequest {
         for(HttpURLConnectionHandler handler : requestHandlers) {
             handler.handle(connection);
         }
-        return new HttpResponseImpl(connection, gson, dataProvider, responseHandlers, configuration);
+        Executor requestExecutor = requestDispatcher;
+        if (highPriority && requestDispatcher != null) {
+            requestExecutor = requestDispatcher.getHighPriorityExecutor();
+        }
+        return new HttpResponseImpl(connection, gson, dataProvider, responseHandlers, configuration, requestExecutor, cache);
     }
 
 }
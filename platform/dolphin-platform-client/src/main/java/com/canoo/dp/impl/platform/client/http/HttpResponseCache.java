@@ -0,0 +1,385 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.platform.client.http;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.canoo.dp.impl.platform.core.PlatformConstants.ACCEPT_HEADER;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Cache for the responses of GET requests that honours the Cache-Control, Expires, ETag and Last-Modified headers.
+ * Responses are stored in an in-memory LRU cache that is limited by the size of the stored content. If a directory is
+ * defined all responses will be stored on disk, too. By doing so responses that have been removed from the memory cache
+ * (or that have been stored in a previous run of the client) can still be used. The disk cache is limited by the total
+ * size of its files and removes the least recently used responses once the limit is reached. Each response is stored
+ * in its own file as a simple binary record (key, validators, expiration and content).
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class HttpResponseCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    private static final int DISK_FORMAT_VERSION = 1;
+
+    private static final int DEFAULT_DISK_SIZE_FACTOR = 10;
+
+    private final long maxSize;
+
+    private final File directory;
+
+    private final long maxDiskSize;
+
+    private final LinkedHashMap<String, CachedHttpResponse> memoryCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<String, Long> diskCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long currentSize = 0;
+
+    private long currentDiskSize = 0;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+
+    private final AtomicLong conditionalHitCount = new AtomicLong(0);
+
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    /**
+     * Constructor. The disk cache (if a directory is defined) is limited to ten times the size of the memory cache.
+     * @param maxSize maximum size in bytes of the content that is stored in memory
+     * @param directory directory for the disk cache or {@code null} if responses should only be cached in memory
+     */
+    public HttpResponseCache(final long maxSize, final File directory) {
+        this(maxSize, directory, maxSize * DEFAULT_DISK_SIZE_FACTOR);
+    }
+
+    /**
+     * Constructor
+     * @param maxSize maximum size in bytes of the content that is stored in memory
+     * @param directory directory for the disk cache or {@code null} if responses should only be cached in memory
+     * @param maxDiskSize maximum size in bytes of all files in the disk cache
+     */
+    public HttpResponseCache(final long maxSize, final File directory, final long maxDiskSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        if (maxDiskSize <= 0) {
+            throw new IllegalArgumentException("maxDiskSize must be > 0");
+        }
+        this.maxSize = maxSize;
+        this.directory = directory;
+        this.maxDiskSize = maxDiskSize;
+        if (directory != null) {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IllegalStateException("Can not create http cache directory " + directory);
+            }
+            loadDiskCache();
+        }
+    }
+
+    /**
+     * Returns the key of the given request or {@code null} if the response of the request can not be cached.
+     * @param connection the request
+     * @return the key
+     */
+    public static String getKey(final HttpURLConnection connection) {
+        Assert.requireNonNull(connection, "connection");
+        if (!"GET".equals(connection.getRequestMethod())) {
+            return null;
+        }
+        final String accept = connection.getRequestProperty(ACCEPT_HEADER);
+        return connection.getURL().toExternalForm() + (accept == null ? "" : "\n" + accept);
+    }
+
+    public synchronized CachedHttpResponse get(final String key) {
+        Assert.requireNonNull(key, "key");
+        CachedHttpResponse response = memoryCache.get(key);
+        if (response == null && directory != null) {
+            response = readFromDisk(key);
+            if (response != null) {
+                putInMemory(response);
+            }
+        }
+        return response;
+    }
+
+    public synchronized void put(final CachedHttpResponse response) {
+        Assert.requireNonNull(response, "response");
+        putInMemory(response);
+        if (directory != null) {
+            writeToDisk(response);
+        }
+    }
+
+    public synchronized void remove(final String key) {
+        Assert.requireNonNull(key, "key");
+        final CachedHttpResponse removed = memoryCache.remove(key);
+        if (removed != null) {
+            currentSize = currentSize - removed.getContent().length;
+        }
+        if (directory != null) {
+            removeFromDisk(getFile(key));
+        }
+    }
+
+    public synchronized void clear() {
+        for (String key : memoryCache.keySet().toArray(new String[0])) {
+            remove(key);
+        }
+        if (directory != null) {
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.delete()) {
+                        LOG.debug("Can not delete cached http response {}", file);
+                    }
+                }
+            }
+            diskCache.clear();
+            currentDiskSize = 0;
+        }
+    }
+
+    private void putInMemory(final CachedHttpResponse response) {
+        final CachedHttpResponse old = memoryCache.remove(response.getKey());
+        if (old != null) {
+            currentSize = currentSize - old.getContent().length;
+        }
+        if (response.getContent().length > maxSize) {
+            return;
+        }
+        memoryCache.put(response.getKey(), response);
+        currentSize = currentSize + response.getContent().length;
+        final Iterator<Map.Entry<String, CachedHttpResponse>> iterator = memoryCache.entrySet().iterator();
+        while (currentSize > maxSize && iterator.hasNext()) {
+            currentSize = currentSize - iterator.next().getValue().getContent().length;
+            iterator.remove();
+        }
+    }
+
+    private void loadDiskCache() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        // files are used in the order of their last modification to keep the LRU order of a previous run
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File file1, final File file2) {
+                return Long.compare(file1.lastModified(), file2.lastModified());
+            }
+        });
+        for (final File file : files) {
+            if (file.isFile()) {
+                diskCache.put(file.getName(), file.length());
+                currentDiskSize = currentDiskSize + file.length();
+            }
+        }
+        trimDiskCache();
+    }
+
+    private CachedHttpResponse readFromDisk(final String key) {
+        final File file = getFile(key);
+        if (diskCache.get(file.getName()) == null) {
+            return null;
+        }
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (inputStream.readInt() != DISK_FORMAT_VERSION) {
+                throw new IOException("Unsupported format");
+            }
+            final String storedKey = readString(inputStream);
+            final String eTag = readString(inputStream);
+            final String lastModified = readString(inputStream);
+            final long expiration = inputStream.readLong();
+            final byte[] content = new byte[inputStream.readInt()];
+            inputStream.readFully(content);
+            if (key.equals(storedKey)) {
+                if (!file.setLastModified(System.currentTimeMillis())) {
+                    LOG.trace("Can not update last modification of cached http response {}", file);
+                }
+                return new CachedHttpResponse(storedKey, content, eTag, lastModified, expiration);
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOG.debug("Can not read cached http response {}", file, e);
+            removeFromDisk(file);
+        }
+        return null;
+    }
+
+    private void writeToDisk(final CachedHttpResponse response) {
+        final File file = getFile(response.getKey());
+        removeFromDisk(file);
+        if (response.getContent().length > maxDiskSize) {
+            return;
+        }
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            outputStream.writeInt(DISK_FORMAT_VERSION);
+            writeString(outputStream, response.getKey());
+            writeString(outputStream, response.getETag());
+            writeString(outputStream, response.getLastModified());
+            outputStream.writeLong(response.getExpiration());
+            outputStream.writeInt(response.getContent().length);
+            outputStream.write(response.getContent());
+        } catch (final IOException e) {
+            LOG.debug("Can not write cached http response {}", file, e);
+            removeFromDisk(file);
+            return;
+        }
+        diskCache.put(file.getName(), file.length());
+        currentDiskSize = currentDiskSize + file.length();
+        trimDiskCache();
+    }
+
+    private void removeFromDisk(final File file) {
+        final Long size = diskCache.remove(file.getName());
+        if (size != null) {
+            currentDiskSize = currentDiskSize - size;
+        }
+        if (file.exists() && !file.delete()) {
+            LOG.debug("Can not delete cached http response {}", file);
+        }
+    }
+
+    private void trimDiskCache() {
+        final Iterator<Map.Entry<String, Long>> iterator = diskCache.entrySet().iterator();
+        while (currentDiskSize > maxDiskSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> entry = iterator.next();
+            final File file = new File(directory, entry.getKey());
+            if (file.exists() && !file.delete()) {
+                LOG.debug("Can not delete cached http response {}", file);
+            }
+            currentDiskSize = currentDiskSize - entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    private static void writeString(final DataOutputStream outputStream, final String value) throws IOException {
+        if (value == null) {
+            outputStream.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private static String readString(final DataInputStream inputStream) throws IOException {
+        final int length = inputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private File getFile(final String key) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16));
+                name.append(Character.forDigit(b & 0xF, 16));
+            }
+            return new File(directory, name.toString());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not supported", e);
+        }
+    }
+
+    void onHit() {
+        hitCount.incrementAndGet();
+    }
+
+    void onConditionalHit() {
+        conditionalHitCount.incrementAndGet();
+    }
+
+    void onMiss() {
+        missCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of requests that have been answered by the cache without contacting the server.
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of requests that have been answered by the cache after the server confirmed that the cached
+     * response is still valid (304 response).
+     * @return number of conditional hits
+     */
+    public long getConditionalHitCount() {
+        return conditionalHitCount.get();
+    }
+
+    /**
+     * Returns the number of requests for that the content has been transferred by the server.
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public synchronized long getSize() {
+        return currentSize;
+    }
+
+    public synchronized int getEntryCount() {
+        return memoryCache.size();
+    }
+
+    /**
+     * Returns the size in bytes of all files in the disk cache
+     * @return the size of the disk cache
+     */
+    public synchronized long getDiskSize() {
+        return currentDiskSize;
+    }
+
+    /**
+     * Returns the number of responses that are stored in the disk cache
+     * @return number of responses on disk
+     */
+    public synchronized int getDiskEntryCount() {
+        return diskCache.size();
+    }
+}
@@ -6,18 +6,30 @@ import com.canoo.platform.core.http.ByteArrayProvider;
 import com.canoo.platform.core.http.HttpExecutor;
 import com.canoo.platform.core.http.HttpResponse;
 import com.canoo.platform.core.http.HttpURLConnectionHandler;
+import com.canoo.platform.core.http.ResponseContentHandler;
 import com.canoo.platform.core.DolphinRuntimeException;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static com.canoo.dp.impl.platform.core.PlatformConstants.ACCEPT_CHARSET_HEADER;
 import static com.canoo.dp.impl.platform.core.PlatformConstants.ACCEPT_HEADER;
@@ -28,6 +40,12 @@ import static org.apiguardian.api.API.Status.INTERNAL;
 @API(since = "0.x", status = INTERNAL)
 public class HttpResponseImpl implements HttpResponse {
 
+    private static final Logger LOG = LoggerFactory.getLogger(HttpResponseImpl.class);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    static final int MAX_INITIAL_CONTENT_BUFFER_SIZE = 4 * 1024 * 1024;
+
     private final HttpURLConnection connection;
 
     private final Gson gson;
@@ -40,8 +58,14 @@ public class HttpResponseImpl implements HttpResponse {
 
     private final ClientConfiguration configuration;
 
-    public HttpResponseImpl(final HttpURLConnection connection, final Gson gson, final ByteArrayProvider dataProvider, final List<HttpURLConnectionHandler> responseHandlers, ClientConfiguration configuration) {
+    private final Executor requestExecutor;
+
+    private final HttpResponseCache cache;
+
+    public HttpResponseImpl(final HttpURLConnection connection, final Gson gson, final ByteArrayProvider dataProvider, final List<HttpURLConnectionHandler> responseHandlers, final ClientConfiguration configuration, final Executor requestExecutor, final HttpResponseCache cache) {
         this.connection = Assert.requireNonNull(connection, "connection");
+        this.requestExecutor = requestExecutor;
+        this.cache = cache;
         this.gson = Assert.requireNonNull(gson, "gson");
         this.dataProvider = Assert.requireNonNull(dataProvider, "dataProvider");
         this.configuration = configuration;
@@ -52,7 +76,7 @@ public class HttpResponseImpl implements HttpResponse {
 
     @Override
     public HttpExecutor<ByteArrayProvider> readBytes() {
-        return new HttpExecutorImpl<>(configuration, new HttpProvider<ByteArrayProvider>() {
+        return new HttpExecutorImpl<>(configuration, requestExecutor, new HttpProvider<ByteArrayProvider>() {
             @Override
             public ByteArrayProvider get() throws IOException{
                 final byte[] bytes = readBytesImpl();
@@ -70,7 +94,7 @@ public class HttpResponseImpl implements HttpResponse {
     @Override
     public HttpExecutor<String> readString() {
         connection.setRequestProperty(ACCEPT_CHARSET_HEADER, CHARSET);
-        return new HttpExecutorImpl<>(configuration, new HttpProvider<String>() {
+        return new HttpExecutorImpl<>(configuration, requestExecutor, new HttpProvider<String>() {
             @Override
             public String get() throws IOException{
                 return new String(readBytesImpl(), CHARSET);
@@ -89,34 +113,246 @@ public class HttpResponseImpl implements HttpResponse {
         connection.setRequestProperty(ACCEPT_CHARSET_HEADER, CHARSET);
         connection.setRequestProperty(ACCEPT_HEADER, JSON_MIME_TYPE);
 
-        return new HttpExecutorImpl<>(configuration, new HttpProvider<R>() {
+        return new HttpExecutorImpl<>(configuration, requestExecutor, new HttpProvider<R>() {
             @Override
             public R get() throws IOException{
-                return gson.fromJson(new String(readBytesImpl(), CHARSET), responseType);
+                return readCacheableContentImpl(new ResponseContentHandler<InputStream, R>() {
+                    @Override
+                    public R handle(final InputStream content) throws IOException {
+                        return gson.fromJson(new InputStreamReader(content, CHARSET), responseType);
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public <R> HttpExecutor<R> readStream(final ResponseContentHandler<InputStream, R> handler) {
+        Assert.requireNonNull(handler, "handler");
+        return new HttpExecutorImpl<>(configuration, requestExecutor, new HttpProvider<R>() {
+            @Override
+            public R get() throws IOException{
+                return readContentImpl(handler);
+            }
+        });
+    }
+
+    @Override
+    public <R> HttpExecutor<R> readCharacters(final ResponseContentHandler<Reader, R> handler) {
+        Assert.requireNonNull(handler, "handler");
+        connection.setRequestProperty(ACCEPT_CHARSET_HEADER, CHARSET);
+        return new HttpExecutorImpl<>(configuration, requestExecutor, new HttpProvider<R>() {
+            @Override
+            public R get() throws IOException{
+                return readContentImpl(new ResponseContentHandler<InputStream, R>() {
+                    @Override
+                    public R handle(final InputStream content) throws IOException {
+                        return handler.handle(new InputStreamReader(content, CHARSET));
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public HttpExecutor<Void> readLines(final Consumer<String> lineConsumer) {
+        Assert.requireNonNull(lineConsumer, "lineConsumer");
+        return readCharacters(new ResponseContentHandler<Reader, Void>() {
+            @Override
+            public Void handle(final Reader content) throws IOException {
+                final BufferedReader reader = new BufferedReader(content, BUFFER_SIZE);
+                String line = reader.readLine();
+                while (line != null) {
+                    lineConsumer.accept(line);
+                    line = reader.readLine();
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public <R> HttpExecutor<Void> readObjects(final Class<R> elementType, final Consumer<R> elementConsumer) {
+        Assert.requireNonNull(elementType, "elementType");
+        Assert.requireNonNull(elementConsumer, "elementConsumer");
+        connection.setRequestProperty(ACCEPT_HEADER, JSON_MIME_TYPE);
+        return readCharacters(new ResponseContentHandler<Reader, Void>() {
+            @Override
+            public Void handle(final Reader content) throws IOException {
+                final JsonReader reader = new JsonReader(content);
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    final R element = gson.fromJson(reader, elementType);
+                    elementConsumer.accept(element);
+                }
+                reader.endArray();
+                return null;
             }
         });
     }
 
     @Override
     public HttpExecutor<Void> withoutResult() {
-        return new HttpExecutorImpl<>(configuration, new HttpProvider<Void>() {
+        return new HttpExecutorImpl<>(configuration, requestExecutor, new HttpProvider<Void>() {
             @Override
             public Void get() throws IOException{
                 withoutResultImpl();
+                discardResponse();
                 return null;
             }
         });
     }
 
     private byte[] readBytesImpl() throws IOException {
+        final String key = getCacheKey();
+        if (key != null) {
+            return readCachedBytesImpl(key);
+        }
+        return readContentImpl(new ResponseContentHandler<InputStream, byte[]>() {
+            @Override
+            public byte[] handle(final InputStream content) throws IOException {
+                return readFully(content, connection.getContentLength());
+            }
+        });
+    }
+
+    private <R> R readCacheableContentImpl(final ResponseContentHandler<InputStream, R> handler) throws IOException {
+        final String key = getCacheKey();
+        if (key == null) {
+            return readContentImpl(handler);
+        }
+        return handler.handle(new ByteArrayInputStream(readCachedBytesImpl(key)));
+    }
+
+    private byte[] readCachedBytesImpl(final String key) throws IOException {
+        final long now = System.currentTimeMillis();
+        final CachedHttpResponse cached = cache.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            if(handled.getAndSet(true)) {
+                throw new DolphinRuntimeException("Http call already handled");
+            }
+            cache.onHit();
+            return cached.getContent();
+        }
+        if (cached != null) {
+            cached.addValidators(connection);
+        }
+
+        connection.setDoInput(true);
+        withoutResultImpl();
+        if (cached != null && connection.getResponseCode() == HttpStatus.SC_NOT_MODIFIED) {
+            discardResponse();
+            cache.onConditionalHit();
+            final CachedHttpResponse revalidated = cached.revalidate(connection, now);
+            if (revalidated != null) {
+                cache.put(revalidated);
+            } else {
+                cache.remove(key);
+            }
+            return cached.getContent();
+        }
+
+        final InputStream is = openInputStream();
+        final byte[] content;
+        try {
+            content = readFully(is, connection.getContentLength());
+        } finally {
+            is.close();
+        }
+        cache.onMiss();
+        final CachedHttpResponse response = CachedHttpResponse.create(key, connection, content, now);
+        if (response != null) {
+            cache.put(response);
+        } else {
+            cache.remove(key);
+        }
+        return content;
+    }
+
+    private String getCacheKey() {
+        if (cache == null) {
+            return null;
+        }
+        final byte[] data = dataProvider.get();
+        if (data != null && data.length > 0) {
+            return null;
+        }
+        return HttpResponseCache.getKey(connection);
+    }
+
+    private <R> R readContentImpl(final ResponseContentHandler<InputStream, R> handler) throws IOException {
         connection.setDoInput(true);
         withoutResultImpl();
-        final InputStream is = connection.getInputStream();
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        int read = is.read();
+        final InputStream is = openInputStream();
+        try {
+            return handler.handle(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    private InputStream openInputStream() throws IOException {
+        try {
+            return connection.getInputStream();
+        } catch (final IOException e) {
+            // The error stream must be consumed. Otherwise the connection can not be reused.
+            discard(connection.getErrorStream());
+            throw e;
+        }
+    }
+
+    private void discardResponse() {
+        try {
+            discard(connection.getInputStream());
+        } catch (final IOException e) {
+            discard(connection.getErrorStream());
+        }
+    }
+
+    private void discard(final InputStream is) {
+        if (is == null) {
+            return;
+        }
+        try {
+            try {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                while (is.read(buffer) != -1) {
+                    // ignore content
+                }
+            } finally {
+                is.close();
+            }
+        } catch (final IOException e) {
+            LOG.debug("Can not discard content of HTTP response", e);
+        }
+    }
+
+    static byte[] readFully(final InputStream is, final int contentLength) throws IOException {
+        if (contentLength == 0) {
+            return new byte[0];
+        }
+        if (contentLength > 0) {
+            // the Content-Length header is not trusted for the initial allocation, the buffer grows while data arrives
+            byte[] content = new byte[Math.min(contentLength, MAX_INITIAL_CONTENT_BUFFER_SIZE)];
+            int offset = 0;
+            while (offset < contentLength) {
+                if (offset == content.length) {
+                    content = Arrays.copyOf(content, (int) Math.min(contentLength, 2L * content.length));
+                }
+                final int read = is.read(content, offset, content.length - offset);
+                if (read == -1) {
+                    throw new EOFException("Expected " + contentLength + " bytes but received " + offset);
+                }
+                offset = offset + read;
+            }
+            return content;
+        }
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(BUFFER_SIZE);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read = is.read(buffer);
         while (read != -1) {
-            byteArrayOutputStream.write(read);
-            read = is.read();
+            byteArrayOutputStream.write(buffer, 0, read);
+            read = is.read(buffer);
         }
         return byteArrayOutputStream.toByteArray();
     }
@@ -130,8 +366,11 @@ public class HttpResponseImpl implements HttpResponse {
         if (data != null && data.length > 0) {
             connection.setDoOutput(true);
             final OutputStream w = connection.getOutputStream();
-            w.write(data);
-            w.close();
+            try {
+                w.write(data);
+            } finally {
+                w.close();
+            }
         }
 
         int responseCode = connection.getResponseCode();
@@ -26,63 +26,173 @@ import java.net.CookieStore;
 import java.net.HttpCookie;
 import java.net.HttpURLConnection;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
+/**
+ * Handles the cookies of all http requests of the client. Since the cookies normally only change when the server sends
+ * a new cookie the cookie header of a request is precomputed per server and path and reused until a new cookie is
+ * received, a cookie expires or {@link #clearCookieHeaderCache()} is called (this must be done if the cookie store is
+ * changed by other code). Only the headers of the most recently used paths of a server are kept.
+ */
 @API(since = "0.x", status = INTERNAL)
 public class HttpClientCookieHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(HttpClientCookieHandler.class);
 
+    static final int MAX_CACHED_PATHS_PER_SERVER = 128;
+
     private final CookieStore cookieStore;
 
+    private final ConcurrentMap<String, PathCookieHeaders> cookieHeaders = new ConcurrentHashMap<>();
+
     public HttpClientCookieHandler(final CookieStore cookieStore) {
         this.cookieStore = Assert.requireNonNull(cookieStore, "cookieStore");
     }
 
     public void updateCookiesFromResponse(final HttpURLConnection conn) throws URISyntaxException {
         LOG.debug("adding cookies from response to cookie store");
-        Map<String, List<String>> headerFields = conn.getHeaderFields();
-        List<String> cookiesHeader = headerFields.get(PlatformConstants.SET_COOKIE_HEADER);
-        if (cookiesHeader != null) {
-            LOG.debug("found '{}' header field", PlatformConstants.SET_COOKIE_HEADER);
-            for (String cookie : cookiesHeader) {
-                if (cookie == null || cookie.isEmpty()) {
-                    continue;
-                }
-                LOG.debug("will parse '{}' header content '{}'", cookie);
-                List<HttpCookie> cookies = new ArrayList<>();
-                try {
-                    cookies.addAll(HttpCookie.parse(cookie));
-                } catch (Exception e) {
-                    throw new DolphinRuntimeException("Can not convert '" + PlatformConstants.SET_COOKIE_HEADER + "' response header field to http cookies. Bad content: " + cookie, e);
-                }
-                LOG.debug("Found {} http cookies in header", cookies.size());
-                for (HttpCookie httpCookie : cookies) {
-                    LOG.trace("Found Cookie '{}' for Domain '{}' at Ports '{}' with Path '{}", httpCookie.getValue(), httpCookie.getDomain(), httpCookie.getPortlist(), httpCookie.getPath());
-                    cookieStore.add(conn.getURL().toURI(), httpCookie);
-                }
-
+        // iterating over the header fields avoids the creation of the header map for each response
+        int index = 1;
+        String headerValue = conn.getHeaderField(index);
+        while (headerValue != null) {
+            if (PlatformConstants.SET_COOKIE_HEADER.equalsIgnoreCase(conn.getHeaderFieldKey(index))) {
+                LOG.debug("found '{}' header field", PlatformConstants.SET_COOKIE_HEADER);
+                updateCookies(conn, headerValue);
             }
+            index++;
+            headerValue = conn.getHeaderField(index);
+        }
+    }
+
+    private void updateCookies(final HttpURLConnection conn, final String cookie) throws URISyntaxException {
+        if (cookie.isEmpty()) {
+            return;
+        }
+        LOG.debug("will parse '{}' header content '{}'", PlatformConstants.SET_COOKIE_HEADER, cookie);
+        List<HttpCookie> cookies = new ArrayList<>();
+        try {
+            cookies.addAll(HttpCookie.parse(cookie));
+        } catch (Exception e) {
+            throw new DolphinRuntimeException("Can not convert '" + PlatformConstants.SET_COOKIE_HEADER + "' response header field to http cookies. Bad content: " + cookie, e);
+        }
+        LOG.debug("Found {} http cookies in header", cookies.size());
+        for (HttpCookie httpCookie : cookies) {
+            LOG.trace("Found Cookie '{}' for Domain '{}' at Ports '{}' with Path '{}", httpCookie.getValue(), httpCookie.getDomain(), httpCookie.getPortlist(), httpCookie.getPath());
+            cookieStore.add(conn.getURL().toURI(), httpCookie);
         }
+        clearCookieHeaderCache();
     }
 
     public void setRequestCookies(final HttpURLConnection conn) throws URISyntaxException {
         LOG.debug("adding cookies from cookie store to request");
-        if (cookieStore.getCookies().size() > 0) {
-            String cookieValue = "";
-            for (HttpCookie cookie : cookieStore.get(conn.getURL().toURI())) {
-                LOG.trace("Cookie '{}' is for Domain '{}' at Ports '{}' with Path '{}", cookie.getValue(), cookie.getDomain(), cookie.getPortlist(), cookie.getPath());
-                cookieValue = cookieValue + cookie + ";";
+        final URL url = conn.getURL();
+        final String server = url.getAuthority() != null ? url.getAuthority() : "";
+        PathCookieHeaders headersForServer = cookieHeaders.get(server);
+        if (headersForServer == null) {
+            headersForServer = new PathCookieHeaders();
+            final PathCookieHeaders existing = cookieHeaders.putIfAbsent(server, headersForServer);
+            if (existing != null) {
+                headersForServer = existing;
             }
-            if (!cookieValue.isEmpty()) {
-                cookieValue = cookieValue.substring(0, cookieValue.length());
-                LOG.debug("Adding '{}' header to request. Content: {}", PlatformConstants.SET_COOKIE_HEADER, cookieValue);
-                conn.setRequestProperty(PlatformConstants.COOKIE_HEADER, cookieValue);
+        }
+        CookieHeader cookieHeader = headersForServer.get(url.getPath());
+        if (cookieHeader == null || !cookieHeader.isValidFor(url)) {
+            cookieHeader = createCookieHeader(url);
+            headersForServer.put(url.getPath(), cookieHeader);
+        }
+        if (cookieHeader.getValue() != null) {
+            LOG.debug("Adding '{}' header to request. Content: {}", PlatformConstants.COOKIE_HEADER, cookieHeader.getValue());
+            conn.setRequestProperty(PlatformConstants.COOKIE_HEADER, cookieHeader.getValue());
+        }
+    }
+
+    /**
+     * Removes all precomputed cookie headers. Must be called if the cookie store has been changed by other code.
+     */
+    public void clearCookieHeaderCache() {
+        cookieHeaders.clear();
+    }
+
+    int getCachedCookieHeaderCount() {
+        int count = 0;
+        for (final PathCookieHeaders headers : cookieHeaders.values()) {
+            count = count + headers.size();
+        }
+        return count;
+    }
+
+    private CookieHeader createCookieHeader(final URL url) throws URISyntaxException {
+        final List<HttpCookie> cookies = cookieStore.get(url.toURI());
+        final StringBuilder cookieValue = new StringBuilder();
+        for (HttpCookie cookie : cookies) {
+            LOG.trace("Cookie '{}' is for Domain '{}' at Ports '{}' with Path '{}", cookie.getValue(), cookie.getDomain(), cookie.getPortlist(), cookie.getPath());
+            cookieValue.append(cookie).append(';');
+        }
+        return new CookieHeader(url.getProtocol(), cookieValue.length() > 0 ? cookieValue.toString() : null, cookies);
+    }
+
+    /**
+     * The precomputed cookie headers of a server by path. Since an application can use an unlimited number of paths
+     * only the headers of the most recently used paths are kept.
+     */
+    private static final class PathCookieHeaders {
+
+        private final Map<String, CookieHeader> headers = new LinkedHashMap<String, CookieHeader>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CookieHeader> eldest) {
+                return size() > MAX_CACHED_PATHS_PER_SERVER;
+            }
+        };
+
+        private synchronized CookieHeader get(final String path) {
+            return headers.get(path);
+        }
+
+        private synchronized void put(final String path, final CookieHeader header) {
+            headers.put(path, header);
+        }
+
+        private synchronized int size() {
+            return headers.size();
+        }
+    }
+
+    private static final class CookieHeader {
+
+        private final String protocol;
+
+        private final String value;
+
+        private final List<HttpCookie> cookies;
+
+        private CookieHeader(final String protocol, final String value, final List<HttpCookie> cookies) {
+            this.protocol = protocol;
+            this.value = value;
+            this.cookies = cookies;
+        }
+
+        private String getValue() {
+            return value;
+        }
+
+        private boolean isValidFor(final URL url) {
+            if (!protocol.equals(url.getProtocol())) {
+                return false;
+            }
+            for (int i = 0; i < cookies.size(); i++) {
+                if (cookies.get(i).hasExpired()) {
+                    return false;
+                }
             }
+            return true;
         }
     }
 }
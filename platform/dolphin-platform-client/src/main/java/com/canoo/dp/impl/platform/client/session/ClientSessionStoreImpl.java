@@ -8,8 +8,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -22,7 +22,7 @@ public class ClientSessionStoreImpl implements ClientSessionStore{
 
     private final Lock mapLock = new ReentrantLock();
 
-    private final Map<String, String> domainToId = new HashMap<>();
+    private final Map<String, String> domainToId = new ConcurrentHashMap<>();
 
     private UrlToAppDomainConverter converter = new SimpleUrlToAppDomainConverter();
 
@@ -35,14 +35,10 @@ public class ClientSessionStoreImpl implements ClientSessionStore{
         }
         LOG.debug("searching for client id application domain: {}", applicationDomain);
 
-        mapLock.lock();
-        try {
-            final String clientId = domainToId.get(applicationDomain);
-            LOG.debug("found client id '{}' for application domain {}", clientId, applicationDomain);
-            return clientId;
-        } finally {
-            mapLock.unlock();
-        }
+        // reading is done without the lock since the id is needed for each request
+        final String clientId = domainToId.get(applicationDomain);
+        LOG.debug("found client id '{}' for application domain {}", clientId, applicationDomain);
+        return clientId;
     }
 
     public void setClientIdentifierForUrl(final URL url, final String clientId) {
@@ -51,6 +47,10 @@ public class ClientSessionStoreImpl implements ClientSessionStore{
         if(applicationDomain == null) {
             throw new IllegalStateException("Can not define application domain for url " + url);
         }
+        if (clientId != null && clientId.equals(domainToId.get(applicationDomain))) {
+            // the server sends the id with each response. Normally nothing changes.
+            return;
+        }
         LOG.debug("updating client id for application domain: {}", applicationDomain);
 
         mapLock.lock();
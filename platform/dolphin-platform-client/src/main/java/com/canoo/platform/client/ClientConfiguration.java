@@ -26,6 +26,22 @@ public interface ClientConfiguration extends PlatformConfiguration {
 
     String CONNECTION_FACTORY = "platform.http.connectionFactory";
 
+    String HTTP_CONNECT_TIMEOUT = "platform.http.connectTimeout";
+
+    String HTTP_READ_TIMEOUT = "platform.http.readTimeout";
+
+    String HTTP_KEEP_ALIVE = "platform.http.keepAlive";
+
+    String HTTP_MAX_CONNECTIONS = "platform.http.maxConnections";
+
+    String HTTP_MAX_PARALLEL_REQUESTS = "platform.http.maxParallelRequests";
+
+    String HTTP_CACHE_SIZE = "platform.http.cache.size";
+
+    String HTTP_CACHE_DIRECTORY = "platform.http.cache.directory";
+
+    String HTTP_CACHE_DISK_SIZE = "platform.http.cache.diskSize";
+
     Executor getUiExecutor();
 
     ExecutorService getBackgroundExecutor();
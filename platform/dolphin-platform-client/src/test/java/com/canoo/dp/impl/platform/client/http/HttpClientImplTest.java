@@ -0,0 +1,297 @@
+package com.canoo.dp.impl.platform.client.http;
+
+import com.canoo.dp.impl.platform.client.DefaultClientConfiguration;
+import com.canoo.platform.client.ClientConfiguration;
+import com.canoo.platform.core.http.ByteArrayProvider;
+import com.canoo.platform.core.http.HttpURLConnectionFactory;
+import com.canoo.platform.core.http.ResponseContentHandler;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class HttpClientImplTest {
+
+    private static final int CONTENT_SIZE = 100_000;
+
+    private HttpServer server;
+
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+
+    private byte[] content;
+
+    private ExecutorService serverExecutor;
+
+    private CountDownLatch slowResponseLatch;
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        content = new byte[CONTENT_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        clientPorts.clear();
+        serverExecutor = Executors.newCachedThreadPool();
+        slowResponseLatch = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                try {
+                    slowResponseLatch.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        });
+        server.createContext("/fixed", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                exchange.sendResponseHeaders(200, content.length);
+                final OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(content);
+                outputStream.close();
+            }
+        });
+        server.createContext("/chunked", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, 0);
+                final OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(content);
+                outputStream.close();
+            }
+        });
+        server.createContext("/lines", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, 0);
+                final OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write("first\nsecond\n\nthird".getBytes("UTF-8"));
+                outputStream.close();
+            }
+        });
+        server.createContext("/objects", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, 0);
+                final OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write("[{\"name\":\"a\",\"value\":1},{\"name\":\"b\",\"value\":2}]".getBytes("UTF-8"));
+                outputStream.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterMethod
+    public void stopServer() {
+        slowResponseLatch.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testReadBytesWithContentLength() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+
+        final byte[] result = client.request(url("/fixed")).withoutContent().readBytes().execute().get().get();
+
+        Assert.assertEquals(result, content);
+    }
+
+    @Test
+    public void testReadBytesWithChunkedContent() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+
+        final byte[] result = client.request(url("/chunked")).withoutContent().readBytes().execute().get().get();
+
+        Assert.assertEquals(result, content);
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+
+        client.request(url("/fixed")).withoutContent().readBytes().execute().get();
+        client.request(url("/fixed")).withoutContent().withoutResult().execute().get();
+        client.request(url("/fixed")).withoutContent().readBytes().execute().get();
+
+        Assert.assertEquals(clientPorts.size(), 3);
+        Assert.assertEquals(clientPorts.get(1), clientPorts.get(0));
+        Assert.assertEquals(clientPorts.get(2), clientPorts.get(0));
+    }
+
+    @Test
+    public void testTimeoutsFromProperties() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty(ClientConfiguration.HTTP_CONNECT_TIMEOUT, "1000");
+        properties.setProperty(ClientConfiguration.HTTP_READ_TIMEOUT, "2000");
+        final List<HttpURLConnection> connections = new CopyOnWriteArrayList<>();
+        final HttpURLConnectionFactory factory = new HttpURLConnectionFactory() {
+            @Override
+            public HttpURLConnection create(final URL url) throws IOException {
+                final HttpURLConnection connection = new DefaultHttpURLConnectionFactory().create(url);
+                connections.add(connection);
+                return connection;
+            }
+        };
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), factory, createConfiguration(properties));
+
+        client.request(url("/fixed"));
+
+        Assert.assertEquals(connections.size(), 1);
+        Assert.assertEquals(connections.get(0).getConnectTimeout(), 1000);
+        Assert.assertEquals(connections.get(0).getReadTimeout(), 2000);
+    }
+
+    @Test
+    public void testReadStream() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+
+        final Long sum = client.request(url("/chunked")).withoutContent().readStream(new ResponseContentHandler<InputStream, Long>() {
+            @Override
+            public Long handle(final InputStream content) throws IOException {
+                long sum = 0;
+                int read = content.read();
+                while (read != -1) {
+                    sum = sum + read;
+                    read = content.read();
+                }
+                return sum;
+            }
+        }).execute().get();
+
+        long expected = 0;
+        for (byte b : content) {
+            expected = expected + (b & 0xFF);
+        }
+        Assert.assertEquals(sum.longValue(), expected);
+    }
+
+    @Test
+    public void testReadLines() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+        final List<String> lines = new CopyOnWriteArrayList<>();
+
+        client.request(url("/lines")).withoutContent().readLines(new Consumer<String>() {
+            @Override
+            public void accept(final String line) {
+                lines.add(line);
+            }
+        }).execute().get();
+
+        Assert.assertEquals(lines, Arrays.asList("first", "second", "", "third"));
+    }
+
+    @Test
+    public void testReadObjects() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+        final List<TestElement> elements = new CopyOnWriteArrayList<>();
+
+        client.request(url("/objects")).withoutContent().readObjects(TestElement.class, new Consumer<TestElement>() {
+            @Override
+            public void accept(final TestElement element) {
+                elements.add(element);
+            }
+        }).execute().get();
+
+        Assert.assertEquals(elements.size(), 2);
+        Assert.assertEquals(elements.get(0).name, "a");
+        Assert.assertEquals(elements.get(0).value, 1);
+        Assert.assertEquals(elements.get(1).name, "b");
+        Assert.assertEquals(elements.get(1).value, 2);
+    }
+
+    @Test
+    public void testHighPriorityRequestIsNotQueued() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty(ClientConfiguration.HTTP_MAX_PARALLEL_REQUESTS, "1");
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(properties));
+
+        final CompletableFuture<Void> slowResult = client.request(url("/slow")).withoutContent().withoutResult().execute();
+        final CompletableFuture<ByteArrayProvider> queuedResult = client.request(url("/fixed")).withoutContent().readBytes().execute();
+        final CompletableFuture<ByteArrayProvider> highPriorityResult = client.request(url("/fixed")).withHighPriority().withoutContent().readBytes().execute();
+
+        Assert.assertEquals(highPriorityResult.get(5, TimeUnit.SECONDS).get(), content);
+        Assert.assertFalse(slowResult.isDone());
+        Assert.assertFalse(queuedResult.isDone());
+
+        slowResponseLatch.countDown();
+        Assert.assertEquals(queuedResult.get(5, TimeUnit.SECONDS).get(), content);
+        slowResult.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testReadFully() throws Exception {
+        Assert.assertEquals(HttpResponseImpl.readFully(new ByteArrayInputStream(content), content.length), content);
+        Assert.assertEquals(HttpResponseImpl.readFully(new ByteArrayInputStream(content), -1), content);
+        Assert.assertEquals(HttpResponseImpl.readFully(new ByteArrayInputStream(content), 0).length, 0);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testReadFullyWithMissingContent() throws Exception {
+        HttpResponseImpl.readFully(new ByteArrayInputStream(content), content.length + 1);
+    }
+
+    @Test
+    public void testReadFullyWithContentLargerThanInitialBuffer() throws Exception {
+        final byte[] largeContent = new byte[HttpResponseImpl.MAX_INITIAL_CONTENT_BUFFER_SIZE * 2 + 17];
+        new Random().nextBytes(largeContent);
+        Assert.assertEquals(HttpResponseImpl.readFully(new ByteArrayInputStream(largeContent), largeContent.length), largeContent);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testReadFullyWithHugeContentLength() throws Exception {
+        HttpResponseImpl.readFully(new ByteArrayInputStream(content), Integer.MAX_VALUE);
+    }
+
+    private static class TestElement {
+
+        private String name;
+
+        private int value;
+    }
+
+    private String url(final String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private ClientConfiguration createConfiguration(final Properties properties) {
+        final DefaultClientConfiguration configuration = new DefaultClientConfiguration(properties);
+        configuration.setUiExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        return configuration;
+    }
+}
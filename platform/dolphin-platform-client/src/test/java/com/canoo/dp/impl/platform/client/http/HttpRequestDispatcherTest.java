@@ -0,0 +1,119 @@
+package com.canoo.dp.impl.platform.client.http;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HttpRequestDispatcherTest {
+
+    @Test
+    public void testMaxParallelRequests() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, 2);
+            final AtomicInteger running = new AtomicInteger(0);
+            final AtomicInteger maxRunning = new AtomicInteger(0);
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch finished = new CountDownLatch(10);
+
+            for (int i = 0; i < 10; i++) {
+                dispatcher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        final int current = running.incrementAndGet();
+                        maxRunning.set(Math.max(maxRunning.get(), current));
+                        try {
+                            release.await();
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        } finally {
+                            running.decrementAndGet();
+                            finished.countDown();
+                        }
+                    }
+                });
+            }
+
+            Thread.sleep(100);
+            Assert.assertEquals(running.get(), 2);
+            Assert.assertEquals(dispatcher.getPendingRequestCount(), 8);
+
+            release.countDown();
+            Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(maxRunning.get(), 2);
+            Assert.assertEquals(dispatcher.getPendingRequestCount(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailingRequestDoesNotStopQueue() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r);
+                thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(final Thread t, final Throwable e) {
+                        // expected
+                    }
+                });
+                return thread;
+            }
+        });
+        try {
+            final HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, 1);
+            final CountDownLatch finished = new CountDownLatch(3);
+
+            for (int i = 0; i < 3; i++) {
+                dispatcher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        finished.countDown();
+                        throw new RuntimeException("Error in request");
+                    }
+                });
+            }
+
+            Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoLimit() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, 0);
+            final CountDownLatch started = new CountDownLatch(5);
+            final CountDownLatch release = new CountDownLatch(1);
+
+            for (int i = 0; i < 5; i++) {
+                dispatcher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.canoo.dp.impl.platform.client.http;
+
+import com.canoo.dp.impl.platform.client.DefaultClientConfiguration;
+import com.canoo.platform.client.ClientConfiguration;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HttpResponseCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+
+    private final AtomicInteger transferCount = new AtomicInteger(0);
+
+    private final AtomicInteger notModifiedCount = new AtomicInteger(0);
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        transferCount.set(0);
+        notModifiedCount.set(0);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/etag", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedCount.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                send(exchange, "etag content");
+            }
+        });
+        server.createContext("/maxage", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+                send(exchange, "max-age content");
+            }
+        });
+        server.createContext("/nostore", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Cache-Control", "max-age=60, no-store");
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                send(exchange, "no-store content");
+            }
+        });
+        server.start();
+    }
+
+    private void send(final HttpExchange exchange, final String content) throws IOException {
+        transferCount.incrementAndGet();
+        final byte[] bytes = content.getBytes("UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        final OutputStream outputStream = exchange.getResponseBody();
+        outputStream.write(bytes);
+        outputStream.close();
+    }
+
+    @AfterMethod
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testNoCacheByDefault() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(new Properties()));
+        Assert.assertNull(client.getResponseCache());
+
+        readString(client, "/maxage");
+        readString(client, "/maxage");
+
+        Assert.assertEquals(transferCount.get(), 2);
+    }
+
+    @Test
+    public void testFreshResponseIsServedFromCache() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(createCacheProperties()));
+
+        Assert.assertEquals(readString(client, "/maxage"), "max-age content");
+        Assert.assertEquals(readString(client, "/maxage"), "max-age content");
+        Assert.assertEquals(readString(client, "/maxage"), "max-age content");
+
+        Assert.assertEquals(transferCount.get(), 1);
+        Assert.assertEquals(client.getResponseCache().getMissCount(), 1);
+        Assert.assertEquals(client.getResponseCache().getHitCount(), 2);
+    }
+
+    @Test
+    public void testConditionalRequest() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(createCacheProperties()));
+
+        Assert.assertEquals(readString(client, "/etag"), "etag content");
+        Assert.assertEquals(readString(client, "/etag"), "etag content");
+        Assert.assertEquals(readString(client, "/etag"), "etag content");
+
+        Assert.assertEquals(transferCount.get(), 1);
+        Assert.assertEquals(notModifiedCount.get(), 2);
+        Assert.assertEquals(client.getResponseCache().getMissCount(), 1);
+        Assert.assertEquals(client.getResponseCache().getConditionalHitCount(), 2);
+    }
+
+    @Test
+    public void testNoStore() throws Exception {
+        final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(createCacheProperties()));
+
+        readString(client, "/nostore");
+        readString(client, "/nostore");
+
+        Assert.assertEquals(transferCount.get(), 2);
+        Assert.assertEquals(client.getResponseCache().getEntryCount(), 0);
+    }
+
+    @Test
+    public void testDiskCache() throws Exception {
+        final File directory = Files.createTempDirectory("dolphin-http-cache").toFile();
+        try {
+            final Properties properties = createCacheProperties();
+            properties.setProperty(ClientConfiguration.HTTP_CACHE_DIRECTORY, directory.getAbsolutePath());
+
+            final HttpClientImpl client = new HttpClientImpl(new Gson(), createConfiguration(properties));
+            readString(client, "/maxage");
+
+            final HttpClientImpl otherClient = new HttpClientImpl(new Gson(), createConfiguration(properties));
+            Assert.assertEquals(readString(otherClient, "/maxage"), "max-age content");
+
+            Assert.assertEquals(transferCount.get(), 1);
+            Assert.assertEquals(otherClient.getResponseCache().getHitCount(), 1);
+        } finally {
+            new HttpResponseCache(1, directory).clear();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testMemoryCacheIsLimited() throws Exception {
+        final HttpResponseCache cache = new HttpResponseCache(10, null);
+
+        cache.put(new CachedHttpResponse("a", new byte[4], null, null, Long.MAX_VALUE));
+        cache.put(new CachedHttpResponse("b", new byte[4], null, null, Long.MAX_VALUE));
+        cache.get("a");
+        cache.put(new CachedHttpResponse("c", new byte[4], null, null, Long.MAX_VALUE));
+
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("c"));
+        Assert.assertEquals(cache.getSize(), 8);
+
+        cache.put(new CachedHttpResponse("d", new byte[11], null, null, Long.MAX_VALUE));
+        Assert.assertNull(cache.get("d"));
+    }
+
+    @Test
+    public void testDiskCacheStoresValidators() throws Exception {
+        final File directory = Files.createTempDirectory("dolphin-http-cache").toFile();
+        try {
+            new HttpResponseCache(100, directory).put(new CachedHttpResponse("a", new byte[]{1, 2, 3}, ETAG, "Mon, 01 Jan 2018 00:00:00 GMT", 42));
+
+            final CachedHttpResponse response = new HttpResponseCache(100, directory).get("a");
+
+            Assert.assertNotNull(response);
+            Assert.assertEquals(response.getKey(), "a");
+            Assert.assertEquals(response.getContent(), new byte[]{1, 2, 3});
+            Assert.assertEquals(response.getETag(), ETAG);
+            Assert.assertEquals(response.getLastModified(), "Mon, 01 Jan 2018 00:00:00 GMT");
+            Assert.assertEquals(response.getExpiration(), 42);
+            Assert.assertNull(new HttpResponseCache(100, directory).get("b"));
+        } finally {
+            new HttpResponseCache(1, directory).clear();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testDiskCacheIsLimited() throws Exception {
+        final File directory = Files.createTempDirectory("dolphin-http-cache").toFile();
+        try {
+            final HttpResponseCache cache = new HttpResponseCache(1, directory, 300);
+
+            cache.put(new CachedHttpResponse("a", new byte[100], null, null, Long.MAX_VALUE));
+            cache.put(new CachedHttpResponse("b", new byte[100], null, null, Long.MAX_VALUE));
+            Assert.assertNotNull(cache.get("a"));
+            cache.put(new CachedHttpResponse("c", new byte[100], null, null, Long.MAX_VALUE));
+
+            Assert.assertEquals(cache.getDiskEntryCount(), 2);
+            Assert.assertTrue(cache.getDiskSize() <= 300);
+            Assert.assertNotNull(cache.get("a"));
+            Assert.assertNull(cache.get("b"));
+            Assert.assertNotNull(cache.get("c"));
+            Assert.assertEquals(directory.listFiles().length, 2);
+
+            cache.put(new CachedHttpResponse("d", new byte[301], null, null, Long.MAX_VALUE));
+            Assert.assertNull(cache.get("d"));
+            Assert.assertEquals(cache.getDiskEntryCount(), 2);
+
+            final HttpResponseCache otherCache = new HttpResponseCache(1, directory, 150);
+            Assert.assertEquals(otherCache.getDiskEntryCount(), 1);
+            Assert.assertTrue(otherCache.getDiskSize() <= 150);
+        } finally {
+            new HttpResponseCache(1, directory).clear();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testCorruptDiskEntryIsRemoved() throws Exception {
+        final File directory = Files.createTempDirectory("dolphin-http-cache").toFile();
+        try {
+            final HttpResponseCache cache = new HttpResponseCache(1, directory, 1000);
+            cache.put(new CachedHttpResponse("a", new byte[10], null, null, Long.MAX_VALUE));
+            final File file = directory.listFiles()[0];
+            Files.write(file.toPath(), new byte[]{0, 0, 0, 1, 0, 0});
+
+            final HttpResponseCache otherCache = new HttpResponseCache(1, directory, 1000);
+
+            Assert.assertNull(otherCache.get("a"));
+            Assert.assertFalse(file.exists());
+            Assert.assertEquals(otherCache.getDiskEntryCount(), 0);
+        } finally {
+            new HttpResponseCache(1, directory).clear();
+            directory.delete();
+        }
+    }
+
+    private String readString(final HttpClientImpl client, final String path) throws Exception {
+        return client.request("http://localhost:" + server.getAddress().getPort() + path).withoutContent().readString().execute().get();
+    }
+
+    private Properties createCacheProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty(ClientConfiguration.HTTP_CACHE_SIZE, "1000000");
+        return properties;
+    }
+
+    private ClientConfiguration createConfiguration(final Properties properties) {
+        final DefaultClientConfiguration configuration = new DefaultClientConfiguration(properties);
+        configuration.setUiExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        return configuration;
+    }
+}
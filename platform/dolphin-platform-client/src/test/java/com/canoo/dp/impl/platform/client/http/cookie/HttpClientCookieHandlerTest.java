@@ -0,0 +1,144 @@
+package com.canoo.dp.impl.platform.client.http.cookie;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+
+public class HttpClientCookieHandlerTest {
+
+    @Test
+    public void testNoCookieHeaderForEmptyStore() throws Exception {
+        final HttpClientCookieHandler handler = new HttpClientCookieHandler(new CookieManager().getCookieStore());
+        final HttpURLConnection connection = createConnection("http://localhost:8080/app");
+
+        handler.setRequestCookies(connection);
+
+        Assert.assertNull(connection.getRequestProperty("Cookie"));
+    }
+
+    @Test
+    public void testCookieHeaderIsReused() throws Exception {
+        final CookieStore cookieStore = new CookieManager().getCookieStore();
+        cookieStore.add(new URI("http://localhost:8080/app"), new HttpCookie("session", "4711"));
+        final HttpClientCookieHandler handler = new HttpClientCookieHandler(cookieStore);
+
+        final HttpURLConnection firstConnection = createConnection("http://localhost:8080/app");
+        handler.setRequestCookies(firstConnection);
+        final HttpURLConnection secondConnection = createConnection("http://localhost:8080/app");
+        handler.setRequestCookies(secondConnection);
+
+        Assert.assertEquals(firstConnection.getRequestProperty("Cookie"), "session=\"4711\";");
+        Assert.assertSame(secondConnection.getRequestProperty("Cookie"), firstConnection.getRequestProperty("Cookie"));
+    }
+
+    @Test
+    public void testCookieHeaderIsUpdatedAfterClear() throws Exception {
+        final CookieStore cookieStore = new CookieManager().getCookieStore();
+        final HttpClientCookieHandler handler = new HttpClientCookieHandler(cookieStore);
+        final HttpURLConnection firstConnection = createConnection("http://localhost:8080/app");
+        handler.setRequestCookies(firstConnection);
+        Assert.assertNull(firstConnection.getRequestProperty("Cookie"));
+
+        cookieStore.add(new URI("http://localhost:8080/app"), new HttpCookie("session", "4711"));
+        handler.clearCookieHeaderCache();
+
+        final HttpURLConnection secondConnection = createConnection("http://localhost:8080/app");
+        handler.setRequestCookies(secondConnection);
+        Assert.assertEquals(secondConnection.getRequestProperty("Cookie"), "session=\"4711\";");
+    }
+
+    @Test
+    public void testCookiesFromResponse() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/app", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Set-Cookie", "session=4711");
+                exchange.getResponseHeaders().add("Set-Cookie", "user=dolphin");
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+        try {
+            final String url = "http://localhost:" + server.getAddress().getPort() + "/app";
+            final CookieStore cookieStore = new CookieManager().getCookieStore();
+            final HttpClientCookieHandler handler = new HttpClientCookieHandler(cookieStore);
+
+            final HttpURLConnection firstConnection = createConnection(url);
+            handler.setRequestCookies(firstConnection);
+            Assert.assertNull(firstConnection.getRequestProperty("Cookie"));
+            Assert.assertEquals(firstConnection.getResponseCode(), 200);
+            handler.updateCookiesFromResponse(firstConnection);
+
+            Assert.assertEquals(cookieStore.getCookies().size(), 2);
+            final HttpURLConnection secondConnection = createConnection(url);
+            handler.setRequestCookies(secondConnection);
+            final String cookieHeader = secondConnection.getRequestProperty("Cookie");
+            Assert.assertTrue(cookieHeader.contains("session=4711"));
+            Assert.assertTrue(cookieHeader.contains("user=dolphin"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testCookieHeaderCacheIsLimited() throws Exception {
+        final CookieStore cookieStore = new CookieManager().getCookieStore();
+        cookieStore.add(new URI("http://localhost:8080/app"), new HttpCookie("session", "4711"));
+        final HttpClientCookieHandler handler = new HttpClientCookieHandler(cookieStore);
+
+        for (int i = 0; i < 10 * HttpClientCookieHandler.MAX_CACHED_PATHS_PER_SERVER; i++) {
+            handler.setRequestCookies(createConnection("http://localhost:8080/app/resource/" + i));
+        }
+
+        Assert.assertEquals(handler.getCachedCookieHeaderCount(), HttpClientCookieHandler.MAX_CACHED_PATHS_PER_SERVER);
+        final HttpURLConnection connection = createConnection("http://localhost:8080/app/resource/0");
+        handler.setRequestCookies(connection);
+        Assert.assertEquals(connection.getRequestProperty("Cookie"), "session=\"4711\";");
+    }
+
+    @Test
+    public void testCachedCookieHeaderIsFaster() throws Exception {
+        final CookieStore cookieStore = new CookieManager().getCookieStore();
+        for (int i = 0; i < 10; i++) {
+            cookieStore.add(new URI("http://localhost:8080/app"), new HttpCookie("cookie" + i, "value" + i));
+        }
+        final HttpClientCookieHandler handler = new HttpClientCookieHandler(cookieStore);
+        final HttpURLConnection connection = createConnection("http://localhost:8080/app");
+
+        // warm up both code paths before measuring
+        measureSetRequestCookies(handler, connection, 20_000, false);
+        measureSetRequestCookies(handler, connection, 20_000, true);
+        final long uncachedTime = measureSetRequestCookies(handler, connection, 20_000, false);
+        final long cachedTime = measureSetRequestCookies(handler, connection, 20_000, true);
+
+        Assert.assertTrue(cachedTime < uncachedTime, "cached: " + cachedTime + " ns, uncached: " + uncachedTime + " ns");
+    }
+
+    private long measureSetRequestCookies(final HttpClientCookieHandler handler, final HttpURLConnection connection, final int count, final boolean cached) throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (!cached) {
+                handler.clearCookieHeaderCache();
+            }
+            handler.setRequestCookies(connection);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private HttpURLConnection createConnection(final String url) throws IOException {
+        return (HttpURLConnection) new URL(url).openConnection();
+    }
+}
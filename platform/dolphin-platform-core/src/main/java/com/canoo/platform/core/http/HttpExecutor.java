@@ -2,6 +2,7 @@ package com.canoo.platform.core.http;
 
 import org.apiguardian.api.API;
 
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -15,4 +16,13 @@ public interface HttpExecutor<R> {
     HttpExecutor<R> onError(Consumer<Throwable> errorHandler);
 
     CompletableFuture<R> execute();
+
+    /**
+     * Executes the call in the current thread and returns the result once the call has been finished. In contrast to
+     * {@link #execute()} no additional thread is used. Since the call blocks the current thread this method must never
+     * be called in the UI thread.
+     * @return the result
+     * @throws IOException if the call can not be executed
+     */
+    R executeInCurrentThread() throws IOException;
 }
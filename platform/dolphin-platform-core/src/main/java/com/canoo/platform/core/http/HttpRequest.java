@@ -7,6 +7,16 @@ import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 @API(since = "0.x", status = EXPERIMENTAL)
 public interface HttpRequest {
 
+    HttpRequest withHeader(String name, String value);
+
+    /**
+     * Marks the request as high priority request. A high priority request is never queued behind other requests of
+     * the client, even if the maximum number of parallel requests is reached. This should be used for short requests
+     * (like interrupts or user actions) that must not wait for long running requests.
+     * @return the request
+     */
+    HttpRequest withHighPriority();
+
     HttpResponse withContent(byte[] content);
 
     HttpResponse withContent(byte[] content, String contentType);
@@ -2,6 +2,10 @@ package com.canoo.platform.core.http;
 
 import org.apiguardian.api.API;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.function.Consumer;
+
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 
 @API(since = "0.x", status = EXPERIMENTAL)
@@ -17,5 +21,39 @@ public interface HttpResponse {
 
     <R> HttpExecutor<R> readObject(Class<R> responseType);
 
+    /**
+     * Reads the content of the response as binary stream. The stream will not be buffered in memory.
+     * @param handler handler that reads the stream in a background thread
+     * @param <R> type of the result
+     * @return the executor
+     */
+    <R> HttpExecutor<R> readStream(ResponseContentHandler<InputStream, R> handler);
+
+    /**
+     * Reads the content of the response as character stream. The stream will not be buffered in memory.
+     * @param handler handler that reads the stream in a background thread
+     * @param <R> type of the result
+     * @return the executor
+     */
+    <R> HttpExecutor<R> readCharacters(ResponseContentHandler<Reader, R> handler);
+
+    /**
+     * Reads the content of the response line by line. Each line is passed to the consumer (in a background thread) as
+     * soon as it has been received. By doing so a chunked response (like a server sent event stream) can be handled.
+     * @param lineConsumer consumer for the lines
+     * @return the executor
+     */
+    HttpExecutor<Void> readLines(Consumer<String> lineConsumer);
+
+    /**
+     * Reads a JSON array incrementally. Each element of the array is converted to the given type and passed to the
+     * consumer (in a background thread) without holding the complete array in memory.
+     * @param elementType type of the elements
+     * @param elementConsumer consumer for the elements
+     * @param <R> type of the elements
+     * @return the executor
+     */
+    <R> HttpExecutor<Void> readObjects(Class<R> elementType, Consumer<R> elementConsumer);
+
     HttpExecutor<Void> withoutResult();
 }
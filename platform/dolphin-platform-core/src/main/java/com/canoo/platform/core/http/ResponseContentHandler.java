@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.platform.core.http;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Handler that reads the content of a http response as a stream. The handler is called in a background thread and
+ * the stream will be closed automatically once the handler returns.
+ *
+ * @param <C> type of the content (like {@link java.io.InputStream} or {@link java.io.Reader})
+ * @param <R> type of the result
+ */
+@API(since = "1.0.0", status = EXPERIMENTAL)
+public interface ResponseContentHandler<C, R> {
+
+    R handle(C content) throws IOException;
+
+}
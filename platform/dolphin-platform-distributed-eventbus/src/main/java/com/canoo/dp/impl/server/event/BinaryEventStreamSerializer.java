@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.platform.remoting.server.event.MessageEventContext;
+import com.canoo.platform.remoting.server.event.Topic;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.BINARY_FORMAT_VERSION;
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.BINARY_TYPE_ID;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Binary {@link StreamSerializer} for {@link DolphinEvent} instances. Topic, timestamp and metadata are written
+ * natively into the Hazelcast stream. Values of basic types are written natively, all other values are written by a
+ * {@link EventPayloadSerializer}. The serializer uses its own Hazelcast type id and can therefore not read events of
+ * nodes that use the JSON based {@link EventStreamSerializer}. All nodes of a cluster must use the same format.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class BinaryEventStreamSerializer implements StreamSerializer<DolphinEvent<?>> {
+
+    private static final byte NULL_VALUE = 0;
+
+    private static final byte STRING_VALUE = 1;
+
+    private static final byte INTEGER_VALUE = 2;
+
+    private static final byte LONG_VALUE = 3;
+
+    private static final byte BOOLEAN_VALUE = 4;
+
+    private static final byte DOUBLE_VALUE = 5;
+
+    private static final byte SERIALIZED_VALUE = 6;
+
+    private final EventPayloadSerializer payloadSerializer;
+
+    private final Map<Integer, EventPayloadSerializer> payloadSerializers = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param payloadSerializer      the serializer that is used to write values that are not of a basic type
+     * @param additionalSerializers  additional serializers that can be used to read values that were written by other
+     *                               nodes
+     */
+    public BinaryEventStreamSerializer(final EventPayloadSerializer payloadSerializer, final EventPayloadSerializer... additionalSerializers) {
+        this.payloadSerializer = Assert.requireNonNull(payloadSerializer, "payloadSerializer");
+        register(new JavaEventPayloadSerializer());
+        register(new JsonEventPayloadSerializer());
+        if (additionalSerializers != null) {
+            for (final EventPayloadSerializer serializer : additionalSerializers) {
+                register(serializer);
+            }
+        }
+        register(payloadSerializer);
+    }
+
+    public BinaryEventStreamSerializer() {
+        this(new JavaEventPayloadSerializer());
+    }
+
+    private void register(final EventPayloadSerializer serializer) {
+        Assert.requireNonNull(serializer, "serializer");
+        payloadSerializers.put(serializer.getId(), serializer);
+    }
+
+    @Override
+    public void write(final ObjectDataOutput out, final DolphinEvent<?> event) throws IOException {
+        Assert.requireNonNull(out, "out");
+        Assert.requireNonNull(event, "event");
+        final MessageEventContext<?> eventContext = event.getMessageEventContext();
+
+        out.writeByte(BINARY_FORMAT_VERSION);
+        out.writeUTF(eventContext.getTopic().getName());
+        out.writeLong(eventContext.getTimestamp());
+
+        final Map<String, Serializable> metadata = eventContext.getMetadata();
+        out.writeInt(metadata.size());
+        for (final Map.Entry<String, Serializable> entry : metadata.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+
+        writeValue(out, event.getData());
+    }
+
+    @Override
+    public DolphinEvent<?> read(final ObjectDataInput in) throws IOException {
+        Assert.requireNonNull(in, "in");
+
+        final byte version = in.readByte();
+        if (version != BINARY_FORMAT_VERSION) {
+            throw new IllegalArgumentException("Input can not be parsed! Unknown format version " + version);
+        }
+        final Topic<Serializable> topic = new Topic<>(in.readUTF());
+        final long timestamp = in.readLong();
+
+        final int metadataCount = in.readInt();
+        final Map<String, Serializable> metadata = new HashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            final String key = in.readUTF();
+            metadata.put(key, readValue(in));
+        }
+
+        final DolphinEvent<Serializable> event = new DolphinEvent<>(topic, timestamp, readValue(in));
+        for (final Map.Entry<String, Serializable> entry : metadata.entrySet()) {
+            event.addMetadata(entry.getKey(), entry.getValue());
+        }
+        return event;
+    }
+
+    private void writeValue(final ObjectDataOutput out, final Serializable value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            out.writeByteArray(((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong((Long) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble((Double) value);
+        } else {
+            out.writeByte(SERIALIZED_VALUE);
+            out.writeInt(payloadSerializer.getId());
+            payloadSerializer.write(out, value);
+        }
+    }
+
+    private Serializable readValue(final ObjectDataInput in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return new String(in.readByteArray(), StandardCharsets.UTF_8);
+            case INTEGER_VALUE:
+                return in.readInt();
+            case LONG_VALUE:
+                return in.readLong();
+            case BOOLEAN_VALUE:
+                return in.readBoolean();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case SERIALIZED_VALUE:
+                final int serializerId = in.readInt();
+                final EventPayloadSerializer serializer = payloadSerializers.get(serializerId);
+                if (serializer == null) {
+                    throw new IllegalArgumentException("Input can not be parsed! No payload serializer with id " + serializerId + " found");
+                }
+                return serializer.read(in);
+            default:
+                throw new IllegalArgumentException("Input can not be parsed! Unknown value type " + type);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return BINARY_TYPE_ID;
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+}
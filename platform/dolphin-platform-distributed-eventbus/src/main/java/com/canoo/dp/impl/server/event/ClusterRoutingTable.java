@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Table that is shared by all nodes of a cluster and contains the routing keys (see
+ * {@link com.canoo.dp.impl.server.event.EventRoutingKeys}) of the subscriptions on each node. A publisher can use the
+ * table to send an event only to the nodes that have a subscription that will accept the event.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface ClusterRoutingTable {
+
+    /**
+     * Routing key of subscriptions that can accept any event
+     */
+    String ACCEPT_ALL = "*";
+
+    void addRoute(String topicName, String nodeId, String routingKey);
+
+    void removeRoute(String topicName, String nodeId, String routingKey);
+
+    TopicRoutes getRoutes(String topicName);
+
+    /**
+     * Removes all routes of the given node
+     * @param nodeId the id of the node
+     */
+    void removeRoutes(String nodeId);
+
+    /**
+     * Releases all resources of the table
+     */
+    void close();
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Transport that is used by the {@link DistributedEventBus} to send events to the nodes of a cluster. Events are
+ * send to channels. The {@link DistributedEventBus} uses the name of a topic as channel for events that must be
+ * delivered to all nodes and a node specific channel for events that must only be delivered to one node.
+ * An event that is published by a transport will be delivered to all listeners of the channel, including the
+ * listeners of the node that published the event.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface ClusterTransport {
+
+    /**
+     * Sends the given event to all listeners of a channel
+     * @param channelName the name of the channel
+     * @param event the event
+     */
+    void publish(String channelName, DolphinEvent<?> event);
+
+    /**
+     * Sends the given batch as one message to all listeners of the channel of the batch. Listeners will receive the
+     * events of the batch in order.
+     * @param batch the batch
+     */
+    void publish(DolphinEventBatch batch);
+
+    /**
+     * Registers a listener for a channel
+     * @param channelName the name of the channel
+     * @param listener the listener
+     * @return the id of the registration that is needed to unsubscribe the listener
+     */
+    String subscribe(String channelName, ClusterTransportListener listener);
+
+    /**
+     * Removes a listener from a channel
+     * @param channelName the name of the channel
+     * @param registrationId the id of the registration
+     */
+    void unsubscribe(String channelName, String registrationId);
+
+    /**
+     * Returns the routing table that is shared by all nodes of the cluster
+     * @return the routing table
+     */
+    ClusterRoutingTable getRoutingTable();
+
+    /**
+     * Releases all resources of the transport, including the routing table if it was created. The transport can not
+     * be used after it was closed.
+     */
+    void close();
+
+}
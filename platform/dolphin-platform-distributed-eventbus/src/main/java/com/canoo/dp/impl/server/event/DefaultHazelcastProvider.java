@@ -15,14 +15,22 @@
  */
 package com.canoo.dp.impl.server.event;
 
+import com.canoo.dp.impl.platform.core.Assert;
 import com.hazelcast.client.HazelcastClient;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.nio.serialization.StreamSerializer;
 import org.apiguardian.api.API;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.BINARY_EVENT_SERIALIZER;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.JAVA_PAYLOAD_SERIALIZER;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.JSON_EVENT_SERIALIZER;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.JSON_PAYLOAD_SERIALIZER;
 import static org.apiguardian.api.API.Status.INTERNAL;
 
 @API(since = "0.x", status = INTERNAL)
@@ -55,14 +63,49 @@ public class DefaultHazelcastProvider implements HazelcastProvider {
             clientConfig.getGroupConfig().setName(groupName);
             clientConfig.setProperty(LOGGER_PROPERTY_NAME, LOGGER_PROPERTY_SLF4J_TYPE);
 
+            final StreamSerializer<DolphinEvent<?>> eventSerializer = createEventSerializer(configuration);
             final SerializerConfig dolphinEventSerializerConfig = new SerializerConfig().
-                    setImplementation(new EventStreamSerializer()).setTypeClass(DolphinEvent.class);
+                    setImplementation(eventSerializer).setTypeClass(DolphinEvent.class);
+            final SerializerConfig dolphinEventBatchSerializerConfig = new SerializerConfig().
+                    setImplementation(new EventBatchStreamSerializer(eventSerializer)).setTypeClass(DolphinEventBatch.class);
 
             clientConfig.getSerializationConfig().getSerializerConfigs().add(dolphinEventSerializerConfig);
+            clientConfig.getSerializationConfig().getSerializerConfigs().add(dolphinEventBatchSerializerConfig);
 
 
             hazelcastInstance = HazelcastClient.newHazelcastClient(clientConfig);
         }
         return hazelcastInstance;
     }
+
+    public static StreamSerializer<DolphinEvent<?>> createEventSerializer(final HazelcastConfig configuration) {
+        Assert.requireNonNull(configuration, "configuration");
+        final String serializerType = configuration.getEventSerializer();
+        LOG.debug("Hazelcast event serializer: {}", serializerType);
+        if (JSON_EVENT_SERIALIZER.equals(serializerType)) {
+            return new EventStreamSerializer();
+        }
+        if (!BINARY_EVENT_SERIALIZER.equals(serializerType)) {
+            throw new IllegalArgumentException("Unknown event serializer type: " + serializerType);
+        }
+        final List<String> allowedTypes = configuration.getEventPayloadAllowedTypes();
+        return new BinaryEventStreamSerializer(createPayloadSerializer(configuration.getEventPayloadSerializer(), allowedTypes), new JsonEventPayloadSerializer(allowedTypes));
+    }
+
+    private static EventPayloadSerializer createPayloadSerializer(final String payloadSerializerType, final List<String> allowedTypes) {
+        Assert.requireNonBlank(payloadSerializerType, "payloadSerializerType");
+        LOG.debug("Hazelcast event payload serializer: {}", payloadSerializerType);
+        if (JAVA_PAYLOAD_SERIALIZER.equals(payloadSerializerType)) {
+            return new JavaEventPayloadSerializer();
+        }
+        if (JSON_PAYLOAD_SERIALIZER.equals(payloadSerializerType)) {
+            return new JsonEventPayloadSerializer(allowedTypes);
+        }
+        try {
+            final Class<?> serializerClass = Class.forName(payloadSerializerType);
+            return (EventPayloadSerializer) serializerClass.newInstance();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Can not create event payload serializer of type " + payloadSerializerType, e);
+        }
+    }
 }
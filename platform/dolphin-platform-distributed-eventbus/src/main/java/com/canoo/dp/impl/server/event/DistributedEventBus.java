@@ -21,126 +21,231 @@ import com.canoo.platform.remoting.server.event.MessageEventContext;
 import com.canoo.platform.remoting.server.event.MessageListener;
 import com.canoo.platform.remoting.server.event.Topic;
 import com.hazelcast.core.HazelcastInstance;
-import com.hazelcast.core.ITopic;
 import org.apiguardian.api.API;
 
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
+import static com.canoo.dp.impl.server.event.ClusterRoutingTable.ACCEPT_ALL;
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.NODE_CHANNEL_PREFIX;
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.NODE_ID_PARAM;
 import static org.apiguardian.api.API.Status.INTERNAL;
 
 @API(since = "0.x", status = INTERNAL)
 public class DistributedEventBus extends AbstractEventBus {
 
-    private final HazelcastInstance hazelcastClient;
+    private final ClusterTransport transport;
 
-    private final Map<String, String> iTopicRegistrations = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
 
-    private final Map<String, Integer> iTopicCount = new ConcurrentHashMap<>();
+    private final ClusterTransportListener remoteEventListener = new ClusterTransportListener() {
+        @Override
+        public void onEvent(final DolphinEvent<?> event) {
+            onRemoteEvent(event);
+        }
+    };
+
+    private final ReferenceCountingRegistry<String, String> transportRegistrations;
+
+    private final ReferenceCountingRegistry<Map.Entry<String, String>, String> routeRegistrations;
+
+    private final EventBatchPublisher batchPublisher;
 
-    private final Lock hazelcastEventPipeLock = new ReentrantLock();
+    private final ClusterRoutingTable routingTable;
 
     public DistributedEventBus(final HazelcastInstance hazelcastClient) {
-        this.hazelcastClient = Assert.requireNonNull(hazelcastClient, "hazelcastClient");
+        this(hazelcastClient, 0, 1);
+    }
+
+    public DistributedEventBus(final HazelcastInstance hazelcastClient, final long batchWindow, final int maxBatchSize) {
+        this(new HazelcastClusterTransport(hazelcastClient), batchWindow, maxBatchSize);
+    }
+
+    public DistributedEventBus(final ClusterTransport transport, final long batchWindow, final int maxBatchSize) {
+        this(transport, batchWindow, maxBatchSize, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param transport      the transport that is used to send events to the other nodes
+     * @param batchWindow    the time in milliseconds that events of a topic are collected before they are send as one
+     *                       message. If the value is 0 each event is send directly.
+     * @param maxBatchSize   the maximum number of events in one message
+     * @param routingEnabled if true the routing table of the transport is used to send events only to nodes that
+     *                       have a matching subscription. Otherwise all events are send to all nodes that have a
+     *                       subscription for the topic.
+     */
+    public DistributedEventBus(final ClusterTransport transport, final long batchWindow, final int maxBatchSize, final boolean routingEnabled) {
+        this.transport = Assert.requireNonNull(transport, "transport");
+        if (batchWindow > 0) {
+            this.batchPublisher = new EventBatchPublisher(batchWindow, maxBatchSize, new Consumer<DolphinEventBatch>() {
+                @Override
+                public void accept(final DolphinEventBatch batch) {
+                    transport.publish(batch);
+                }
+            });
+        } else {
+            this.batchPublisher = null;
+        }
+        this.transportRegistrations = new ReferenceCountingRegistry<>(new Function<String, String>() {
+            @Override
+            public String apply(final String topicName) {
+                return Assert.requireNonBlank(transport.subscribe(topicName, remoteEventListener), "registrationId");
+            }
+        }, new BiConsumer<String, String>() {
+            @Override
+            public void accept(final String topicName, final String registrationId) {
+                transport.unsubscribe(topicName, registrationId);
+            }
+        });
+        if (routingEnabled) {
+            this.routingTable = Assert.requireNonNull(transport.getRoutingTable(), "routingTable");
+            this.routeRegistrations = new ReferenceCountingRegistry<>(new Function<Map.Entry<String, String>, String>() {
+                @Override
+                public String apply(final Map.Entry<String, String> route) {
+                    routingTable.addRoute(route.getKey(), nodeId, route.getValue());
+                    return route.getValue();
+                }
+            }, new BiConsumer<Map.Entry<String, String>, String>() {
+                @Override
+                public void accept(final Map.Entry<String, String> route, final String routingKey) {
+                    routingTable.removeRoute(route.getKey(), nodeId, routingKey);
+                }
+            });
+            transport.subscribe(NODE_CHANNEL_PREFIX + nodeId, remoteEventListener);
+        } else {
+            this.routingTable = null;
+            this.routeRegistrations = null;
+        }
     }
 
     protected <T extends Serializable> void publishForOtherSessions(final DolphinEvent<T> event) {
         Assert.requireNonNull(event, "event");
-        final ITopic<DolphinEvent<T>> topic = toHazelcastTopic(event.getMessageEventContext().getTopic());
-        topic.publish(event);
+        event.addMetadata(NODE_ID_PARAM, nodeId);
+
+        // Sessions on this node are handled directly. The event will be ignored once it comes back from the cluster.
+        triggerEventHandling(event);
+
+        final String topicName = event.getMessageEventContext().getTopic().getName();
+        if (routingTable == null) {
+            send(topicName, event);
+            return;
+        }
+
+        final TopicRoutes routes = routingTable.getRoutes(topicName);
+        final Set<String> targetNodes = routes.getTargetNodes(EventRoutingKeys.forEvent(event.getMessageEventContext()));
+        targetNodes.remove(nodeId);
+        if (targetNodes.isEmpty()) {
+            return;
+        }
+        final Set<String> remoteNodes = new HashSet<>(routes.getNodes());
+        remoteNodes.remove(nodeId);
+        if (targetNodes.size() == remoteNodes.size()) {
+            // One message for all nodes is cheaper than one message per node
+            send(topicName, event);
+        } else {
+            for (final String targetNode : targetNodes) {
+                send(NODE_CHANNEL_PREFIX + targetNode, event);
+            }
+        }
+    }
+
+    private void send(final String channelName, final DolphinEvent<?> event) {
+        if (batchPublisher != null) {
+            batchPublisher.publish(channelName, event);
+        } else {
+            transport.publish(channelName, event);
+        }
     }
 
     @Override
     public <T extends Serializable> Subscription subscribe(final Topic<T> topic, final MessageListener<? super T> handler, final Predicate<MessageEventContext<T>> filter) {
         final Subscription basicSubscription = super.subscribe(topic, handler, filter);
-        final Subscription hazelcastSubscription = createHazelcastSubscription(topic);
+        final List<Subscription> subscriptions = new ArrayList<>();
+        subscriptions.add(basicSubscription);
+        try {
+            subscriptions.add(transportRegistrations.acquire(topic.getName()));
+            addRouteSubscriptions(subscriptions, topic.getName(), getRoutingKeys(filter));
+        } catch (final RuntimeException e) {
+            // the handler and the acquired registrations must not stay registered if the subscription fails
+            for (int i = subscriptions.size() - 1; i >= 0; i--) {
+                try {
+                    subscriptions.get(i).unsubscribe();
+                } catch (final RuntimeException unsubscribeException) {
+                    e.addSuppressed(unsubscribeException);
+                }
+            }
+            throw e;
+        }
         return new Subscription() {
             @Override
             public void unsubscribe() {
-                hazelcastSubscription.unsubscribe();
-                basicSubscription.unsubscribe();
+                for (int i = subscriptions.size() - 1; i >= 0; i--) {
+                    subscriptions.get(i).unsubscribe();
+                }
             }
         };
     }
 
-    private <T extends Serializable> Subscription createHazelcastSubscription(final Topic<T> topic) {
-        hazelcastEventPipeLock.lock();
-        try {
-            final ITopic<DolphinEvent<T>> hazelcastTopic = toHazelcastTopic(topic);
-            Assert.requireNonNull(hazelcastTopic, "hazelcastTopic");
-
-            final Integer currentCount = iTopicCount.get(topic.getName());
-            if (currentCount == null || currentCount == 0) {
-                registerHazelcastEventPipe(hazelcastTopic);
-            } else {
-                iTopicCount.put(topic.getName(), currentCount + 1);
-            }
-
-            return new Subscription() {
-                @Override
-                public void unsubscribe() {
-                    final Integer currentCount = iTopicCount.get(topic.getName());
-                    if (currentCount > 1) {
-                        iTopicCount.put(topic.getName(), currentCount - 1);
-                    } else {
-                        unregisterHazelcastEventPipe(hazelcastTopic);
-                    }
-                }
-            };
-        } finally {
-            hazelcastEventPipeLock.unlock();
+    private Set<String> getRoutingKeys(final Predicate<?> filter) {
+        if (filter instanceof RoutableEventFilter) {
+            return ((RoutableEventFilter) filter).getRoutingKeys();
         }
+        return Collections.singleton(ACCEPT_ALL);
     }
 
-    private <T extends Serializable> void registerHazelcastEventPipe(final ITopic<DolphinEvent<T>> topic) {
-        hazelcastEventPipeLock.lock();
-        try {
-            Assert.requireNonNull(topic, "hazelcastTopic");
-
-            final String registrationId = topic.addMessageListener(new com.hazelcast.core.MessageListener<DolphinEvent<T>>() {
-                @Override
-                public void onMessage(com.hazelcast.core.Message<DolphinEvent<T>> message) {
-                    final DolphinEvent<T> event = message.getMessageObject();
-                    triggerEventHandling(event);
-                }
-            });
-            Assert.requireNonBlank(registrationId, "registrationId");
-
-            iTopicRegistrations.put(topic.getName(), registrationId);
-            iTopicCount.put(topic.getName(), 1);
-        } finally {
-            hazelcastEventPipeLock.unlock();
+    private void addRouteSubscriptions(final List<Subscription> subscriptions, final String topicName, final Set<String> routingKeys) {
+        if (routeRegistrations == null) {
+            return;
+        }
+        for (final String routingKey : routingKeys) {
+            subscriptions.add(routeRegistrations.acquire(new AbstractMap.SimpleImmutableEntry<>(topicName, routingKey)));
         }
     }
 
-    private <T extends Serializable> void unregisterHazelcastEventPipe(final ITopic<DolphinEvent<T>> topic) {
-        hazelcastEventPipeLock.lock();
-        try {
-            Assert.requireNonNull(topic, "hazelcastTopic");
-
-            final Integer count = iTopicCount.get(topic.getName());
-            if (count == null || count != 1) {
-                throw new IllegalStateException("Count for topic " + topic.getName() + " is wrong: " + count);
-            }
-
-            final String registrationId = iTopicRegistrations.get(topic.getName());
-            Assert.requireNonBlank(registrationId, "registrationId");
+    private <T extends Serializable> void onRemoteEvent(final DolphinEvent<T> event) {
+        Assert.requireNonNull(event, "event");
+        if (nodeId.equals(event.getMessageEventContext().getMetadata().get(NODE_ID_PARAM))) {
+            // The event was already handled for all sessions of this node when it was published
+            return;
+        }
+        triggerEventHandling(event);
+    }
 
-            topic.removeMessageListener(registrationId);
+    /**
+     * Returns the number of subscriptions on this node that use the transport listener of the given topic
+     * @param topicName the name of the topic
+     * @return the number of subscriptions
+     */
+    public int getTransportSubscriptionCount(final String topicName) {
+        return transportRegistrations.getCount(topicName);
+    }
 
-            iTopicRegistrations.remove(topic.getName());
-            iTopicCount.remove(topic.getName());
-        } finally {
-            hazelcastEventPipeLock.unlock();
-        }
+    public String getNodeId() {
+        return nodeId;
     }
 
-    private <T extends Serializable> ITopic<DolphinEvent<T>> toHazelcastTopic(final Topic<T> topic) {
-        return hazelcastClient.getTopic(topic.getName());
+    @Override
+    public void shutdown() {
+        if (batchPublisher != null) {
+            batchPublisher.shutdown();
+        }
+        if (routingTable != null) {
+            routingTable.removeRoutes(nodeId);
+        }
+        transport.close();
     }
 
 }
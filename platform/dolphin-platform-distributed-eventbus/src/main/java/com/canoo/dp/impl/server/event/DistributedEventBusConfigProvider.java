@@ -18,7 +18,9 @@ package com.canoo.dp.impl.server.event;
 import com.canoo.platform.server.spi.ConfigurationProviderAdapter;
 import org.apiguardian.api.API;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -38,6 +40,18 @@ public class DistributedEventBusConfigProvider extends ConfigurationProviderAdap
 
     public static final String HAZELCAST_CONNECTION_TIMEOUT = "hazelcast.connection.timeout";
 
+    public static final String HAZELCAST_EVENT_SERIALIZER = "hazelcast.event.serializer";
+
+    public static final String HAZELCAST_EVENT_PAYLOAD_SERIALIZER = "hazelcast.event.payloadSerializer";
+
+    public static final String HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES = "hazelcast.event.payloadSerializer.allowedTypes";
+
+    public static final String HAZELCAST_EVENT_BATCH_WINDOW = "hazelcast.event.batch.window";
+
+    public static final String HAZELCAST_EVENT_BATCH_MAX_SIZE = "hazelcast.event.batch.maxSize";
+
+    public static final String HAZELCAST_EVENT_ROUTING = "hazelcast.event.routing";
+
 
     public static final String DEFAULT_HAZELCAST_SERVER = "localhost";
 
@@ -51,12 +65,41 @@ public class DistributedEventBusConfigProvider extends ConfigurationProviderAdap
 
     public static final int DEFAULT_HAZELCAST_CONNECTION_TIMEOUT = 5000;
 
+    public static final String BINARY_EVENT_SERIALIZER = "binary";
+
+    public static final String JSON_EVENT_SERIALIZER = "json";
+
+    public static final String DEFAULT_HAZELCAST_EVENT_SERIALIZER = JSON_EVENT_SERIALIZER;
+
+    public static final String JAVA_PAYLOAD_SERIALIZER = "java";
+
+    public static final String JSON_PAYLOAD_SERIALIZER = "json";
+
+    public static final String DEFAULT_HAZELCAST_EVENT_PAYLOAD_SERIALIZER = JAVA_PAYLOAD_SERIALIZER;
+
+    public static final List<String> DEFAULT_HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES = Collections.emptyList();
+
+    public static final int DEFAULT_HAZELCAST_EVENT_BATCH_WINDOW = 0;
+
+    public static final int DEFAULT_HAZELCAST_EVENT_BATCH_MAX_SIZE = 100;
+
+    public static final boolean DEFAULT_HAZELCAST_EVENT_ROUTING = false;
+
     @Override
     public Map<String, String> getStringProperties() {
         Map<String, String> properties = new HashMap<>();
         properties.put(HAZELCAST_SERVER_NAME, DEFAULT_HAZELCAST_SERVER);
         properties.put(HAZELCAST_SERVER_PORT, DEFAULT_HAZELCAST_PORT);
         properties.put(HAZELCAST_GROUP_NAME, DEFAULT_HAZELCAST_GROUP_NAME);
+        properties.put(HAZELCAST_EVENT_SERIALIZER, DEFAULT_HAZELCAST_EVENT_SERIALIZER);
+        properties.put(HAZELCAST_EVENT_PAYLOAD_SERIALIZER, DEFAULT_HAZELCAST_EVENT_PAYLOAD_SERIALIZER);
+        return properties;
+    }
+
+    @Override
+    public Map<String, List<String>> getListProperties() {
+        Map<String, List<String>> properties = new HashMap<>();
+        properties.put(HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES, DEFAULT_HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES);
         return properties;
     }
 
@@ -66,6 +109,15 @@ public class DistributedEventBusConfigProvider extends ConfigurationProviderAdap
         properties.put(HAZELCAST_CONNECTION_ATTEMPT_COUNT, DEFAULT_HAZELCAST_CONNECTION_ATTEMPT_COUNT);
         properties.put(HAZELCAST_CONNECTION_ATTEMPT_PERIOD, DEFAULT_HAZELCAST_CONNECTION_ATTEMPT_PERIOD);
         properties.put(HAZELCAST_CONNECTION_TIMEOUT, DEFAULT_HAZELCAST_CONNECTION_TIMEOUT);
+        properties.put(HAZELCAST_EVENT_BATCH_WINDOW, DEFAULT_HAZELCAST_EVENT_BATCH_WINDOW);
+        properties.put(HAZELCAST_EVENT_BATCH_MAX_SIZE, DEFAULT_HAZELCAST_EVENT_BATCH_MAX_SIZE);
+        return properties;
+    }
+
+    @Override
+    public Map<String, Boolean> getBooleanProperties() {
+        Map<String, Boolean> properties = new HashMap<>();
+        properties.put(HAZELCAST_EVENT_ROUTING, DEFAULT_HAZELCAST_EVENT_ROUTING);
         return properties;
     }
 }
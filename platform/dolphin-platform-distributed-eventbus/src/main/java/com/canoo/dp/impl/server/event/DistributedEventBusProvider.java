@@ -42,6 +42,21 @@ public class DistributedEventBusProvider implements EventBusProvider {
     public RemotingEventBus create(final RemotingConfiguration configuration) {
         LOG.debug("creating distributed event bus");
 
+        final HazelcastConfig hazelcastConfig = new HazelcastConfig(configuration.getConfiguration());
+        return new DistributedEventBus(createTransport(configuration, hazelcastConfig), hazelcastConfig.getEventBatchWindow(), hazelcastConfig.getEventBatchMaxSize(), hazelcastConfig.isEventRoutingEnabled());
+    }
+
+    private ClusterTransport createTransport(final RemotingConfiguration configuration, final HazelcastConfig hazelcastConfig) {
+        final Iterator<ClusterTransportProvider> transportIterator = ServiceLoader.load(ClusterTransportProvider.class).iterator();
+        if (transportIterator.hasNext()) {
+            final ClusterTransportProvider transportProvider = transportIterator.next();
+            if (transportIterator.hasNext()) {
+                throw new IllegalStateException("More than one service implementation for found for " + ClusterTransportProvider.class);
+            }
+            LOG.debug("Using cluster transport provider {}", transportProvider.getClass());
+            return transportProvider.getClusterTransport(configuration.getConfiguration());
+        }
+
         HazelcastProvider hazelcastProvider = null;
         Iterator<HazelcastProvider> iterator = ServiceLoader.load(HazelcastProvider.class).iterator();
 
@@ -59,7 +74,7 @@ public class DistributedEventBusProvider implements EventBusProvider {
 
         LOG.debug("Using Hazelcast provider {}", hazelcastProvider.getClass());
 
-        return new DistributedEventBus(hazelcastProvider.getHazelcastInstance(new HazelcastConfig(configuration.getConfiguration())));
+        return new HazelcastClusterTransport(hazelcastProvider.getHazelcastInstance(hazelcastConfig));
     }
 
 }
@@ -13,6 +13,18 @@ public interface DistributedEventConstants {
 
     int TYPE_ID = 4711;
 
+    int BATCH_TYPE_ID = 4712;
+
+    int BINARY_TYPE_ID = 4713;
+
+    String NODE_ID_PARAM = "sender.dolphinPlatform.nodeId";
+
+    String NODE_CHANNEL_PREFIX = "dolphin.platform.node.";
+
+    String ROUTING_MAP_NAME = "dolphin.platform.eventbus.routing";
+
+    byte BINARY_FORMAT_VERSION = 2;
+
     String DATA_PARAM = "data";
 
     String CONTEXT_PARAM = "context";
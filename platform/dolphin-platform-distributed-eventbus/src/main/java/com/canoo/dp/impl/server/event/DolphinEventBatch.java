@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * A batch of events that is send as one message to a channel of the cluster (see {@link ClusterTransport}). Receivers
+ * must handle the events in the order of the batch.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class DolphinEventBatch implements Serializable {
+
+    private final String channelName;
+
+    private final List<DolphinEvent<?>> events;
+
+    public DolphinEventBatch(final String channelName, final List<DolphinEvent<?>> events) {
+        this.channelName = Assert.requireNonBlank(channelName, "channelName");
+        this.events = Collections.unmodifiableList(Assert.requireNonNull(events, "events"));
+    }
+
+    public String getChannelName() {
+        return channelName;
+    }
+
+    public List<DolphinEvent<?>> getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Collects published events per channel and hands them over as {@link DolphinEventBatch} instances. A batch is send
+ * once the batch window of the channel is over or the maximum batch size is reached. All batches are send by one
+ * thread and therefore the order of events in a channel is preserved.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class EventBatchPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventBatchPublisher.class);
+
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 5_000;
+
+    private final long batchWindow;
+
+    private final int maxBatchSize;
+
+    private final Consumer<DolphinEventBatch> batchConsumer;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Map<String, PendingEvents> pendingEvents = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param batchWindow   the time in milliseconds that events of a channel are collected before they are send
+     * @param maxBatchSize  the maximum number of events in one batch
+     * @param batchConsumer the consumer that sends the batches
+     */
+    public EventBatchPublisher(final long batchWindow, final int maxBatchSize, final Consumer<DolphinEventBatch> batchConsumer) {
+        Assert.requireNonNull(batchConsumer, "batchConsumer");
+        if (batchWindow <= 0) {
+            throw new IllegalArgumentException("batchWindow must be > 0");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be > 0");
+        }
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.batchConsumer = batchConsumer;
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Dolphin Platform event batch publisher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public void publish(final DolphinEvent<?> event) {
+        Assert.requireNonNull(event, "event");
+        publish(event.getMessageEventContext().getTopic().getName(), event);
+    }
+
+    /**
+     * Adds an event to the pending batch of the given channel
+     * @param channelName the name of the channel (see {@link ClusterTransport})
+     * @param event the event
+     */
+    public void publish(final String channelName, final DolphinEvent<?> event) {
+        Assert.requireNonBlank(channelName, "channelName");
+        Assert.requireNonNull(event, "event");
+        final PendingEvents pending = pendingEvents.computeIfAbsent(channelName, new Function<String, PendingEvents>() {
+            @Override
+            public PendingEvents apply(final String name) {
+                return new PendingEvents(name);
+            }
+        });
+        pending.events.add(event);
+        try {
+            if (pending.size.incrementAndGet() >= maxBatchSize) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush(pending);
+                    }
+                });
+            } else if (pending.flushScheduled.compareAndSet(false, true)) {
+                executor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush(pending);
+                    }
+                }, batchWindow, TimeUnit.MILLISECONDS);
+            }
+        } catch (final RejectedExecutionException e) {
+            LOG.warn("Event for channel {} will not be send since the publisher is shut down", channelName);
+        }
+    }
+
+    /**
+     * Sends all pending events and stops the publisher. Waits until all pending events are send or the given timeout
+     * is over.
+     * @param timeout the maximum time in milliseconds to wait for the pending events
+     */
+    public void shutdown(final long timeout) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (final PendingEvents pending : pendingEvents.values()) {
+                        flush(pending);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            return;
+        }
+        // Scheduled flushes are obsolete since all pending events are send by the task above
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Not all pending events were send within {} ms", timeout);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends all pending events and stops the publisher.
+     */
+    public void shutdown() {
+        shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
+    }
+
+    int getPendingChannelCount() {
+        return pendingEvents.size();
+    }
+
+    private void flush(final PendingEvents pending) {
+        pending.flushScheduled.set(false);
+        List<DolphinEvent<?>> batch = new ArrayList<>();
+        DolphinEvent<?> event = pending.events.poll();
+        while (event != null) {
+            pending.size.decrementAndGet();
+            batch.add(event);
+            if (batch.size() == maxBatchSize) {
+                send(pending.channelName, batch);
+                batch = new ArrayList<>();
+            }
+            event = pending.events.poll();
+        }
+        if (!batch.isEmpty()) {
+            send(pending.channelName, batch);
+        }
+        // Channels are removed once they are empty since each node channel would otherwise stay in the map forever.
+        // An event that is added to the removed instance afterwards is still send by the flush that it schedules.
+        if (pending.size.get() <= 0) {
+            pendingEvents.remove(pending.channelName, pending);
+        }
+    }
+
+    private void send(final String channelName, final List<DolphinEvent<?>> events) {
+        LOG.trace("Sending batch of {} events to channel {}", events.size(), channelName);
+        try {
+            batchConsumer.accept(new DolphinEventBatch(channelName, events));
+        } catch (final Exception e) {
+            LOG.error("Can not send batch of " + events.size() + " events to channel " + channelName, e);
+        }
+    }
+
+    private static class PendingEvents {
+
+        private final String channelName;
+
+        private final Queue<DolphinEvent<?>> events = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+        private PendingEvents(final String channelName) {
+            this.channelName = channelName;
+        }
+    }
+}
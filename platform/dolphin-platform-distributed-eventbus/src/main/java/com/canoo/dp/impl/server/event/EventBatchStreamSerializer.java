@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.BATCH_TYPE_ID;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link StreamSerializer} for {@link DolphinEventBatch} instances. All events of the batch are written by the
+ * configured event serializer.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class EventBatchStreamSerializer implements StreamSerializer<DolphinEventBatch> {
+
+    private final StreamSerializer<DolphinEvent<?>> eventSerializer;
+
+    public EventBatchStreamSerializer(final StreamSerializer<DolphinEvent<?>> eventSerializer) {
+        this.eventSerializer = Assert.requireNonNull(eventSerializer, "eventSerializer");
+    }
+
+    @Override
+    public void write(final ObjectDataOutput out, final DolphinEventBatch batch) throws IOException {
+        Assert.requireNonNull(out, "out");
+        Assert.requireNonNull(batch, "batch");
+        out.writeUTF(batch.getChannelName());
+        out.writeInt(batch.getEvents().size());
+        for (final DolphinEvent<?> event : batch.getEvents()) {
+            eventSerializer.write(out, event);
+        }
+    }
+
+    @Override
+    public DolphinEventBatch read(final ObjectDataInput in) throws IOException {
+        Assert.requireNonNull(in, "in");
+        final String channelName = in.readUTF();
+        final int size = in.readInt();
+        final List<DolphinEvent<?>> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(eventSerializer.read(in));
+        }
+        return new DolphinEventBatch(channelName, events);
+    }
+
+    @Override
+    public int getTypeId() {
+        return BATCH_TYPE_ID;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Serializer for the data and metadata values of a {@link DolphinEvent} that is used by the
+ * {@link BinaryEventStreamSerializer}. Values of basic types (like {@link String} or {@link Long}) are always written
+ * natively by the {@link BinaryEventStreamSerializer} and will never be passed to a payload serializer.
+ * Custom implementations can be defined by the {@link DistributedEventBusConfigProvider#HAZELCAST_EVENT_PAYLOAD_SERIALIZER}
+ * property. All nodes of a cluster must know the payload serializers that are used by any node.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface EventPayloadSerializer {
+
+    /**
+     * Returns the unique id of the serializer. The id is written in the stream and defines the serializer that must be
+     * used to read the value. Ids below 100 are reserved for serializers of the Dolphin Platform.
+     *
+     * @return the id
+     */
+    int getId();
+
+    void write(ObjectDataOutput out, Serializable value) throws IOException;
+
+    Serializable read(ObjectDataInput in) throws IOException;
+}
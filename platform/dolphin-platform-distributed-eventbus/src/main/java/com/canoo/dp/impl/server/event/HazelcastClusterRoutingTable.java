@@ -0,0 +1,341 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MemberAttributeEvent;
+import com.hazelcast.core.MembershipEvent;
+import com.hazelcast.core.MembershipListener;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link ClusterRoutingTable} that is stored in a Hazelcast map. The routes of each node and topic are stored in an
+ * own entry that is only written by the node itself. Therefore adding or removing a route never locks the map and
+ * only writes the routing keys of one node. All entries are mirrored in a local view by an entry listener since the
+ * routes of a topic are read for each published event.
+ * <p>
+ * The routes of a node that leaves the cluster without removing them are purged: all entries are written with a time
+ * to live and are refreshed by the node that owns them. If a Hazelcast member leaves the cluster the routes of all
+ * nodes that use the member are removed directly.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class HazelcastClusterRoutingTable implements ClusterRoutingTable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HazelcastClusterRoutingTable.class);
+
+    private static final char KEY_SEPARATOR = ':';
+
+    private static final long DEFAULT_ROUTE_TIME_TO_LIVE = 60_000;
+
+    private final IMap<String, NodeRoutes> routes;
+
+    private final String memberId;
+
+    private final long routeTimeToLive;
+
+    private final Map<String, TopicRoutes> topicRoutes = new ConcurrentHashMap<>();
+
+    private final Map<String, String> membersOfNodes = new ConcurrentHashMap<>();
+
+    private final Map<String, NodeRoutes> ownRoutes = new HashMap<>();
+
+    private final ScheduledExecutorService refreshExecutor;
+
+    private final String entryListenerRegistration;
+
+    private final String membershipListenerRegistration;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public HazelcastClusterRoutingTable(final HazelcastInstance hazelcastInstance, final IMap<String, NodeRoutes> routes) {
+        this(hazelcastInstance, routes, DEFAULT_ROUTE_TIME_TO_LIVE);
+    }
+
+    /**
+     * Constructor
+     * @param hazelcastInstance the Hazelcast instance of this node
+     * @param routes the map that stores the routes
+     * @param routeTimeToLive time in milliseconds after that the routes of a node are removed if the node does not
+     *                        refresh them
+     */
+    public HazelcastClusterRoutingTable(final HazelcastInstance hazelcastInstance, final IMap<String, NodeRoutes> routes, final long routeTimeToLive) {
+        this.hazelcastInstance = Assert.requireNonNull(hazelcastInstance, "hazelcastInstance");
+        this.routes = Assert.requireNonNull(routes, "routes");
+        if (routeTimeToLive <= 0) {
+            throw new IllegalArgumentException("routeTimeToLive must be > 0");
+        }
+        this.routeTimeToLive = routeTimeToLive;
+        this.memberId = hazelcastInstance.getLocalEndpoint().getUuid();
+        this.entryListenerRegistration = routes.addEntryListener(new RoutesListener(), true);
+        for (final NodeRoutes nodeRoutes : routes.values()) {
+            updateView(nodeRoutes);
+        }
+        this.membershipListenerRegistration = hazelcastInstance.getCluster().addMembershipListener(new MembershipListener() {
+            @Override
+            public void memberAdded(final MembershipEvent membershipEvent) {
+            }
+
+            @Override
+            public void memberRemoved(final MembershipEvent membershipEvent) {
+                purgeRoutesOfMember(membershipEvent.getMember().getUuid());
+            }
+
+            @Override
+            public void memberAttributeChanged(final MemberAttributeEvent memberAttributeEvent) {
+            }
+        });
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Dolphin Platform event routing refresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final long refreshInterval = Math.max(1, routeTimeToLive / 3);
+        refreshExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    refreshOwnRoutes();
+                } catch (Exception e) {
+                    LOG.error("Can not refresh event routes", e);
+                }
+            }
+        }, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void addRoute(final String topicName, final String nodeId, final String routingKey) {
+        Assert.requireNonBlank(topicName, "topicName");
+        Assert.requireNonBlank(nodeId, "nodeId");
+        Assert.requireNonBlank(routingKey, "routingKey");
+        final String key = toKey(topicName, nodeId);
+        synchronized (ownRoutes) {
+            final NodeRoutes current = ownRoutes.get(key);
+            final Set<String> routingKeys = current == null ? new HashSet<String>() : new HashSet<>(current.getRoutingKeys());
+            if (!routingKeys.add(routingKey)) {
+                return;
+            }
+            store(key, new NodeRoutes(topicName, nodeId, memberId, routingKeys));
+        }
+    }
+
+    @Override
+    public void removeRoute(final String topicName, final String nodeId, final String routingKey) {
+        Assert.requireNonBlank(topicName, "topicName");
+        Assert.requireNonBlank(nodeId, "nodeId");
+        Assert.requireNonBlank(routingKey, "routingKey");
+        final String key = toKey(topicName, nodeId);
+        synchronized (ownRoutes) {
+            final NodeRoutes current = ownRoutes.get(key);
+            if (current == null || !current.getRoutingKeys().contains(routingKey)) {
+                return;
+            }
+            final Set<String> routingKeys = new HashSet<>(current.getRoutingKeys());
+            routingKeys.remove(routingKey);
+            if (routingKeys.isEmpty()) {
+                ownRoutes.remove(key);
+                routes.remove(key);
+                removeFromView(topicName, nodeId);
+            } else {
+                store(key, new NodeRoutes(topicName, nodeId, memberId, routingKeys));
+            }
+        }
+    }
+
+    @Override
+    public void removeRoutes(final String nodeId) {
+        Assert.requireNonBlank(nodeId, "nodeId");
+        synchronized (ownRoutes) {
+            for (final NodeRoutes nodeRoutes : new HashSet<>(ownRoutes.values())) {
+                if (nodeRoutes.getNodeId().equals(nodeId)) {
+                    final String key = toKey(nodeRoutes.getTopicName(), nodeId);
+                    ownRoutes.remove(key);
+                    routes.remove(key);
+                    removeFromView(nodeRoutes.getTopicName(), nodeId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public TopicRoutes getRoutes(final String topicName) {
+        Assert.requireNonBlank(topicName, "topicName");
+        final TopicRoutes routesOfTopic = topicRoutes.get(topicName);
+        return routesOfTopic == null ? TopicRoutes.EMPTY : routesOfTopic;
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+        routes.removeEntryListener(entryListenerRegistration);
+        hazelcastInstance.getCluster().removeMembershipListener(membershipListenerRegistration);
+    }
+
+    private void store(final String key, final NodeRoutes nodeRoutes) {
+        ownRoutes.put(key, nodeRoutes);
+        routes.put(key, nodeRoutes, routeTimeToLive, TimeUnit.MILLISECONDS);
+        updateView(nodeRoutes);
+    }
+
+    private void refreshOwnRoutes() {
+        synchronized (ownRoutes) {
+            for (final Map.Entry<String, NodeRoutes> entry : ownRoutes.entrySet()) {
+                routes.put(entry.getKey(), entry.getValue(), routeTimeToLive, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void purgeRoutesOfMember(final String departedMemberId) {
+        for (final Map.Entry<String, String> entry : membersOfNodes.entrySet()) {
+            if (entry.getValue().equals(departedMemberId)) {
+                final String nodeId = entry.getKey();
+                LOG.debug("Removing event routes of node {} since its Hazelcast member left the cluster", nodeId);
+                for (final Map.Entry<String, TopicRoutes> topicEntry : topicRoutes.entrySet()) {
+                    if (topicEntry.getValue().getNodes().contains(nodeId)) {
+                        routes.remove(toKey(topicEntry.getKey(), nodeId));
+                        removeFromView(topicEntry.getKey(), nodeId);
+                    }
+                }
+                membersOfNodes.remove(nodeId);
+            }
+        }
+    }
+
+    private void updateView(final NodeRoutes nodeRoutes) {
+        if (nodeRoutes.getMemberId() != null) {
+            membersOfNodes.put(nodeRoutes.getNodeId(), nodeRoutes.getMemberId());
+        }
+        topicRoutes.compute(nodeRoutes.getTopicName(), new BiFunction<String, TopicRoutes, TopicRoutes>() {
+            @Override
+            public TopicRoutes apply(final String name, final TopicRoutes current) {
+                return (current == null ? TopicRoutes.EMPTY : current).withRoutes(nodeRoutes.getNodeId(), nodeRoutes.getRoutingKeys());
+            }
+        });
+    }
+
+    private void removeFromView(final String topicName, final String nodeId) {
+        topicRoutes.computeIfPresent(topicName, new BiFunction<String, TopicRoutes, TopicRoutes>() {
+            @Override
+            public TopicRoutes apply(final String name, final TopicRoutes current) {
+                final TopicRoutes updated = current.withRoutes(nodeId, Collections.<String>emptySet());
+                return updated.isEmpty() ? null : updated;
+            }
+        });
+        for (final TopicRoutes routesOfTopic : topicRoutes.values()) {
+            if (routesOfTopic.getNodes().contains(nodeId)) {
+                return;
+            }
+        }
+        membersOfNodes.remove(nodeId);
+    }
+
+    private void removeFromView(final String key) {
+        final int separatorIndex = key.indexOf(KEY_SEPARATOR);
+        if (separatorIndex > 0) {
+            removeFromView(key.substring(separatorIndex + 1), key.substring(0, separatorIndex));
+        }
+    }
+
+    private static String toKey(final String topicName, final String nodeId) {
+        return nodeId + KEY_SEPARATOR + topicName;
+    }
+
+    private class RoutesListener implements EntryAddedListener<String, NodeRoutes>, EntryUpdatedListener<String, NodeRoutes>, EntryRemovedListener<String, NodeRoutes>, EntryEvictedListener<String, NodeRoutes> {
+
+        @Override
+        public void entryAdded(final EntryEvent<String, NodeRoutes> event) {
+            updateView(event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(final EntryEvent<String, NodeRoutes> event) {
+            updateView(event.getValue());
+        }
+
+        @Override
+        public void entryRemoved(final EntryEvent<String, NodeRoutes> event) {
+            removeFromView(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(final EntryEvent<String, NodeRoutes> event) {
+            removeFromView(event.getKey());
+        }
+    }
+
+    /**
+     * The routing keys of one node for one topic
+     */
+    public static final class NodeRoutes implements Serializable {
+
+        private final String topicName;
+
+        private final String nodeId;
+
+        private final String memberId;
+
+        private final Set<String> routingKeys;
+
+        public NodeRoutes(final String topicName, final String nodeId, final String memberId, final Set<String> routingKeys) {
+            this.topicName = Assert.requireNonBlank(topicName, "topicName");
+            this.nodeId = Assert.requireNonBlank(nodeId, "nodeId");
+            this.memberId = memberId;
+            this.routingKeys = Collections.unmodifiableSet(new HashSet<>(Assert.requireNonNull(routingKeys, "routingKeys")));
+        }
+
+        public String getTopicName() {
+            return topicName;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public String getMemberId() {
+            return memberId;
+        }
+
+        public Set<String> getRoutingKeys() {
+            return routingKeys;
+        }
+    }
+}
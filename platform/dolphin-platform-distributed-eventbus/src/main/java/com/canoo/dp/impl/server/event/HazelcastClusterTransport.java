@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import org.apiguardian.api.API;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.ROUTING_MAP_NAME;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link ClusterTransport} that sends events by using Hazelcast topics. Each channel is mapped to one Hazelcast
+ * topic.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class HazelcastClusterTransport implements ClusterTransport {
+
+    private final HazelcastInstance hazelcastClient;
+
+    private final Map<String, ITopic<Object>> hazelcastTopics = new ConcurrentHashMap<>();
+
+    private final Object routingTableLock = new Object();
+
+    private ClusterRoutingTable routingTable;
+
+    private boolean closed;
+
+    public HazelcastClusterTransport(final HazelcastInstance hazelcastClient) {
+        this.hazelcastClient = Assert.requireNonNull(hazelcastClient, "hazelcastClient");
+    }
+
+    @Override
+    public void publish(final String channelName, final DolphinEvent<?> event) {
+        Assert.requireNonNull(event, "event");
+        toHazelcastTopic(channelName).publish(event);
+    }
+
+    @Override
+    public void publish(final DolphinEventBatch batch) {
+        Assert.requireNonNull(batch, "batch");
+        final ITopic<Object> topic = toHazelcastTopic(batch.getChannelName());
+        if (batch.getEvents().size() == 1) {
+            topic.publish(batch.getEvents().get(0));
+        } else {
+            topic.publish(batch);
+        }
+    }
+
+    @Override
+    public String subscribe(final String channelName, final ClusterTransportListener listener) {
+        Assert.requireNonNull(listener, "listener");
+        final String registrationId = toHazelcastTopic(channelName).addMessageListener(new com.hazelcast.core.MessageListener<Object>() {
+            @Override
+            public void onMessage(com.hazelcast.core.Message<Object> message) {
+                final Object messageObject = message.getMessageObject();
+                if (messageObject instanceof DolphinEventBatch) {
+                    for (final DolphinEvent<?> event : ((DolphinEventBatch) messageObject).getEvents()) {
+                        listener.onEvent(event);
+                    }
+                } else {
+                    listener.onEvent((DolphinEvent<?>) messageObject);
+                }
+            }
+        });
+        return Assert.requireNonBlank(registrationId, "registrationId");
+    }
+
+    @Override
+    public void unsubscribe(final String channelName, final String registrationId) {
+        Assert.requireNonBlank(registrationId, "registrationId");
+        toHazelcastTopic(channelName).removeMessageListener(registrationId);
+    }
+
+    @Override
+    public ClusterRoutingTable getRoutingTable() {
+        synchronized (routingTableLock) {
+            if (closed) {
+                throw new IllegalStateException("Transport is already closed");
+            }
+            if (routingTable == null) {
+                // the routing table registers Hazelcast listeners and starts a refresh thread and is therefore only
+                // created if routing is used
+                routingTable = new HazelcastClusterRoutingTable(hazelcastClient, hazelcastClient.<String, HazelcastClusterRoutingTable.NodeRoutes>getMap(ROUTING_MAP_NAME));
+            }
+            return routingTable;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (routingTableLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (routingTable != null) {
+                routingTable.close();
+                routingTable = null;
+            }
+        }
+    }
+
+    private ITopic<Object> toHazelcastTopic(final String channelName) {
+        Assert.requireNonBlank(channelName, "channelName");
+        return hazelcastTopics.computeIfAbsent(channelName, new Function<String, ITopic<Object>>() {
+            @Override
+            public ITopic<Object> apply(final String name) {
+                return hazelcastClient.getTopic(name);
+            }
+        });
+    }
+}
@@ -19,16 +19,29 @@ import com.canoo.platform.core.PlatformConfiguration;
 import org.apiguardian.api.API;
 
 import java.io.Serializable;
+import java.util.List;
 
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_CONNECTION_ATTEMPT_COUNT;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_CONNECTION_ATTEMPT_PERIOD;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_CONNECTION_TIMEOUT;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_EVENT_BATCH_MAX_SIZE;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_EVENT_BATCH_WINDOW;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_EVENT_PAYLOAD_SERIALIZER;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_EVENT_ROUTING;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_EVENT_SERIALIZER;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_GROUP_NAME;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_PORT;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.DEFAULT_HAZELCAST_SERVER;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_CONNECTION_ATTEMPT_COUNT;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_CONNECTION_ATTEMPT_PERIOD;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_CONNECTION_TIMEOUT;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_EVENT_BATCH_MAX_SIZE;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_EVENT_BATCH_WINDOW;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_EVENT_PAYLOAD_SERIALIZER;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_EVENT_ROUTING;
+import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_EVENT_SERIALIZER;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_GROUP_NAME;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_SERVER_NAME;
 import static com.canoo.dp.impl.server.event.DistributedEventBusConfigProvider.HAZELCAST_SERVER_PORT;
@@ -67,4 +80,28 @@ public class HazelcastConfig implements Serializable {
         return configuration.getIntProperty(HAZELCAST_CONNECTION_TIMEOUT, DEFAULT_HAZELCAST_CONNECTION_TIMEOUT);
     }
 
+    public String getEventSerializer() {
+        return configuration.getProperty(HAZELCAST_EVENT_SERIALIZER, DEFAULT_HAZELCAST_EVENT_SERIALIZER);
+    }
+
+    public String getEventPayloadSerializer() {
+        return configuration.getProperty(HAZELCAST_EVENT_PAYLOAD_SERIALIZER, DEFAULT_HAZELCAST_EVENT_PAYLOAD_SERIALIZER);
+    }
+
+    public List<String> getEventPayloadAllowedTypes() {
+        return configuration.getListProperty(HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES, DEFAULT_HAZELCAST_EVENT_PAYLOAD_ALLOWED_TYPES);
+    }
+
+    public int getEventBatchWindow() {
+        return configuration.getIntProperty(HAZELCAST_EVENT_BATCH_WINDOW, DEFAULT_HAZELCAST_EVENT_BATCH_WINDOW);
+    }
+
+    public int getEventBatchMaxSize() {
+        return configuration.getIntProperty(HAZELCAST_EVENT_BATCH_MAX_SIZE, DEFAULT_HAZELCAST_EVENT_BATCH_MAX_SIZE);
+    }
+
+    public boolean isEventRoutingEnabled() {
+        return configuration.getBooleanProperty(HAZELCAST_EVENT_ROUTING, DEFAULT_HAZELCAST_EVENT_ROUTING);
+    }
+
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import org.apiguardian.api.API;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link EventPayloadSerializer} that uses the default Java serialization.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class JavaEventPayloadSerializer implements EventPayloadSerializer {
+
+    public static final int ID = 1;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public void write(final ObjectDataOutput out, final Serializable value) throws IOException {
+        final ByteArrayOutputStream rawOutputStream = new ByteArrayOutputStream();
+        try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(rawOutputStream)) {
+            objectOutputStream.writeObject(value);
+        }
+        out.writeByteArray(rawOutputStream.toByteArray());
+    }
+
+    @Override
+    public Serializable read(final ObjectDataInput in) throws IOException {
+        final byte[] raw = in.readByteArray();
+        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(raw))) {
+            return (Serializable) objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Can not deserialize payload", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link EventPayloadSerializer} that writes values as JSON. Since the type of a value is read from the stream only
+ * types that implement {@link Serializable} and that are part of the allow-list of the serializer can be read. By
+ * default the allow-list contains the types of the {@code java.lang}, {@code java.math}, {@code java.time} and
+ * {@code java.util} packages. An entry of the allow-list is either a fully qualified class name or a package name
+ * that ends with {@code .*}.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class JsonEventPayloadSerializer implements EventPayloadSerializer {
+
+    public static final int ID = 2;
+
+    public static final List<String> DEFAULT_ALLOWED_TYPES = Collections.unmodifiableList(Arrays.asList("java.lang.*", "java.math.*", "java.time.*", "java.util.*"));
+
+    private final Gson gson;
+
+    private final Set<String> allowedTypes = new HashSet<>();
+
+    private final List<String> allowedPackages = new ArrayList<>();
+
+    public JsonEventPayloadSerializer(final Gson gson, final Collection<String> allowedTypes) {
+        this.gson = Assert.requireNonNull(gson, "gson");
+        Assert.requireNonNull(allowedTypes, "allowedTypes");
+        for (final String allowedType : DEFAULT_ALLOWED_TYPES) {
+            allow(allowedType);
+        }
+        for (final String allowedType : allowedTypes) {
+            allow(allowedType);
+        }
+    }
+
+    public JsonEventPayloadSerializer(final Gson gson) {
+        this(gson, Collections.<String>emptyList());
+    }
+
+    public JsonEventPayloadSerializer(final Collection<String> allowedTypes) {
+        this(new GsonBuilder().serializeNulls().create(), allowedTypes);
+    }
+
+    public JsonEventPayloadSerializer() {
+        this(Collections.<String>emptyList());
+    }
+
+    private void allow(final String allowedType) {
+        Assert.requireNonBlank(allowedType, "allowedType");
+        final String trimmed = allowedType.trim();
+        if (trimmed.endsWith(".*")) {
+            allowedPackages.add(trimmed.substring(0, trimmed.length() - 1));
+        } else {
+            allowedTypes.add(trimmed);
+        }
+    }
+
+    private boolean isAllowed(final String className) {
+        if (allowedTypes.contains(className)) {
+            return true;
+        }
+        final int packageEnd = className.lastIndexOf('.');
+        return packageEnd > 0 && allowedPackages.contains(className.substring(0, packageEnd + 1));
+    }
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public void write(final ObjectDataOutput out, final Serializable value) throws IOException {
+        Assert.requireNonNull(value, "value");
+        out.writeUTF(value.getClass().getName());
+        out.writeByteArray(gson.toJson(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Serializable read(final ObjectDataInput in) throws IOException {
+        final String className = in.readUTF();
+        final String json = new String(in.readByteArray(), StandardCharsets.UTF_8);
+        if (!isAllowed(className)) {
+            throw new IOException("Can not deserialize payload of type " + className + "! The type is not allowed.");
+        }
+        final Class<?> type;
+        try {
+            final ClassLoader classLoader = in.getClassLoader() != null ? in.getClassLoader() : JsonEventPayloadSerializer.class.getClassLoader();
+            type = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Can not deserialize payload of type " + className, e);
+        }
+        if (!Serializable.class.isAssignableFrom(type)) {
+            throw new IOException("Can not deserialize payload of type " + className + "! The type is not serializable.");
+        }
+        return (Serializable) gson.fromJson(json, type);
+    }
+}
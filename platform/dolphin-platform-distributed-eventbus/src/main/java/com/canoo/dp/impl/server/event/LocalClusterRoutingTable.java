@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link ClusterRoutingTable} for nodes that live in the same JVM.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class LocalClusterRoutingTable implements ClusterRoutingTable {
+
+    private final Map<String, TopicRoutes> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void addRoute(final String topicName, final String nodeId, final String routingKey) {
+        Assert.requireNonBlank(topicName, "topicName");
+        routes.compute(topicName, new BiFunction<String, TopicRoutes, TopicRoutes>() {
+            @Override
+            public TopicRoutes apply(final String name, final TopicRoutes current) {
+                return (current == null ? TopicRoutes.EMPTY : current).withRoute(nodeId, routingKey);
+            }
+        });
+    }
+
+    @Override
+    public void removeRoute(final String topicName, final String nodeId, final String routingKey) {
+        Assert.requireNonBlank(topicName, "topicName");
+        routes.computeIfPresent(topicName, new BiFunction<String, TopicRoutes, TopicRoutes>() {
+            @Override
+            public TopicRoutes apply(final String name, final TopicRoutes current) {
+                final TopicRoutes updated = current.withoutRoute(nodeId, routingKey);
+                return updated.isEmpty() ? null : updated;
+            }
+        });
+    }
+
+    @Override
+    public void removeRoutes(final String nodeId) {
+        Assert.requireNonBlank(nodeId, "nodeId");
+        for (final String topicName : routes.keySet()) {
+            routes.computeIfPresent(topicName, new BiFunction<String, TopicRoutes, TopicRoutes>() {
+                @Override
+                public TopicRoutes apply(final String name, final TopicRoutes current) {
+                    final TopicRoutes updated = current.withRoutes(nodeId, Collections.<String>emptySet());
+                    return updated.isEmpty() ? null : updated;
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public TopicRoutes getRoutes(final String topicName) {
+        Assert.requireNonBlank(topicName, "topicName");
+        final TopicRoutes topicRoutes = routes.get(topicName);
+        return topicRoutes == null ? TopicRoutes.EMPTY : topicRoutes;
+    }
+}
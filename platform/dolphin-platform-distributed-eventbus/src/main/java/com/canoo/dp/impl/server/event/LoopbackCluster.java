@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * A cluster of {@link LoopbackClusterTransport} instances that all live in the same JVM. Each transport of the
+ * cluster acts as one node. Events are delivered to the listeners of all nodes in the thread that publishes the event.
+ * The cluster can be used to test and benchmark several {@link DistributedEventBus} instances in one JVM.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class LoopbackCluster {
+
+    private final List<LoopbackClusterTransport> nodes = new CopyOnWriteArrayList<>();
+
+    private final ClusterRoutingTable routingTable = new LocalClusterRoutingTable();
+
+    /**
+     * Creates a new node in this cluster
+     * @return the transport of the new node
+     */
+    public LoopbackClusterTransport createTransport() {
+        final LoopbackClusterTransport transport = new LoopbackClusterTransport(this);
+        nodes.add(transport);
+        return transport;
+    }
+
+    void remove(final LoopbackClusterTransport transport) {
+        nodes.remove(transport);
+    }
+
+    void deliver(final String channelName, final List<DolphinEvent<?>> events) {
+        Assert.requireNonBlank(channelName, "channelName");
+        Assert.requireNonNull(events, "events");
+        for (final LoopbackClusterTransport node : nodes) {
+            node.deliver(channelName, events);
+        }
+    }
+
+    ClusterRoutingTable getRoutingTable() {
+        return routingTable;
+    }
+
+    public List<LoopbackClusterTransport> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * {@link ClusterTransport} that represents one node of a {@link LoopbackCluster}. Instances must be created by
+ * {@link LoopbackCluster#createTransport()}.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class LoopbackClusterTransport implements ClusterTransport {
+
+    private final LoopbackCluster cluster;
+
+    private final Map<String, Map<String, ClusterTransportListener>> listeners = new ConcurrentHashMap<>();
+
+    private final AtomicLong receivedMessageCount = new AtomicLong();
+
+    LoopbackClusterTransport(final LoopbackCluster cluster) {
+        this.cluster = Assert.requireNonNull(cluster, "cluster");
+    }
+
+    @Override
+    public void publish(final String channelName, final DolphinEvent<?> event) {
+        Assert.requireNonNull(event, "event");
+        cluster.deliver(channelName, Collections.<DolphinEvent<?>>singletonList(event));
+    }
+
+    @Override
+    public void publish(final DolphinEventBatch batch) {
+        Assert.requireNonNull(batch, "batch");
+        cluster.deliver(batch.getChannelName(), batch.getEvents());
+    }
+
+    @Override
+    public String subscribe(final String channelName, final ClusterTransportListener listener) {
+        Assert.requireNonBlank(channelName, "channelName");
+        Assert.requireNonNull(listener, "listener");
+        final String registrationId = UUID.randomUUID().toString();
+        listeners.computeIfAbsent(channelName, new Function<String, Map<String, ClusterTransportListener>>() {
+            @Override
+            public Map<String, ClusterTransportListener> apply(final String name) {
+                return new ConcurrentHashMap<>();
+            }
+        }).put(registrationId, listener);
+        return registrationId;
+    }
+
+    @Override
+    public void unsubscribe(final String channelName, final String registrationId) {
+        Assert.requireNonBlank(channelName, "channelName");
+        Assert.requireNonBlank(registrationId, "registrationId");
+        final Map<String, ClusterTransportListener> channelListeners = listeners.get(channelName);
+        if (channelListeners != null) {
+            channelListeners.remove(registrationId);
+        }
+    }
+
+    @Override
+    public ClusterRoutingTable getRoutingTable() {
+        return cluster.getRoutingTable();
+    }
+
+    @Override
+    public void close() {
+        leave();
+    }
+
+    /**
+     * Removes this node from the cluster
+     */
+    public void leave() {
+        cluster.remove(this);
+    }
+
+    /**
+     * Returns the number of messages that were received by listeners of this node. A batch is counted as one message.
+     * @return the number of received messages
+     */
+    public long getReceivedMessageCount() {
+        return receivedMessageCount.get();
+    }
+
+    void deliver(final String channelName, final List<DolphinEvent<?>> events) {
+        final Map<String, ClusterTransportListener> channelListeners = listeners.get(channelName);
+        if (channelListeners != null && !channelListeners.isEmpty()) {
+            receivedMessageCount.incrementAndGet();
+            for (final ClusterTransportListener listener : channelListeners.values()) {
+                for (final DolphinEvent<?> event : events) {
+                    listener.onEvent(event);
+                }
+            }
+        }
+    }
+}
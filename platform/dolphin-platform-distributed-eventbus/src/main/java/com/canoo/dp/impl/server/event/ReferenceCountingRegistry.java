@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.platform.core.functional.Subscription;
+import org.apiguardian.api.API;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Reference counted registrations without a global lock. The first {@link #acquire(Object)} call for a key creates a
+ * registration and the last release of the key removes the registration again. Acquire and release calls for
+ * different keys never block each other. A call that acquires a key while the registration for the key is created or
+ * removed by another thread waits until that is done. Because of this a new registration for a key is never created
+ * before the old registration for the key was removed.
+ *
+ * @param <K> type of the keys
+ * @param <R> type of the registrations
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class ReferenceCountingRegistry<K, R> {
+
+    private static final int REMOVED = -1;
+
+    private final ConcurrentMap<K, Entry<R>> entries = new ConcurrentHashMap<>();
+
+    private final Function<K, R> registerFunction;
+
+    private final BiConsumer<K, R> unregisterFunction;
+
+    /**
+     * Constructor
+     *
+     * @param registerFunction   creates the registration for a key. Will be called on the first acquire of a key.
+     * @param unregisterFunction removes the registration of a key. Will be called on the last release of a key.
+     */
+    public ReferenceCountingRegistry(final Function<K, R> registerFunction, final BiConsumer<K, R> unregisterFunction) {
+        this.registerFunction = Assert.requireNonNull(registerFunction, "registerFunction");
+        this.unregisterFunction = Assert.requireNonNull(unregisterFunction, "unregisterFunction");
+    }
+
+    /**
+     * Acquires a reference for the given key
+     * @param key the key
+     * @return a subscription that releases the reference. Calling it more than once has no effect.
+     */
+    public Subscription acquire(final K key) {
+        Assert.requireNonNull(key, "key");
+        while (true) {
+            final Entry<R> entry = entries.computeIfAbsent(key, new Function<K, Entry<R>>() {
+                @Override
+                public Entry<R> apply(final K k) {
+                    return new Entry<>();
+                }
+            });
+            final int count = entry.count.get();
+            if (count == REMOVED) {
+                // The entry is removed by a concurrent release
+                entry.unregistration.join();
+                entries.remove(key, entry);
+                continue;
+            }
+            if (entry.count.compareAndSet(count, count + 1)) {
+                if (count == 0) {
+                    register(key, entry);
+                } else {
+                    awaitRegistration(key, entry);
+                }
+                return createSubscription(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of references that are currently held for the given key
+     * @param key the key
+     * @return the number of references
+     */
+    public int getCount(final K key) {
+        final Entry<R> entry = entries.get(key);
+        if (entry == null) {
+            return 0;
+        }
+        return Math.max(entry.count.get(), 0);
+    }
+
+    private void register(final K key, final Entry<R> entry) {
+        try {
+            entry.registration.complete(registerFunction.apply(key));
+        } catch (final RuntimeException e) {
+            entry.count.set(REMOVED);
+            entries.remove(key, entry);
+            entry.unregistration.complete(null);
+            entry.registration.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void awaitRegistration(final K key, final Entry<R> entry) {
+        try {
+            entry.registration.join();
+        } catch (final CompletionException e) {
+            throw new IllegalStateException("Registration for " + key + " failed", e.getCause());
+        }
+    }
+
+    private Subscription createSubscription(final K key, final Entry<R> entry) {
+        final AtomicBoolean released = new AtomicBoolean(false);
+        return new Subscription() {
+            @Override
+            public void unsubscribe() {
+                if (released.compareAndSet(false, true)) {
+                    release(key, entry);
+                }
+            }
+        };
+    }
+
+    private void release(final K key, final Entry<R> entry) {
+        while (true) {
+            final int count = entry.count.get();
+            if (count == 1) {
+                // The last reference is released. Once the entry is marked as removed no other thread can acquire it.
+                if (entry.count.compareAndSet(1, REMOVED)) {
+                    try {
+                        unregisterFunction.accept(key, entry.registration.join());
+                    } finally {
+                        entries.remove(key, entry);
+                        entry.unregistration.complete(null);
+                    }
+                    return;
+                }
+            } else if (count > 1) {
+                if (entry.count.compareAndSet(count, count - 1)) {
+                    return;
+                }
+            } else {
+                throw new IllegalStateException("Count for " + key + " is wrong: " + count);
+            }
+        }
+    }
+
+    private static class Entry<R> {
+
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        private final CompletableFuture<R> registration = new CompletableFuture<>();
+
+        private final CompletableFuture<Void> unregistration = new CompletableFuture<>();
+
+    }
+}
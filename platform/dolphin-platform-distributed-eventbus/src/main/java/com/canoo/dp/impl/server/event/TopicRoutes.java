@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.canoo.dp.impl.server.event.ClusterRoutingTable.ACCEPT_ALL;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * The routing keys of all nodes for one topic. Instances are immutable.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class TopicRoutes implements Serializable {
+
+    public static final TopicRoutes EMPTY = new TopicRoutes(Collections.<String, Set<String>>emptyMap());
+
+    private final Map<String, Set<String>> routingKeysPerNode;
+
+    private TopicRoutes(final Map<String, Set<String>> routingKeysPerNode) {
+        this.routingKeysPerNode = routingKeysPerNode;
+    }
+
+    public TopicRoutes withRoute(final String nodeId, final String routingKey) {
+        Assert.requireNonBlank(nodeId, "nodeId");
+        Assert.requireNonBlank(routingKey, "routingKey");
+        final Map<String, Set<String>> routes = new HashMap<>(routingKeysPerNode);
+        final Set<String> keys = routes.containsKey(nodeId) ? new HashSet<>(routes.get(nodeId)) : new HashSet<String>();
+        keys.add(routingKey);
+        routes.put(nodeId, Collections.unmodifiableSet(keys));
+        return new TopicRoutes(Collections.unmodifiableMap(routes));
+    }
+
+    public TopicRoutes withoutRoute(final String nodeId, final String routingKey) {
+        Assert.requireNonBlank(nodeId, "nodeId");
+        Assert.requireNonBlank(routingKey, "routingKey");
+        if (!routingKeysPerNode.containsKey(nodeId)) {
+            return this;
+        }
+        final Map<String, Set<String>> routes = new HashMap<>(routingKeysPerNode);
+        final Set<String> keys = new HashSet<>(routes.get(nodeId));
+        keys.remove(routingKey);
+        if (keys.isEmpty()) {
+            routes.remove(nodeId);
+        } else {
+            routes.put(nodeId, Collections.unmodifiableSet(keys));
+        }
+        return new TopicRoutes(Collections.unmodifiableMap(routes));
+    }
+
+    /**
+     * Returns routes in that the routing keys of the given node are replaced by the given keys
+     * @param nodeId the id of the node
+     * @param routingKeys the routing keys of the node, if empty the node will be removed
+     * @return the routes
+     */
+    public TopicRoutes withRoutes(final String nodeId, final Set<String> routingKeys) {
+        Assert.requireNonBlank(nodeId, "nodeId");
+        Assert.requireNonNull(routingKeys, "routingKeys");
+        if (routingKeys.isEmpty() && !routingKeysPerNode.containsKey(nodeId)) {
+            return this;
+        }
+        final Map<String, Set<String>> routes = new HashMap<>(routingKeysPerNode);
+        if (routingKeys.isEmpty()) {
+            routes.remove(nodeId);
+        } else {
+            routes.put(nodeId, Collections.unmodifiableSet(new HashSet<>(routingKeys)));
+        }
+        return new TopicRoutes(Collections.unmodifiableMap(routes));
+    }
+
+    /**
+     * Returns the ids of all nodes that have a subscription for the topic
+     * @return the node ids
+     */
+    public Set<String> getNodes() {
+        return routingKeysPerNode.keySet();
+    }
+
+    /**
+     * Returns the ids of all nodes that have a subscription that can accept an event with the given routing keys
+     * @param routingKeys the routing keys of the event
+     * @return the node ids
+     */
+    public Set<String> getTargetNodes(final Collection<String> routingKeys) {
+        Assert.requireNonNull(routingKeys, "routingKeys");
+        final Set<String> nodes = new HashSet<>();
+        for (final Map.Entry<String, Set<String>> entry : routingKeysPerNode.entrySet()) {
+            final Set<String> keys = entry.getValue();
+            if (keys.contains(ACCEPT_ALL) || !Collections.disjoint(keys, routingKeys)) {
+                nodes.add(entry.getKey());
+            }
+        }
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return routingKeysPerNode.isEmpty();
+    }
+}
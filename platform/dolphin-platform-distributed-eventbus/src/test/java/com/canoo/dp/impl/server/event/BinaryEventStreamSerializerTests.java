@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.platform.remoting.server.event.Topic;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+public class BinaryEventStreamSerializerTests {
+
+    @Test
+    public void testSimpleEvent() throws IOException {
+        //given
+        final Topic<String> topic = Topic.create("test-topic");
+        final long timestamp = System.currentTimeMillis();
+        final DolphinEvent<String> dolphinEvent = new DolphinEvent<>(topic, timestamp, "test-data");
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(new BinaryEventStreamSerializer(), dolphinEvent);
+
+        //then
+        Assert.assertEquals(event.getData(), "test-data");
+        Assert.assertEquals(event.getMessageEventContext().getTopic(), topic);
+        Assert.assertEquals(event.getMessageEventContext().getTimestamp(), timestamp);
+        Assert.assertTrue(event.getMessageEventContext().getMetadata().isEmpty());
+    }
+
+    @Test
+    public void testEventWithNullData() throws IOException {
+        //given
+        final Topic<String> topic = Topic.create("test-topic");
+        final DolphinEvent<String> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), null);
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(new BinaryEventStreamSerializer(), dolphinEvent);
+
+        //then
+        Assert.assertNull(event.getData());
+    }
+
+    @Test
+    public void testEventWithSerializedData() throws IOException {
+        //given
+        final Topic<LocalDateTime> topic = Topic.create("test-topic");
+        final LocalDateTime data = LocalDateTime.now();
+        final DolphinEvent<LocalDateTime> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), data);
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(new BinaryEventStreamSerializer(), dolphinEvent);
+
+        //then
+        Assert.assertEquals(event.getData(), data);
+    }
+
+    @Test
+    public void testEventWithJsonData() throws IOException {
+        //given
+        final Topic<TestData> topic = Topic.create("test-topic");
+        final TestData data = new TestData("test", 42);
+        final DolphinEvent<TestData> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), data);
+        final BinaryEventStreamSerializer jsonSerializer = new BinaryEventStreamSerializer(new JsonEventPayloadSerializer(Collections.singletonList(TestData.class.getName())));
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(jsonSerializer, dolphinEvent);
+
+        //then
+        Assert.assertTrue(event.getData() instanceof TestData);
+        Assert.assertEquals(((TestData) event.getData()).name, "test");
+        Assert.assertEquals(((TestData) event.getData()).value, 42);
+    }
+
+    @Test
+    public void testReadWithOtherPayloadSerializer() throws IOException {
+        //given
+        final Topic<TestData> topic = Topic.create("test-topic");
+        final DolphinEvent<TestData> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), new TestData("test", 42));
+        final StreamObjectDataOutput output = new StreamObjectDataOutput();
+        new BinaryEventStreamSerializer(new JsonEventPayloadSerializer()).write(output, dolphinEvent);
+
+        //when
+        final DolphinEvent<?> event = new BinaryEventStreamSerializer(new JavaEventPayloadSerializer(), new JsonEventPayloadSerializer(Collections.singletonList(TestData.class.getName()))).read(new StreamObjectDataInput(output.toByteArray()));
+
+        //then
+        Assert.assertEquals(((TestData) event.getData()).name, "test");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testJsonPayloadOfNotAllowedType() throws IOException {
+        //given
+        final Topic<TestData> topic = Topic.create("test-topic");
+        final DolphinEvent<TestData> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), new TestData("test", 42));
+
+        //when
+        writeAndRead(new BinaryEventStreamSerializer(new JsonEventPayloadSerializer()), dolphinEvent);
+    }
+
+    @Test
+    public void testJsonPayloadOfAllowedPackage() throws IOException {
+        //given
+        final Topic<TestData> topic = Topic.create("test-topic");
+        final DolphinEvent<TestData> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), new TestData("test", 42));
+        final JsonEventPayloadSerializer payloadSerializer = new JsonEventPayloadSerializer(Collections.singletonList(TestData.class.getPackage().getName() + ".*"));
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(new BinaryEventStreamSerializer(payloadSerializer), dolphinEvent);
+
+        //then
+        Assert.assertEquals(((TestData) event.getData()).name, "test");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testJsonPayloadOfNotSerializableType() throws IOException {
+        //given
+        final StreamObjectDataOutput output = new StreamObjectDataOutput();
+        output.writeUTF(Object.class.getName());
+        output.writeByteArray("{}".getBytes(StandardCharsets.UTF_8));
+
+        //when
+        new JsonEventPayloadSerializer().read(new StreamObjectDataInput(output.toByteArray()));
+    }
+
+    @Test
+    public void testEventWithMetadata() throws IOException {
+        //given
+        final Topic<String> topic = Topic.create("test-topic");
+        final DolphinEvent<String> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), "test-data");
+        final LocalDateTime dateValue = LocalDateTime.now();
+        dolphinEvent.addMetadata("test-key-1", "test-value-1");
+        dolphinEvent.addMetadata("test-key-2", null);
+        dolphinEvent.addMetadata("test-key-3", dateValue);
+        dolphinEvent.addMetadata("test-key-4", 12L);
+        dolphinEvent.addMetadata("test-key-5", true);
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(new BinaryEventStreamSerializer(), dolphinEvent);
+
+        //then
+        final Map<String, Serializable> metadata = event.getMessageEventContext().getMetadata();
+        Assert.assertEquals(metadata.size(), 5);
+        Assert.assertEquals(metadata.get("test-key-1"), "test-value-1");
+        Assert.assertTrue(metadata.containsKey("test-key-2"));
+        Assert.assertNull(metadata.get("test-key-2"));
+        Assert.assertEquals(metadata.get("test-key-3"), dateValue);
+        Assert.assertEquals(metadata.get("test-key-4"), 12L);
+        Assert.assertEquals(metadata.get("test-key-5"), true);
+    }
+
+    @Test
+    public void testLargeStringData() throws IOException {
+        //given
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append('a');
+        }
+        final Topic<String> topic = Topic.create("test-topic");
+        final DolphinEvent<String> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), builder.toString());
+
+        //when
+        final DolphinEvent<?> event = writeAndRead(new BinaryEventStreamSerializer(), dolphinEvent);
+
+        //then
+        Assert.assertEquals(event.getData(), builder.toString());
+    }
+
+    @Test
+    public void testBinaryFormatIsSmallerThanJsonFormat() throws IOException {
+        //given
+        final Topic<String> topic = Topic.create("test-topic");
+        final DolphinEvent<String> dolphinEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), "test-data");
+        dolphinEvent.addMetadata(EventConstants.TYPE_PARAM, EventConstants.TYPE_PLATFORM);
+        dolphinEvent.addMetadata(EventConstants.CLIENT_SESSION_PARAM, "b3a0e9b4-3d1c-4d4b-9a73-5d2f8f6b1c11");
+        dolphinEvent.addMetadata(EventConstants.HTTP_SESSION_PARAM, "8C3E5A0B2D7F4E1A9B6C0D3E2F1A4B5C");
+
+        //when
+        final StreamObjectDataOutput binaryOutput = new StreamObjectDataOutput();
+        new BinaryEventStreamSerializer().write(binaryOutput, dolphinEvent);
+        final StreamObjectDataOutput jsonOutput = new StreamObjectDataOutput();
+        new EventStreamSerializer().write(jsonOutput, dolphinEvent);
+
+        //then
+        Assert.assertTrue(binaryOutput.toByteArray().length < jsonOutput.toByteArray().length);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownFormatVersion() throws IOException {
+        new BinaryEventStreamSerializer().read(new StreamObjectDataInput(new byte[]{1}));
+    }
+
+    private DolphinEvent<?> writeAndRead(final BinaryEventStreamSerializer serializer, final DolphinEvent<?> event) throws IOException {
+        final StreamObjectDataOutput output = new StreamObjectDataOutput();
+        serializer.write(output, event);
+        return serializer.read(new StreamObjectDataInput(output.toByteArray()));
+    }
+
+    public static class TestData implements Serializable {
+
+        private String name;
+
+        private int value;
+
+        public TestData() {
+        }
+
+        public TestData(final String name, final int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
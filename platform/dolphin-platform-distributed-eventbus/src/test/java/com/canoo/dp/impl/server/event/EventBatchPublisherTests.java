@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.platform.remoting.server.event.Topic;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class EventBatchPublisherTests {
+
+    @Test
+    public void testEventsAreSendInOneBatch() throws InterruptedException {
+        //given
+        final List<DolphinEventBatch> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final EventBatchPublisher publisher = new EventBatchPublisher(200, 100, createConsumer(batches, latch));
+        final Topic<String> topic = Topic.create("test-topic");
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(new DolphinEvent<>(topic, System.currentTimeMillis(), "data-" + i));
+        }
+
+        //then
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(batches.size(), 1);
+        Assert.assertEquals(batches.get(0).getChannelName(), "test-topic");
+        Assert.assertEquals(batches.get(0).getEvents().size(), 10);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(batches.get(0).getEvents().get(i).getData(), "data-" + i);
+        }
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testBatchesArePerTopic() throws InterruptedException {
+        //given
+        final List<DolphinEventBatch> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(2);
+        final EventBatchPublisher publisher = new EventBatchPublisher(100, 100, createConsumer(batches, latch));
+        final Topic<String> topic1 = Topic.create("test-topic-1");
+        final Topic<String> topic2 = Topic.create("test-topic-2");
+
+        //when
+        publisher.publish(new DolphinEvent<>(topic1, System.currentTimeMillis(), "data-1"));
+        publisher.publish(new DolphinEvent<>(topic2, System.currentTimeMillis(), "data-2"));
+        publisher.publish(new DolphinEvent<>(topic1, System.currentTimeMillis(), "data-3"));
+
+        //then
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(batches.size(), 2);
+        for (final DolphinEventBatch batch : batches) {
+            if (batch.getChannelName().equals("test-topic-1")) {
+                Assert.assertEquals(batch.getEvents().size(), 2);
+            } else {
+                Assert.assertEquals(batch.getChannelName(), "test-topic-2");
+                Assert.assertEquals(batch.getEvents().size(), 1);
+            }
+        }
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testMaxBatchSize() throws InterruptedException {
+        //given
+        final List<DolphinEventBatch> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(10);
+        final EventBatchPublisher publisher = new EventBatchPublisher(1_000, 5, new Consumer<DolphinEventBatch>() {
+            @Override
+            public void accept(final DolphinEventBatch batch) {
+                batches.add(batch);
+                for (int i = 0; i < batch.getEvents().size(); i++) {
+                    latch.countDown();
+                }
+            }
+        });
+        final Topic<String> topic = Topic.create("test-topic");
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(new DolphinEvent<>(topic, System.currentTimeMillis(), "data-" + i));
+        }
+
+        //then
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        int index = 0;
+        for (final DolphinEventBatch batch : batches) {
+            Assert.assertTrue(batch.getEvents().size() <= 5);
+            for (final DolphinEvent<?> event : batch.getEvents()) {
+                Assert.assertEquals(event.getData(), "data-" + index++);
+            }
+        }
+        Assert.assertEquals(index, 10);
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testShutdownSendsPendingEvents() throws InterruptedException {
+        //given
+        final List<DolphinEventBatch> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final EventBatchPublisher publisher = new EventBatchPublisher(60_000, 100, createConsumer(batches, latch));
+        final Topic<String> topic = Topic.create("test-topic");
+        publisher.publish(new DolphinEvent<>(topic, System.currentTimeMillis(), "data"));
+
+        //when
+        publisher.shutdown();
+
+        //then
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(batches.get(0).getEvents().size(), 1);
+    }
+
+    @Test
+    public void testChannelsAreRemovedOnceFlushed() throws InterruptedException {
+        //given
+        final List<DolphinEventBatch> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+        final EventBatchPublisher publisher = new EventBatchPublisher(50, 100, createConsumer(batches, latch));
+        final Topic<String> topic = Topic.create("test-topic");
+
+        //when
+        publisher.publish(new DolphinEvent<>(topic, System.currentTimeMillis(), "data-1"));
+        publisher.publish("node-1", new DolphinEvent<>(topic, System.currentTimeMillis(), "data-2"));
+        publisher.publish("node-2", new DolphinEvent<>(topic, System.currentTimeMillis(), "data-3"));
+
+        //then
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        final long end = System.currentTimeMillis() + 5_000;
+        while (publisher.getPendingChannelCount() > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(publisher.getPendingChannelCount(), 0);
+
+        //when
+        publisher.publish(new DolphinEvent<>(topic, System.currentTimeMillis(), "data-4"));
+        publisher.shutdown();
+
+        //then
+        Assert.assertEquals(batches.size(), 4);
+        Assert.assertEquals(batches.get(3).getEvents().get(0).getData(), "data-4");
+    }
+
+    @Test
+    public void testPublishAfterShutdown() {
+        //given
+        final EventBatchPublisher publisher = new EventBatchPublisher(100, 100, createConsumer(new CopyOnWriteArrayList<DolphinEventBatch>(), new CountDownLatch(1)));
+        publisher.shutdown();
+
+        //when
+        publisher.publish(new DolphinEvent<>(Topic.<String>create("test-topic"), System.currentTimeMillis(), "data"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBatchWindowMustBePositive() {
+        new EventBatchPublisher(0, 100, createConsumer(new CopyOnWriteArrayList<DolphinEventBatch>(), new CountDownLatch(1)));
+    }
+
+    private Consumer<DolphinEventBatch> createConsumer(final List<DolphinEventBatch> batches, final CountDownLatch latch) {
+        return new Consumer<DolphinEventBatch>() {
+            @Override
+            public void accept(final DolphinEventBatch batch) {
+                batches.add(batch);
+                latch.countDown();
+            }
+        };
+    }
+}
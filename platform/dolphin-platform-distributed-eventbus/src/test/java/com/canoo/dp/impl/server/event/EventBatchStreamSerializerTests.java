@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.platform.remoting.server.event.Topic;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventBatchStreamSerializerTests {
+
+    @Test
+    public void testBatchWithBinarySerializer() throws IOException {
+        testBatch(new EventBatchStreamSerializer(new BinaryEventStreamSerializer()));
+    }
+
+    @Test
+    public void testBatchWithJsonSerializer() throws IOException {
+        testBatch(new EventBatchStreamSerializer(new EventStreamSerializer()));
+    }
+
+    private void testBatch(final EventBatchStreamSerializer serializer) throws IOException {
+        //given
+        final Topic<String> topic = Topic.create("test-topic");
+        final List<DolphinEvent<?>> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final DolphinEvent<String> event = new DolphinEvent<>(topic, i, "data-" + i);
+            event.addMetadata("index", i);
+            events.add(event);
+        }
+        final StreamObjectDataOutput output = new StreamObjectDataOutput();
+
+        //when
+        serializer.write(output, new DolphinEventBatch(topic.getName(), events));
+        final DolphinEventBatch batch = serializer.read(new StreamObjectDataInput(output.toByteArray()));
+
+        //then
+        Assert.assertEquals(batch.getChannelName(), "test-topic");
+        Assert.assertEquals(batch.getEvents().size(), 5);
+        for (int i = 0; i < 5; i++) {
+            final DolphinEvent<?> event = batch.getEvents().get(i);
+            Assert.assertEquals(event.getData(), "data-" + i);
+            Assert.assertEquals(event.getMessageEventContext().getTimestamp(), i);
+            Assert.assertEquals(event.getMessageEventContext().getTopic(), topic);
+            Assert.assertEquals(event.getMessageEventContext().getMetadata().get("index"), i);
+        }
+    }
+}
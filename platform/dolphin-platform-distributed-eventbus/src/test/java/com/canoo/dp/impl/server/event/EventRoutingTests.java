@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.platform.remoting.server.event.ClientSessionEventFilter;
+import com.canoo.platform.remoting.server.event.HttpSessionEventFilter;
+import com.canoo.platform.remoting.server.event.Topic;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.canoo.dp.impl.server.event.ClusterRoutingTable.ACCEPT_ALL;
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.NODE_CHANNEL_PREFIX;
+
+public class EventRoutingTests {
+
+    private final static Topic<String> TEST_TOPIC = Topic.create("test-topic");
+
+    @Test
+    public void testFilterRoutingKeys() {
+        Assert.assertEquals(new ClientSessionEventFilter<>("a", "b").getRoutingKeys(), new HashSet<>(Arrays.asList(EventRoutingKeys.forClientSession("a"), EventRoutingKeys.forClientSession("b"))));
+        Assert.assertEquals(new HttpSessionEventFilter<>("a").getRoutingKeys(), Collections.singleton(EventRoutingKeys.forHttpSession("a")));
+    }
+
+    @Test
+    public void testEventRoutingKeys() {
+        //given
+        final DolphinEvent<String> event = createEvent("client-1", "http-1");
+
+        //when
+        final List<String> keys = EventRoutingKeys.forEvent(event.getMessageEventContext());
+
+        //then
+        Assert.assertEquals(keys, Arrays.asList(EventRoutingKeys.forClientSession("client-1"), EventRoutingKeys.forHttpSession("http-1")));
+        Assert.assertTrue(new ClientSessionEventFilter<String>("client-1").test(event.getMessageEventContext()));
+        Assert.assertTrue(new HttpSessionEventFilter<String>("http-1").test(event.getMessageEventContext()));
+    }
+
+    @Test
+    public void testTopicRoutes() {
+        //given
+        final TopicRoutes routes = TopicRoutes.EMPTY
+                .withRoute("node-1", ACCEPT_ALL)
+                .withRoute("node-2", "key-1")
+                .withRoute("node-3", "key-2")
+                .withRoute("node-3", "key-3");
+
+        //then
+        Assert.assertEquals(routes.getNodes(), new HashSet<>(Arrays.asList("node-1", "node-2", "node-3")));
+        Assert.assertEquals(routes.getTargetNodes(Collections.singletonList("key-1")), new HashSet<>(Arrays.asList("node-1", "node-2")));
+        Assert.assertEquals(routes.getTargetNodes(Collections.singletonList("key-3")), new HashSet<>(Arrays.asList("node-1", "node-3")));
+        Assert.assertEquals(routes.getTargetNodes(Collections.<String>emptyList()), Collections.singleton("node-1"));
+        Assert.assertEquals(routes.withoutRoute("node-3", "key-2").getTargetNodes(Collections.singletonList("key-3")), new HashSet<>(Arrays.asList("node-1", "node-3")));
+        Assert.assertTrue(routes.withoutRoute("node-1", ACCEPT_ALL).withoutRoute("node-2", "key-1").withoutRoute("node-3", "key-2").withoutRoute("node-3", "key-3").isEmpty());
+    }
+
+    @Test
+    public void testReplaceRoutesOfNode() {
+        //given
+        final TopicRoutes routes = TopicRoutes.EMPTY
+                .withRoute("node-1", "key-1")
+                .withRoute("node-2", "key-2");
+
+        //when
+        final TopicRoutes replaced = routes.withRoutes("node-1", new HashSet<>(Arrays.asList("key-3", "key-4")));
+        final TopicRoutes removed = routes.withRoutes("node-1", Collections.<String>emptySet());
+
+        //then
+        Assert.assertEquals(replaced.getTargetNodes(Collections.singletonList("key-1")), Collections.emptySet());
+        Assert.assertEquals(replaced.getTargetNodes(Collections.singletonList("key-4")), Collections.singleton("node-1"));
+        Assert.assertEquals(removed.getNodes(), Collections.singleton("node-2"));
+        Assert.assertSame(removed.withRoutes("node-1", Collections.<String>emptySet()), removed);
+    }
+
+    @Test
+    public void testRoutesAreRemovedOnShutdown() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final DistributedEventBus eventBus = createEventBus(cluster.createTransport());
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), eventBus.getNodeId(), EventRoutingKeys.forClientSession("client-1"));
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), "node-2", ACCEPT_ALL);
+
+        //when
+        eventBus.shutdown();
+
+        //then
+        Assert.assertEquals(cluster.getRoutingTable().getRoutes(TEST_TOPIC.getName()).getNodes(), Collections.singleton("node-2"));
+    }
+
+    @Test
+    public void testEventIsOnlySendToMatchingNode() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final DistributedEventBus eventBus = createEventBus(cluster.createTransport());
+        final List<DolphinEvent<?>> received1 = new CopyOnWriteArrayList<>();
+        final List<DolphinEvent<?>> received2 = new CopyOnWriteArrayList<>();
+        final LoopbackClusterTransport node1 = createNode(cluster, "node-1", received1);
+        final LoopbackClusterTransport node2 = createNode(cluster, "node-2", received2);
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), "node-1", EventRoutingKeys.forClientSession("client-1"));
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), "node-2", EventRoutingKeys.forClientSession("client-2"));
+
+        //when
+        eventBus.publishForOtherSessions(createEvent("client-1", "http-1"));
+
+        //then
+        Assert.assertEquals(received1.size(), 1);
+        Assert.assertEquals(received2.size(), 0);
+        Assert.assertEquals(node1.getReceivedMessageCount(), 1);
+        Assert.assertEquals(node2.getReceivedMessageCount(), 0);
+    }
+
+    @Test
+    public void testEventIsBroadcastIfAllNodesMatch() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final DistributedEventBus eventBus = createEventBus(cluster.createTransport());
+        final List<DolphinEvent<?>> received1 = new CopyOnWriteArrayList<>();
+        final List<DolphinEvent<?>> received2 = new CopyOnWriteArrayList<>();
+        createNode(cluster, "node-1", received1);
+        createNode(cluster, "node-2", received2);
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), "node-1", ACCEPT_ALL);
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), "node-2", EventRoutingKeys.forHttpSession("http-1"));
+
+        //when
+        eventBus.publishForOtherSessions(createEvent("client-1", "http-1"));
+
+        //then
+        Assert.assertEquals(received1.size(), 1);
+        Assert.assertEquals(received2.size(), 1);
+    }
+
+    @Test
+    public void testEventIsNotSendWithoutMatchingNode() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final DistributedEventBus eventBus = createEventBus(cluster.createTransport());
+        final List<DolphinEvent<?>> received = new CopyOnWriteArrayList<>();
+        createNode(cluster, "node-1", received);
+        cluster.getRoutingTable().addRoute(TEST_TOPIC.getName(), "node-1", EventRoutingKeys.forClientSession("client-2"));
+
+        //when
+        eventBus.publishForOtherSessions(createEvent("client-1", "http-1"));
+
+        //then
+        Assert.assertTrue(received.isEmpty());
+    }
+
+    private DistributedEventBus createEventBus(final ClusterTransport transport) {
+        return new DistributedEventBus(transport, 0, 1, true) {
+            @Override
+            protected <T extends Serializable> void triggerEventHandling(final DolphinEvent<T> event) {
+            }
+        };
+    }
+
+    private LoopbackClusterTransport createNode(final LoopbackCluster cluster, final String nodeId, final List<DolphinEvent<?>> receivedEvents) {
+        final LoopbackClusterTransport transport = cluster.createTransport();
+        final ClusterTransportListener listener = new ClusterTransportListener() {
+            @Override
+            public void onEvent(final DolphinEvent<?> event) {
+                receivedEvents.add(event);
+            }
+        };
+        transport.subscribe(TEST_TOPIC.getName(), listener);
+        transport.subscribe(NODE_CHANNEL_PREFIX + nodeId, listener);
+        return transport;
+    }
+
+    private DolphinEvent<String> createEvent(final String clientSessionId, final String httpSessionId) {
+        final DolphinEvent<String> event = new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data");
+        event.addMetadata(EventConstants.TYPE_PARAM, EventConstants.TYPE_PLATFORM);
+        event.addMetadata(EventConstants.CLIENT_SESSION_PARAM, clientSessionId);
+        event.addMetadata(EventConstants.HTTP_SESSION_PARAM, httpSessionId);
+        return event;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class HazelcastClusterTransportTests {
+
+    @Test
+    public void testRoutingTableIsNotCreatedIfRoutingIsDisabled() {
+        //given
+        final List<String> calls = new CopyOnWriteArrayList<>();
+        final HazelcastClusterTransport transport = new HazelcastClusterTransport(createHazelcastInstance(calls));
+        final DistributedEventBus eventBus = new DistributedEventBus(transport, 0, 1, false);
+
+        //when
+        eventBus.shutdown();
+
+        //then
+        Assert.assertFalse(calls.contains("getMap"));
+        Assert.assertFalse(calls.contains("getCluster"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testRoutingTableCanNotBeCreatedAfterClose() {
+        //given
+        final List<String> calls = new CopyOnWriteArrayList<>();
+        final HazelcastClusterTransport transport = new HazelcastClusterTransport(createHazelcastInstance(calls));
+
+        //when
+        transport.close();
+        transport.close();
+
+        //then
+        transport.getRoutingTable();
+    }
+
+    private HazelcastInstance createHazelcastInstance(final List<String> calls) {
+        return (HazelcastInstance) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HazelcastInstance.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                calls.add(method.getName());
+                return null;
+            }
+        });
+    }
+}
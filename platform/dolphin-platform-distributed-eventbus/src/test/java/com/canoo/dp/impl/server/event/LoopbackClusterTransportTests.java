@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.platform.remoting.server.event.Topic;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.canoo.dp.impl.server.event.DistributedEventConstants.NODE_ID_PARAM;
+
+public class LoopbackClusterTransportTests {
+
+    private final static Topic<String> TEST_TOPIC = Topic.create("test-topic");
+
+    @Test
+    public void testEventIsDeliveredToAllNodes() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final List<DolphinEvent<?>> received1 = new CopyOnWriteArrayList<>();
+        final List<DolphinEvent<?>> received2 = new CopyOnWriteArrayList<>();
+        final LoopbackClusterTransport node1 = cluster.createTransport();
+        final LoopbackClusterTransport node2 = cluster.createTransport();
+        node1.subscribe(TEST_TOPIC.getName(), createListener(received1));
+        node2.subscribe(TEST_TOPIC.getName(), createListener(received2));
+
+        //when
+        node1.publish(TEST_TOPIC.getName(), new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data"));
+
+        //then
+        Assert.assertEquals(received1.size(), 1);
+        Assert.assertEquals(received2.size(), 1);
+        Assert.assertEquals(received2.get(0).getData(), "data");
+    }
+
+    @Test
+    public void testEventIsOnlyDeliveredForTopic() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final List<DolphinEvent<?>> received = new CopyOnWriteArrayList<>();
+        final LoopbackClusterTransport node1 = cluster.createTransport();
+        final LoopbackClusterTransport node2 = cluster.createTransport();
+        node2.subscribe("other-topic", createListener(received));
+
+        //when
+        node1.publish(TEST_TOPIC.getName(), new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data"));
+
+        //then
+        Assert.assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final List<DolphinEvent<?>> received = new CopyOnWriteArrayList<>();
+        final LoopbackClusterTransport node1 = cluster.createTransport();
+        final LoopbackClusterTransport node2 = cluster.createTransport();
+        final String registrationId = node2.subscribe(TEST_TOPIC.getName(), createListener(received));
+
+        //when
+        node2.unsubscribe(TEST_TOPIC.getName(), registrationId);
+        node1.publish(TEST_TOPIC.getName(), new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data"));
+
+        //then
+        Assert.assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testBatchIsDeliveredInOrder() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final List<DolphinEvent<?>> received = new CopyOnWriteArrayList<>();
+        final LoopbackClusterTransport node1 = cluster.createTransport();
+        final LoopbackClusterTransport node2 = cluster.createTransport();
+        node2.subscribe(TEST_TOPIC.getName(), createListener(received));
+        final List<DolphinEvent<?>> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data-" + i));
+        }
+
+        //when
+        node1.publish(new DolphinEventBatch(TEST_TOPIC.getName(), events));
+
+        //then
+        Assert.assertEquals(node2.getReceivedMessageCount(), 1);
+        Assert.assertEquals(received.size(), 10);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(received.get(i).getData(), "data-" + i);
+        }
+    }
+
+    @Test
+    public void testLeave() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final List<DolphinEvent<?>> received = new CopyOnWriteArrayList<>();
+        final LoopbackClusterTransport node1 = cluster.createTransport();
+        final LoopbackClusterTransport node2 = cluster.createTransport();
+        node2.subscribe(TEST_TOPIC.getName(), createListener(received));
+
+        //when
+        node2.leave();
+        node1.publish(TEST_TOPIC.getName(), new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data"));
+
+        //then
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(cluster.getNodes(), Arrays.asList(node1));
+    }
+
+    @Test
+    public void testDistributedEventBusFanOut() {
+        //given
+        final LoopbackCluster cluster = new LoopbackCluster();
+        final LoopbackClusterTransport publisherNode = cluster.createTransport();
+        final List<DolphinEvent<?>> localEvents = new CopyOnWriteArrayList<>();
+        final DistributedEventBus eventBus = new DistributedEventBus(publisherNode, 0, 1) {
+            @Override
+            protected <T extends Serializable> void triggerEventHandling(final DolphinEvent<T> event) {
+                localEvents.add(event);
+            }
+        };
+        final List<List<DolphinEvent<?>>> receivedPerNode = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final List<DolphinEvent<?>> received = new CopyOnWriteArrayList<>();
+            cluster.createTransport().subscribe(TEST_TOPIC.getName(), createListener(received));
+            receivedPerNode.add(received);
+        }
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            eventBus.publishForOtherSessions(new DolphinEvent<>(TEST_TOPIC, System.currentTimeMillis(), "data-" + i));
+        }
+
+        //then
+        Assert.assertEquals(localEvents.size(), 100);
+        for (final List<DolphinEvent<?>> received : receivedPerNode) {
+            Assert.assertEquals(received.size(), 100);
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals(received.get(i).getData(), "data-" + i);
+                Assert.assertEquals(received.get(i).getMessageEventContext().getMetadata().get(NODE_ID_PARAM), eventBus.getNodeId());
+            }
+        }
+    }
+
+    private ClusterTransportListener createListener(final List<DolphinEvent<?>> receivedEvents) {
+        return new ClusterTransportListener() {
+            @Override
+            public void onEvent(final DolphinEvent<?> event) {
+                receivedEvents.add(event);
+            }
+        };
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.platform.core.functional.Subscription;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class ReferenceCountingRegistryTests {
+
+    @Test
+    public void testRegisterOnFirstAndUnregisterOnLast() {
+        //given
+        final AtomicInteger registerCount = new AtomicInteger();
+        final AtomicInteger unregisterCount = new AtomicInteger();
+        final ReferenceCountingRegistry<String, String> registry = createRegistry(registerCount, unregisterCount, new ConcurrentHashMap<String, String>(), new AtomicReference<String>());
+
+        //when
+        final Subscription subscription1 = registry.acquire("topic");
+        final Subscription subscription2 = registry.acquire("topic");
+
+        //then
+        Assert.assertEquals(registerCount.get(), 1);
+        Assert.assertEquals(registry.getCount("topic"), 2);
+
+        //when
+        subscription1.unsubscribe();
+        subscription1.unsubscribe();
+
+        //then
+        Assert.assertEquals(unregisterCount.get(), 0);
+        Assert.assertEquals(registry.getCount("topic"), 1);
+
+        //when
+        subscription2.unsubscribe();
+
+        //then
+        Assert.assertEquals(unregisterCount.get(), 1);
+        Assert.assertEquals(registry.getCount("topic"), 0);
+
+        //when
+        registry.acquire("topic");
+
+        //then
+        Assert.assertEquals(registerCount.get(), 2);
+    }
+
+    @Test
+    public void testFailedRegistration() {
+        //given
+        final AtomicInteger calls = new AtomicInteger();
+        final ReferenceCountingRegistry<String, String> registry = new ReferenceCountingRegistry<>(new Function<String, String>() {
+            @Override
+            public String apply(final String key) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Registration failed");
+                }
+                return key;
+            }
+        }, new BiConsumer<String, String>() {
+            @Override
+            public void accept(final String key, final String registration) {
+            }
+        });
+
+        //when
+        try {
+            registry.acquire("topic");
+            Assert.fail("Registration must fail");
+        } catch (final IllegalStateException expected) {
+        }
+
+        //then
+        Assert.assertEquals(registry.getCount("topic"), 0);
+        registry.acquire("topic");
+        Assert.assertEquals(registry.getCount("topic"), 1);
+    }
+
+    @Test
+    public void testConcurrentSubscribeAndUnsubscribe() throws InterruptedException {
+        //given
+        final int threadCount = 16;
+        final int iterations = 5_000;
+        final String[] keys = {"topic-1", "topic-2", "topic-3", "topic-4"};
+        final AtomicInteger registerCount = new AtomicInteger();
+        final AtomicInteger unregisterCount = new AtomicInteger();
+        final Map<String, String> activeRegistrations = new ConcurrentHashMap<>();
+        final AtomicReference<String> error = new AtomicReference<>();
+        final ReferenceCountingRegistry<String, String> registry = createRegistry(registerCount, unregisterCount, activeRegistrations, error);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        //when
+        for (int t = 0; t < threadCount; t++) {
+            final long seed = t;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        final Random random = new Random(seed);
+                        final List<Subscription> subscriptions = new ArrayList<>();
+                        for (int i = 0; i < iterations; i++) {
+                            if (subscriptions.isEmpty() || random.nextBoolean()) {
+                                final String key = keys[random.nextInt(keys.length)];
+                                subscriptions.add(registry.acquire(key));
+                                if (!activeRegistrations.containsKey(key)) {
+                                    error.set("No registration for acquired key " + key);
+                                }
+                            } else {
+                                subscriptions.remove(random.nextInt(subscriptions.size())).unsubscribe();
+                            }
+                        }
+                        for (final Subscription subscription : subscriptions) {
+                            subscription.unsubscribe();
+                        }
+                    } catch (final Exception e) {
+                        error.set(e.getMessage());
+                    } finally {
+                        endLatch.countDown();
+                    }
+                }
+            });
+        }
+        startLatch.countDown();
+
+        //then
+        Assert.assertTrue(endLatch.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertNull(error.get());
+        Assert.assertTrue(activeRegistrations.isEmpty());
+        Assert.assertEquals(unregisterCount.get(), registerCount.get());
+        for (final String key : keys) {
+            Assert.assertEquals(registry.getCount(key), 0);
+        }
+    }
+
+    private ReferenceCountingRegistry<String, String> createRegistry(final AtomicInteger registerCount, final AtomicInteger unregisterCount, final Map<String, String> activeRegistrations, final AtomicReference<String> error) {
+        return new ReferenceCountingRegistry<>(new Function<String, String>() {
+            @Override
+            public String apply(final String key) {
+                registerCount.incrementAndGet();
+                final String registration = key + "-" + registerCount.get();
+                if (activeRegistrations.putIfAbsent(key, registration) != null) {
+                    error.set("Second registration for key " + key);
+                }
+                return registration;
+            }
+        }, new BiConsumer<String, String>() {
+            @Override
+            public void accept(final String key, final String registration) {
+                unregisterCount.incrementAndGet();
+                if (!activeRegistrations.remove(key, registration)) {
+                    error.set("Unknown registration " + registration);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+public class StreamObjectDataInput implements ObjectDataInput {
+
+    private final DataInputStream input;
+
+    public StreamObjectDataInput(final byte[] data) {
+        this.input = new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    @Override
+    public byte[] readByteArray() throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    @Override
+    public boolean[] readBooleanArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public char[] readCharArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public int[] readIntArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public long[] readLongArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public double[] readDoubleArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public float[] readFloatArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public short[] readShortArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public String[] readUTFArray() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public <T> T readObject() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public Data readData() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return StreamObjectDataInput.class.getClassLoader();
+    }
+
+    @Override
+    public ByteOrder getByteOrder() {
+        return ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+        input.readFully(b);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        input.readFully(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException {
+        return input.skipBytes(n);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return input.readBoolean();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return input.readByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return input.readUnsignedByte();
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return input.readShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return input.readUnsignedShort();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return input.readChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return input.readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return input.readLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return input.readFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return input.readDouble();
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return input.readUTF();
+    }
+}
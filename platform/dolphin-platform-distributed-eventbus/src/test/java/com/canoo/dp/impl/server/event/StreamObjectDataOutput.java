@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+public class StreamObjectDataOutput implements ObjectDataOutput {
+
+    private final ByteArrayOutputStream rawOutput = new ByteArrayOutputStream();
+
+    private final DataOutputStream output = new DataOutputStream(rawOutput);
+
+    @Override
+    public void writeByteArray(byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @Override
+    public void writeBooleanArray(boolean[] booleans) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeCharArray(char[] chars) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeIntArray(int[] ints) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeLongArray(long[] longs) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeDoubleArray(double[] values) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeFloatArray(float[] values) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeShortArray(short[] values) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeUTFArray(String[] values) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeObject(Object object) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public void writeData(Data data) throws IOException {
+        throw new RuntimeException("Not needed for test");
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return rawOutput.toByteArray();
+    }
+
+    @Override
+    public ByteOrder getByteOrder() {
+        return ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        output.write(b);
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        output.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        output.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean v) throws IOException {
+        output.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(int v) throws IOException {
+        output.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(int v) throws IOException {
+        output.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(int v) throws IOException {
+        output.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(int v) throws IOException {
+        output.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(long v) throws IOException {
+        output.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(float v) throws IOException {
+        output.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(double v) throws IOException {
+        output.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(String s) throws IOException {
+        output.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(String s) throws IOException {
+        output.writeChars(s);
+    }
+
+    @Override
+    public void writeUTF(String s) throws IOException {
+        output.writeUTF(s);
+    }
+}
@@ -31,16 +31,27 @@ public class DefaultJavaFXBinder<S> implements JavaFXBinder<S> {
 
     private final WritableValue<S> javaFxValue;
 
+    private final PulseAlignedUpdates pulseAlignedUpdates;
+
     public DefaultJavaFXBinder(final WritableValue<S> javaFxValue) {
+        this(javaFxValue, PulseAlignedUpdates.getInstance());
+    }
+
+    DefaultJavaFXBinder(final WritableValue<S> javaFxValue, final PulseAlignedUpdates pulseAlignedUpdates) {
         this.javaFxValue = Assert.requireNonNull(javaFxValue, "javaFxValue");
+        this.pulseAlignedUpdates = Assert.requireNonNull(pulseAlignedUpdates, "pulseAlignedUpdates");
     }
 
     @Override
     public <T> Binding to(Property<T> dolphinProperty, Converter<? super T, ? extends S> converter) {
         Assert.requireNonNull(dolphinProperty, "dolphinProperty");
         Assert.requireNonNull(converter, "converter");
-        final Subscription subscription = dolphinProperty.onChanged(event -> javaFxValue.setValue(converter.convert(dolphinProperty.get())));
-        javaFxValue.setValue(converter.convert(dolphinProperty.get()));
-        return () -> subscription.unsubscribe();
+        final Runnable update = () -> javaFxValue.setValue(converter.convert(dolphinProperty.get()));
+        final Subscription subscription = dolphinProperty.onChanged(event -> pulseAlignedUpdates.update(javaFxValue, update));
+        update.run();
+        return () -> {
+            subscription.unsubscribe();
+            pulseAlignedUpdates.cancel(javaFxValue);
+        };
     }
 }
@@ -21,10 +21,13 @@ import com.canoo.platform.remoting.ListChangeEvent;
 import com.canoo.platform.remoting.ObservableList;
 import com.canoo.platform.core.functional.Subscription;
 import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.remoting.collections.ObservableArrayList;
 import javafx.collections.ListChangeListener;
 import org.apiguardian.api.API;
 
+import java.util.ArrayList;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -112,23 +115,49 @@ public class DefaultJavaFXListBinder<S> implements JavaFXListBinder<S> {
 
             onChange = true;
             try {
-                for (ListChangeEvent.Change<? extends T> c : e.getChanges()) {
-                    final int index = c.getFrom();
-                    if (c.isRemoved() || c.isReplaced()) {
-                        list.subList(index, index + c.getRemovedElements().size()).clear();
-                    }
-                    if (c.isAdded() || c.isReplaced()) {
-                        list.addAll(index,
-                                e.getSource()
-                                        .subList(index, c.getTo()).stream()
-                                        .map(converter)
-                                        .collect(Collectors.toList()));
+                final List<? extends ListChangeEvent.Change<? extends T>> changes = e.getChanges();
+                if (changes.size() == 1) {
+                    applyChange(e.getSource(), changes.get(0));
+                } else {
+                    // several changes are applied to a copy so that the JavaFX list only fires one notification
+                    final List<S> copy = new ArrayList<>(list);
+                    for (ListChangeEvent.Change<? extends T> c : changes) {
+                        final int index = c.getFrom();
+                        copy.subList(index, index + c.getRemovedElements().size()).clear();
+                        copy.addAll(index, convert(e.getSource(), index, c.getTo()));
                     }
+                    list.setAll(copy);
                 }
             } finally {
                 onChange = false;
             }
         }
+
+        private void applyChange(final ObservableList<? extends T> source, final ListChangeEvent.Change<? extends T> c) {
+            final int index = c.getFrom();
+            final int removedSize = c.getRemovedElements().size();
+            final int addedSize = c.getTo() - index;
+            if (removedSize == 0) {
+                list.addAll(index, convert(source, index, c.getTo()));
+            } else if (addedSize == 0) {
+                list.remove(index, index + removedSize);
+            } else if (removedSize == 1 && addedSize == 1) {
+                list.set(index, converter.apply(source.get(index)));
+            } else if (index == 0 && removedSize == list.size()) {
+                list.setAll(convert(source, index, c.getTo()));
+            } else {
+                final List<S> copy = new ArrayList<>(list);
+                copy.subList(index, index + removedSize).clear();
+                copy.addAll(index, convert(source, index, c.getTo()));
+                list.setAll(copy);
+            }
+        }
+
+        private List<S> convert(final ObservableList<? extends T> source, final int from, final int to) {
+            return source.subList(from, to).stream()
+                    .map(converter)
+                    .collect(Collectors.toList());
+        }
     }
 
     private class InternalBidirectionalListChangeListener<T> extends InternalListChangeListener<T> implements ListChangeListener<S> {
@@ -153,23 +182,36 @@ public class DefaultJavaFXListBinder<S> implements JavaFXListBinder<S> {
             onChange = true;
             try {
                 while (change.next()) {
-                    // TODO: Replace with subList() operation once implemented
                     final int index = change.getFrom();
-                    if (change.wasRemoved() || change.wasReplaced()) {
-                        for (int i = 0; i < change.getRemovedSize(); i++) {
-                            dolphinList.remove(index);
-                        }
+                    final List<T> added;
+                    final int removedSize;
+                    if (change.wasPermutated()) {
+                        added = convertBack(change.getList().subList(index, change.getTo()));
+                        removedSize = added.size();
+                    } else {
+                        added = convertBack(change.getAddedSubList());
+                        removedSize = change.getRemovedSize();
                     }
-                    if (change.wasAdded() || change.wasReplaced()) {
-                        dolphinList.addAll(index,
-                                change.getAddedSubList().stream()
-                                        .map(backConverter)
-                                        .collect(Collectors.toList()));
+                    if (dolphinList instanceof ObservableArrayList) {
+                        ((ObservableArrayList<T>) dolphinList).splice(index, index + removedSize, added);
+                    } else {
+                        if (removedSize > 0) {
+                            dolphinList.remove(index, index + removedSize);
+                        }
+                        if (!added.isEmpty()) {
+                            dolphinList.addAll(index, added);
+                        }
                     }
                 }
             } finally {
                 onChange = false;
             }
         }
+
+        private List<T> convertBack(final List<? extends S> elements) {
+            return elements.stream()
+                    .map(backConverter)
+                    .collect(Collectors.toList());
+        }
     }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.client.javafx;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.value.WritableValue;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Collects the updates of bound JavaFX values and applies them once per JavaFX pulse. If a value is updated several
+ * times before the next pulse only the last update will be applied. By default the mode is not active and all updates
+ * are applied directly. Pending updates are only accessed on the JavaFX application thread, calls from other threads
+ * are passed to the JavaFX application thread.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class PulseAlignedUpdates {
+
+    private static final PulseAlignedUpdates INSTANCE = new PulseAlignedUpdates(new JavaFXPulse());
+
+    private final Pulse pulse;
+
+    private final Map<WritableValue<?>, Runnable> pendingUpdates = new LinkedHashMap<>();
+
+    private volatile boolean active = false;
+
+    private volatile boolean hasPendingUpdates = false;
+
+    private boolean pulseRequested = false;
+
+    PulseAlignedUpdates(final Pulse pulse) {
+        this.pulse = Assert.requireNonNull(pulse, "pulse");
+    }
+
+    public static PulseAlignedUpdates getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(final boolean active) {
+        this.active = active;
+        if (!active && hasPendingUpdates) {
+            if (pulse.isPulseThread()) {
+                flush();
+            } else {
+                pulse.runLater(this::flush);
+            }
+        }
+    }
+
+    /**
+     * Applies the update directly or, if the mode is active, at the next JavaFX pulse. A pending update of the same
+     * value will be replaced.
+     * @param value the JavaFX value that is updated
+     * @param update the update
+     */
+    public void update(final WritableValue<?> value, final Runnable update) {
+        Assert.requireNonNull(value, "value");
+        Assert.requireNonNull(update, "update");
+        if (!active && !hasPendingUpdates) {
+            update.run();
+            return;
+        }
+        if (!pulse.isPulseThread()) {
+            pulse.runLater(() -> update(value, update));
+            return;
+        }
+        pendingUpdates.put(value, update);
+        hasPendingUpdates = true;
+        if (!active) {
+            flush();
+        } else if (!pulseRequested) {
+            pulseRequested = true;
+            pulse.start(this::flush);
+        }
+    }
+
+    /**
+     * Removes a pending update of the given value (for example if the binding of the value was removed).
+     * @param value the JavaFX value
+     */
+    public void cancel(final WritableValue<?> value) {
+        Assert.requireNonNull(value, "value");
+        if (!active && !hasPendingUpdates) {
+            return;
+        }
+        if (pulse.isPulseThread()) {
+            removePendingUpdate(value);
+        } else {
+            pulse.runLater(() -> removePendingUpdate(value));
+        }
+    }
+
+    /**
+     * Applies all pending updates. Updates that are triggered while the pending updates are applied will be applied
+     * at the next pulse. Must be called on the JavaFX application thread.
+     */
+    public void flush() {
+        pulse.stop();
+        pulseRequested = false;
+        final List<Runnable> updates = new ArrayList<>(pendingUpdates.values());
+        pendingUpdates.clear();
+        hasPendingUpdates = false;
+        for (final Runnable update : updates) {
+            update.run();
+        }
+    }
+
+    private void removePendingUpdate(final WritableValue<?> value) {
+        pendingUpdates.remove(value);
+        hasPendingUpdates = !pendingUpdates.isEmpty();
+    }
+
+    /**
+     * Access to the JavaFX application thread and the JavaFX pulse
+     */
+    interface Pulse {
+
+        boolean isPulseThread();
+
+        void runLater(Runnable runnable);
+
+        /**
+         * Calls the given handler at each pulse until {@link #stop()} is called
+         * @param handler the handler
+         */
+        void start(Runnable handler);
+
+        void stop();
+    }
+
+    private static final class JavaFXPulse implements Pulse {
+
+        private AnimationTimer timer;
+
+        private Runnable handler;
+
+        @Override
+        public boolean isPulseThread() {
+            return Platform.isFxApplicationThread();
+        }
+
+        @Override
+        public void runLater(final Runnable runnable) {
+            Platform.runLater(runnable);
+        }
+
+        @Override
+        public void start(final Runnable handler) {
+            this.handler = handler;
+            if (timer == null) {
+                timer = new AnimationTimer() {
+                    @Override
+                    public void handle(final long now) {
+                        JavaFXPulse.this.handler.run();
+                    }
+                };
+            }
+            timer.start();
+        }
+
+        @Override
+        public void stop() {
+            if (timer != null) {
+                timer.stop();
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.canoo.dp.impl.client.javafx.IntegerDolphinBinder;
 import com.canoo.dp.impl.client.javafx.IntegerJavaFXBidirectionalBinder;
 import com.canoo.dp.impl.client.javafx.LongDolphinBinder;
 import com.canoo.dp.impl.client.javafx.LongJavaFXBidirectionalBinder;
+import com.canoo.dp.impl.client.javafx.PulseAlignedUpdates;
 import com.canoo.platform.remoting.Property;
 import com.canoo.platform.remoting.client.javafx.binding.DolphinBinder;
 import com.canoo.platform.remoting.client.javafx.binding.JavaFXBidirectionalBinder;
@@ -47,6 +48,7 @@ import javafx.collections.ObservableList;
 import org.apiguardian.api.API;
 
 import static com.canoo.dp.impl.platform.core.Assert.requireNonNull;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
 /**
@@ -61,6 +63,29 @@ public final class FXBinder {
     private FXBinder() {
     }
 
+    /**
+     * Defines if updates of Dolphin Platform properties are applied to the bound JavaFX values directly or only once
+     * per JavaFX pulse. If activated all updates of a bound JavaFX value that happen before the next pulse are
+     * collected and only the last value will be set. By doing so a big server response that changes a lot of
+     * properties is rendered in one frame. The mode is not active by default and should only be changed on the
+     * JavaFX application thread.
+     * @param pulseAlignedUpdates true if updates should be applied once per pulse
+     */
+    @API(since = "1.0.0", status = EXPERIMENTAL)
+    public static void setPulseAlignedUpdates(final boolean pulseAlignedUpdates) {
+        PulseAlignedUpdates.getInstance().setActive(pulseAlignedUpdates);
+    }
+
+    /**
+     * Returns true if updates of Dolphin Platform properties are applied to the bound JavaFX values once per pulse.
+     * @return true if updates are applied once per pulse
+     * @see #setPulseAlignedUpdates(boolean)
+     */
+    @API(since = "1.0.0", status = EXPERIMENTAL)
+    public static boolean isPulseAlignedUpdates() {
+        return PulseAlignedUpdates.getInstance().isActive();
+    }
+
     /**
      * Start point of the fluent API to create a binding.
      * @param list the JavaFX list
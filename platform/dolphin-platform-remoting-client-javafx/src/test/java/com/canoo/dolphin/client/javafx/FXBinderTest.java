@@ -22,7 +22,9 @@ import com.canoo.platform.remoting.client.javafx.FXBinder;
 import com.canoo.platform.remoting.ObservableList;
 import com.canoo.dp.impl.client.javafx.DefaultBidirectionalConverter;
 import com.canoo.dp.impl.remoting.MockedProperty;
+import com.canoo.dp.impl.remoting.collections.ListChangeEventImpl;
 import com.canoo.dp.impl.remoting.collections.ObservableArrayList;
+import com.canoo.platform.remoting.ListChangeEvent;
 import com.canoo.platform.remoting.Property;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
@@ -37,11 +39,14 @@ import javafx.beans.value.WritableDoubleValue;
 import javafx.beans.value.WritableIntegerValue;
 import javafx.beans.value.WritableStringValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
@@ -1013,4 +1018,62 @@ public class FXBinderTest {
         assertTrue(javaFXList.contains("B"));
         assertTrue(javaFXList.contains("C"));
     }
+
+    @Test
+    public void testListBindingWithMultiChangeEvent() {
+        MultiChangeObservableList<Integer> dolphinList = new MultiChangeObservableList<>();
+        javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        dolphinList.addAll(1, 2, 3, 4, 5);
+        FXBinder.bind(javaFXList).to(dolphinList, value -> value.toString());
+        AtomicInteger notificationCount = new AtomicInteger();
+        javaFXList.addListener((ListChangeListener<String>) c -> notificationCount.incrementAndGet());
+
+        dolphinList.modifySilently(() -> {
+            dolphinList.add(0, 0);
+            dolphinList.remove(3);
+            dolphinList.set(4, 50);
+        });
+        dolphinList.fireChanges(Arrays.<ListChangeEvent.Change<Integer>>asList(
+                new ListChangeEventImpl.ChangeImpl<>(0, 1, Collections.<Integer>emptyList()),
+                new ListChangeEventImpl.ChangeImpl<>(3, 3, Collections.singletonList(3)),
+                new ListChangeEventImpl.ChangeImpl<>(4, 5, Collections.singletonList(5))));
+
+        assertEquals(javaFXList, Arrays.asList("0", "1", "2", "4", "50"));
+        assertEquals(notificationCount.get(), 1);
+    }
+
+    @Test
+    public void testListBindingWithReplacedRange() {
+        ObservableArrayList<Integer> dolphinList = new ObservableArrayList<>();
+        javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        dolphinList.addAll(1, 2, 3, 4);
+        FXBinder.bind(javaFXList).to(dolphinList, value -> value.toString());
+        AtomicInteger notificationCount = new AtomicInteger();
+        javaFXList.addListener((ListChangeListener<String>) c -> notificationCount.incrementAndGet());
+
+        dolphinList.splice(1, 3, Arrays.asList(41, 42, 43));
+
+        assertEquals(javaFXList, Arrays.asList("1", "41", "42", "43", "4"));
+        assertEquals(notificationCount.get(), 1);
+
+        dolphinList.splice(0, 5, Arrays.asList(7, 8));
+
+        assertEquals(javaFXList, Arrays.asList("7", "8"));
+        assertEquals(notificationCount.get(), 2);
+    }
+
+    @Test
+    public void testListBindingWithReorderedElements() {
+        ObservableArrayList<String> dolphinList = new ObservableArrayList<>();
+        javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        dolphinList.addAll("A", "B", "C", "D");
+        FXBinder.bind(javaFXList).to(dolphinList);
+        AtomicInteger notificationCount = new AtomicInteger();
+        javaFXList.addListener((ListChangeListener<String>) c -> notificationCount.incrementAndGet());
+
+        dolphinList.splice(0, 4, Arrays.asList("D", "C", "B", "A"));
+
+        assertEquals(javaFXList, Arrays.asList("D", "C", "B", "A"));
+        assertEquals(notificationCount.get(), 1);
+    }
 }
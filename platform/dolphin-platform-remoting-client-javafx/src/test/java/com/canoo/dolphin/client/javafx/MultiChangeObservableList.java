@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dolphin.client.javafx;
+
+import com.canoo.dp.impl.remoting.collections.ListChangeEventImpl;
+import com.canoo.dp.impl.remoting.collections.ObservableArrayList;
+import com.canoo.platform.remoting.ListChangeEvent;
+
+import java.util.List;
+
+/**
+ * A Dolphin Platform list that can fire one event with several changes. The default list implementation fires one
+ * event per change.
+ */
+public class MultiChangeObservableList<E> extends ObservableArrayList<E> {
+
+    private boolean silent = false;
+
+    /**
+     * Modifies the list without notifying the listeners
+     * @param modification the modification
+     */
+    public void modifySilently(final Runnable modification) {
+        silent = true;
+        try {
+            modification.run();
+        } finally {
+            silent = false;
+        }
+    }
+
+    /**
+     * Notifies the listeners with one event that contains the given changes
+     * @param changes the changes
+     */
+    public void fireChanges(final List<ListChangeEvent.Change<E>> changes) {
+        super.fireListChanged(new ListChangeEventImpl<>(this, changes));
+    }
+
+    @Override
+    protected void fireListChanged(final ListChangeEvent<E> event) {
+        if (!silent) {
+            super.fireListChanged(event);
+        }
+    }
+}
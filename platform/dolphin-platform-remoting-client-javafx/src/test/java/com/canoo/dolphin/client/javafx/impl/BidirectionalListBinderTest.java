@@ -15,18 +15,25 @@
  */
 package com.canoo.dolphin.client.javafx.impl;
 
+import com.canoo.dolphin.client.javafx.MultiChangeObservableList;
 import com.canoo.platform.remoting.client.javafx.FXBinder;
+import com.canoo.platform.remoting.ListChangeEvent;
 import com.canoo.platform.remoting.ObservableList;
+import com.canoo.dp.impl.remoting.collections.ListChangeEventImpl;
 import com.canoo.dp.impl.remoting.collections.ObservableArrayList;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
 
 public class BidirectionalListBinderTest {
 
@@ -801,4 +808,126 @@ public class BidirectionalListBinderTest {
         // then:
         assertThat(javaFXList, contains("1", "2", "42"));
     }
+
+
+    ////////////////////////////////////////////////////
+    // Multi change events, replaced ranges and permutations
+    ////////////////////////////////////////////////////
+
+    @Test
+    public void shouldApplyMultiChangeEventOfDolphinListToJavaFXList() {
+        // given:
+        final javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        final MultiChangeObservableList<Integer> dolphinList = new MultiChangeObservableList<>();
+        FXBinder.bind(javaFXList).bidirectionalTo(dolphinList, Object::toString, Integer::parseInt);
+        dolphinList.addAll(1, 2, 3, 4, 5);
+        final AtomicInteger notificationCount = new AtomicInteger();
+        javaFXList.addListener((ListChangeListener<String>) c -> notificationCount.incrementAndGet());
+        dolphinList.modifySilently(() -> {
+            dolphinList.add(0, 0);
+            dolphinList.remove(3);
+            dolphinList.set(4, 50);
+        });
+
+        // when:
+        dolphinList.fireChanges(Arrays.<ListChangeEvent.Change<Integer>>asList(
+                new ListChangeEventImpl.ChangeImpl<>(0, 1, Collections.<Integer>emptyList()),
+                new ListChangeEventImpl.ChangeImpl<>(3, 3, Collections.singletonList(3)),
+                new ListChangeEventImpl.ChangeImpl<>(4, 5, Collections.singletonList(5))));
+
+        // then:
+        assertThat(javaFXList, contains("0", "1", "2", "4", "50"));
+        assertThat(notificationCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldReplaceRangeOfJavaFXList() {
+        // given:
+        final javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        final ObservableArrayList<Integer> dolphinList = new ObservableArrayList<>();
+        FXBinder.bind(javaFXList).bidirectionalTo(dolphinList, Object::toString, Integer::parseInt);
+        dolphinList.addAll(1, 2, 3, 4);
+        final AtomicInteger notificationCount = new AtomicInteger();
+        javaFXList.addListener((ListChangeListener<String>) c -> notificationCount.incrementAndGet());
+
+        // when:
+        dolphinList.splice(1, 3, Arrays.asList(41, 42, 43));
+
+        // then:
+        assertThat(javaFXList, contains("1", "41", "42", "43", "4"));
+        assertThat(notificationCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldReorderJavaFXList() {
+        // given:
+        final javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        final ObservableArrayList<Integer> dolphinList = new ObservableArrayList<>();
+        FXBinder.bind(javaFXList).bidirectionalTo(dolphinList, Object::toString, Integer::parseInt);
+        dolphinList.addAll(1, 2, 3);
+        final AtomicInteger notificationCount = new AtomicInteger();
+        javaFXList.addListener((ListChangeListener<String>) c -> notificationCount.incrementAndGet());
+
+        // when:
+        dolphinList.splice(0, 3, Arrays.asList(3, 1, 2));
+
+        // then:
+        assertThat(javaFXList, contains("3", "1", "2"));
+        assertThat(notificationCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldApplyMultiChangeEventOfJavaFXListToDolphinList() {
+        // given:
+        final javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        final ObservableList<Integer> dolphinList = new ObservableArrayList<>();
+        FXBinder.bind(javaFXList).bidirectionalTo(dolphinList, Object::toString, Integer::parseInt);
+        javaFXList.addAll("1", "2", "3", "4", "5");
+        final AtomicInteger eventCount = new AtomicInteger();
+        dolphinList.onChanged(e -> eventCount.incrementAndGet());
+
+        // when:
+        javaFXList.removeAll("2", "4");
+
+        // then:
+        assertThat(dolphinList, contains(1, 3, 5));
+        assertThat(eventCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldReplaceRangeOfDolphinList() {
+        // given:
+        final javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        final ObservableList<Integer> dolphinList = new ObservableArrayList<>();
+        FXBinder.bind(javaFXList).bidirectionalTo(dolphinList, Object::toString, Integer::parseInt);
+        javaFXList.addAll("1", "2", "3");
+        final AtomicInteger eventCount = new AtomicInteger();
+        dolphinList.onChanged(e -> eventCount.incrementAndGet());
+
+        // when:
+        javaFXList.setAll("41", "42", "43", "44");
+
+        // then:
+        assertThat(dolphinList, contains(41, 42, 43, 44));
+        assertThat(eventCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldApplyPermutationOfJavaFXListToDolphinList() {
+        // given:
+        final javafx.collections.ObservableList<String> javaFXList = FXCollections.observableArrayList();
+        final ObservableList<Integer> dolphinList = new ObservableArrayList<>();
+        FXBinder.bind(javaFXList).bidirectionalTo(dolphinList, Object::toString, Integer::parseInt);
+        javaFXList.addAll("3", "1", "2");
+        final AtomicInteger eventCount = new AtomicInteger();
+        dolphinList.onChanged(e -> eventCount.incrementAndGet());
+
+        // when:
+        FXCollections.sort(javaFXList);
+
+        // then:
+        assertThat(javaFXList, contains("1", "2", "3"));
+        assertThat(dolphinList, contains(1, 2, 3));
+        assertThat(eventCount.get(), is(1));
+    }
 }
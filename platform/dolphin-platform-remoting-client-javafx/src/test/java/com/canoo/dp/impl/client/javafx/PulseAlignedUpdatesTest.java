@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.client.javafx;
+
+import com.canoo.dp.impl.remoting.MockedProperty;
+import com.canoo.platform.core.functional.Binding;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class PulseAlignedUpdatesTest {
+
+    @Test
+    public void shouldApplyUpdatesDirectlyIfNotActive() {
+        // given:
+        final TestPulse pulse = new TestPulse();
+        final PulseAlignedUpdates updates = new PulseAlignedUpdates(pulse);
+        final StringProperty javaFXProperty = new SimpleStringProperty();
+        final MockedProperty<String> dolphinProperty = new MockedProperty<>();
+        new DefaultJavaFXBinder<>(javaFXProperty, updates).to(dolphinProperty);
+
+        // when:
+        dolphinProperty.set("Hello");
+
+        // then:
+        assertThat(javaFXProperty.get(), is("Hello"));
+        assertThat(pulse.started, is(false));
+    }
+
+    @Test
+    public void shouldOnlyApplyLastValueAtPulse() {
+        // given:
+        final TestPulse pulse = new TestPulse();
+        final PulseAlignedUpdates updates = new PulseAlignedUpdates(pulse);
+        updates.setActive(true);
+        final StringProperty javaFXProperty = new SimpleStringProperty();
+        final AtomicInteger changeCount = new AtomicInteger();
+        javaFXProperty.addListener((observable, oldValue, newValue) -> changeCount.incrementAndGet());
+        final MockedProperty<String> dolphinProperty = new MockedProperty<>();
+        new DefaultJavaFXBinder<>(javaFXProperty, updates).to(dolphinProperty);
+
+        // when:
+        dolphinProperty.set("1");
+        dolphinProperty.set("2");
+        dolphinProperty.set("3");
+
+        // then:
+        assertThat(javaFXProperty.get(), is((String) null));
+        assertThat(pulse.started, is(true));
+
+        // when:
+        pulse.fire();
+
+        // then:
+        assertThat(javaFXProperty.get(), is("3"));
+        assertThat(changeCount.get(), is(1));
+        assertThat(pulse.started, is(false));
+    }
+
+    @Test
+    public void shouldCancelPendingUpdateOnUnbind() {
+        // given:
+        final TestPulse pulse = new TestPulse();
+        final PulseAlignedUpdates updates = new PulseAlignedUpdates(pulse);
+        updates.setActive(true);
+        final StringProperty javaFXProperty = new SimpleStringProperty();
+        final MockedProperty<String> dolphinProperty = new MockedProperty<>();
+        final Binding binding = new DefaultJavaFXBinder<>(javaFXProperty, updates).to(dolphinProperty);
+        dolphinProperty.set("Hello");
+
+        // when:
+        binding.unbind();
+        pulse.fire();
+
+        // then:
+        assertThat(javaFXProperty.get(), is((String) null));
+    }
+
+    @Test
+    public void shouldFlushPendingUpdatesIfDeactivated() {
+        // given:
+        final TestPulse pulse = new TestPulse();
+        final PulseAlignedUpdates updates = new PulseAlignedUpdates(pulse);
+        updates.setActive(true);
+        final StringProperty javaFXProperty = new SimpleStringProperty();
+        final MockedProperty<String> dolphinProperty = new MockedProperty<>();
+        new DefaultJavaFXBinder<>(javaFXProperty, updates).to(dolphinProperty);
+        dolphinProperty.set("Hello");
+
+        // when:
+        updates.setActive(false);
+
+        // then:
+        assertThat(javaFXProperty.get(), is("Hello"));
+        assertThat(pulse.started, is(false));
+
+        // when:
+        dolphinProperty.set("World");
+
+        // then:
+        assertThat(javaFXProperty.get(), is("World"));
+    }
+
+    @Test
+    public void shouldPassUpdatesFromOtherThreadsToPulseThread() {
+        // given:
+        final TestPulse pulse = new TestPulse();
+        final PulseAlignedUpdates updates = new PulseAlignedUpdates(pulse);
+        updates.setActive(true);
+        final StringProperty javaFXProperty = new SimpleStringProperty();
+        final MockedProperty<String> dolphinProperty = new MockedProperty<>();
+        new DefaultJavaFXBinder<>(javaFXProperty, updates).to(dolphinProperty);
+        pulse.pulseThread = false;
+
+        // when:
+        dolphinProperty.set("Hello");
+
+        // then:
+        assertThat(javaFXProperty.get(), is((String) null));
+        assertThat(pulse.started, is(false));
+
+        // when:
+        pulse.pulseThread = true;
+        pulse.runPending();
+        pulse.fire();
+
+        // then:
+        assertThat(javaFXProperty.get(), is("Hello"));
+    }
+
+    private static class TestPulse implements PulseAlignedUpdates.Pulse {
+
+        private final List<Runnable> runLaterQueue = new ArrayList<>();
+
+        private boolean pulseThread = true;
+
+        private boolean started = false;
+
+        private Runnable handler;
+
+        @Override
+        public boolean isPulseThread() {
+            return pulseThread;
+        }
+
+        @Override
+        public void runLater(final Runnable runnable) {
+            runLaterQueue.add(runnable);
+        }
+
+        @Override
+        public void start(final Runnable handler) {
+            this.handler = handler;
+            started = true;
+        }
+
+        @Override
+        public void stop() {
+            started = false;
+        }
+
+        private void fire() {
+            if (started) {
+                handler.run();
+            }
+        }
+
+        private void runPending() {
+            final List<Runnable> runnables = new ArrayList<>(runLaterQueue);
+            runLaterQueue.clear();
+            runnables.forEach(Runnable::run);
+        }
+    }
+}
@@ -19,11 +19,13 @@ import com.canoo.dp.impl.client.legacy.ClientModelStore;
 import com.canoo.dp.impl.client.legacy.communication.AbstractClientConnector;
 import com.canoo.dp.impl.client.legacy.communication.BlindCommandBatcher;
 import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.remoting.PlatformRemotingConstants;
 import com.canoo.dp.impl.remoting.commands.DestroyContextCommand;
 import com.canoo.dp.impl.remoting.legacy.communication.Codec;
 import com.canoo.dp.impl.remoting.legacy.communication.Command;
 import com.canoo.platform.client.ClientConfiguration;
 import com.canoo.platform.core.http.HttpClient;
+import com.canoo.platform.core.http.HttpRequest;
 import com.canoo.platform.core.http.RequestMethod;
 import com.canoo.platform.remoting.DolphinRemotingException;
 import com.canoo.platform.remoting.client.RemotingExceptionHandler;
@@ -46,6 +48,20 @@ public class DolphinPlatformHttpClientConnector extends AbstractClientConnector
 
     private static final Logger LOG = LoggerFactory.getLogger(DolphinPlatformHttpClientConnector.class);
 
+    public static final String BATCH_MAX_SIZE = "remoting.batch.maxSize";
+
+    public static final String BATCH_DEFER_MILLIS = "remoting.batch.deferMillis";
+
+    public static final String BATCH_MAX_DELAY_MILLIS = "remoting.batch.maxDelayMillis";
+
+    public static final String BATCH_FLUSH_ON_IDLE = "remoting.batch.flushOnIdle";
+
+    public static final String BATCH_MERGE_VALUE_CHANGES = "remoting.batch.mergeValueChanges";
+
+    public static final String MAX_IN_FLIGHT_REQUESTS = "remoting.pipeline.maxInFlightRequests";
+
+    public static final String RESPONSE_FRAME_BUDGET_MILLIS = "remoting.response.frameBudgetMillis";
+
     private final URL servletUrl;
 
     private final Codec codec;
@@ -55,13 +71,30 @@ public class DolphinPlatformHttpClientConnector extends AbstractClientConnector
     private final AtomicBoolean disconnecting = new AtomicBoolean(false);
 
     public DolphinPlatformHttpClientConnector(final URL servletUrl, final ClientConfiguration configuration, final ClientModelStore clientModelStore, final Codec codec, final RemotingExceptionHandler onException, final HttpClient client) {
-        super(clientModelStore, Assert.requireNonNull(configuration, "configuration").getUiExecutor(), new BlindCommandBatcher(), onException, configuration.getBackgroundExecutor());
+        super(clientModelStore, Assert.requireNonNull(configuration, "configuration").getUiExecutor(), createCommandBatcher(configuration), onException, configuration.getBackgroundExecutor());
         this.servletUrl = Assert.requireNonNull(servletUrl, "servletUrl");
         this.codec = Assert.requireNonNull(codec, "codec");
         this.client = Assert.requireNonNull(client, "client");
+        setMaxInFlightRequests(configuration.getIntProperty(MAX_IN_FLIGHT_REQUESTS, getMaxInFlightRequests()));
+        setResponseFrameBudgetMillis(configuration.getLongProperty(RESPONSE_FRAME_BUDGET_MILLIS, getResponseFrameBudgetMillis()));
+    }
+
+    private static BlindCommandBatcher createCommandBatcher(final ClientConfiguration configuration) {
+        final BlindCommandBatcher commandBatcher = new BlindCommandBatcher();
+        commandBatcher.setMaxBatchSize(configuration.getIntProperty(BATCH_MAX_SIZE, commandBatcher.getMaxBatchSize()));
+        commandBatcher.setDeferMillis(configuration.getLongProperty(BATCH_DEFER_MILLIS, commandBatcher.getDeferMillis()));
+        commandBatcher.setMaxDelayMillis(configuration.getLongProperty(BATCH_MAX_DELAY_MILLIS, commandBatcher.getMaxDelayMillis()));
+        commandBatcher.setFlushOnIdle(configuration.getBooleanProperty(BATCH_FLUSH_ON_IDLE, commandBatcher.isFlushOnIdle()));
+        commandBatcher.setMergeValueChanges(configuration.getBooleanProperty(BATCH_MERGE_VALUE_CHANGES, commandBatcher.isMergeValueChanges()));
+        return commandBatcher;
     }
 
     public List<Command> transmit(final List<Command> commands) throws DolphinRemotingException {
+        return transmit(commands, -1);
+    }
+
+    @Override
+    protected List<Command> transmit(final List<Command> commands, final long sequenceNumber) throws DolphinRemotingException {
         Assert.requireNonNull(commands, "commands");
 
         if (disconnecting.get()) {
@@ -78,7 +111,11 @@ public class DolphinPlatformHttpClientConnector extends AbstractClientConnector
 
         try {
             String data = codec.encode(commands);
-            String receivedContent = client.request(servletUrl, RequestMethod.POST).withContent(data, "application/json;charset=utf-8").readString().execute().get();
+            HttpRequest request = client.request(servletUrl, RequestMethod.POST);
+            if (sequenceNumber > 0) {
+                request = request.withHeader(PlatformRemotingConstants.REQUEST_SEQUENCE_HTTP_HEADER_NAME, Long.toString(sequenceNumber));
+            }
+            String receivedContent = request.withContent(data, "application/json;charset=utf-8").readString().executeInCurrentThread();
             return codec.decode(receivedContent);
         } catch (Exception e) {
             throw new DolphinRemotingException("Error in remoting layer", e);
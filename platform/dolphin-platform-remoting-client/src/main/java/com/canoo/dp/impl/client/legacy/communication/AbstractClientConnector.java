@@ -25,11 +25,17 @@ import org.apiguardian.api.API;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apiguardian.api.API.Status.DEPRECATED;
@@ -60,6 +66,19 @@ public abstract class AbstractClientConnector {
 
     protected boolean connectionFlagForUiExecutor = false;
 
+    /**
+     * Maximum number of requests that can be sent to the server without waiting for the response of a previous request
+     */
+    private volatile int maxInFlightRequests = 1;
+
+    /**
+     * Maximum time in milliseconds the ui thread is blocked by handling a server response. Longer responses are handled
+     * in several chunks. A value <= 0 handles each response in one run.
+     */
+    private volatile long responseFrameBudgetMillis = 8;
+
+    private final ResponseApplier responseApplier = new ResponseApplier();
+
     private StartLongPollCommand pushListener;
 
     private InterruptLongPollCommand releaseCommand;
@@ -95,9 +114,13 @@ public abstract class AbstractClientConnector {
 
     protected void commandProcessing() {
         boolean longPollingActivated = false;
+        final RequestPipeline pipeline = maxInFlightRequests > 1 ? new RequestPipeline(maxInFlightRequests) : null;
         while (connectedFlag.get()) {
             try {
                 final List<CommandAndHandler> toProcess = commandBatcher.getWaitingBatches().getVal();
+                if (toProcess == null) {
+                    continue;
+                }
                 List<Command> commands = new ArrayList<>();
                 for (CommandAndHandler c : toProcess) {
                     commands.add(c.getCommand());
@@ -114,14 +137,12 @@ public abstract class AbstractClientConnector {
                     LOG.trace("Sending {} commands to server", commands.size());
                 }
 
-                final List<? extends Command> answers = transmit(commands);
-
-                uiExecutor.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        processResults(answers, toProcess);
-                    }
-                });
+                if (pipeline != null) {
+                    pipeline.send(commands, toProcess);
+                } else {
+                    final List<? extends Command> answers = transmit(commands);
+                    uiExecutor.execute(createResultHandler(answers, toProcess));
+                }
             } catch (Exception e) {
                 if (connectedFlag.get()) {
                     handleError(e);
@@ -143,6 +164,19 @@ public abstract class AbstractClientConnector {
 
     protected abstract List<Command> transmit(final List<Command> commands) throws DolphinRemotingException;
 
+    /**
+     * Sends the given commands as part of a request pipeline. The sequence number defines the order in that the server
+     * must handle the requests of the pipeline. Connectors that support pipelining must override this method and
+     * send the sequence number to the server.
+     * @param commands the commands
+     * @param sequenceNumber the sequence number of the request, starting with 1 for each connection
+     * @return the response of the server
+     * @throws DolphinRemotingException if the commands can not be sent
+     */
+    protected List<Command> transmit(final List<Command> commands, final long sequenceNumber) throws DolphinRemotingException {
+        return transmit(commands);
+    }
+
     public void send(final Command command, final OnFinishedHandler callback, final HandlerType handlerType) {
         LOG.trace("Command of type {} should be withContent to server", command.getClass().getSimpleName());
         if (!connectedFlag.get()) {
@@ -166,6 +200,41 @@ public abstract class AbstractClientConnector {
         send(command, null);
     }
 
+    /**
+     * Creates the task that handles the response of the server in the ui thread. This method is called in the
+     * background thread that received the response and prepares the handling of all commands directly.
+     * @param response the response
+     * @param commandsAndHandlers the sent commands
+     * @return the task that must be executed in the ui thread
+     */
+    private Runnable createResultHandler(final List<? extends Command> response, final List<CommandAndHandler> commandsAndHandlers) {
+        if (responseFrameBudgetMillis <= 0) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    processResults(response, commandsAndHandlers);
+                }
+            };
+        }
+        LOG.trace("Preparing {} commands from server", response.size());
+        final List<Runnable> tasks = new ArrayList<>(response.size() + 1);
+        for (Command serverCommand : response) {
+            tasks.add(responseHandler.prepare(serverCommand));
+        }
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                handleCallback(commandsAndHandlers);
+            }
+        });
+        return new Runnable() {
+            @Override
+            public void run() {
+                responseApplier.apply(tasks);
+            }
+        };
+    }
+
     protected void processResults(final List<? extends Command> response, final List<CommandAndHandler> commandsAndHandlers) {
 
         if (LOG.isDebugEnabled() && response.size() > 0) {
@@ -182,7 +251,10 @@ public abstract class AbstractClientConnector {
         for (Command serverCommand : response) {
             dispatchHandle(serverCommand);
         }
+        handleCallback(commandsAndHandlers);
+    }
 
+    private void handleCallback(final List<CommandAndHandler> commandsAndHandlers) {
         OnFinishedHandler callback = commandsAndHandlers.get(0).getHandler();
         if (callback != null) {
             LOG.trace("Handling registered callback");
@@ -287,4 +359,135 @@ public abstract class AbstractClientConnector {
         return releaseCommand;
     }
 
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Defines how many requests can be sent to the server without waiting for the response of a previous request.
+     * Responses are always handled in the order of the requests. The value is used for the next connect.
+     * @param maxInFlightRequests the maximum number of requests in flight, must be > 0
+     */
+    public void setMaxInFlightRequests(final int maxInFlightRequests) {
+        if (maxInFlightRequests < 1) {
+            throw new IllegalArgumentException("maxInFlightRequests must be > 0");
+        }
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    public long getResponseFrameBudgetMillis() {
+        return responseFrameBudgetMillis;
+    }
+
+    /**
+     * Defines the maximum time in milliseconds the ui thread is blocked by handling server responses. If handling a
+     * response takes longer the remaining commands are handled in a later ui task. Responses and callbacks are always
+     * handled in order.
+     * @param responseFrameBudgetMillis the budget, a value <= 0 handles each response in one ui task
+     */
+    public void setResponseFrameBudgetMillis(final long responseFrameBudgetMillis) {
+        this.responseFrameBudgetMillis = responseFrameBudgetMillis;
+    }
+
+    /**
+     * Executes the tasks that handle server responses in the ui thread in chunks that fit into the frame budget
+     */
+    private class ResponseApplier implements Runnable {
+
+        private final Deque<Runnable> pendingTasks = new ArrayDeque<>();
+
+        private boolean running = false;
+
+        private boolean scheduled = false;
+
+        private synchronized void apply(final List<Runnable> tasks) {
+            pendingTasks.addAll(tasks);
+            if (!running && !scheduled) {
+                run();
+            }
+        }
+
+        @Override
+        public synchronized void run() {
+            scheduled = false;
+            if (running) {
+                return;
+            }
+            running = true;
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(responseFrameBudgetMillis);
+            try {
+                Runnable task = pendingTasks.poll();
+                while (task != null) {
+                    task.run();
+                    if (!pendingTasks.isEmpty() && System.nanoTime() >= deadline) {
+                        LOG.trace("Handling of server response exceeds frame budget, {} tasks left", pendingTasks.size());
+                        break;
+                    }
+                    task = pendingTasks.poll();
+                }
+            } finally {
+                running = false;
+                if (!pendingTasks.isEmpty() && !scheduled) {
+                    scheduled = true;
+                    uiExecutor.execute(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends requests in parallel and hands the responses to the ui executor in the order of the requests
+     */
+    private class RequestPipeline {
+
+        private final Semaphore inFlightRequests;
+
+        private final Map<Long, Runnable> receivedResponses = new HashMap<>();
+
+        private long lastSequenceNumber = 0;
+
+        private long nextResponseSequenceNumber = 1;
+
+        private RequestPipeline(final int maxInFlightRequests) {
+            this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        }
+
+        private void send(final List<Command> commands, final List<CommandAndHandler> toProcess) throws InterruptedException {
+            inFlightRequests.acquire();
+            final long sequenceNumber = ++lastSequenceNumber;
+            try {
+                backgroundExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            final List<? extends Command> answers = transmit(commands, sequenceNumber);
+                            onResponse(sequenceNumber, createResultHandler(answers, toProcess));
+                        } catch (Exception e) {
+                            if (connectedFlag.get()) {
+                                handleError(e);
+                            } else {
+                                LOG.warn("Remoting error based on broken connection in parallel request", e);
+                            }
+                        } finally {
+                            inFlightRequests.release();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlightRequests.release();
+                throw e;
+            }
+        }
+
+        private synchronized void onResponse(final long sequenceNumber, final Runnable handler) {
+            receivedResponses.put(sequenceNumber, handler);
+            Runnable nextHandler = receivedResponses.remove(nextResponseSequenceNumber);
+            while (nextHandler != null) {
+                uiExecutor.execute(nextHandler);
+                nextResponseSequenceNumber++;
+                nextHandler = receivedResponses.remove(nextResponseSequenceNumber);
+            }
+        }
+    }
+
 }
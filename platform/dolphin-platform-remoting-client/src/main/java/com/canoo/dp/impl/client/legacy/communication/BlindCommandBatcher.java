@@ -21,11 +21,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Map;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -36,38 +40,102 @@ import static org.apiguardian.api.API.Status.DEPRECATED;
  * have no onFinished handler attached (blind commands), which is the typical case
  * for value change and create presentation model commands
  * when synchronizing back to the server.
+ * <p>
+ * Blind commands are collected until one of the following conditions is met:
+ * <ul>
+ *     <li>the number of collected commands reaches the max batch size</li>
+ *     <li>a command with an onFinished handler is batched</li>
+ *     <li>the connection is idle (waits for the next batch)</li>
+ *     <li>no new command was batched for the defer time</li>
+ *     <li>the first collected command waits for the max delay</li>
+ * </ul>
+ * By doing so a command is sent without delay if the traffic is sparse while bigger batches are created if the
+ * traffic is dense. All time based flushes of all batchers are done by one shared scheduler thread.
+ * <p>
+ * If merging of value changes is active (by default it is not) a value change is merged into the first value change
+ * of the same attribute in the current batch. Any command that is not a value change ends the merging, so a value
+ * change is never moved over such a command. Value changes of other attributes do not end the merging and therefore
+ * interleaved value changes are reordered: the changes {@code a=1, b=1, a=2} are sent as {@code a=2, b=1} and the
+ * server sees the final value of {@code a} before the change of {@code b}. Merging should only be activated if the
+ * server side does not depend on the order of value changes of different attributes.
  */
 @API(since = "0.x", status = DEPRECATED)
 public class BlindCommandBatcher extends CommandBatcher {
 
     private static final Logger LOG = LoggerFactory.getLogger(BlindCommandBatcher.class);
 
-    private ExecutorService executorService = Executors.newCachedThreadPool();
+    /**
+     * Shared by all batchers since a timed flush only moves the collected commands to the waiting batches
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "Dolphin Platform command batcher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Runnable timedFlush = new Runnable() {
+        @Override
+        public void run() {
+            onTimer();
+        }
+    };
 
     private LinkedList<CommandAndHandler> commandsAndHandlers = new LinkedList<CommandAndHandler>();
 
     private Lock commandsAndHandlersLock = new ReentrantLock();
 
     /**
-     * Time allowed to fill the queue before a batch is assembled
+     * Time allowed to fill the queue before a batch is assembled. Each new blind command restarts this time.
      */
     private long deferMillis = 10;
 
+    /**
+     * Maximum time a blind command will be deferred, independent of the number of commands that follow it
+     */
+    private long maxDelayMillis = 50;
+
     /**
      * Must be > 0
      */
     private int maxBatchSize = 100;
 
+    /**
+     * Send collected commands directly if the connection waits for the next batch
+     */
+    private boolean flushOnIdle = true;
+
     /**
      * when attribute x changes its value from 0 to 1 and then from 1 to 2, merge this into one change from 0 to 2
      */
     private boolean mergeValueChanges = false;
 
-    protected final AtomicBoolean inProcess = new AtomicBoolean(false);
+    /**
+     * Index of the value changes in the current batch that can still be merged, by attribute id
+     */
+    private final Map<String, ValueChangedCommand> mergeableValueChanges = new HashMap<String, ValueChangedCommand>();
+
+    private long firstQueuedNanos;
+
+    private long lastQueuedNanos;
 
-    protected final AtomicBoolean deferralNeeded = new AtomicBoolean(false);
+    private ScheduledFuture<?> scheduledFlush;
 
-    protected boolean shallWeEvenTryToMerge = false;
+    public BlindCommandBatcher() {
+        final DataflowQueue<List<CommandAndHandler>> waitingBatches = getWaitingBatches();
+        if (waitingBatches instanceof CommandBatcherQueue) {
+            ((CommandBatcherQueue) waitingBatches).setConsumerWaitingListener(new Runnable() {
+                @Override
+                public void run() {
+                    if (flushOnIdle) {
+                        processBatch();
+                    }
+                }
+            });
+        }
+    }
 
     @Override
     public boolean isEmpty() {
@@ -86,79 +154,90 @@ public class BlindCommandBatcher extends CommandBatcher {
 
         commandsAndHandlersLock.lock();
         try {
+            final long now = System.nanoTime();
+            if (commandsAndHandlers.isEmpty()) {
+                firstQueuedNanos = now;
+            }
+            lastQueuedNanos = now;
             commandsAndHandlers.add(commandWithHandler);
-        } finally {
-            commandsAndHandlersLock.unlock();
-        }
-
-
-        if (commandWithHandler.isBatchable()) {
-            deferralNeeded.set(true);
-            if (inProcess.get()) {
-                return;
 
+            if (!commandWithHandler.isBatchable() || commandsAndHandlers.size() >= maxBatchSize || isConnectionIdle()) {
+                processBatch();
+            } else {
+                processDeferred();
             }
-
-            processDeferred();
-        } else {
-            processBatch();
+        } finally {
+            commandsAndHandlersLock.unlock();
         }
-
     }
 
     protected boolean canBeDropped(final CommandAndHandler commandWithHandler) {
         return false;
     }
 
+    private boolean isConnectionIdle() {
+        if (!flushOnIdle) {
+            return false;
+        }
+        final DataflowQueue<List<CommandAndHandler>> waitingBatches = getWaitingBatches();
+        return waitingBatches instanceof CommandBatcherQueue && ((CommandBatcherQueue) waitingBatches).isConsumerWaiting() && waitingBatches.length() == 0;
+    }
+
+    /**
+     * Schedules a flush of the collected commands if no flush is scheduled
+     */
     protected void processDeferred() {
-        inProcess.set(true);
-
-        executorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                int count = getMaxBatchSize();// never wait for more than those
-                while (deferralNeeded.get() && count > 0) {
-                    count--;
-                    deferralNeeded.set(false);
-                    try {
-                        Thread.sleep(getDeferMillis());
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException("ERROR", e);
-                    }
-                    // while we sleep, new requests may have arrived that request deferral
-                }
+        commandsAndHandlersLock.lock();
+        try {
+            if (scheduledFlush == null) {
+                scheduledFlush = SCHEDULER.schedule(timedFlush, Math.min(deferMillis, maxDelayMillis), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            commandsAndHandlersLock.unlock();
+        }
+    }
 
+    private void onTimer() {
+        commandsAndHandlersLock.lock();
+        try {
+            scheduledFlush = null;
+            if (commandsAndHandlers.isEmpty()) {
+                return;
+            }
+            final long now = System.nanoTime();
+            final long flushByDefer = lastQueuedNanos + TimeUnit.MILLISECONDS.toNanos(deferMillis);
+            final long flushByMaxDelay = firstQueuedNanos + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+            final long flushTime = Math.min(flushByDefer, flushByMaxDelay);
+            if (now >= flushTime) {
                 processBatch();
-                inProcess.set(false);
+            } else {
+                scheduledFlush = SCHEDULER.schedule(timedFlush, flushTime - now, TimeUnit.NANOSECONDS);
             }
-
-        });
+        } finally {
+            commandsAndHandlersLock.unlock();
+        }
     }
 
+    /**
+     * Moves all collected commands to the waiting batches
+     */
     protected void processBatch() {
-        executorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                getCommandsAndHandlersLock().lock();
-                try {
-                    CommandAndHandler last = batchBlinds(getCommandsAndHandlers());// always withContent leading blinds first
-                    if (last != null) {
-                        // we do have a trailing command with handler and batch it separately
-                        getWaitingBatches().add(Arrays.asList(last));
-                    }
-
-                    if (!getCommandsAndHandlers().isEmpty()) {
-                        processBatch();
-                        // this is not so much like recursion, more like a trampoline
-                    }
-
-                } finally {
-                    getCommandsAndHandlersLock().unlock();
+        commandsAndHandlersLock.lock();
+        try {
+            while (!commandsAndHandlers.isEmpty()) {
+                CommandAndHandler last = batchBlinds(commandsAndHandlers);// always withContent leading blinds first
+                if (last != null) {
+                    // we do have a trailing command with handler and batch it separately
+                    getWaitingBatches().add(Arrays.asList(last));
                 }
-
             }
-
-        });
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        } finally {
+            commandsAndHandlersLock.unlock();
+        }
     }
 
     protected CommandAndHandler batchBlinds(final List<CommandAndHandler> queue) {
@@ -170,7 +249,7 @@ public class BlindCommandBatcher extends CommandBatcher {
         int counter = maxBatchSize;
         // we have to check again, since new ones may have arrived since last check
         CommandAndHandler val = take(queue);
-        shallWeEvenTryToMerge = false;
+        mergeableValueChanges.clear();
         while (val != null && val.isBatchable() && counter-- > 0) {// we do have a blind
             addToBlindsOrMerge(blindCommands, val);
             val = counter != 0 ? take(queue) : null;
@@ -187,11 +266,13 @@ public class BlindCommandBatcher extends CommandBatcher {
         if (!wasMerged(blindCommands, val)) {
             blindCommands.add(val);
             if (val.getCommand() instanceof ValueChangedCommand) {
-                shallWeEvenTryToMerge = true;
+                final ValueChangedCommand valueChangedCommand = (ValueChangedCommand) val.getCommand();
+                mergeableValueChanges.put(valueChangedCommand.getAttributeId(), valueChangedCommand);
+            } else {
+                // value changes must not be moved over any other command
+                mergeableValueChanges.clear();
             }
-
         }
-
     }
 
     protected boolean wasMerged(final List<CommandAndHandler> blindCommands, final CommandAndHandler val) {
@@ -199,15 +280,7 @@ public class BlindCommandBatcher extends CommandBatcher {
             return false;
         }
 
-        if (!shallWeEvenTryToMerge) {
-            return false;
-        }
-
-        if (blindCommands.isEmpty()) {
-            return false;
-        }
-
-        if (val.getCommand() == null) {
+        if (blindCommands.isEmpty() || mergeableValueChanges.isEmpty()) {
             return false;
         }
 
@@ -216,19 +289,13 @@ public class BlindCommandBatcher extends CommandBatcher {
         }
 
         final ValueChangedCommand valCmd = (ValueChangedCommand) val.getCommand();
-
-        shallWeEvenTryToMerge = true;
-
-
-        if(blindCommands.get(blindCommands.size() -1).getCommand() instanceof ValueChangedCommand) {
-            ValueChangedCommand valueChangedCommand = (ValueChangedCommand) blindCommands.get(blindCommands.size() -1).getCommand();
-            if(valCmd.getAttributeId().equals(valueChangedCommand.getAttributeId())) {
-                LOG.trace("merging value changed command for attribute {} with new values {}  -> {}", valueChangedCommand.getAttributeId(), valueChangedCommand.getNewValue(), valCmd.getNewValue());
-                valueChangedCommand.setNewValue(valCmd.getNewValue());
-                return true;
-            }
+        final ValueChangedCommand valueChangedCommand = mergeableValueChanges.get(valCmd.getAttributeId());
+        if (valueChangedCommand == null) {
+            return false;
         }
-        return false;
+        LOG.trace("merging value changed command for attribute {} with new values {}  -> {}", valueChangedCommand.getAttributeId(), valueChangedCommand.getNewValue(), valCmd.getNewValue());
+        valueChangedCommand.setNewValue(valCmd.getNewValue());
+        return true;
     }
 
     protected CommandAndHandler take(final List<CommandAndHandler> intern) {
@@ -255,6 +322,22 @@ public class BlindCommandBatcher extends CommandBatcher {
         this.deferMillis = deferMillis;
     }
 
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public void setMaxDelayMillis(final long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public boolean isFlushOnIdle() {
+        return flushOnIdle;
+    }
+
+    public void setFlushOnIdle(final boolean flushOnIdle) {
+        this.flushOnIdle = flushOnIdle;
+    }
+
     public int getMaxBatchSize() {
         return maxBatchSize;
     }
@@ -263,6 +346,10 @@ public class BlindCommandBatcher extends CommandBatcher {
         this.maxBatchSize = maxBatchSize;
     }
 
+    public boolean isMergeValueChanges() {
+        return mergeValueChanges;
+    }
+
     public void setMergeValueChanges(final boolean mergeValueChanges) {
         this.mergeValueChanges = mergeValueChanges;
     }
@@ -18,8 +18,11 @@ package com.canoo.dp.impl.client.legacy.communication;
 import com.canoo.dp.impl.client.legacy.ClientAttribute;
 import com.canoo.dp.impl.client.legacy.ClientModelStore;
 import com.canoo.dp.impl.client.legacy.ClientPresentationModel;
+import com.canoo.dp.impl.remoting.legacy.RemotingConstants;
+import com.canoo.dp.impl.remoting.legacy.communication.AttributeDescriptor;
 import com.canoo.dp.impl.remoting.legacy.communication.AttributeMetadataChangedCommand;
 import com.canoo.dp.impl.remoting.legacy.communication.Command;
+import com.canoo.dp.impl.remoting.legacy.communication.CommandConstants;
 import com.canoo.dp.impl.remoting.legacy.communication.CreatePresentationModelCommand;
 import com.canoo.dp.impl.remoting.legacy.communication.DeletePresentationModelCommand;
 import com.canoo.dp.impl.remoting.legacy.communication.ValueChangedCommand;
@@ -29,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -42,23 +46,88 @@ public class ClientResponseHandler {
 
     private final ClientModelStore clientModelStore;
 
+    /**
+     * Handlers for all supported commands by the command id
+     */
+    private final Map<String, CommandHandler> handlers = new HashMap<>();
+
     public ClientResponseHandler(final ClientModelStore clientModelStore) {
         this.clientModelStore = Objects.requireNonNull(clientModelStore);
+
+        handlers.put(CommandConstants.DELETE_PRESENTATION_MODEL_COMMAND_ID, new CommandHandler() {
+            @Override
+            public void handle(final Command command) {
+                handleDeletePresentationModelCommand((DeletePresentationModelCommand) command);
+            }
+        });
+        handlers.put(CommandConstants.CREATE_PRESENTATION_MODEL_COMMAND_ID, new CommandHandler() {
+            @Override
+            public void handle(final Command command) {
+                handleCreatePresentationModelCommand((CreatePresentationModelCommand) command);
+            }
+        });
+        handlers.put(CommandConstants.VALUE_CHANGED_COMMAND_ID, new CommandHandler() {
+            @Override
+            public void handle(final Command command) {
+                handleValueChangedCommand((ValueChangedCommand) command);
+            }
+        });
+        handlers.put(CommandConstants.ATTRIBUTE_METADATA_CHANGED_COMMAND_ID, new CommandHandler() {
+            @Override
+            public void handle(final Command command) {
+                handleAttributeMetadataChangedCommand((AttributeMetadataChangedCommand) command);
+            }
+        });
     }
 
     public void dispatchHandle(final Command command) {
-        if (command instanceof DeletePresentationModelCommand) {
-            handleDeletePresentationModelCommand((DeletePresentationModelCommand) command);
-        } else if (command instanceof CreatePresentationModelCommand) {
-            handleCreatePresentationModelCommand((CreatePresentationModelCommand) command);
-        } else if (command instanceof ValueChangedCommand) {
-            handleValueChangedCommand((ValueChangedCommand) command);
-        } else if (command instanceof AttributeMetadataChangedCommand) {
-            handleAttributeMetadataChangedCommand((AttributeMetadataChangedCommand) command);
-        } else {
+        final CommandHandler handler = command != null ? handlers.get(command.getId()) : null;
+        if (handler == null) {
             LOG.error("C: cannot withoutResult unknown command '{}'", command );
+            return;
         }
+        handler.handle(command);
+    }
 
+    /**
+     * Prepares the handling of the given command. This method can be called in a background thread. All objects that
+     * are needed to handle the command are created directly while the returned task only updates the model store and
+     * must be executed in the ui thread.
+     * @param command the command
+     * @return the task that handles the command
+     */
+    public Runnable prepare(final Command command) {
+        if (command instanceof CreatePresentationModelCommand) {
+            final CreatePresentationModelCommand serverCommand = (CreatePresentationModelCommand) command;
+            final ClientPresentationModel model;
+            try {
+                model = createPresentationModel(serverCommand);
+            } catch (RuntimeException e) {
+                LOG.debug("C: can not prepare presentation model '{}' in background", serverCommand.getPmId(), e);
+                return createDispatchTask(command);
+            }
+            return new Runnable() {
+                @Override
+                public void run() {
+                    addPresentationModel(model);
+                }
+            };
+        }
+        return createDispatchTask(command);
+    }
+
+    private Runnable createDispatchTask(final Command command) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                dispatchHandle(command);
+            }
+        };
+    }
+
+    private interface CommandHandler {
+
+        void handle(Command command);
     }
 
     private void handleDeletePresentationModelCommand(final DeletePresentationModelCommand serverCommand) {
@@ -70,23 +139,18 @@ public class ClientResponseHandler {
     }
 
     private void handleCreatePresentationModelCommand(final CreatePresentationModelCommand serverCommand) {
-        if (clientModelStore.containsPresentationModel(serverCommand.getPmId())) {
-            throw new IllegalStateException("There already is a presentation model with id '" + serverCommand.getPmId() + "' known to the client.");
-        }
-
-        List<ClientAttribute> attributes = new ArrayList<ClientAttribute>();
-        for (Map<String, Object> attr : serverCommand.getAttributes()) {
-
-            Object propertyName = attr.get("propertyName");
-            Object value = attr.get("value");
-            Object qualifier = attr.get("qualifier");
-            Object id = attr.get("id");
+        addPresentationModel(createPresentationModel(serverCommand));
+    }
 
-            ClientAttribute attribute = new ClientAttribute(propertyName != null ? propertyName.toString() : null, value, qualifier != null ? qualifier.toString() : null);
-            if (id != null && id.toString().endsWith("S")) {
-                attribute.setId(id.toString());
+    private ClientPresentationModel createPresentationModel(final CreatePresentationModelCommand serverCommand) {
+        final List<AttributeDescriptor> descriptors = serverCommand.getAttributeDescriptors();
+        final List<ClientAttribute> attributes = new ArrayList<ClientAttribute>(descriptors.size());
+        for (final AttributeDescriptor descriptor : descriptors) {
+            final ClientAttribute attribute = new ClientAttribute(descriptor.getPropertyName(), descriptor.getValue(), descriptor.getQualifier());
+            final String id = descriptor.getId();
+            if (id != null && id.endsWith(RemotingConstants.SERVER_ORIGIN)) {
+                attribute.setId(id);
             }
-
             attributes.add(attribute);
         }
 
@@ -95,7 +159,13 @@ public class ClientResponseHandler {
         if (serverCommand.isClientSideOnly()) {
             model.setClientSideOnly(true);
         }
+        return model;
+    }
 
+    private void addPresentationModel(final ClientPresentationModel model) {
+        if (clientModelStore.containsPresentationModel(model.getId())) {
+            throw new IllegalStateException("There already is a presentation model with id '" + model.getId() + "' known to the client.");
+        }
         clientModelStore.add(model);
         clientModelStore.updateQualifiers(model);
     }
@@ -34,12 +34,26 @@ public class CommandBatcherQueue implements DataflowQueue<List<CommandAndHandler
 
     private final Condition emptyCondition = queueLock.newCondition();
 
+    private volatile int waitingConsumers = 0;
+
+    private volatile Runnable consumerWaitingListener;
+
     @Override
     public List<CommandAndHandler> getVal() throws InterruptedException {
+        final Runnable listener = consumerWaitingListener;
+        if (listener != null && length() == 0) {
+            // called before the lock is acquired since the listener will add values to the queue
+            listener.run();
+        }
         queueLock.lock();
         try {
             if (internalQueue.isEmpty()) {
-                emptyCondition.await();
+                waitingConsumers++;
+                try {
+                    emptyCondition.await();
+                } finally {
+                    waitingConsumers--;
+                }
             }
             if (internalQueue.isEmpty()) {
                 return null;
@@ -50,6 +64,23 @@ public class CommandBatcherQueue implements DataflowQueue<List<CommandAndHandler
         }
     }
 
+    /**
+     * Returns true if a consumer waits for a new value
+     * @return true if a consumer waits for a new value
+     */
+    public boolean isConsumerWaiting() {
+        return waitingConsumers > 0;
+    }
+
+    /**
+     * Defines a listener that is called when a consumer wants to take a value from the empty queue. The listener
+     * can be used to provide pending values directly.
+     * @param consumerWaitingListener the listener
+     */
+    public void setConsumerWaitingListener(final Runnable consumerWaitingListener) {
+        this.consumerWaitingListener = consumerWaitingListener;
+    }
+
     @Override
     public void add(final List<CommandAndHandler> value) {
         queueLock.lock();
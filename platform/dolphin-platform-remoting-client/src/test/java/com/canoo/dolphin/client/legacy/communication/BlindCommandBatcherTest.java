@@ -17,6 +17,7 @@ package com.canoo.dolphin.client.legacy.communication;
 
 import com.canoo.dp.impl.client.legacy.communication.BlindCommandBatcher;
 import com.canoo.dp.impl.client.legacy.communication.CommandAndHandler;
+import com.canoo.dp.impl.client.legacy.communication.CommandBatcherQueue;
 import com.canoo.dp.impl.client.legacy.communication.OnFinishedHandler;
 import com.canoo.dp.impl.remoting.legacy.communication.CreatePresentationModelCommand;
 import com.canoo.dp.impl.remoting.legacy.communication.ValueChangedCommand;
@@ -28,6 +29,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class BlindCommandBatcherTest {
 
@@ -230,5 +236,163 @@ public class BlindCommandBatcherTest {
 
     }
 
+    @Test
+    public void testMergeInterleavedValueChanges() throws InterruptedException {
+
+        //given:
+        batcher.setMergeValueChanges(true);
+        List<CommandAndHandler> list = new ArrayList<CommandAndHandler>();
+        for (int i = 0; i < 3; i++) {
+            list.add(new CommandAndHandler(new ValueChangedCommand("a", i)));
+            list.add(new CommandAndHandler(new ValueChangedCommand("b", i)));
+            list.add(new CommandAndHandler(new ValueChangedCommand("c", i)));
+        }
+
+        //when:
+        for (CommandAndHandler commandAndHandler : list) {
+            batcher.batch(commandAndHandler);
+        }
+
+        //then:
+        List<CommandAndHandler> nextBatch = batcher.getWaitingBatches().getVal();
+        Assert.assertEquals(3, nextBatch.size());
+        Assert.assertEquals("a", ((ValueChangedCommand) nextBatch.get(0).getCommand()).getAttributeId());
+        Assert.assertEquals(2, ((ValueChangedCommand) nextBatch.get(0).getCommand()).getNewValue());
+        Assert.assertEquals("b", ((ValueChangedCommand) nextBatch.get(1).getCommand()).getAttributeId());
+        Assert.assertEquals(2, ((ValueChangedCommand) nextBatch.get(1).getCommand()).getNewValue());
+        Assert.assertEquals("c", ((ValueChangedCommand) nextBatch.get(2).getCommand()).getAttributeId());
+        Assert.assertEquals(2, ((ValueChangedCommand) nextBatch.get(2).getCommand()).getNewValue());
+        Assert.assertTrue(batcher.isEmpty());
+    }
+
+    @Test
+    public void testNoMergeOverOtherCommands() throws InterruptedException {
+
+        //given:
+        batcher.setMergeValueChanges(true);
+        List<CommandAndHandler> list = new ArrayList<CommandAndHandler>();
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 1)));
+        list.add(new CommandAndHandler(new ValueChangedCommand("b", 1)));
+        list.add(new CommandAndHandler(new CreatePresentationModelCommand()));
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 2)));
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 3)));
+
+        //when:
+        for (CommandAndHandler commandAndHandler : list) {
+            batcher.batch(commandAndHandler);
+        }
+
+        //then:
+        List<CommandAndHandler> nextBatch = batcher.getWaitingBatches().getVal();
+        Assert.assertEquals(4, nextBatch.size());
+        Assert.assertEquals(1, ((ValueChangedCommand) nextBatch.get(0).getCommand()).getNewValue());
+        Assert.assertEquals(1, ((ValueChangedCommand) nextBatch.get(1).getCommand()).getNewValue());
+        Assert.assertEquals(CreatePresentationModelCommand.class, nextBatch.get(2).getCommand().getClass());
+        Assert.assertEquals(3, ((ValueChangedCommand) nextBatch.get(3).getCommand()).getNewValue());
+        Assert.assertTrue(batcher.isEmpty());
+    }
+
+    @Test
+    public void testNoMergeByDefault() throws InterruptedException {
+
+        //given:
+        List<CommandAndHandler> list = new ArrayList<CommandAndHandler>();
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 1)));
+        list.add(new CommandAndHandler(new ValueChangedCommand("b", 1)));
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 2)));
+
+        //when:
+        for (CommandAndHandler commandAndHandler : list) {
+            batcher.batch(commandAndHandler);
+        }
+
+        //then:
+        Assert.assertFalse(batcher.isMergeValueChanges());
+        Assert.assertEquals(list, batcher.getWaitingBatches().getVal());
+    }
+
+    @Test
+    public void testNoMergeIfDeactivated() throws InterruptedException {
+
+        //given:
+        batcher.setMergeValueChanges(false);
+        List<CommandAndHandler> list = new ArrayList<CommandAndHandler>();
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 1)));
+        list.add(new CommandAndHandler(new ValueChangedCommand("a", 2)));
+
+        //when:
+        for (CommandAndHandler commandAndHandler : list) {
+            batcher.batch(commandAndHandler);
+        }
+
+        //then:
+        Assert.assertEquals(list, batcher.getWaitingBatches().getVal());
+    }
+
+    @Test
+    public void testMaxDelayForcesBatch() throws InterruptedException {
+        //given:
+        batcher.setDeferMillis(10_000);
+        batcher.setMaxDelayMillis(100);
+
+        //when:
+        batcher.batch(new CommandAndHandler(null));
+        batcher.batch(new CommandAndHandler(null));
+
+        //then:
+        Assert.assertTrue(batcher.isEmpty());
+        final long timeout = System.currentTimeMillis() + 5_000;
+        while (batcher.isEmpty() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(batcher.isEmpty());
+        Assert.assertEquals(2, batcher.getWaitingBatches().getVal().size());
+    }
+
+    @Test
+    public void testIdleConnectionForcesBatch() throws Exception {
+        //given:
+        batcher.setDeferMillis(10_000);
+        batcher.setMaxDelayMillis(10_000);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<List<CommandAndHandler>> nextBatch = executor.submit(new Callable<List<CommandAndHandler>>() {
+                @Override
+                public List<CommandAndHandler> call() throws Exception {
+                    return batcher.getWaitingBatches().getVal();
+                }
+            });
+            final long timeout = System.currentTimeMillis() + 5_000;
+            while (!((CommandBatcherQueue) batcher.getWaitingBatches()).isConsumerWaiting() && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+
+            //when:
+            final CommandAndHandler commandAndHandler = new CommandAndHandler(null);
+            batcher.batch(commandAndHandler);
+
+            //then:
+            Assert.assertEquals(Collections.singletonList(commandAndHandler), nextBatch.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoIdleFlushIfDeactivated() throws InterruptedException {
+        //given:
+        batcher.setFlushOnIdle(false);
+        batcher.setDeferMillis(10_000);
+        batcher.setMaxDelayMillis(200);
+
+        //when:
+        batcher.batch(new CommandAndHandler(null));
+        final long start = System.currentTimeMillis();
+        final List<CommandAndHandler> nextBatch = batcher.getWaitingBatches().getVal();
+
+        //then:
+        Assert.assertTrue(nextBatch == null || System.currentTimeMillis() - start >= 150);
+    }
+
     private BlindCommandBatcher batcher;
 }
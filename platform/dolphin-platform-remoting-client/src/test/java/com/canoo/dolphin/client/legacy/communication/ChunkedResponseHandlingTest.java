@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dolphin.client.legacy.communication;
+
+import com.canoo.dp.impl.client.legacy.ClientModelStore;
+import com.canoo.dp.impl.client.legacy.DefaultModelSynchronizer;
+import com.canoo.dp.impl.client.legacy.ModelSynchronizer;
+import com.canoo.dp.impl.client.legacy.communication.AbstractClientConnector;
+import com.canoo.dp.impl.client.legacy.communication.CommandBatcher;
+import com.canoo.dp.impl.client.legacy.communication.OnFinishedHandler;
+import com.canoo.dp.impl.client.legacy.communication.SimpleExceptionHandler;
+import com.canoo.dp.impl.remoting.legacy.communication.Command;
+import com.canoo.dp.impl.remoting.legacy.communication.CreatePresentationModelCommand;
+import com.canoo.dp.impl.remoting.legacy.communication.EmptyCommand;
+import com.canoo.dp.impl.remoting.legacy.util.Provider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkedResponseHandlingTest {
+
+    private static final int MODEL_COUNT = 20_000;
+
+    @Test
+    public void testResponseIsHandledInChunks() throws InterruptedException {
+        //given:
+        final BlockingQueue<Runnable> uiTasks = new LinkedBlockingQueue<>();
+        final ClientModelStore[] clientModelStore = new ClientModelStore[1];
+        final ResponseTestClientConnector connector = createConnector(uiTasks, clientModelStore);
+        connector.setResponseFrameBudgetMillis(1);
+        connector.connect(false);
+        runAll(uiTasks);
+        final AtomicInteger modelCountInCallback = new AtomicInteger(-1);
+
+        //when:
+        connector.send(new EmptyCommand(), new OnFinishedHandler() {
+            @Override
+            public void onFinished() {
+                modelCountInCallback.set(clientModelStore[0].listPresentationModelIds().size());
+            }
+        });
+        Runnable uiTask = uiTasks.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(uiTask);
+        uiTask.run();
+
+        //then:
+        final int modelCountAfterFirstChunk = clientModelStore[0].listPresentationModelIds().size();
+        Assert.assertTrue(modelCountAfterFirstChunk > 0);
+        Assert.assertTrue(modelCountAfterFirstChunk < MODEL_COUNT);
+        Assert.assertEquals(modelCountInCallback.get(), -1);
+
+        int chunks = 1;
+        uiTask = uiTasks.poll();
+        while (uiTask != null) {
+            uiTask.run();
+            chunks++;
+            uiTask = uiTasks.poll();
+        }
+        Assert.assertTrue(chunks > 1);
+        Assert.assertEquals(clientModelStore[0].listPresentationModelIds().size(), MODEL_COUNT);
+        Assert.assertEquals(modelCountInCallback.get(), MODEL_COUNT);
+        connector.disconnect();
+    }
+
+    @Test
+    public void testResponseIsHandledInOneRunWithoutBudget() throws InterruptedException {
+        //given:
+        final BlockingQueue<Runnable> uiTasks = new LinkedBlockingQueue<>();
+        final ClientModelStore[] clientModelStore = new ClientModelStore[1];
+        final ResponseTestClientConnector connector = createConnector(uiTasks, clientModelStore);
+        connector.setResponseFrameBudgetMillis(0);
+        connector.connect(false);
+        runAll(uiTasks);
+
+        //when:
+        connector.send(new EmptyCommand());
+        Runnable uiTask = uiTasks.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(uiTask);
+        uiTask.run();
+
+        //then:
+        Assert.assertEquals(clientModelStore[0].listPresentationModelIds().size(), MODEL_COUNT);
+        connector.disconnect();
+    }
+
+    private void runAll(final BlockingQueue<Runnable> uiTasks) {
+        Runnable uiTask = uiTasks.poll();
+        while (uiTask != null) {
+            uiTask.run();
+            uiTask = uiTasks.poll();
+        }
+    }
+
+    private ResponseTestClientConnector createConnector(final BlockingQueue<Runnable> uiTasks, final ClientModelStore[] clientModelStore) {
+        final ResponseTestClientConnector[] connector = new ResponseTestClientConnector[1];
+        final ModelSynchronizer modelSynchronizer = new DefaultModelSynchronizer(new Provider<AbstractClientConnector>() {
+            @Override
+            public AbstractClientConnector get() {
+                return connector[0];
+            }
+        });
+        clientModelStore[0] = new ClientModelStore(modelSynchronizer);
+        connector[0] = new ResponseTestClientConnector(clientModelStore[0], new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                uiTasks.add(command);
+            }
+        });
+        return connector[0];
+    }
+
+    private static class ResponseTestClientConnector extends AbstractClientConnector {
+
+        private volatile boolean transmitted = false;
+
+        private ResponseTestClientConnector(final ClientModelStore clientModelStore, final Executor uiExecutor) {
+            super(clientModelStore, uiExecutor, new CommandBatcher(), new SimpleExceptionHandler(), Executors.newCachedThreadPool());
+        }
+
+        @Override
+        protected List<Command> transmit(final List<Command> commands) {
+            if (transmitted) {
+                return Collections.emptyList();
+            }
+            final List<Command> response = new ArrayList<>();
+            for (int i = 0; i < MODEL_COUNT; i++) {
+                final List<Map<String, Object>> attributes = new ArrayList<>();
+                final Map<String, Object> attribute = new HashMap<>();
+                attribute.put("propertyName", "value");
+                attribute.put("value", i);
+                attribute.put("id", i + "S");
+                attributes.add(attribute);
+                response.add(new CreatePresentationModelCommand("model-" + i, "type", attributes));
+            }
+            transmitted = true;
+            return response;
+        }
+    }
+}
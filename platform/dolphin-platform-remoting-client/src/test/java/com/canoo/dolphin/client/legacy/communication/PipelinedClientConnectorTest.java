@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dolphin.client.legacy.communication;
+
+import com.canoo.dp.impl.client.legacy.ClientModelStore;
+import com.canoo.dp.impl.client.legacy.DefaultModelSynchronizer;
+import com.canoo.dp.impl.client.legacy.ModelSynchronizer;
+import com.canoo.dp.impl.client.legacy.communication.AbstractClientConnector;
+import com.canoo.dp.impl.client.legacy.communication.CommandBatcher;
+import com.canoo.dp.impl.client.legacy.communication.OnFinishedHandler;
+import com.canoo.dp.impl.client.legacy.communication.SimpleExceptionHandler;
+import com.canoo.dp.impl.remoting.legacy.communication.Command;
+import com.canoo.dp.impl.remoting.legacy.communication.EmptyCommand;
+import com.canoo.dp.impl.remoting.legacy.util.DirectExecutor;
+import com.canoo.dp.impl.remoting.legacy.util.Provider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PipelinedClientConnectorTest {
+
+    @Test
+    public void testResponsesAreHandledInOrder() throws InterruptedException {
+        //given:
+        final PipelinedTestClientConnector connector = createConnector();
+        connector.setMaxInFlightRequests(3);
+        connector.connect(false);
+        final List<Integer> handled = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+
+        //when:
+        for (int i = 0; i < 3; i++) {
+            final int index = i;
+            connector.send(new EmptyCommand(), new OnFinishedHandler() {
+                @Override
+                public void onFinished() {
+                    handled.add(index);
+                    done.countDown();
+                }
+            });
+        }
+
+        //then:
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(handled, Arrays.asList(0, 1, 2));
+        Assert.assertEquals(connector.getSequenceNumbers(), Arrays.asList(3L, 2L, 1L));
+        Assert.assertTrue(connector.getMaxParallelRequests() > 1);
+        connector.disconnect();
+    }
+
+    @Test
+    public void testNoPipeliningByDefault() throws InterruptedException {
+        //given:
+        final PipelinedTestClientConnector connector = createConnector();
+        connector.connect(false);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        //when:
+        for (int i = 0; i < 3; i++) {
+            connector.send(new EmptyCommand(), new OnFinishedHandler() {
+                @Override
+                public void onFinished() {
+                    done.countDown();
+                }
+            });
+        }
+
+        //then:
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(connector.getMaxParallelRequests(), 1);
+        Assert.assertTrue(connector.getSequenceNumbers().isEmpty());
+        connector.disconnect();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxInFlightRequests() {
+        createConnector().setMaxInFlightRequests(0);
+    }
+
+    private PipelinedTestClientConnector createConnector() {
+        final PipelinedTestClientConnector[] connector = new PipelinedTestClientConnector[1];
+        final ModelSynchronizer modelSynchronizer = new DefaultModelSynchronizer(new Provider<AbstractClientConnector>() {
+            @Override
+            public AbstractClientConnector get() {
+                return connector[0];
+            }
+        });
+        connector[0] = new PipelinedTestClientConnector(new ClientModelStore(modelSynchronizer));
+        return connector[0];
+    }
+
+    private static class PipelinedTestClientConnector extends AbstractClientConnector {
+
+        private final List<Long> sequenceNumbers = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger parallelRequests = new AtomicInteger();
+
+        private final AtomicInteger maxParallelRequests = new AtomicInteger();
+
+        private PipelinedTestClientConnector(final ClientModelStore clientModelStore) {
+            super(clientModelStore, DirectExecutor.getInstance(), new CommandBatcher(), new SimpleExceptionHandler(), Executors.newCachedThreadPool());
+        }
+
+        @Override
+        protected List<Command> transmit(final List<Command> commands) {
+            final int current = parallelRequests.incrementAndGet();
+            maxParallelRequests.set(Math.max(maxParallelRequests.get(), current));
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                parallelRequests.decrementAndGet();
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        protected List<Command> transmit(final List<Command> commands, final long sequenceNumber) {
+            final int current = parallelRequests.incrementAndGet();
+            maxParallelRequests.set(Math.max(maxParallelRequests.get(), current));
+            try {
+                // later requests are answered first
+                Thread.sleep(300 - sequenceNumber * 100);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                parallelRequests.decrementAndGet();
+            }
+            sequenceNumbers.add(sequenceNumber);
+            return Collections.emptyList();
+        }
+
+        private List<Long> getSequenceNumbers() {
+            return sequenceNumbers;
+        }
+
+        private int getMaxParallelRequests() {
+            return maxParallelRequests.get();
+        }
+    }
+}
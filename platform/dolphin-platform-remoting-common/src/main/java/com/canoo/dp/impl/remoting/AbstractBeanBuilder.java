@@ -70,7 +70,7 @@ public abstract class AbstractBeanBuilder implements BeanBuilder {
         return createInstanceForClass(classInfo, beanClass, model, UpdateSource.SELF);
     }
 
-    private <T> T createInstanceForClass(final ClassInfo classInfo, final Class<T> beanClass, final PresentationModel model, final UpdateSource source) {
+    protected <T> T createInstanceForClass(final ClassInfo classInfo, final Class<T> beanClass, final PresentationModel model, final UpdateSource source) {
         Assert.requireNonNull(beanClass, "beanClass");
         try {
             final T bean = beanClass.newInstance();
@@ -25,6 +25,8 @@ public interface PlatformRemotingConstants {
 
     String CLIENT_ID_HTTP_HEADER_NAME = RemotingConstants.DOLPHIN_PLATFORM_PREFIX + "dolphinClientId";
 
+    String REQUEST_SEQUENCE_HTTP_HEADER_NAME = RemotingConstants.DOLPHIN_PLATFORM_PREFIX + "requestSequence";
+
     String DOLPHIN_BEAN = "@@@ DOLPHIN_BEAN @@@";
 
     String JAVA_CLASS = "@@@ JAVA_CLASS @@@";
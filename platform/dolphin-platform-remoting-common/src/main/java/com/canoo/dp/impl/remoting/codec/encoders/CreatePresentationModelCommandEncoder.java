@@ -16,6 +16,7 @@
 package com.canoo.dp.impl.remoting.codec.encoders;
 
 import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.remoting.legacy.communication.AttributeDescriptor;
 import com.canoo.dp.impl.remoting.legacy.communication.CreatePresentationModelCommand;
 import com.canoo.dp.impl.remoting.legacy.core.Attribute;
 import com.google.gson.JsonArray;
@@ -25,7 +26,6 @@ import com.google.gson.JsonParseException;
 import org.apiguardian.api.API;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -76,17 +76,13 @@ public class CreatePresentationModelCommandEncoder extends AbstractCommandTransc
             command.setClientSideOnly(false);
 
             final JsonArray jsonArray = jsonObject.getAsJsonArray(PM_ATTRIBUTES);
-            final List<Map<String, Object>> attributes = new ArrayList<>();
+            final List<AttributeDescriptor> attributes = new ArrayList<>(jsonArray.size());
             for (final JsonElement jsonElement : jsonArray) {
                 final JsonObject attribute = jsonElement.getAsJsonObject();
-                final HashMap<String, Object> map = new HashMap<>();
-                map.put(Attribute.PROPERTY_NAME, getStringElement(attribute, NAME));
-                map.put(Attribute.ID, getStringElement(attribute, ATTRIBUTE_ID));
                 final Object value = attribute.has(VALUE) ? ValueEncoder.decodeValue(attribute.get(VALUE)) : null;
-                map.put(Attribute.VALUE_NAME, value);
-                attributes.add(map);
+                attributes.add(new AttributeDescriptor(getStringElement(attribute, NAME), getStringElement(attribute, ATTRIBUTE_ID), null, value));
             }
-            command.setAttributes(attributes);
+            command.setAttributeDescriptors(attributes);
 
             return command;
         } catch (IllegalStateException | ClassCastException | NullPointerException ex) {
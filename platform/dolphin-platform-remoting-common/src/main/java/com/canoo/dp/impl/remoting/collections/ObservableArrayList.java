@@ -74,11 +74,29 @@ public class ObservableArrayList<E> implements ObservableList<E> {
     }
 
     public void internalSplice(int from, int to, Collection<? extends E> newElements) {
+        notifyExternalListeners(spliceImpl(from, to, newElements));
+    }
+
+    /**
+     * Replaces the elements between from (inclusive) and to (exclusive) by the given elements. In contrast to a
+     * removal followed by an addition only one change event is fired (and only one change is synchronized).
+     * @param from index of the first element that should be replaced
+     * @param to index after the last element that should be replaced
+     * @param newElements the new elements
+     */
+    public void splice(int from, int to, Collection<? extends E> newElements) {
+        if (from == to && newElements.isEmpty()) {
+            return;
+        }
+        fireListChanged(spliceImpl(from, to, newElements));
+    }
+
+    private ListChangeEvent<E> spliceImpl(int from, int to, Collection<? extends E> newElements) {
         final List<E> slice = list.subList(from, to);
         final List<E> removedElements = new ArrayList<>(slice);
         slice.clear();
         list.addAll(from, newElements);
-        notifyExternalListeners(new ListChangeEventImpl<E>(this, from, from + newElements.size(), removedElements));
+        return new ListChangeEventImpl<E>(this, from, from + newElements.size(), removedElements);
     }
 
     @Override
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.remoting.legacy.communication;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Typed description of an attribute in a {@link CreatePresentationModelCommand}. The codec creates descriptors
+ * directly so the receiving side does not need to read the attribute definition from generic maps.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class AttributeDescriptor implements Serializable {
+
+    private final String propertyName;
+
+    private final String id;
+
+    private final String qualifier;
+
+    private final Object value;
+
+    public AttributeDescriptor(final String propertyName, final String id, final String qualifier, final Object value) {
+        this.propertyName = propertyName;
+        this.id = id;
+        this.qualifier = qualifier;
+        this.value = value;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final AttributeDescriptor that = (AttributeDescriptor) o;
+        return Objects.equals(propertyName, that.propertyName) && Objects.equals(id, that.id) && Objects.equals(qualifier, that.qualifier) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(propertyName, id, qualifier, value);
+    }
+
+    @Override
+    public String toString() {
+        return "{propertyName=" + propertyName + ", qualifier=" + qualifier + ", id=" + id + ", value=" + value + "}";
+    }
+}
@@ -38,6 +38,11 @@ public final class CreatePresentationModelCommand extends Command {
 
     private List<Map<String, Object>> attributes = new ArrayList<Map<String, Object>>();
 
+    /**
+     * Typed attribute definitions. Only used if the attributes are not defined as maps.
+     */
+    private List<AttributeDescriptor> attributeDescriptors;
+
     public CreatePresentationModelCommand(final String pmId, String pmType, final List<Map<String, Object>> attributes, final boolean clientSideOnly) {
         this();
         this.pmId = pmId;
@@ -78,7 +83,7 @@ public final class CreatePresentationModelCommand extends Command {
 
     @Override
     public String toString() {
-        return super.toString() + " pmId " + pmId + " pmType " + pmType + (clientSideOnly ? "CLIENT-SIDE-ONLY!" : "") + " attributes " + attributes;
+        return super.toString() + " pmId " + pmId + " pmType " + pmType + (clientSideOnly ? "CLIENT-SIDE-ONLY!" : "") + " attributes " + (attributes != null ? attributes : attributeDescriptors);
     }
 
     public String getPmId() {
@@ -113,10 +118,47 @@ public final class CreatePresentationModelCommand extends Command {
     }
 
     public List<Map<String, Object>> getAttributes() {
+        if (attributes == null) {
+            attributes = new ArrayList<Map<String, Object>>(attributeDescriptors.size());
+            for (final AttributeDescriptor descriptor : attributeDescriptors) {
+                final Map<String, Object> attributeMap = new HashMap<String, Object>();
+                attributeMap.put(Attribute.PROPERTY_NAME, descriptor.getPropertyName());
+                attributeMap.put(Attribute.ID, descriptor.getId());
+                attributeMap.put(Attribute.QUALIFIER_NAME, descriptor.getQualifier());
+                attributeMap.put(Attribute.VALUE_NAME, descriptor.getValue());
+                attributes.add(attributeMap);
+            }
+            attributeDescriptors = null;
+        }
         return attributes;
     }
 
+    /**
+     * Returns the typed definitions of the attributes. If the command was created by the codec no attribute maps
+     * are created.
+     * @return the attribute definitions
+     */
+    public List<AttributeDescriptor> getAttributeDescriptors() {
+        if (attributes == null) {
+            return attributeDescriptors;
+        }
+        final List<AttributeDescriptor> descriptors = new ArrayList<AttributeDescriptor>(attributes.size());
+        for (final Map<String, Object> attr : attributes) {
+            final Object propertyName = attr.get(Attribute.PROPERTY_NAME);
+            final Object id = attr.get(Attribute.ID);
+            final Object qualifier = attr.get(Attribute.QUALIFIER_NAME);
+            descriptors.add(new AttributeDescriptor(propertyName != null ? propertyName.toString() : null, id != null ? id.toString() : null, qualifier != null ? qualifier.toString() : null, attr.get(Attribute.VALUE_NAME)));
+        }
+        return descriptors;
+    }
+
+    public void setAttributeDescriptors(final List<AttributeDescriptor> attributeDescriptors) {
+        this.attributeDescriptors = attributeDescriptors;
+        this.attributes = null;
+    }
+
     public void setAttributes(final List<Map<String, Object>> attributes) {
         this.attributes = attributes;
+        this.attributeDescriptors = null;
     }
 }
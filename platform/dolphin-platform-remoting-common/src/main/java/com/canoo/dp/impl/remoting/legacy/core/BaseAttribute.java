@@ -17,6 +17,8 @@ package com.canoo.dp.impl.remoting.legacy.core;
 
 import org.apiguardian.api.API;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.apiguardian.api.API.Status.DEPRECATED;
 
 /**
@@ -25,7 +27,7 @@ import static org.apiguardian.api.API.Status.DEPRECATED;
 @API(since = "0.x", status = DEPRECATED)
 public abstract class BaseAttribute extends AbstractObservable implements Attribute {
 
-    private static long instanceCount = 0;
+    private static final AtomicLong instanceCount = new AtomicLong();
 
     private final String propertyName;
 
@@ -42,7 +44,7 @@ public abstract class BaseAttribute extends AbstractObservable implements Attrib
     }
 
     public BaseAttribute(String propertyName, Object value, String qualifier) {
-        this.id = (instanceCount++) + getOrigin();
+        this.id = instanceCount.getAndIncrement() + getOrigin();
         this.propertyName = propertyName;
         this.value = value;
         this.qualifier = qualifier;
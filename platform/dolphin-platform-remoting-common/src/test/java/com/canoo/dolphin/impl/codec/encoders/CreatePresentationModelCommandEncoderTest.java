@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dolphin.impl.codec.encoders;
+
+import com.canoo.dp.impl.remoting.codec.encoders.CreatePresentationModelCommandEncoder;
+import com.canoo.dp.impl.remoting.legacy.communication.AttributeDescriptor;
+import com.canoo.dp.impl.remoting.legacy.communication.CreatePresentationModelCommand;
+import com.canoo.dp.impl.remoting.legacy.core.Attribute;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CreatePresentationModelCommandEncoderTest {
+
+    @Test
+    public void testDecodeToAttributeDescriptors() {
+        //given:
+        final JsonObject json = new JsonParser().parse("{\"p_id\":\"pm\",\"t\":\"type\",\"a\":[{\"n\":\"name\",\"a_id\":\"1S\",\"v\":\"Hello\"},{\"n\":\"age\",\"a_id\":\"2S\",\"v\":null}],\"id\":\"CreatePresentationModel\"}").getAsJsonObject();
+
+        //when:
+        final CreatePresentationModelCommand command = new CreatePresentationModelCommandEncoder().decode(json);
+
+        //then:
+        Assert.assertEquals(command.getPmId(), "pm");
+        Assert.assertEquals(command.getPmType(), "type");
+        final List<AttributeDescriptor> descriptors = command.getAttributeDescriptors();
+        Assert.assertEquals(descriptors.size(), 2);
+        Assert.assertEquals(descriptors.get(0), new AttributeDescriptor("name", "1S", null, "Hello"));
+        Assert.assertEquals(descriptors.get(1), new AttributeDescriptor("age", "2S", null, null));
+    }
+
+    @Test
+    public void testDescriptorsAsAttributeMaps() {
+        //given:
+        final JsonObject json = new JsonParser().parse("{\"p_id\":\"pm\",\"t\":\"type\",\"a\":[{\"n\":\"name\",\"a_id\":\"1S\",\"v\":\"Hello\"}],\"id\":\"CreatePresentationModel\"}").getAsJsonObject();
+        final CreatePresentationModelCommand command = new CreatePresentationModelCommandEncoder().decode(json);
+
+        //when:
+        final List<Map<String, Object>> attributes = command.getAttributes();
+
+        //then:
+        Assert.assertEquals(attributes.size(), 1);
+        Assert.assertEquals(attributes.get(0).get(Attribute.PROPERTY_NAME), "name");
+        Assert.assertEquals(attributes.get(0).get(Attribute.ID), "1S");
+        Assert.assertEquals(attributes.get(0).get(Attribute.VALUE_NAME), "Hello");
+        Assert.assertEquals(command.getAttributeDescriptors().get(0), new AttributeDescriptor("name", "1S", null, "Hello"));
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        //given:
+        final Map<String, Object> attribute = new HashMap<>();
+        attribute.put(Attribute.PROPERTY_NAME, "name");
+        attribute.put(Attribute.ID, "1S");
+        attribute.put(Attribute.VALUE_NAME, 42);
+        final List<Map<String, Object>> attributes = new ArrayList<>();
+        attributes.add(attribute);
+        final CreatePresentationModelCommand command = new CreatePresentationModelCommand("pm", "type", attributes);
+        final CreatePresentationModelCommandEncoder encoder = new CreatePresentationModelCommandEncoder();
+
+        //when:
+        final CreatePresentationModelCommand decoded = encoder.decode(encoder.encode(command));
+
+        //then:
+        Assert.assertEquals(decoded.getAttributeDescriptors(), command.getAttributeDescriptors());
+    }
+}
@@ -21,7 +21,9 @@ import com.canoo.platform.remoting.ListChangeListener;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -595,6 +597,51 @@ public class TestObservableArrayList {
 
     /** End of SubList Unit Test*/
 
+    @Test
+    public void testSpliceFiresOneEvent() {
+        //given
+        final ObservableArrayList<String> list = new ObservableArrayList<>("1", "2", "3", "4", "5");
+        final List<ListChangeEvent<? extends String>> events = new ArrayList<>();
+        list.onChanged(new ListChangeListener<String>() {
+            @Override
+            public void listChanged(ListChangeEvent<? extends String> evt) {
+                events.add(evt);
+            }
+        });
+
+        //when
+        list.splice(1, 4, Arrays.asList("A", "B"));
+
+        //then
+        Assert.assertEquals(list, Arrays.asList("1", "A", "B", "5"));
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(events.get(0).getChanges().size(), 1);
+        final ListChangeEvent.Change<? extends String> change = events.get(0).getChanges().get(0);
+        Assert.assertEquals(change.getFrom(), 1);
+        Assert.assertEquals(change.getTo(), 3);
+        Assert.assertEquals(change.getRemovedElements(), Arrays.asList("2", "3", "4"));
+    }
+
+    @Test
+    public void testEmptySpliceFiresNoEvent() {
+        //given
+        final ObservableArrayList<String> list = new ObservableArrayList<>("1", "2");
+        final AtomicInteger counter = new AtomicInteger(0);
+        list.onChanged(new ListChangeListener<String>() {
+            @Override
+            public void listChanged(ListChangeEvent<? extends String> evt) {
+                counter.incrementAndGet();
+            }
+        });
+
+        //when
+        list.splice(1, 1, Collections.<String>emptyList());
+
+        //then
+        Assert.assertEquals(list, Arrays.asList("1", "2"));
+        Assert.assertEquals(counter.get(), 0);
+    }
+
     private <T> void assertSameContent(List<T> a, List<T> b) {
         Assert.assertTrue(a.size() == b.size());
         for(T t : a) {
@@ -18,17 +18,28 @@ package com.canoo.dp.impl.server;
 import com.canoo.platform.server.spi.components.ManagedBeanFactory;
 import com.canoo.dp.impl.server.bootstrap.modules.ClientSessionModule;
 import com.canoo.dp.impl.server.client.ClientSessionLifecycleHandler;
+import com.canoo.dp.impl.server.client.ClientSessionManager;
 import com.canoo.dp.impl.server.client.ClientSessionProvider;
+import com.canoo.dp.impl.server.client.ClientSessionRecoveryHandler;
 import com.canoo.dp.impl.server.config.RemotingConfiguration;
 import com.canoo.dp.impl.server.context.DefaultDolphinContextFactory;
 import com.canoo.dp.impl.server.context.DolphinContext;
 import com.canoo.dp.impl.server.context.DolphinContextCommunicationHandler;
 import com.canoo.dp.impl.server.context.DolphinContextFactory;
 import com.canoo.dp.impl.server.context.DolphinContextProvider;
+import com.canoo.dp.impl.server.context.DolphinContextRegistry;
 import com.canoo.dp.impl.server.controller.ControllerValidationException;
 import com.canoo.dp.impl.server.event.AbstractEventBus;
+import com.canoo.dp.impl.server.mbean.MBeanDescription;
+import com.canoo.dp.impl.server.mbean.MBeanRegistry;
+import com.canoo.dp.impl.server.mbean.beans.DolphinContextRegistryInfo;
+import com.canoo.dp.impl.server.passivation.DolphinContextReplicator;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshotStore;
+import com.canoo.dp.impl.server.passivation.LocalDolphinContextReplicator;
+import com.canoo.dp.impl.server.passivation.MappedFileSnapshotStore;
 import com.canoo.dp.impl.server.servlet.DolphinPlatformServlet;
 import com.canoo.dp.impl.server.servlet.InterruptServlet;
+import com.canoo.platform.core.functional.Callback;
 import com.canoo.platform.remoting.server.event.RemotingEventBus;
 import com.canoo.platform.remoting.server.event.spi.EventBusProvider;
 import com.canoo.platform.server.client.ClientSession;
@@ -43,6 +54,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.io.File;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -87,7 +101,28 @@ public class RemotingModule implements ServerModule {
             final RemotingConfiguration configuration = new RemotingConfiguration(coreComponents.getConfiguration());
             final ClientSessionProvider sessionProvider = coreComponents.getInstance(ClientSessionProvider.class);
             final DolphinContextFactory dolphinContextFactory = new DefaultDolphinContextFactory(configuration, sessionProvider, beanFactory, classpathScanner);
-            final DolphinContextCommunicationHandler communicationHandler = new DolphinContextCommunicationHandler(sessionProvider, dolphinContextFactory);
+            DolphinContextSnapshotStore snapshotStore = null;
+            if (configuration.isContextPassivationActive()) {
+                snapshotStore = new MappedFileSnapshotStore(new File(configuration.getContextPassivationDirectory()), configuration.getContextPassivationSegmentSize());
+                LOG.debug("Idle Dolphin Platform contexts will be passivated in " + configuration.getContextPassivationDirectory());
+            }
+            DolphinContextReplicator replicator = null;
+            if (configuration.isContextReplicationActive()) {
+                replicator = createReplicator(configuration);
+            }
+            final DolphinContextRegistry contextRegistry = new DolphinContextRegistry(configuration.getMaxContextCount(), configuration.getContextIdleTimeout(), snapshotStore, replicator, configuration.getContextReplicationInterval());
+            MBeanRegistry.getInstance().register(new DolphinContextRegistryInfo(contextRegistry), new MBeanDescription("com.canoo.dolphin", "DolphinContextRegistry", "registry"));
+            servletContext.addListener(new ServletContextListener() {
+                @Override
+                public void contextInitialized(final ServletContextEvent event) {
+                }
+
+                @Override
+                public void contextDestroyed(final ServletContextEvent event) {
+                    contextRegistry.shutdown();
+                }
+            });
+            final DolphinContextCommunicationHandler communicationHandler = new DolphinContextCommunicationHandler(sessionProvider, dolphinContextFactory, contextRegistry, configuration.getRequestSequenceTimeout());
             final DolphinContextProvider contextProvider = new DolphinContextProvider() {
                 @Override
                 public DolphinContext getContext(final ClientSession clientSession) {
@@ -106,7 +141,23 @@ public class RemotingModule implements ServerModule {
             };
             coreComponents.provideInstance(DolphinContextProvider.class, contextProvider);
 
+            if (contextRegistry.isReplicationActive()) {
+                final ClientSessionManager clientSessionManager = coreComponents.getInstance(ClientSessionManager.class);
+                clientSessionManager.setRecoveryHandler(new ClientSessionRecoveryHandler() {
+                    @Override
+                    public boolean isRecoverable(final String clientSessionId, final String httpSessionId) {
+                        return contextRegistry.isRecoverable(clientSessionId, httpSessionId);
+                    }
+                });
+            }
+
             final ClientSessionLifecycleHandler lifecycleHandler = coreComponents.getInstance(ClientSessionLifecycleHandler.class);
+            lifecycleHandler.addSessionDestroyedListener(new Callback<ClientSession>() {
+                @Override
+                public void call(final ClientSession clientSession) {
+                    communicationHandler.onClientSessionDestroyed(clientSession);
+                }
+            });
 
             servletContext.addServlet(DOLPHIN_SERVLET_NAME, new DolphinPlatformServlet(communicationHandler)).addMapping(configuration.getDolphinPlatformServletMapping());
 
@@ -127,7 +178,24 @@ public class RemotingModule implements ServerModule {
                     providerFound = true;
                     RemotingEventBus eventBus = provider.create(configuration);
                     if(eventBus instanceof AbstractEventBus) {
-                        ((AbstractEventBus) eventBus).init(contextProvider, lifecycleHandler);
+                        final AbstractEventBus abstractEventBus = (AbstractEventBus) eventBus;
+                        abstractEventBus.init(contextProvider, lifecycleHandler);
+                        communicationHandler.addContextDestroyedListener(new Callback<DolphinContext>() {
+                            @Override
+                            public void call(final DolphinContext dolphinContext) {
+                                abstractEventBus.onContextDestroyed(dolphinContext.getId());
+                            }
+                        });
+                        servletContext.addListener(new ServletContextListener() {
+                            @Override
+                            public void contextInitialized(final ServletContextEvent event) {
+                            }
+
+                            @Override
+                            public void contextDestroyed(final ServletContextEvent event) {
+                                abstractEventBus.shutdown();
+                            }
+                        });
                     }
                     coreComponents.provideInstance(RemotingEventBus.class, eventBus);
                 }
@@ -136,4 +204,19 @@ public class RemotingModule implements ServerModule {
             throw new ModuleInitializationException("Can not start Remote Presentation Model support based on bad controller definition", cve);
         }
     }
+
+    private DolphinContextReplicator createReplicator(final RemotingConfiguration configuration) {
+        final Iterator<DolphinContextReplicator> iterator = ServiceLoader.load(DolphinContextReplicator.class).iterator();
+        if (iterator.hasNext()) {
+            final DolphinContextReplicator replicator = iterator.next();
+            if (iterator.hasNext()) {
+                throw new IllegalStateException("More than 1 context replicator found");
+            }
+            LOG.debug("Using context replicator {}", replicator.getClass());
+            return replicator;
+        }
+        final File replicaDirectory = new File(configuration.getContextPassivationDirectory(), "replica");
+        LOG.debug("Dolphin Platform contexts will be replicated in " + replicaDirectory);
+        return new LocalDolphinContextReplicator(new MappedFileSnapshotStore(replicaDirectory, configuration.getContextPassivationSegmentSize()));
+    }
 }
@@ -16,10 +16,12 @@
 package com.canoo.dp.impl.server.config;
 
 import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.server.context.TaskQueueOverflowPolicy;
 import com.canoo.dp.impl.server.event.DefaultEventBusProvider;
 import com.canoo.platform.core.PlatformConfiguration;
 import org.apiguardian.api.API;
 
+import java.io.File;
 import java.io.Serializable;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -43,6 +45,26 @@ public class RemotingConfiguration implements Serializable {
 
     public static final String EVENTBUS_TYPE = "eventbusType";
 
+    public static final String TASK_QUEUE_MAX_SIZE = "taskQueueMaxSize";
+
+    public static final String TASK_QUEUE_OVERFLOW_POLICY = "taskQueueOverflowPolicy";
+
+    public static final String MAX_CONTEXT_COUNT = "maxContextCount";
+
+    public static final String CONTEXT_IDLE_TIMEOUT = "contextIdleTimeout";
+
+    public static final String CONTEXT_PASSIVATION_ACTIVE = "contextPassivationActive";
+
+    public static final String CONTEXT_PASSIVATION_DIRECTORY = "contextPassivationDirectory";
+
+    public static final String CONTEXT_PASSIVATION_SEGMENT_SIZE = "contextPassivationSegmentSize";
+
+    public static final String CONTEXT_REPLICATION_ACTIVE = "contextReplicationActive";
+
+    public static final String CONTEXT_REPLICATION_INTERVAL = "contextReplicationInterval";
+
+    public static final String REQUEST_SEQUENCE_TIMEOUT = "requestSequenceTimeout";
+
     public static final boolean ACTIVE_DEFAULT_VALUE = true;
 
     public final static String DOLPHIN_PLATFORM_SERVLET_MAPPING_DEFAULT_VALUE = "/dolphin";
@@ -55,6 +77,26 @@ public class RemotingConfiguration implements Serializable {
 
     public final static boolean USE_GC_DEFAULT_VALUE = true;
 
+    public final static int TASK_QUEUE_MAX_SIZE_DEFAULT_VALUE = 10_000;
+
+    public final static String TASK_QUEUE_OVERFLOW_POLICY_DEFAULT_VALUE = TaskQueueOverflowPolicy.DROP_OLDEST.name();
+
+    public final static int MAX_CONTEXT_COUNT_DEFAULT_VALUE = 0;
+
+    public final static long CONTEXT_IDLE_TIMEOUT_DEFAULT_VALUE = 0;
+
+    public final static boolean CONTEXT_PASSIVATION_ACTIVE_DEFAULT_VALUE = false;
+
+    public final static String CONTEXT_PASSIVATION_DIRECTORY_DEFAULT_VALUE = System.getProperty("java.io.tmpdir") + File.separator + "dolphin-platform-passivation";
+
+    public final static int CONTEXT_PASSIVATION_SEGMENT_SIZE_DEFAULT_VALUE = 16 * 1024 * 1024;
+
+    public final static boolean CONTEXT_REPLICATION_ACTIVE_DEFAULT_VALUE = false;
+
+    public final static long CONTEXT_REPLICATION_INTERVAL_DEFAULT_VALUE = 0;
+
+    public final static long REQUEST_SEQUENCE_TIMEOUT_DEFAULT_VALUE = 30_000;
+
     private final PlatformConfiguration configuration;
 
     public RemotingConfiguration() {
@@ -85,6 +127,46 @@ public class RemotingConfiguration implements Serializable {
         return configuration.getProperty(EVENTBUS_TYPE, EVENTBUS_TYPE_DEFAULT_VALUE);
     }
 
+    public int getTaskQueueMaxSize() {
+        return configuration.getIntProperty(TASK_QUEUE_MAX_SIZE, TASK_QUEUE_MAX_SIZE_DEFAULT_VALUE);
+    }
+
+    public TaskQueueOverflowPolicy getTaskQueueOverflowPolicy() {
+        return TaskQueueOverflowPolicy.valueOf(configuration.getProperty(TASK_QUEUE_OVERFLOW_POLICY, TASK_QUEUE_OVERFLOW_POLICY_DEFAULT_VALUE));
+    }
+
+    public int getMaxContextCount() {
+        return configuration.getIntProperty(MAX_CONTEXT_COUNT, MAX_CONTEXT_COUNT_DEFAULT_VALUE);
+    }
+
+    public long getContextIdleTimeout() {
+        return configuration.getLongProperty(CONTEXT_IDLE_TIMEOUT, CONTEXT_IDLE_TIMEOUT_DEFAULT_VALUE);
+    }
+
+    public boolean isContextPassivationActive() {
+        return configuration.getBooleanProperty(CONTEXT_PASSIVATION_ACTIVE, CONTEXT_PASSIVATION_ACTIVE_DEFAULT_VALUE);
+    }
+
+    public String getContextPassivationDirectory() {
+        return configuration.getProperty(CONTEXT_PASSIVATION_DIRECTORY, CONTEXT_PASSIVATION_DIRECTORY_DEFAULT_VALUE);
+    }
+
+    public int getContextPassivationSegmentSize() {
+        return configuration.getIntProperty(CONTEXT_PASSIVATION_SEGMENT_SIZE, CONTEXT_PASSIVATION_SEGMENT_SIZE_DEFAULT_VALUE);
+    }
+
+    public boolean isContextReplicationActive() {
+        return configuration.getBooleanProperty(CONTEXT_REPLICATION_ACTIVE, CONTEXT_REPLICATION_ACTIVE_DEFAULT_VALUE);
+    }
+
+    public long getContextReplicationInterval() {
+        return configuration.getLongProperty(CONTEXT_REPLICATION_INTERVAL, CONTEXT_REPLICATION_INTERVAL_DEFAULT_VALUE);
+    }
+
+    public long getRequestSequenceTimeout() {
+        return configuration.getLongProperty(REQUEST_SEQUENCE_TIMEOUT, REQUEST_SEQUENCE_TIMEOUT_DEFAULT_VALUE);
+    }
+
     public PlatformConfiguration getConfiguration() {
         return configuration;
     }
@@ -18,7 +18,6 @@ package com.canoo.dp.impl.server.config;
 import com.canoo.platform.server.spi.ConfigurationProviderAdapter;
 import org.apiguardian.api.API;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,16 +33,39 @@ public class RemotingDefaultValueProvider extends ConfigurationProviderAdapter {
         ret.put(RemotingConfiguration.DOLPHIN_PLATFORM_SERVLET_MAPPING, RemotingConfiguration.DOLPHIN_PLATFORM_SERVLET_MAPPING_DEFAULT_VALUE);
         ret.put(RemotingConfiguration.DOLPHIN_PLATFORM_INTERRUPT_SERVLET_MAPPING, RemotingConfiguration.DOLPHIN_PLATFORM_INTERRUPT_SERVLET_MAPPING_DEFAULT_VALUE);
         ret.put(RemotingConfiguration.EVENTBUS_TYPE, RemotingConfiguration.EVENTBUS_TYPE_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.TASK_QUEUE_OVERFLOW_POLICY, RemotingConfiguration.TASK_QUEUE_OVERFLOW_POLICY_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.CONTEXT_PASSIVATION_DIRECTORY, RemotingConfiguration.CONTEXT_PASSIVATION_DIRECTORY_DEFAULT_VALUE);
+        return ret;
+    }
+
+    @Override
+    public Map<String, Integer> getIntegerProperties() {
+        HashMap<String, Integer> ret = new HashMap<>();
+
+        ret.put(RemotingConfiguration.TASK_QUEUE_MAX_SIZE, RemotingConfiguration.TASK_QUEUE_MAX_SIZE_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.MAX_CONTEXT_COUNT, RemotingConfiguration.MAX_CONTEXT_COUNT_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.CONTEXT_PASSIVATION_SEGMENT_SIZE, RemotingConfiguration.CONTEXT_PASSIVATION_SEGMENT_SIZE_DEFAULT_VALUE);
         return ret;
     }
 
     @Override
     public Map<String, Long> getLongProperties() {
-        return Collections.singletonMap(RemotingConfiguration.MAX_POLL_TIME, RemotingConfiguration.MAX_POLL_TIME_DEFAULT_VALUE);
+        HashMap<String, Long> ret = new HashMap<>();
+
+        ret.put(RemotingConfiguration.MAX_POLL_TIME, RemotingConfiguration.MAX_POLL_TIME_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.CONTEXT_IDLE_TIMEOUT, RemotingConfiguration.CONTEXT_IDLE_TIMEOUT_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.CONTEXT_REPLICATION_INTERVAL, RemotingConfiguration.CONTEXT_REPLICATION_INTERVAL_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.REQUEST_SEQUENCE_TIMEOUT, RemotingConfiguration.REQUEST_SEQUENCE_TIMEOUT_DEFAULT_VALUE);
+        return ret;
     }
 
     @Override
     public Map<String, Boolean> getBooleanProperties() {
-        return Collections.singletonMap(RemotingConfiguration.GARBAGE_COLLECTION_ACTIVE, RemotingConfiguration.USE_GC_DEFAULT_VALUE);
+        HashMap<String, Boolean> ret = new HashMap<>();
+
+        ret.put(RemotingConfiguration.GARBAGE_COLLECTION_ACTIVE, RemotingConfiguration.USE_GC_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.CONTEXT_PASSIVATION_ACTIVE, RemotingConfiguration.CONTEXT_PASSIVATION_ACTIVE_DEFAULT_VALUE);
+        ret.put(RemotingConfiguration.CONTEXT_REPLICATION_ACTIVE, RemotingConfiguration.CONTEXT_REPLICATION_ACTIVE_DEFAULT_VALUE);
+        return ret;
     }
 }
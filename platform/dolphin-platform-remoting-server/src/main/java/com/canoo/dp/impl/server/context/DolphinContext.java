@@ -23,9 +23,13 @@ import com.canoo.dp.impl.remoting.Converters;
 import com.canoo.dp.impl.remoting.EventDispatcher;
 import com.canoo.dp.impl.remoting.InternalAttributesBean;
 import com.canoo.dp.impl.remoting.ListMapper;
+import com.canoo.dp.impl.remoting.PlatformRemotingConstants;
 import com.canoo.dp.impl.remoting.PresentationModelBuilderFactory;
 import com.canoo.dp.impl.remoting.codec.OptimizedJsonCodec;
 import com.canoo.dp.impl.remoting.collections.ListMapperImpl;
+import com.canoo.dp.impl.remoting.collections.ObservableArrayList;
+import com.canoo.dp.impl.remoting.info.ClassInfo;
+import com.canoo.dp.impl.remoting.info.PropertyInfo;
 import com.canoo.dp.impl.remoting.commands.CallActionCommand;
 import com.canoo.dp.impl.remoting.commands.CreateContextCommand;
 import com.canoo.dp.impl.remoting.commands.CreateControllerCommand;
@@ -42,8 +46,10 @@ import com.canoo.dp.impl.server.controller.ControllerRepository;
 import com.canoo.dp.impl.server.gc.GarbageCollectionCallback;
 import com.canoo.dp.impl.server.gc.GarbageCollector;
 import com.canoo.dp.impl.server.gc.Instance;
+import com.canoo.dp.impl.server.legacy.ServerAttribute;
 import com.canoo.dp.impl.server.legacy.ServerConnector;
 import com.canoo.dp.impl.server.legacy.ServerModelStore;
+import com.canoo.dp.impl.server.legacy.ServerPresentationModel;
 import com.canoo.dp.impl.server.legacy.action.DolphinServerAction;
 import com.canoo.dp.impl.server.legacy.communication.ActionRegistry;
 import com.canoo.dp.impl.server.legacy.communication.CommandHandler;
@@ -56,19 +62,32 @@ import com.canoo.dp.impl.server.model.ServerControllerActionCallBean;
 import com.canoo.dp.impl.server.model.ServerEventDispatcher;
 import com.canoo.dp.impl.server.model.ServerPlatformBeanRepository;
 import com.canoo.dp.impl.server.model.ServerPresentationModelBuilderFactory;
+import com.canoo.dp.impl.server.passivation.AttributeSnapshot;
+import com.canoo.dp.impl.server.passivation.ControllerSnapshot;
+import com.canoo.dp.impl.server.passivation.DolphinContextDelta;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshot;
+import com.canoo.dp.impl.server.passivation.PresentationModelSnapshot;
 import com.canoo.platform.core.functional.Callback;
 import com.canoo.platform.core.functional.Subscription;
 import com.canoo.platform.remoting.BeanManager;
+import com.canoo.platform.remoting.Property;
+import com.canoo.platform.remoting.spi.converter.ValueConverterException;
 import com.canoo.platform.server.client.ClientSession;
 import org.apiguardian.api.API;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -95,6 +114,10 @@ public class DolphinContext {
 
     private final BeanManager beanManager;
 
+    private final ClassRepository classRepository;
+
+    private final ServerBeanBuilder beanBuilder;
+
     private final ControllerHandler controllerHandler;
 
     private final EventDispatcher dispatcher;
@@ -115,6 +138,12 @@ public class DolphinContext {
 
     private boolean hasResponseCommands = false;
 
+    private final List<Command> restoreResponse = new LinkedList<>();
+
+    private final DolphinContextChangeTracker changeTracker;
+
+    private String replicatedOwnerId;
+
     public DolphinContext(final RemotingConfiguration configuration, ClientSession clientSession, ClientSessionProvider clientSessionProvider, ManagedBeanFactory beanFactory, ControllerRepository controllerRepository, Callback<DolphinContext> onDestroyCallback) {
         this.configuration = Assert.requireNonNull(configuration, "configuration");
         Assert.requireNonNull(beanFactory, "beanFactory");
@@ -124,6 +153,11 @@ public class DolphinContext {
 
         //Init Open Dolphin
         serverModelStore = new ServerModelStore();
+        if (configuration.isContextReplicationActive()) {
+            changeTracker = new DolphinContextChangeTracker(serverModelStore);
+        } else {
+            changeTracker = null;
+        }
 
         //Init Server Connector
         serverConnector = new ServerConnector();
@@ -147,7 +181,7 @@ public class DolphinContext {
                 return hasResponseCommands || serverModelStore.hasResponseCommands();
             }
         };
-        taskQueue = new DolphinContextTaskQueue(clientSession.getId(), clientSessionProvider, manager, configuration.getMaxPollTime(), TimeUnit.MILLISECONDS);
+        taskQueue = new DolphinContextTaskQueue(clientSession.getId(), clientSessionProvider, manager, configuration.getMaxPollTime(), TimeUnit.MILLISECONDS, configuration.getTaskQueueMaxSize(), configuration.getTaskQueueOverflowPolicy());
 
         //Init BeanRepository
         dispatcher = new ServerEventDispatcher(serverModelStore);
@@ -156,9 +190,9 @@ public class DolphinContext {
 
         //Init BeanManager
         final PresentationModelBuilderFactory builderFactory = new ServerPresentationModelBuilderFactory(serverModelStore);
-        final ClassRepository classRepository = new ClassRepositoryImpl(serverModelStore, converters, builderFactory);
+        classRepository = new ClassRepositoryImpl(serverModelStore, converters, builderFactory);
         final ListMapper listMapper = new ListMapperImpl(serverModelStore, classRepository, beanRepository, builderFactory, dispatcher);
-        final ServerBeanBuilder beanBuilder = new ServerBeanBuilderImpl(classRepository, beanRepository, listMapper, builderFactory, dispatcher, garbageCollector);
+        beanBuilder = new ServerBeanBuilderImpl(classRepository, beanRepository, listMapper, builderFactory, dispatcher, garbageCollector);
         beanManager = new BeanManagerImpl(beanRepository, beanBuilder);
 
         //Init MBean Support
@@ -169,7 +203,7 @@ public class DolphinContext {
 
         //Register commands
         registerDolphinPlatformDefaultCommands();
-        mBeanSubscription = mBeanRegistry.registerDolphinContext(clientSession, garbageCollector);
+        mBeanSubscription = mBeanRegistry.registerDolphinContext(clientSession, garbageCollector, taskQueue);
     }
 
     protected  <T extends Command> void registerCommand(final ActionRegistry registry, final Class<T> commandClass, final Callback<T> handler) {
@@ -270,6 +304,207 @@ public class DolphinContext {
         onDestroyCallback.call(this);
     }
 
+    /**
+     * Creates a snapshot of the current state of this context. The snapshot can be used to restore the context
+     * after it was passivated (see {@link #restore(DolphinContextSnapshot)}).
+     *
+     * @return the snapshot
+     */
+    public DolphinContextSnapshot createSnapshot() {
+        return new DolphinContextSnapshot(getId(), getOwnerId(), serverModelStore.getPmInstanceCount(), createModelSnapshots(serverModelStore.listPresentationModels()), createControllerSnapshots());
+    }
+
+    /**
+     * Creates a delta that contains all changes of this context since the last delta was created. The first delta of
+     * a context is a full delta that contains all presentation models. Like all other methods that access the model of
+     * the context this method must only be called while the context is not used by another thread.
+     *
+     * @return the delta or null if neither the models nor the owning HTTP session changed since the last delta was created
+     */
+    public DolphinContextDelta createDelta() {
+        if (changeTracker == null) {
+            return new DolphinContextDelta(getId(), getOwnerId(), true, serverModelStore.getPmInstanceCount(), createModelSnapshots(serverModelStore.listPresentationModels()), new ArrayList<String>(), createControllerSnapshots());
+        }
+        final String ownerId = getOwnerId();
+        if (!changeTracker.hasChanges() && Objects.equals(ownerId, replicatedOwnerId)) {
+            return null;
+        }
+        final List<ServerPresentationModel> changedModels = new ArrayList<>();
+        for (final String modelId : changeTracker.getChangedModelIds()) {
+            final ServerPresentationModel model = serverModelStore.findPresentationModelById(modelId);
+            if (model != null) {
+                changedModels.add(model);
+            }
+        }
+        final DolphinContextDelta delta = new DolphinContextDelta(getId(), ownerId, changeTracker.isFull(), serverModelStore.getPmInstanceCount(), createModelSnapshots(changedModels), new ArrayList<>(changeTracker.getRemovedModelIds()), createControllerSnapshots());
+        changeTracker.reset();
+        replicatedOwnerId = ownerId;
+        return delta;
+    }
+
+    private String getOwnerId() {
+        return clientSession.getHttpSession() == null ? null : clientSession.getHttpSession().getId();
+    }
+
+    private List<PresentationModelSnapshot> createModelSnapshots(final Collection<ServerPresentationModel> models) {
+        final List<PresentationModelSnapshot> modelSnapshots = new ArrayList<>();
+        final List<PresentationModelSnapshot> beanModelSnapshots = new ArrayList<>();
+        for (final ServerPresentationModel model : models) {
+            final String type = model.getPresentationModelType();
+            if (PlatformRemotingConstants.LIST_SPLICE.equals(type) || PlatformRemotingConstants.CONTROLLER_ACTION_CALL_BEAN_NAME.equals(type)) {
+                continue;
+            }
+            final List<AttributeSnapshot> attributeSnapshots = new ArrayList<>();
+            for (final ServerAttribute attribute : model.getAttributes()) {
+                attributeSnapshots.add(new AttributeSnapshot(attribute.getId(), attribute.getPropertyName(), attribute.getValue(), attribute.getQualifier()));
+            }
+            final PresentationModelSnapshot modelSnapshot = new PresentationModelSnapshot(model.getId(), type, attributeSnapshots, getListContent(model));
+            if (PlatformRemotingConstants.DOLPHIN_BEAN.equals(type)) {
+                modelSnapshots.add(modelSnapshot);
+            } else {
+                beanModelSnapshots.add(modelSnapshot);
+            }
+        }
+        modelSnapshots.addAll(beanModelSnapshots);
+        return modelSnapshots;
+    }
+
+    private List<ControllerSnapshot> createControllerSnapshots() {
+        final List<ControllerSnapshot> controllerSnapshots = new ArrayList<>();
+        for (final String controllerId : controllerHandler.getAllControllerIds()) {
+            final String modelId = beanRepository.getDolphinId(controllerHandler.getControllerModel(controllerId));
+            controllerSnapshots.add(new ControllerSnapshot(controllerId, controllerHandler.getControllerName(controllerId), controllerHandler.getParentControllerId(controllerId), modelId));
+        }
+        return controllerSnapshots;
+    }
+
+    /**
+     * Destroys this context after a snapshot of the context was stored. Since the client still knows all presentation
+     * models of the context no commands will be sent to the client.
+     */
+    public void passivate() {
+        serverModelStore.setCurrentResponse(new ArrayList<Command>());
+        destroy();
+    }
+
+    /**
+     * Restores the state of a passivated context in this new context. All presentation models are restored with the
+     * ids that are known by the client. The controllers are created again with their old ids and the restored models.
+     * The post construct methods of the controllers will not be called since they would override the restored state.
+     * Instead the methods that are annotated with {@link com.canoo.platform.remoting.server.PostRestore} will be
+     * called. All commands that are created while restoring the context will be sent to the client with the next
+     * response.
+     *
+     * @param snapshot the snapshot of the passivated context
+     */
+    public void restore(final DolphinContextSnapshot snapshot) {
+        Assert.requireNonNull(snapshot, "snapshot");
+        if (!getId().equals(snapshot.getContextId())) {
+            throw new IllegalArgumentException("Snapshot of context " + snapshot.getContextId() + " can not be restored in context " + getId());
+        }
+        serverModelStore.setCurrentResponse(restoreResponse);
+        serverModelStore.setPmInstanceCount(snapshot.getPmInstanceCount());
+
+        final Set<String> rootModelIds = new HashSet<>();
+        for (final ControllerSnapshot controllerSnapshot : snapshot.getControllers()) {
+            if (controllerSnapshot.getModelId() != null) {
+                rootModelIds.add(controllerSnapshot.getModelId());
+            }
+        }
+
+        final List<PresentationModelSnapshot> beanModelSnapshots = new ArrayList<>();
+        for (final PresentationModelSnapshot modelSnapshot : snapshot.getPresentationModels()) {
+            final ServerPresentationModel model = restorePresentationModel(modelSnapshot);
+            if (PlatformRemotingConstants.INTERNAL_ATTRIBUTES_BEAN_NAME.equals(modelSnapshot.getType())) {
+                platformBeanRepository = new ServerPlatformBeanRepository(beanRepository, dispatcher, converters, model);
+            } else if (classRepository.getClassInfo(modelSnapshot.getType()) != null) {
+                beanBuilder.restore(model, rootModelIds.contains(model.getId()));
+                beanModelSnapshots.add(modelSnapshot);
+            }
+        }
+        for (final PresentationModelSnapshot modelSnapshot : beanModelSnapshots) {
+            restoreBeanReferences(modelSnapshot);
+        }
+
+        for (final ControllerSnapshot controllerSnapshot : snapshot.getControllers()) {
+            final Object model = controllerSnapshot.getModelId() == null ? null : beanRepository.getBean(controllerSnapshot.getModelId());
+            controllerHandler.restoreController(controllerSnapshot.getId(), controllerSnapshot.getName(), controllerSnapshot.getParentControllerId(), model);
+        }
+        LOG.trace("Restored DolphinContext {} with {} presentation models and {} controllers", getId(), snapshot.getPresentationModels().size(), snapshot.getControllers().size());
+    }
+
+    private Map<String, List<Object>> getListContent(final ServerPresentationModel model) {
+        final Map<String, List<Object>> lists = new HashMap<>();
+        final ClassInfo classInfo = classRepository.getClassInfo(model.getPresentationModelType());
+        if (classInfo == null) {
+            return lists;
+        }
+        final Object bean = beanRepository.getBean(model.getId());
+        classInfo.forEachObservableList(new ClassInfo.PropertyIterator() {
+            @Override
+            public void call(final PropertyInfo listInfo) {
+                final List<?> list = (List<?>) listInfo.getPrivileged(bean);
+                final List<Object> values = new ArrayList<>(list.size());
+                for (final Object element : list) {
+                    try {
+                        values.add(listInfo.convertToDolphin(element));
+                    } catch (ValueConverterException e) {
+                        throw new DolphinContextException("Can not convert content of list " + listInfo.getAttributeName(), e);
+                    }
+                }
+                lists.put(listInfo.getAttributeName(), values);
+            }
+        });
+        return lists;
+    }
+
+    private ServerPresentationModel restorePresentationModel(final PresentationModelSnapshot modelSnapshot) {
+        final List<ServerAttribute> attributes = new ArrayList<>();
+        for (final AttributeSnapshot attributeSnapshot : modelSnapshot.getAttributes()) {
+            final ServerAttribute attribute = new ServerAttribute(attributeSnapshot.getPropertyName(), attributeSnapshot.getValue(), attributeSnapshot.getQualifier());
+            attribute.setId(attributeSnapshot.getId());
+            attributes.add(attribute);
+        }
+        final ServerPresentationModel model = new ServerPresentationModel(modelSnapshot.getId(), attributes, serverModelStore);
+        model.setPresentationModelType(modelSnapshot.getType());
+        serverModelStore.checkClientAdded(model);
+        return model;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void restoreBeanReferences(final PresentationModelSnapshot modelSnapshot) {
+        final Object bean = beanRepository.getBean(modelSnapshot.getId());
+        final ClassInfo classInfo = classRepository.getClassInfo(modelSnapshot.getType());
+        classInfo.forEachProperty(new ClassInfo.PropertyIterator() {
+            @Override
+            public void call(final PropertyInfo propertyInfo) {
+                final Property property = (Property) propertyInfo.getPrivileged(bean);
+                final Object value = property.get();
+                if (value != null) {
+                    garbageCollector.onPropertyValueChanged(property, null, value);
+                }
+            }
+        });
+        classInfo.forEachObservableList(new ClassInfo.PropertyIterator() {
+            @Override
+            public void call(final PropertyInfo listInfo) {
+                final List<Object> values = modelSnapshot.getLists().get(listInfo.getAttributeName());
+                if (values == null || values.isEmpty()) {
+                    return;
+                }
+                final List<Object> elements = new ArrayList<>(values.size());
+                for (final Object value : values) {
+                    try {
+                        elements.add(listInfo.convertFromDolphin(value));
+                    } catch (ValueConverterException e) {
+                        throw new DolphinContextException("Can not restore content of list " + listInfo.getAttributeName(), e);
+                    }
+                }
+                ((ObservableArrayList<Object>) listInfo.getPrivileged(bean)).internalSplice(0, 0, elements);
+            }
+        });
+    }
+
     private void onCreateController(final String controllerName, final String parentControllerId) {
         Assert.requireNonBlank(controllerName, "controllerName");
 
@@ -345,7 +580,16 @@ public class DolphinContext {
     }
 
     public List<Command> handle(List<Command> commands) {
+        if (taskQueue.isOverflowed()) {
+            LOG.warn("Destroying DolphinContext {} since its task queue overflowed", getId());
+            destroy();
+            throw new DolphinContextDisconnectedException("DolphinContext " + getId() + " was disconnected since its task queue overflowed");
+        }
         List<Command> results = new LinkedList<>();
+        if (!restoreResponse.isEmpty()) {
+            results.addAll(restoreResponse);
+            restoreResponse.clear();
+        }
         for (Command command : commands) {
             results.addAll(serverConnector.receive(command));
             hasResponseCommands = !results.isEmpty();
@@ -386,4 +630,23 @@ public class DolphinContext {
     public <T> Future<T> callLater(final Callable<T> callable) {
         return taskQueue.addTask(callable);
     }
+
+    /**
+     * Executes the given runnable later in this context. This method is used by the event bus to deliver events.
+     *
+     * @param topicName   name of the topic of the event
+     * @param overflowKey key of the listener, used if the task queue overflows
+     * @param runnable    the runnable
+     * @return the future of the task. The future will be cancelled if the task is dropped because of an overflow.
+     */
+    public CompletableFuture<Void> runLaterForEvent(final String topicName, final Object overflowKey, final Runnable runnable) {
+        Assert.requireNonNull(runnable, "runnable");
+        return taskQueue.addTask(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                runnable.run();
+                return null;
+            }
+        }, topicName, overflowKey);
+    }
 }
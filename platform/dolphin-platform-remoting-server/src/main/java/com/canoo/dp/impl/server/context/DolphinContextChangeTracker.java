@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import com.canoo.dp.impl.remoting.PlatformRemotingConstants;
+import com.canoo.dp.impl.remoting.legacy.core.Attribute;
+import com.canoo.dp.impl.remoting.legacy.core.ModelStoreEvent;
+import com.canoo.dp.impl.remoting.legacy.core.ModelStoreListener;
+import com.canoo.dp.impl.server.legacy.ServerAttribute;
+import com.canoo.dp.impl.server.legacy.ServerModelStore;
+import com.canoo.dp.impl.server.legacy.ServerPresentationModel;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Tracks the ids of all presentation models of a {@link ServerModelStore} that were added, changed or removed since
+ * the last call of {@link #reset()}. A bean is marked as changed if the content of one of its lists changes since a
+ * list change is always transfered by a {@link PlatformRemotingConstants#LIST_SPLICE} model that references the bean.
+ */
+class DolphinContextChangeTracker implements ModelStoreListener<ServerAttribute, ServerPresentationModel> {
+
+    private static final String LIST_SPLICE_SOURCE_ATTRIBUTE = "source";
+
+    private final Set<String> changedModelIds = new LinkedHashSet<>();
+
+    private final Set<String> removedModelIds = new LinkedHashSet<>();
+
+    private boolean full = true;
+
+    private final PropertyChangeListener valueChangeListener = new PropertyChangeListener() {
+        @Override
+        public void propertyChange(final PropertyChangeEvent event) {
+            final ServerAttribute attribute = (ServerAttribute) event.getSource();
+            if (attribute.getPresentationModel() != null) {
+                markChanged(attribute.getPresentationModel().getId());
+            }
+        }
+    };
+
+    DolphinContextChangeTracker(final ServerModelStore modelStore) {
+        modelStore.addModelStoreListener(this);
+    }
+
+    @Override
+    public void modelStoreChanged(final ModelStoreEvent<ServerAttribute, ServerPresentationModel> event) {
+        final ServerPresentationModel model = event.getPresentationModel();
+        final String type = model.getPresentationModelType();
+        if (PlatformRemotingConstants.LIST_SPLICE.equals(type)) {
+            if (event.getType() == ModelStoreEvent.Type.ADDED) {
+                final ServerAttribute sourceAttribute = model.getAttribute(LIST_SPLICE_SOURCE_ATTRIBUTE);
+                if (sourceAttribute != null && sourceAttribute.getValue() != null) {
+                    markChanged(sourceAttribute.getValue().toString());
+                }
+            }
+            return;
+        }
+        if (PlatformRemotingConstants.CONTROLLER_ACTION_CALL_BEAN_NAME.equals(type)) {
+            return;
+        }
+        if (event.getType() == ModelStoreEvent.Type.ADDED) {
+            for (final ServerAttribute attribute : model.getAttributes()) {
+                attribute.addPropertyChangeListener(Attribute.VALUE_NAME, valueChangeListener);
+            }
+            removedModelIds.remove(model.getId());
+            markChanged(model.getId());
+        } else {
+            for (final ServerAttribute attribute : model.getAttributes()) {
+                attribute.removePropertyChangeListener(Attribute.VALUE_NAME, valueChangeListener);
+            }
+            changedModelIds.remove(model.getId());
+            removedModelIds.add(model.getId());
+        }
+    }
+
+    private void markChanged(final String modelId) {
+        changedModelIds.add(modelId);
+    }
+
+    boolean hasChanges() {
+        return full || !changedModelIds.isEmpty() || !removedModelIds.isEmpty();
+    }
+
+    /**
+     * Returns true if no changes were tracked before the last reset. In that case all models are marked as changed.
+     */
+    boolean isFull() {
+        return full;
+    }
+
+    Set<String> getChangedModelIds() {
+        return changedModelIds;
+    }
+
+    Set<String> getRemovedModelIds() {
+        return removedModelIds;
+    }
+
+    void reset() {
+        full = false;
+        changedModelIds.clear();
+        removedModelIds.clear();
+    }
+}
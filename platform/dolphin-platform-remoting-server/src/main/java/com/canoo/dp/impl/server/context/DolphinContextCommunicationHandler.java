@@ -15,11 +15,14 @@
  */
 package com.canoo.dp.impl.server.context;
 
+import com.canoo.dp.impl.remoting.PlatformRemotingConstants;
 import com.canoo.dp.impl.remoting.codec.OptimizedJsonCodec;
 import com.canoo.dp.impl.remoting.commands.CreateContextCommand;
 import com.canoo.dp.impl.platform.core.Assert;
 import com.canoo.platform.core.functional.Callback;
 import com.canoo.dp.impl.server.client.ClientSessionProvider;
+import com.canoo.dp.impl.server.config.RemotingConfiguration;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshot;
 import com.canoo.platform.server.client.ClientSession;
 import com.canoo.dp.impl.remoting.legacy.communication.Codec;
 import com.canoo.dp.impl.remoting.legacy.communication.Command;
@@ -31,10 +34,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
@@ -51,11 +55,29 @@ public class DolphinContextCommunicationHandler {
 
     private final DolphinContextFactory contextFactory;
 
-    private static final HashMap<String, WeakReference<DolphinContext>> weakContextMap = new HashMap<>();
+    private final DolphinContextRegistry contextRegistry;
+
+    private final long requestSequenceTimeout;
+
+    private final ConcurrentMap<String, RequestSequence> requestSequences = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Object> contextLocks = new ConcurrentHashMap<>();
+
+    private final List<Callback<DolphinContext>> contextDestroyedListeners = new CopyOnWriteArrayList<>();
 
     public DolphinContextCommunicationHandler(final ClientSessionProvider sessionProvider, DolphinContextFactory contextFactory) {
+        this(sessionProvider, contextFactory, new DolphinContextRegistry(0, 0));
+    }
+
+    public DolphinContextCommunicationHandler(final ClientSessionProvider sessionProvider, DolphinContextFactory contextFactory, final DolphinContextRegistry contextRegistry) {
+        this(sessionProvider, contextFactory, contextRegistry, RemotingConfiguration.REQUEST_SEQUENCE_TIMEOUT_DEFAULT_VALUE);
+    }
+
+    public DolphinContextCommunicationHandler(final ClientSessionProvider sessionProvider, DolphinContextFactory contextFactory, final DolphinContextRegistry contextRegistry, final long requestSequenceTimeout) {
         this.sessionProvider = Assert.requireNonNull(sessionProvider, "sessionProvider");
         this.contextFactory = contextFactory;
+        this.contextRegistry = Assert.requireNonNull(contextRegistry, "contextRegistry");
+        this.requestSequenceTimeout = requestSequenceTimeout;
     }
 
     public void handle(final HttpServletRequest request, final HttpServletResponse response) {
@@ -84,16 +106,63 @@ public class DolphinContextCommunicationHandler {
         }
         LOG.trace("Request for DolphinContext {} in http session {} contains {} commands", clientSession.getId(), httpSession.getId(), commands.size());
 
+        final long sequenceNumber;
         try {
-            DolphinContext context = getOrCreateContext(clientSession, commands);
+            sequenceNumber = readSequenceNumber(request);
+        } catch (NumberFormatException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            LOG.error("Can not parse request sequence! (DolphinContext " + clientSession.getId() + ")", e);
+            return;
+        }
+        if (sequenceNumber <= 0) {
+            handle(response, httpSession, clientSession, commands, userAgent);
+            return;
+        }
+
+        final RequestSequence sequence = getRequestSequence(clientSession);
+        try {
+            if (!sequence.awaitTurn(sequenceNumber, requestSequenceTimeout)) {
+                LOG.warn("Request {} for DolphinContext {} did not receive all previous requests in time", sequenceNumber, clientSession.getId());
+            }
+            handle(response, httpSession, clientSession, commands, userAgent);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            LOG.warn("Interrupted while waiting for previous requests of DolphinContext {}", clientSession.getId());
+        } finally {
+            sequence.finished(sequenceNumber);
+        }
+    }
+
+    private void handle(final HttpServletResponse response, final HttpSession httpSession, final ClientSession clientSession, final List<Command> commands, final String userAgent) {
+        try {
+            DolphinContext context;
+            try {
+                context = getOrCreateContext(clientSession, commands);
+                while (!contextRegistry.onRequestStarted(context)) {
+                    LOG.trace("DolphinContext {} was evicted or passivated while the request was received", context.getId());
+                    context = getOrCreateContext(clientSession, commands);
+                }
+            } catch (MaxContextCountReachedException e) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                LOG.warn("Can not create DolphinContext for client session {}: {}", clientSession.getId(), e.getMessage());
+                return;
+            }
 
             final List<Command> results = new ArrayList<>();
             try {
                 results.addAll(handle(context, commands));
+            } catch (DolphinContextDisconnectedException e) {
+                // expected if the task queue of the context overflowed and the DISCONNECT policy is used
+                response.setStatus(HttpServletResponse.SC_GONE);
+                LOG.warn("Request for DolphinContext {} rejected: {}", context.getId(), e.getMessage());
+                return;
             } catch (Exception e) {
                 response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
                 LOG.error("Can not withoutResult the the received commands (DolphinContext " + context.getId() + ")", e);
                 return;
+            } finally {
+                contextRegistry.onRequestFinished(context);
             }
 
             LOG.trace("Sending RPM response for client session {} in http session {} from client with user-agent {}", context.getId(), httpSession.getId(), userAgent);
@@ -118,14 +187,15 @@ public class DolphinContextCommunicationHandler {
         return clientSession.getAttribute(DOLPHIN_CONTEXT_ATTRIBUTE_NAME);
     }
 
+    /**
+     * Returns the active context with the given id
+     * @param clientSessionId the id of the client session
+     * @return the context or null if the context was destroyed, passivated or evicted
+     */
     public DolphinContext getContextById(String clientSessionId) {
         Assert.requireNonBlank(clientSessionId, "clientSessionId");
 
-        WeakReference<DolphinContext> ref = weakContextMap.get(clientSessionId);
-        DolphinContext dolphinContext = ref.get();
-        Assert.requireNonNull(dolphinContext, "dolphinContext");
-
-        return dolphinContext;
+        return contextRegistry.get(clientSessionId);
     }
 
     public DolphinContext getCurrentDolphinContext() {
@@ -141,22 +211,104 @@ public class DolphinContextCommunicationHandler {
         if (context != null) {
             return context;
         }
+        // Concurrent requests of the same client session must not restore or create the context twice. A request
+        // that waited for the lock uses the context that was restored or created by the previous request.
+        synchronized (getContextLock(clientSession)) {
+            final DolphinContext existingContext = getContext(clientSession);
+            if (existingContext != null) {
+                return existingContext;
+            }
+            return restoreOrCreateContext(clientSession, commands);
+        }
+    }
+
+    private DolphinContext restoreOrCreateContext(final ClientSession clientSession, final List<Command> commands) {
+        final DolphinContextSnapshot snapshot = contextRegistry.takePassivatedSnapshot(clientSession.getId());
+        if (snapshot != null) {
+            LOG.trace("Restoring passivated DolphinContext {}", clientSession.getId());
+            return restoreContext(clientSession, snapshot);
+        }
         if (containsInitCommand(commands)) {
-            final Callback<DolphinContext> onDestroyCallback = new Callback<DolphinContext>() {
-                @Override
-                public void call(DolphinContext dolphinContext) {
-                    Assert.requireNonNull(dolphinContext, "dolphinContext");
-                    LOG.trace("Destroying DolphinContext {}", dolphinContext.getId());
-                    remove(clientSession);
-                }
-            };
-            DolphinContext createdContext = contextFactory.create(clientSession, onDestroyCallback);
-            add(clientSession, createdContext);
+            final DolphinContext createdContext = createContext(clientSession);
+            try {
+                add(clientSession, createdContext);
+            } catch (MaxContextCountReachedException e) {
+                createdContext.destroy();
+                throw e;
+            }
             return createdContext;
         }
+        final DolphinContextSnapshot replicatedSnapshot = contextRegistry.recoverSnapshot(clientSession.getId());
+        if (replicatedSnapshot != null && !isOwner(clientSession, replicatedSnapshot)) {
+            throw new IllegalStateException("Replicated state of DolphinContext " + clientSession.getId() + " belongs to another http session");
+        }
+        if (replicatedSnapshot != null) {
+            LOG.info("Recovering DolphinContext {} from replicated state", clientSession.getId());
+            return restoreContext(clientSession, replicatedSnapshot);
+        }
         throw new IllegalStateException("No dolphin context is defined and no init command is send.");
     }
 
+    private boolean isOwner(final ClientSession clientSession, final DolphinContextSnapshot snapshot) {
+        final HttpSession httpSession = clientSession.getHttpSession();
+        return httpSession != null && httpSession.getId().equals(snapshot.getOwnerId());
+    }
+
+    private DolphinContext restoreContext(final ClientSession clientSession, final DolphinContextSnapshot snapshot) {
+        final DolphinContext restoredContext = createContext(clientSession);
+        try {
+            restoredContext.restore(snapshot);
+            add(clientSession, restoredContext);
+        } catch (RuntimeException e) {
+            restoredContext.destroy();
+            throw e;
+        }
+        return restoredContext;
+    }
+
+    private DolphinContext createContext(final ClientSession clientSession) {
+        final Callback<DolphinContext> onDestroyCallback = new Callback<DolphinContext>() {
+            @Override
+            public void call(DolphinContext dolphinContext) {
+                Assert.requireNonNull(dolphinContext, "dolphinContext");
+                LOG.trace("Destroying DolphinContext {}", dolphinContext.getId());
+                remove(clientSession, dolphinContext);
+                for (final Callback<DolphinContext> listener : contextDestroyedListeners) {
+                    listener.call(dolphinContext);
+                }
+            }
+        };
+        return contextFactory.create(clientSession, onDestroyCallback);
+    }
+
+    private long readSequenceNumber(final HttpServletRequest request) {
+        final String value = request.getHeader(PlatformRemotingConstants.REQUEST_SEQUENCE_HTTP_HEADER_NAME);
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        return Long.parseLong(value.trim());
+    }
+
+    private RequestSequence getRequestSequence(final ClientSession clientSession) {
+        final RequestSequence sequence = requestSequences.get(clientSession.getId());
+        if (sequence != null) {
+            return sequence;
+        }
+        final RequestSequence newSequence = new RequestSequence();
+        final RequestSequence existingSequence = requestSequences.putIfAbsent(clientSession.getId(), newSequence);
+        return existingSequence != null ? existingSequence : newSequence;
+    }
+
+    private Object getContextLock(final ClientSession clientSession) {
+        final Object lock = contextLocks.get(clientSession.getId());
+        if (lock != null) {
+            return lock;
+        }
+        final Object newLock = new Object();
+        final Object existingLock = contextLocks.putIfAbsent(clientSession.getId(), newLock);
+        return existingLock != null ? existingLock : newLock;
+    }
+
     private boolean containsInitCommand(final List<Command> commands) {
         for (Command command : commands) {
             if (command instanceof CreateContextCommand) {
@@ -193,13 +345,47 @@ public class DolphinContextCommunicationHandler {
     private void add(final ClientSession clientSession, final DolphinContext context) {
         Assert.requireNonNull(clientSession, "clientSession");
         Assert.requireNonNull(context, "context");
+        contextRegistry.register(context);
         clientSession.setAttribute(DOLPHIN_CONTEXT_ATTRIBUTE_NAME, context);
-        weakContextMap.put(clientSession.getId(), new WeakReference<>(context));
     }
 
     private void remove(final ClientSession clientSession) {
         Assert.requireNonNull(clientSession, "clientSession");
         clientSession.removeAttribute(DOLPHIN_CONTEXT_ATTRIBUTE_NAME);
+        contextRegistry.remove(clientSession.getId());
+    }
+
+    private void remove(final ClientSession clientSession, final DolphinContext context) {
+        Assert.requireNonNull(clientSession, "clientSession");
+        Assert.requireNonNull(context, "context");
+        // a context that is destroyed after it was evicted must not remove a context that was already restored or
+        // created for the same client session
+        synchronized (getContextLock(clientSession)) {
+            if (getContext(clientSession) == context) {
+                clientSession.removeAttribute(DOLPHIN_CONTEXT_ATTRIBUTE_NAME);
+            }
+        }
+        contextRegistry.remove(context);
+    }
+
+    /**
+     * Adds a listener that is called whenever a context is destroyed. This includes contexts that are passivated or
+     * evicted because they were idle.
+     * @param listener the listener
+     */
+    public void addContextDestroyedListener(final Callback<DolphinContext> listener) {
+        contextDestroyedListeners.add(Assert.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Removes the context of the given client session from the registry. Must be called when the client session ends.
+     * @param clientSession the client session
+     */
+    public void onClientSessionDestroyed(final ClientSession clientSession) {
+        remove(clientSession);
+        requestSequences.remove(clientSession.getId());
+        contextLocks.remove(clientSession.getId());
+        contextRegistry.discard(clientSession.getId());
     }
 
 }
@@ -0,0 +1,573 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.server.passivation.DolphinContextDelta;
+import com.canoo.dp.impl.server.passivation.DolphinContextReplicator;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshot;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshotStore;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Registry of all {@link DolphinContext} instances of a server node. A context is removed when it is destroyed or
+ * when its client session ends. If an idle timeout is defined contexts that did not receive a request for longer
+ * than the timeout will be destroyed. If a {@link DolphinContextSnapshotStore} is defined idle contexts will be
+ * passivated instead: a snapshot of the context is stored and the context is restored from the snapshot once the
+ * client sends the next request. If a {@link DolphinContextReplicator} is defined the changes of all contexts are
+ * replicated by the maintenance thread after a request (at most once per replication interval) and once a context
+ * becomes idle. A context that is unknown on this node (for example after a failover) can be recovered from the
+ * replica. If a maximum count is defined no new contexts can be registered once the maximum is reached.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class DolphinContextRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DolphinContextRegistry.class);
+
+    private static final long MIN_MAINTENANCE_INTERVAL = 1_000;
+
+    private final Map<String, ContextEntry> contexts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger contextCount = new AtomicInteger(0);
+
+    private final AtomicLong registeredCount = new AtomicLong(0);
+
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    private final AtomicLong evictedCount = new AtomicLong(0);
+
+    private final AtomicLong passivationCount = new AtomicLong(0);
+
+    private final AtomicLong restoredCount = new AtomicLong(0);
+
+    private final AtomicLong replicatedDeltaCount = new AtomicLong(0);
+
+    private final AtomicLong recoveredCount = new AtomicLong(0);
+
+    private final Set<String> passivatedContextIds = ConcurrentHashMap.newKeySet();
+
+    private final DolphinContextSnapshotStore snapshotStore;
+
+    private final DolphinContextReplicator replicator;
+
+    private final long replicationInterval;
+
+    private final int maxContextCount;
+
+    private final long idleTimeout;
+
+    private final ScheduledExecutorService maintenanceExecutor;
+
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+
+    /**
+     * Constructor
+     * @param maxContextCount maximum number of contexts on this node, a value <= 0 defines no limit
+     * @param idleTimeout time in milliseconds after that an idle context will be destroyed, a value <= 0 deactivates
+     *                    the eviction
+     */
+    public DolphinContextRegistry(final int maxContextCount, final long idleTimeout) {
+        this(maxContextCount, idleTimeout, null);
+    }
+
+    /**
+     * Constructor
+     * @param maxContextCount maximum number of contexts on this node, a value <= 0 defines no limit
+     * @param idleTimeout time in milliseconds after that an idle context will be passivated or destroyed, a value <= 0
+     *                    deactivates the eviction
+     * @param snapshotStore store for snapshots of passivated contexts, if null idle contexts will be destroyed
+     */
+    public DolphinContextRegistry(final int maxContextCount, final long idleTimeout, final DolphinContextSnapshotStore snapshotStore) {
+        this(maxContextCount, idleTimeout, snapshotStore, null, 0);
+    }
+
+    /**
+     * Constructor
+     * @param maxContextCount maximum number of contexts on this node, a value <= 0 defines no limit
+     * @param idleTimeout time in milliseconds after that an idle context will be passivated or destroyed, a value <= 0
+     *                    deactivates the eviction
+     * @param snapshotStore store for snapshots of passivated contexts, if null idle contexts will be destroyed
+     * @param replicator replicator for the changes of all contexts, if null no changes will be replicated
+     * @param replicationInterval minimum time in milliseconds between two replications of the same context while the
+     *                            context receives requests
+     */
+    public DolphinContextRegistry(final int maxContextCount, final long idleTimeout, final DolphinContextSnapshotStore snapshotStore, final DolphinContextReplicator replicator, final long replicationInterval) {
+        this.maxContextCount = maxContextCount;
+        this.snapshotStore = snapshotStore;
+        this.idleTimeout = idleTimeout;
+        this.replicator = replicator;
+        this.replicationInterval = replicationInterval;
+        if (idleTimeout > 0 || replicator != null) {
+            long interval = Long.MAX_VALUE;
+            if (idleTimeout > 0) {
+                interval = Math.max(MIN_MAINTENANCE_INTERVAL, idleTimeout / 2);
+            }
+            if (replicator != null) {
+                interval = Math.min(interval, Math.max(MIN_MAINTENANCE_INTERVAL, replicationInterval));
+            }
+            maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Dolphin Platform context maintenance");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            maintenanceExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    final long now = System.currentTimeMillis();
+                    try {
+                        replicateIdleContexts(now);
+                    } catch (Exception e) {
+                        LOG.error("Error in replication of idle DolphinContexts", e);
+                    }
+                    try {
+                        evictIdleContexts(now);
+                    } catch (Exception e) {
+                        LOG.error("Error in eviction of idle DolphinContexts", e);
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            maintenanceExecutor = null;
+        }
+    }
+
+    /**
+     * Registers the given context
+     * @param context the context
+     * @throws MaxContextCountReachedException if the maximum number of contexts is reached
+     */
+    public void register(final DolphinContext context) {
+        Assert.requireNonNull(context, "context");
+        while (true) {
+            final int count = contextCount.get();
+            if (maxContextCount > 0 && count >= maxContextCount) {
+                rejectedCount.incrementAndGet();
+                throw new MaxContextCountReachedException("Maximum number of DolphinContexts (" + maxContextCount + ") reached");
+            }
+            if (contextCount.compareAndSet(count, count + 1)) {
+                break;
+            }
+        }
+        final ContextEntry previous = contexts.put(context.getId(), new ContextEntry(context));
+        if (previous != null) {
+            contextCount.decrementAndGet();
+        }
+        registeredCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the context with the given id
+     * @param contextId the id of the context
+     * @return the context or null
+     */
+    public DolphinContext get(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        final ContextEntry entry = contexts.get(contextId);
+        if (entry == null) {
+            return null;
+        }
+        return entry.context;
+    }
+
+    /**
+     * Removes the context with the given id. The context will not be destroyed.
+     * @param contextId the id of the context
+     * @return true if a context was removed
+     */
+    public boolean remove(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        if (contexts.remove(contextId) != null) {
+            onRemoved(contextId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the given context. In contrast to {@link #remove(String)} a context that was registered for the same id
+     * afterwards (for example because the given context was passivated and restored) will not be removed. The context
+     * will not be destroyed.
+     * @param context the context
+     * @return true if the context was removed
+     */
+    public boolean remove(final DolphinContext context) {
+        Assert.requireNonNull(context, "context");
+        final ContextEntry entry = contexts.get(context.getId());
+        if (entry != null && entry.context == context && contexts.remove(context.getId(), entry)) {
+            onRemoved(context.getId());
+            return true;
+        }
+        return false;
+    }
+
+    private void onRemoved(final String contextId) {
+        contextCount.decrementAndGet();
+        if (replicator != null) {
+            replicator.remove(contextId);
+        }
+    }
+
+    /**
+     * Marks the given context as active. A context will not be evicted while a request is handled.
+     * @param context the context that was resolved for the request
+     * @return false if the context was evicted, passivated or replaced in the meantime and must be resolved again
+     * before it can be used
+     */
+    public boolean onRequestStarted(final DolphinContext context) {
+        Assert.requireNonNull(context, "context");
+        final ContextEntry entry = contexts.get(context.getId());
+        if (entry == null || entry.context != context) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.passivated) {
+                return false;
+            }
+            entry.activeRequests.incrementAndGet();
+            entry.lastAccess = System.currentTimeMillis();
+        }
+        return true;
+    }
+
+    /**
+     * Marks the end of a request for the given context. If the replication interval of the context has elapsed the
+     * changes of the context will be replicated by the maintenance thread.
+     * @param context the context that was passed to {@link #onRequestStarted(DolphinContext)}
+     */
+    public void onRequestFinished(final DolphinContext context) {
+        Assert.requireNonNull(context, "context");
+        final ContextEntry entry = contexts.get(context.getId());
+        if (entry != null && entry.context == context) {
+            final boolean replicationDue;
+            synchronized (entry) {
+                final long now = System.currentTimeMillis();
+                entry.lastAccess = now;
+                entry.activeRequests.decrementAndGet();
+                replicationDue = replicator != null && !entry.replicationScheduled && now - entry.lastReplication >= replicationInterval;
+                if (replicationDue) {
+                    entry.replicationScheduled = true;
+                }
+            }
+            if (replicationDue) {
+                scheduleReplication(entry);
+            }
+        }
+    }
+
+    private void scheduleReplication(final ContextEntry entry) {
+        try {
+            maintenanceExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (entry) {
+                        entry.replicationScheduled = false;
+                        if (!entry.passivated && entry.activeRequests.get() <= 0) {
+                            replicate(entry, System.currentTimeMillis());
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Replication of DolphinContext {} skipped since the registry is shut down", entry.context.getId());
+        }
+    }
+
+    /**
+     * Replicates the changes of all contexts that do not handle a request at the moment
+     * @param now the current time in milliseconds
+     * @return the number of replicated deltas
+     */
+    public int replicateIdleContexts(final long now) {
+        if (replicator == null) {
+            return 0;
+        }
+        int replicated = 0;
+        for (final ContextEntry entry : contexts.values()) {
+            synchronized (entry) {
+                if (!entry.passivated && entry.activeRequests.get() <= 0 && replicate(entry, now)) {
+                    replicated++;
+                }
+            }
+        }
+        return replicated;
+    }
+
+    private boolean replicate(final ContextEntry entry, final long now) {
+        if (replicator == null) {
+            return false;
+        }
+        entry.lastReplication = now;
+        try {
+            final DolphinContextDelta delta = entry.context.createDelta();
+            if (delta == null) {
+                return false;
+            }
+            replicator.replicate(delta);
+            replicatedDeltaCount.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            LOG.error("Can not replicate DolphinContext " + entry.context.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Passivates or destroys all contexts that are idle for longer than the idle timeout
+     * @param now the current time in milliseconds
+     * @return the number of evicted contexts
+     */
+    public int evictIdleContexts(final long now) {
+        if (idleTimeout <= 0) {
+            return 0;
+        }
+        int evicted = 0;
+        for (final Map.Entry<String, ContextEntry> mapEntry : contexts.entrySet()) {
+            final ContextEntry entry = mapEntry.getValue();
+            synchronized (entry) {
+                if (entry.activeRequests.get() <= 0 && now - entry.lastAccess > idleTimeout && contexts.remove(mapEntry.getKey(), entry)) {
+                    contextCount.decrementAndGet();
+                    evictedCount.incrementAndGet();
+                    evicted++;
+                    entry.passivated = true;
+                    if (snapshotStore != null) {
+                        replicate(entry, now);
+                    }
+                    if (snapshotStore == null || !passivate(entry.context)) {
+                        LOG.debug("Destroying DolphinContext {} since it was idle for {} ms", entry.context.getId(), now - entry.lastAccess);
+                        try {
+                            entry.context.destroy();
+                        } catch (Exception e) {
+                            LOG.error("Error in destroying idle DolphinContext " + entry.context.getId(), e);
+                        }
+                        if (replicator != null) {
+                            replicator.remove(entry.context.getId());
+                        }
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private boolean passivate(final DolphinContext context) {
+        final String contextId = context.getId();
+        try {
+            final DolphinContextSnapshot snapshot = context.createSnapshot();
+            snapshotStore.store(snapshot);
+        } catch (Exception e) {
+            LOG.error("Can not passivate idle DolphinContext " + contextId, e);
+            return false;
+        }
+        passivatedContextIds.add(contextId);
+        passivationCount.incrementAndGet();
+        LOG.debug("Passivated idle DolphinContext {}", contextId);
+        try {
+            context.passivate();
+        } catch (Exception e) {
+            LOG.error("Error in destroying passivated DolphinContext " + contextId, e);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the snapshot of the passivated context with the given id and removes it from the snapshot store.
+     * @param contextId the id of the context
+     * @return the snapshot or null if no context with the given id was passivated
+     */
+    public DolphinContextSnapshot takePassivatedSnapshot(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        if (snapshotStore == null || !passivatedContextIds.remove(contextId)) {
+            return null;
+        }
+        final DolphinContextSnapshot snapshot = snapshotStore.load(contextId);
+        snapshotStore.remove(contextId);
+        if (snapshot != null) {
+            restoredCount.incrementAndGet();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the replicated state of the context with the given id. Should only be called if the context is not
+     * registered and was not passivated on this node.
+     * @param contextId the id of the context
+     * @return the snapshot or null if no state of the context was replicated
+     */
+    public DolphinContextSnapshot recoverSnapshot(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        if (replicator == null) {
+            return null;
+        }
+        final DolphinContextSnapshot snapshot = replicator.recover(contextId);
+        if (snapshot != null) {
+            recoveredCount.incrementAndGet();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns true if state of the context with the given id was replicated for the given owner and the context is
+     * not registered on this node. This is used to decide if an unknown client session can be recovered after a
+     * failover. The owner is the id of the HTTP session that created the client session, so a client id can not be
+     * used to recover the context in another HTTP session.
+     * @param contextId the id of the context
+     * @param ownerId the id of the HTTP session that requests the recovery
+     * @return true if the context can be recovered from the replica
+     */
+    public boolean isRecoverable(final String contextId, final String ownerId) {
+        Assert.requireNonNull(contextId, "contextId");
+        Assert.requireNonNull(ownerId, "ownerId");
+        if (replicator == null || shutdown.get() || contexts.containsKey(contextId)) {
+            return false;
+        }
+        final DolphinContextSnapshot snapshot = replicator.recover(contextId);
+        return snapshot != null && ownerId.equals(snapshot.getOwnerId());
+    }
+
+    /**
+     * Removes the snapshot of the passivated context and the replicated state of the context with the given id. Must
+     * be called when the client session of the context ends.
+     * @param contextId the id of the context
+     */
+    public void discard(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        if (snapshotStore != null && passivatedContextIds.remove(contextId)) {
+            snapshotStore.remove(contextId);
+        }
+        if (replicator != null) {
+            replicator.remove(contextId);
+        }
+    }
+
+    /**
+     * Stops the eviction of idle contexts and closes the snapshot store and the replicator. Must be called when the
+     * servlet context is destroyed.
+     */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        if (maintenanceExecutor != null) {
+            maintenanceExecutor.shutdownNow();
+            try {
+                maintenanceExecutor.awaitTermination(MIN_MAINTENANCE_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (snapshotStore != null) {
+            passivatedContextIds.clear();
+            snapshotStore.close();
+        }
+        if (replicator != null) {
+            replicator.close();
+        }
+    }
+
+    public int getContextCount() {
+        return contextCount.get();
+    }
+
+    public int getMaxContextCount() {
+        return maxContextCount;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public long getRegisteredContextCount() {
+        return registeredCount.get();
+    }
+
+    public long getRejectedContextCount() {
+        return rejectedCount.get();
+    }
+
+    public long getEvictedContextCount() {
+        return evictedCount.get();
+    }
+
+    public boolean isPassivationActive() {
+        return snapshotStore != null;
+    }
+
+    public int getPassivatedContextCount() {
+        return passivatedContextIds.size();
+    }
+
+    public long getPassivationCount() {
+        return passivationCount.get();
+    }
+
+    public long getRestoredContextCount() {
+        return restoredCount.get();
+    }
+
+    public boolean isReplicationActive() {
+        return replicator != null;
+    }
+
+    public long getReplicationInterval() {
+        return replicationInterval;
+    }
+
+    public long getReplicatedDeltaCount() {
+        return replicatedDeltaCount.get();
+    }
+
+    public long getRecoveredContextCount() {
+        return recoveredCount.get();
+    }
+
+    private static class ContextEntry {
+
+        private final DolphinContext context;
+
+        private final AtomicInteger activeRequests = new AtomicInteger(0);
+
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private boolean passivated = false;
+
+        private long lastReplication = 0;
+
+        private boolean replicationScheduled = false;
+
+        private ContextEntry(final DolphinContext context) {
+            this.context = context;
+        }
+    }
+}
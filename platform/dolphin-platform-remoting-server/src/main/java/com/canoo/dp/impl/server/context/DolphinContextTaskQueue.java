@@ -22,13 +22,18 @@ import org.apiguardian.api.API;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -38,13 +43,29 @@ import static org.apiguardian.api.API.Status.INTERNAL;
 /**
  * Internal class to call tasks (see {@link Runnable}) in a Dolphin Platform context
  * (see {@link DolphinContext}). Tasks can come from an "invokeLater" call or the event bus.
+ * The number of pending event bus tasks (tasks with a topic name) can be limited. If the limit is reached the
+ * {@link TaskQueueOverflowPolicy} of the queue defines which event bus tasks will be dropped. Other tasks are never
+ * counted or dropped, only the {@link TaskQueueOverflowPolicy#DISCONNECT} policy drops them together with the
+ * context. The future of a dropped task will be cancelled.
  */
 @API(since = "0.x", status = INTERNAL)
 public class DolphinContextTaskQueue {
 
     private static final Logger LOG = LoggerFactory.getLogger(DolphinContextTaskQueue.class);
 
-    private final BlockingQueue<Runnable> tasks;
+    private static final String NO_TOPIC = "";
+
+    private final BlockingQueue<QueuedTask<?>> tasks;
+
+    private final int maxTasks;
+
+    private int pendingEventTasks = 0;
+
+    private final TaskQueueOverflowPolicy overflowPolicy;
+
+    private final Map<String, AtomicLong> droppedTasks = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean overflowed = new AtomicBoolean(false);
 
     private final String dolphinSessionId;
 
@@ -63,36 +84,141 @@ public class DolphinContextTaskQueue {
     private final AtomicBoolean interrupted = new AtomicBoolean(false);
 
     public DolphinContextTaskQueue(final String dolphinSessionId, final ClientSessionProvider sessionProvider, final CommunicationManager communicationManager, final long maxExecutionTime, final TimeUnit maxExecutionTimeUnit) {
+        this(dolphinSessionId, sessionProvider, communicationManager, maxExecutionTime, maxExecutionTimeUnit, -1, TaskQueueOverflowPolicy.DROP_OLDEST);
+    }
+
+    public DolphinContextTaskQueue(final String dolphinSessionId, final ClientSessionProvider sessionProvider, final CommunicationManager communicationManager, final long maxExecutionTime, final TimeUnit maxExecutionTimeUnit, final int maxTasks, final TaskQueueOverflowPolicy overflowPolicy) {
         this.dolphinSessionId = Assert.requireNonBlank(dolphinSessionId, "dolphinSessionId");
         this.tasks = new LinkedBlockingQueue<>();
+        this.maxTasks = maxTasks;
+        this.overflowPolicy = Assert.requireNonNull(overflowPolicy, "overflowPolicy");
         this.communicationManager = Assert.requireNonNull(communicationManager, "communicationManager");
         this.sessionProvider = Assert.requireNonNull(sessionProvider, "sessionProvider");
         this.maxExecutionTime = maxExecutionTime;
         this.maxExecutionTimeUnit = Assert.requireNonNull(maxExecutionTimeUnit, "maxExecutionTimeUnit");
     }
 
-    public <T> Future<T> addTask(final Callable<T> task) {
+    public <T> CompletableFuture<T> addTask(final Callable<T> task) {
+        return addTask(task, null, null);
+    }
+
+    /**
+     * Adds a task to the queue
+     *
+     * @param task        the task
+     * @param topicName   name of the event bus topic that created the task or {@code null}. Only tasks with a topic
+     *                    name are limited by the maximum size of the queue.
+     * @param overflowKey key that identifies tasks that can replace each other if the queue is full and the
+     *                    {@link TaskQueueOverflowPolicy#CONFLATE} policy is used or {@code null}.
+     * @param <T>         the result type of the task
+     * @return the future of the task. The future will be cancelled if the task is dropped.
+     */
+    public <T> CompletableFuture<T> addTask(final Callable<T> task, final String topicName, final Object overflowKey) {
         Assert.requireNonNull(task, "task");
-        final CompletableFuture<T> future = new CompletableFuture<>();
-        tasks.offer(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    final T result = task.call();
-                    future.complete(result);
-                } catch (Exception e) {
-                    future.completeExceptionally(e);
-                }
-            }
-        });
-        LOG.trace("Tasks added to Dolphin Platform context {}", dolphinSessionId);
+        final QueuedTask<T> queuedTask = new QueuedTask<>(task, topicName, overflowKey);
         taskLock.lock();
         try {
+            if (overflowed.get()) {
+                LOG.trace("Task for Dolphin Platform context {} rejected since the context will be disconnected", dolphinSessionId);
+                drop(queuedTask);
+                return queuedTask.future;
+            }
+            if (maxTasks > 0 && queuedTask.isEventTask() && pendingEventTasks >= maxTasks) {
+                onOverflow(queuedTask);
+            }
+            if (!overflowed.get()) {
+                tasks.offer(queuedTask);
+                if (queuedTask.isEventTask()) {
+                    pendingEventTasks++;
+                }
+                LOG.trace("Tasks added to Dolphin Platform context {}", dolphinSessionId);
+            } else {
+                drop(queuedTask);
+            }
             taskCondition.signal();
         } finally {
             taskLock.unlock();
         }
-        return future;
+        return queuedTask.future;
+    }
+
+    private void onOverflow(final QueuedTask<?> newTask) {
+        LOG.debug("Task queue of Dolphin Platform context {} reached its maximum size of {} tasks", dolphinSessionId, maxTasks);
+        if (overflowPolicy == TaskQueueOverflowPolicy.DISCONNECT) {
+            LOG.warn("Dolphin Platform context {} will be disconnected since its task queue overflowed", dolphinSessionId);
+            overflowed.set(true);
+            QueuedTask<?> task = tasks.poll();
+            while (task != null) {
+                drop(task);
+                task = tasks.poll();
+            }
+            pendingEventTasks = 0;
+            return;
+        }
+        if (overflowPolicy == TaskQueueOverflowPolicy.CONFLATE && newTask.overflowKey != null) {
+            final Iterator<QueuedTask<?>> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                final QueuedTask<?> task = iterator.next();
+                if (task.isEventTask() && newTask.overflowKey.equals(task.overflowKey)) {
+                    iterator.remove();
+                    pendingEventTasks--;
+                    drop(task);
+                    return;
+                }
+            }
+        }
+        final Iterator<QueuedTask<?>> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            final QueuedTask<?> task = iterator.next();
+            if (task.isEventTask()) {
+                iterator.remove();
+                pendingEventTasks--;
+                drop(task);
+                return;
+            }
+        }
+    }
+
+    private void drop(final QueuedTask<?> task) {
+        final String topicName = task.topicName == null ? NO_TOPIC : task.topicName;
+        AtomicLong counter = droppedTasks.get(topicName);
+        if (counter == null) {
+            final AtomicLong newCounter = new AtomicLong();
+            counter = droppedTasks.putIfAbsent(topicName, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        counter.incrementAndGet();
+        LOG.trace("Task for topic '{}' dropped in Dolphin Platform context {}", topicName, dolphinSessionId);
+        task.future.cancel(false);
+    }
+
+    /**
+     * Returns the number of dropped tasks per event bus topic. Dropped tasks that were not created by the event bus
+     * are counted for an empty topic name.
+     *
+     * @return the number of dropped tasks per topic
+     */
+    public Map<String, Long> getDroppedTaskCounts() {
+        final Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : droppedTasks.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    public int getPendingTaskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Returns {@code true} if the queue overflowed while using the {@link TaskQueueOverflowPolicy#DISCONNECT} policy.
+     *
+     * @return {@code true} if the context of the queue must be disconnected
+     */
+    public boolean isOverflowed() {
+        return overflowed.get();
     }
 
     public void interrupt() {
@@ -117,11 +243,14 @@ public class DolphinContextTaskQueue {
         final long endTime = startTime + maxExecutionTimeUnit.toMillis(maxExecutionTime);
 
         while (!communicationManager.hasResponseCommands()) {
+            if (overflowed.get()) {
+                break;
+            }
             if (interrupted.get()) {
                 interrupted.set(false);
                 break;
             }
-            final Runnable task = tasks.poll();
+            final QueuedTask<?> task = poll();
             if (task == null) {
                 try {
                     taskLock.lock();
@@ -161,4 +290,51 @@ public class DolphinContextTaskQueue {
         final long runTime = System.currentTimeMillis() - startTime;
         LOG.trace("Task executor for Dolphin Platform session {} ended after {} seconds with {} task still open", dolphinSessionId, maxExecutionTimeUnit.toSeconds(runTime), tasks.size());
     }
+
+    private QueuedTask<?> poll() {
+        taskLock.lock();
+        try {
+            final QueuedTask<?> task = tasks.poll();
+            if (task != null && task.isEventTask()) {
+                pendingEventTasks--;
+            }
+            return task;
+        } finally {
+            taskLock.unlock();
+        }
+    }
+
+    private static class QueuedTask<T> implements Runnable {
+
+        private final Callable<T> task;
+
+        private final String topicName;
+
+        private final Object overflowKey;
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private QueuedTask(final Callable<T> task, final String topicName, final Object overflowKey) {
+            this.task = task;
+            this.topicName = topicName;
+            this.overflowKey = overflowKey;
+        }
+
+        private boolean isEventTask() {
+            return topicName != null;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                final T result = task.call();
+                future.complete(result);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * This exception is thrown if a new {@link DolphinContext} can not be registered since the maximum number of
+ * contexts on the server node is reached
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class MaxContextCountReachedException extends DolphinContextException {
+
+    private static final long serialVersionUID = -4125373906410936587L;
+
+    public MaxContextCountReachedException(String message) {
+        super(message);
+    }
+}
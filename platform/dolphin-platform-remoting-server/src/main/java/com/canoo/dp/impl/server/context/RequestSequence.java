@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Orders the pipelined requests of a client. A client that sends several requests without waiting for the
+ * responses numbers the requests. Based on this sequence number a request is only handled once all previous requests
+ * of the client were handled. A request with the sequence number 1 starts a new pipeline.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class RequestSequence {
+
+    private long lastFinishedSequenceNumber = 0;
+
+    /**
+     * Blocks until all requests before the request with the given sequence number were handled.
+     * @param sequenceNumber the sequence number of the request
+     * @param timeoutMillis the maximum time to wait
+     * @return false if the timeout elapsed before all previous requests were handled
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized boolean awaitTurn(final long sequenceNumber, final long timeoutMillis) throws InterruptedException {
+        if (sequenceNumber <= 1) {
+            lastFinishedSequenceNumber = 0;
+            return true;
+        }
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (lastFinishedSequenceNumber < sequenceNumber - 1) {
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the request with the given sequence number as handled
+     * @param sequenceNumber the sequence number of the request
+     */
+    public synchronized void finished(final long sequenceNumber) {
+        if (sequenceNumber > lastFinishedSequenceNumber) {
+            lastFinishedSequenceNumber = sequenceNumber;
+        }
+        notifyAll();
+    }
+
+    public synchronized long getLastFinishedSequenceNumber() {
+        return lastFinishedSequenceNumber;
+    }
+}
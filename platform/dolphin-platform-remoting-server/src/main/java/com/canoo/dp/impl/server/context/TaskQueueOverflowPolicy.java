@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Defines how a {@link DolphinContextTaskQueue} behaves if an event bus task is added while the queue already
+ * contains the maximum number of event bus tasks.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public enum TaskQueueOverflowPolicy {
+
+    /**
+     * The oldest event bus task in the queue will be dropped.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The oldest task in the queue that was added for the same listener (see
+     * {@link DolphinContextTaskQueue#addTask(java.util.concurrent.Callable, String, Object)}) will be dropped.
+     * If no such task exists the oldest event bus task in the queue will be dropped.
+     */
+    CONFLATE,
+
+    /**
+     * All tasks will be dropped and the Dolphin Platform context will be destroyed by its next request.
+     */
+    DISCONNECT
+}
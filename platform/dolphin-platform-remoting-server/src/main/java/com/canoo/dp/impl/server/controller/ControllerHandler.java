@@ -31,6 +31,7 @@ import com.canoo.platform.remoting.server.DolphinModel;
 import com.canoo.platform.remoting.server.Param;
 import com.canoo.platform.remoting.server.ParentController;
 import com.canoo.platform.remoting.server.PostChildCreated;
+import com.canoo.platform.remoting.server.PostRestore;
 import com.canoo.platform.remoting.server.PreChildDestroyed;
 import org.apiguardian.api.API;
 import org.slf4j.Logger;
@@ -42,6 +43,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,10 +60,14 @@ public class ControllerHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(ControllerHandler.class);
 
-    private final Map<String, Object> controllers = new HashMap<>();
+    private final Map<String, Object> controllers = new LinkedHashMap<>();
 
     private final Map<String, Class> controllerClassMapping = new HashMap<>();
 
+    private final Map<String, String> controllerNameMapping = new HashMap<>();
+
+    private final Map<String, String> controllerParentMapping = new HashMap<>();
+
     private final Map<String, Subscription> mBeanSubscriptions = new HashMap<>();
 
     private final Map<String, Object> models = new HashMap<>();
@@ -96,6 +102,28 @@ public class ControllerHandler {
     }
 
     public String createController(final String name, final String parentControllerId) {
+        final String id = UUID.randomUUID().toString();
+        createController(id, name, parentControllerId, null, false);
+        return id;
+    }
+
+    /**
+     * Creates a controller for a passivated context that is restored. The controller will get the given id and the
+     * given (already restored) model instead of a new model. Since the restored model already contains the state of
+     * the user the post construct methods of the controller will not be called. Instead all methods that are
+     * annotated with {@link PostRestore} will be called.
+     *
+     * @param id the id of the controller
+     * @param name the name of the controller
+     * @param parentControllerId the id of the parent controller or null
+     * @param model the restored model of the controller or null
+     */
+    public void restoreController(final String id, final String name, final String parentControllerId, final Object model) {
+        Assert.requireNonBlank(id, "id");
+        createController(id, name, parentControllerId, model, true);
+    }
+
+    private void createController(final String id, final String name, final String parentControllerId, final Object restoredModel, final boolean restore) {
         Assert.requireNonBlank(name, "name");
         final Class<?> controllerClass = controllerRepository.getControllerClassForName(name);
 
@@ -103,18 +131,27 @@ public class ControllerHandler {
             throw new ControllerCreationException("Can not find controller class for name " + name);
         }
 
-        final String id = UUID.randomUUID().toString();
-        final Object instance = beanFactory.createDependentInstance(controllerClass, new PostConstructInterceptor() {
+        final PostConstructInterceptor interceptor = new PostConstructInterceptor() {
             @Override
             public void intercept(Object controller) {
-                attachModel(id, controller);
+                attachModel(id, controller, restoredModel);
                 if(parentControllerId != null) {
                     attachParent(id, controller, parentControllerId);
                 }
             }
-        });
+        };
+        final Object instance;
+        if(restore) {
+            instance = beanFactory.restoreDependentInstance(controllerClass, interceptor);
+        } else {
+            instance = beanFactory.createDependentInstance(controllerClass, interceptor);
+        }
         controllers.put(id, instance);
         controllerClassMapping.put(id, controllerClass);
+        controllerNameMapping.put(id, name);
+        if(parentControllerId != null) {
+            controllerParentMapping.put(id, parentControllerId);
+        }
 
         mBeanSubscriptions.put(id, mBeanRegistry.registerController(controllerClass, id, new ModelProvider() {
             @Override
@@ -129,9 +166,11 @@ public class ControllerHandler {
             firePostChildCreated(parentController, instance);
         }
 
-        LOG.trace("Created Controller of type %s and id %s for name %s", controllerClass.getName(), id, name);
+        if(restore) {
+            firePostRestore(instance);
+        }
 
-        return id;
+        LOG.trace("Created Controller of type %s and id %s for name %s", controllerClass.getName(), id, name);
     }
 
     public void destroyController(final String id) {
@@ -155,6 +194,8 @@ public class ControllerHandler {
         }
 
         final Class controllerClass = controllerClassMapping.remove(id);
+        controllerNameMapping.remove(id);
+        controllerParentMapping.remove(id);
         beanFactory.destroyDependentInstance(controller, controllerClass);
 
         final Object model = models.remove(id);
@@ -171,7 +212,10 @@ public class ControllerHandler {
     public void destroyAllControllers() {
         List<String> currentControllerIds = new ArrayList<>(getAllControllerIds());
         for(String id : currentControllerIds) {
-            destroyController(id);
+            //child controllers are already destroyed together with their parent
+            if(controllers.containsKey(id)) {
+                destroyController(id);
+            }
         }
     }
 
@@ -190,6 +234,16 @@ public class ControllerHandler {
         }
     }
 
+    private void firePostRestore(final Object controller) {
+        final List<Method> allMethods = ReflectionHelper.getInheritedDeclaredMethods(controller.getClass());
+
+        for(Method method : allMethods) {
+            if(method.isAnnotationPresent(PostRestore.class)) {
+                ReflectionHelper.invokePrivileged(method, controller);
+            }
+        }
+    }
+
     private void firePreChildDestroyed(final Object parentController, final Object childController) {
         final List<Method> allMethods = ReflectionHelper.getInheritedDeclaredMethods(parentController.getClass());
 
@@ -202,7 +256,7 @@ public class ControllerHandler {
         }
     }
 
-    private void attachModel(final String controllerId, final Object controller) {
+    private void attachModel(final String controllerId, final Object controller, final Object restoredModel) {
         Assert.requireNonNull(controllerId, "controllerId");
         Assert.requireNonNull(controller, "controller");
 
@@ -220,7 +274,7 @@ public class ControllerHandler {
         }
 
         if (modelField != null) {
-            Object model = beanBuilder.createRootModel(modelField.getType());
+            final Object model = restoredModel != null ? restoredModel : beanBuilder.createRootModel(modelField.getType());
             ReflectionHelper.setPrivileged(modelField, controller, model);
             models.put(controllerId, model);
         }
@@ -337,6 +391,14 @@ public class ControllerHandler {
         return Collections.unmodifiableSet(controllers.keySet());
     }
 
+    public String getControllerName(final String id) {
+        return controllerNameMapping.get(id);
+    }
+
+    public String getParentControllerId(final String id) {
+        return controllerParentMapping.get(id);
+    }
+
     private <T> Method getActionMethod(Class<T> controllerClass, String actionName) {
         Assert.requireNonNull(controllerClass, "controllerClass");
         Assert.requireNonNull(actionName, "actionName");
@@ -22,6 +22,7 @@ import com.canoo.dp.impl.server.context.DolphinContextProvider;
 import com.canoo.platform.core.functional.Callback;
 import com.canoo.platform.core.functional.Subscription;
 import com.canoo.platform.remoting.server.event.ClientSessionEventFilter;
+import com.canoo.platform.remoting.server.event.ConflatingTopic;
 import com.canoo.platform.remoting.server.event.MessageEventContext;
 import com.canoo.platform.remoting.server.event.RemotingEventBus;
 import com.canoo.platform.server.client.ClientSession;
@@ -37,9 +38,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -120,7 +123,7 @@ public abstract class AbstractEventBus implements RemotingEventBus {
             listeners = new CopyOnWriteArrayList<>();
             topicToListenerMap.put(topic, listeners);
         }
-        final ListenerWithFilter listenerWithFilter = new ListenerWithFilter(listener, filter);
+        final ListenerWithFilter listenerWithFilter = new ListenerWithFilter(listener, filter, createConflator(topic));
         listeners.add(listenerWithFilter);
         listenerToSessionMap.put(listener, subscriptionSessionId);
         final Subscription subscription = new Subscription() {
@@ -160,24 +163,91 @@ public abstract class AbstractEventBus implements RemotingEventBus {
                     // since the event was called from the same session
                     LOG.trace("Event listener for topic {} was already called in Dolphin Platform context {}", topic.getName(), sessionId);
                 } else {
-                    LOG.trace("Event listener for topic {} must be called later in Dolphin Platform context {}", topic.getName(), sessionId);
-                    contextProvider.getContextById(sessionId).runLater(new Runnable() {
-
-                        @Override
-                        public void run() {
-                            LOG.trace("Calling event listener for topic {} in Dolphin Platform context {}", topic.getName(), sessionId);
-                            final Predicate<MessageEventContext<T>> sessionFilter = ((ListenerWithFilter<T>)listenerAndFilter).getFilter();
-                            final MessageListener<T> listener = (MessageListener<T>) listenerAndFilter.getListener();
-                            if (sessionFilter == null || sessionFilter.test(event.getMessageEventContext())) {
-                                listener.onMessage(event);
-                            }
+                    final EventConflator<T> conflator = ((ListenerWithFilter<T>) listenerAndFilter).getConflator();
+                    if (conflator == null) {
+                        LOG.trace("Event listener for topic {} must be called later in Dolphin Platform context {}", topic.getName(), sessionId);
+                        callLater(sessionId, (ListenerWithFilter<T>) listenerAndFilter, event);
+                    } else if (!accepts((ListenerWithFilter<T>) listenerAndFilter, event)) {
+                        // Only events that pass the filter may replace a pending event of the listener
+                        LOG.trace("Event for topic {} does not match the filter of the event listener in Dolphin Platform context {}", topic.getName(), sessionId);
+                    } else {
+                        final Object conflationKey = conflator.getKey(event);
+                        if (conflator.offer(conflationKey, event)) {
+                            LOG.trace("Event listener for topic {} must be called later in Dolphin Platform context {}", topic.getName(), sessionId);
+                            callLaterConflated(sessionId, (ListenerWithFilter<T>) listenerAndFilter, conflator, conflationKey, topic.getName());
+                        } else {
+                            LOG.trace("Event for topic {} replaced pending event in Dolphin Platform context {}", topic.getName(), sessionId);
                         }
-                    });
+                    }
                 }
             }
         }
     }
 
+    private <T extends Serializable> void callLater(final String sessionId, final ListenerWithFilter<T> listenerAndFilter, final DolphinEvent<T> event) {
+        final String topicName = event.getMessageEventContext().getTopic().getName();
+        final DolphinContext context = contextProvider.getContextById(sessionId);
+        if (context == null) {
+            LOG.trace("Dolphin Platform context {} is not active, event for topic {} will not be delivered", sessionId, topicName);
+            return;
+        }
+        context.runLaterForEvent(topicName, listenerAndFilter, new Runnable() {
+
+            @Override
+            public void run() {
+                callListener(sessionId, listenerAndFilter, event);
+            }
+        });
+    }
+
+    private <T extends Serializable> void callLaterConflated(final String sessionId, final ListenerWithFilter<T> listenerAndFilter, final EventConflator<T> conflator, final Object conflationKey, final String topicName) {
+        final DolphinContext context = contextProvider.getContextById(sessionId);
+        if (context == null) {
+            LOG.trace("Dolphin Platform context {} is not active, event for topic {} will not be delivered", sessionId, topicName);
+            conflator.poll(conflationKey);
+            return;
+        }
+        final CompletableFuture<Void> future = context.runLaterForEvent(topicName, listenerAndFilter, new Runnable() {
+
+            @Override
+            public void run() {
+                final DolphinEvent<T> event = conflator.poll(conflationKey);
+                if (event != null) {
+                    callListener(sessionId, listenerAndFilter, event);
+                }
+            }
+        });
+        future.whenComplete(new BiConsumer<Void, Throwable>() {
+            @Override
+            public void accept(final Void result, final Throwable throwable) {
+                if (future.isCancelled()) {
+                    // The task was dropped by the task queue. Without removing the pending event no new task
+                    // would be scheduled for the conflation key.
+                    conflator.poll(conflationKey);
+                }
+            }
+        });
+    }
+
+    private <T extends Serializable> void callListener(final String sessionId, final ListenerWithFilter<T> listenerAndFilter, final DolphinEvent<T> event) {
+        LOG.trace("Calling event listener for topic {} in Dolphin Platform context {}", event.getMessageEventContext().getTopic().getName(), sessionId);
+        if (accepts(listenerAndFilter, event)) {
+            listenerAndFilter.getListener().onMessage(event);
+        }
+    }
+
+    private <T extends Serializable> boolean accepts(final ListenerWithFilter<T> listenerAndFilter, final DolphinEvent<T> event) {
+        final Predicate<MessageEventContext<T>> sessionFilter = listenerAndFilter.getFilter();
+        return sessionFilter == null || sessionFilter.test(event.getMessageEventContext());
+    }
+
+    private <T extends Serializable> EventConflator<T> createConflator(final Topic<T> topic) {
+        if (topic instanceof ConflatingTopic) {
+            return new EventConflator<>(((ConflatingTopic<T>) topic).getKeyFunction());
+        }
+        return null;
+    }
+
     private <T extends Serializable> boolean sendInSameClientSession(final DolphinEvent<T> event, final MessageListener<T> listener) {
         Assert.requireNonNull(event, "event");
 
@@ -236,6 +306,21 @@ public abstract class AbstractEventBus implements RemotingEventBus {
         }
     }
 
+    /**
+     * Removes all subscriptions of the given context. Must be called when a context is destroyed, passivated or
+     * evicted since the listeners of the context can not be called anymore. A restored context subscribes again.
+     * @param contextId the id of the context
+     */
+    public void onContextDestroyed(final String contextId) {
+        onSessionEnds(contextId);
+    }
+
+    /**
+     * Releases all resources of the event bus. Called when the servlet context is destroyed.
+     */
+    public void shutdown() {
+    }
+
     private void onSessionEnds(final String dolphinSessionId) {
         Assert.requireNonBlank(dolphinSessionId, "dolphinSessionId");
         final List<Subscription> subscriptions = sessionStore.get(dolphinSessionId);
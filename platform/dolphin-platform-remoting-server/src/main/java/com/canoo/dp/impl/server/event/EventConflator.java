@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Holds the pending events of a listener that was subscribed to a
+ * {@link com.canoo.platform.remoting.server.event.ConflatingTopic}. For each conflation key only the newest
+ * event is stored. A delivery task only needs to be scheduled for the first event of a key, all following
+ * events replace the pending one until the task has taken it by calling {@link #poll(Object)}.
+ *
+ * @param <T> type of the event data
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class EventConflator<T extends Serializable> {
+
+    private static final Object NO_KEY = new Object();
+
+    private final Function<T, ?> keyFunction;
+
+    private final Map<Object, DolphinEvent<T>> pendingEvents = new ConcurrentHashMap<>();
+
+    public EventConflator(final Function<T, ?> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    public Object getKey(final DolphinEvent<T> event) {
+        Assert.requireNonNull(event, "event");
+        if (keyFunction == null || event.getData() == null) {
+            return NO_KEY;
+        }
+        final Object key = keyFunction.apply(event.getData());
+        if (key == null) {
+            return NO_KEY;
+        }
+        return key;
+    }
+
+    /**
+     * Stores the given event as the newest pending event for the key
+     *
+     * @param key   the conflation key
+     * @param event the event
+     * @return {@code true} if no event was pending for the key and therefore a delivery task must be scheduled
+     */
+    public boolean offer(final Object key, final DolphinEvent<T> event) {
+        Assert.requireNonNull(key, "key");
+        Assert.requireNonNull(event, "event");
+        return pendingEvents.put(key, event) == null;
+    }
+
+    /**
+     * Removes and returns the newest pending event for the key
+     *
+     * @param key the conflation key
+     * @return the pending event or {@code null} if no event is pending
+     */
+    public DolphinEvent<T> poll(final Object key) {
+        Assert.requireNonNull(key, "key");
+        return pendingEvents.remove(key);
+    }
+
+    public int getPendingCount() {
+        return pendingEvents.size();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.platform.remoting.server.event.MessageEventContext;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Defines the routing keys of events. See {@link RoutableEventFilter}.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class EventRoutingKeys {
+
+    private static final String CLIENT_SESSION_PREFIX = "clientSession:";
+
+    private static final String HTTP_SESSION_PREFIX = "httpSession:";
+
+    private EventRoutingKeys() {
+    }
+
+    public static String forClientSession(final String clientSessionId) {
+        return CLIENT_SESSION_PREFIX + Assert.requireNonNull(clientSessionId, "clientSessionId");
+    }
+
+    public static String forHttpSession(final String httpSessionId) {
+        return HTTP_SESSION_PREFIX + Assert.requireNonNull(httpSessionId, "httpSessionId");
+    }
+
+    /**
+     * Returns the routing keys of an event based on the sender information in the metadata of the event
+     * @param context the context of the event
+     * @return the routing keys
+     */
+    public static List<String> forEvent(final MessageEventContext<?> context) {
+        Assert.requireNonNull(context, "context");
+        final List<String> keys = new ArrayList<>();
+        final Map<String, Serializable> metadata = context.getMetadata();
+        if (metadata == null) {
+            return keys;
+        }
+        final Object clientSessionIdValue = metadata.get(EventConstants.CLIENT_SESSION_PARAM);
+        if (clientSessionIdValue != null && EventConstants.TYPE_PLATFORM.equals(metadata.get(EventConstants.TYPE_PARAM))) {
+            keys.add(forClientSession(clientSessionIdValue.toString()));
+        }
+        final Object httpSessionIdValue = metadata.get(EventConstants.HTTP_SESSION_PARAM);
+        if (httpSessionIdValue != null) {
+            keys.add(forHttpSession(httpSessionIdValue.toString()));
+        }
+        return keys;
+    }
+}
@@ -17,9 +17,16 @@ public class ListenerWithFilter<T extends Serializable> {
 
     private final Predicate<MessageEventContext<T>> filter;
 
-    public ListenerWithFilter(final MessageListener<T> listener, final Predicate<MessageEventContext<T>> filter) {
+    private final EventConflator<T> conflator;
+
+    public ListenerWithFilter(final MessageListener<T> listener, final Predicate<MessageEventContext<T>> filter, final EventConflator<T> conflator) {
         this.listener = Assert.requireNonNull(listener, "listener");
         this.filter = filter;
+        this.conflator = conflator;
+    }
+
+    public ListenerWithFilter(final MessageListener<T> listener, final Predicate<MessageEventContext<T>> filter) {
+        this(listener, filter, null);
     }
 
     public ListenerWithFilter(MessageListener<T> listener) {
@@ -33,4 +40,8 @@ public class ListenerWithFilter<T extends Serializable> {
     public Predicate<MessageEventContext<T>> getFilter() {
         return filter;
     }
+
+    public EventConflator<T> getConflator() {
+        return conflator;
+    }
 }
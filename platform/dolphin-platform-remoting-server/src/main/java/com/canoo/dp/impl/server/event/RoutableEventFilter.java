@@ -0,0 +1,39 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.event;
+
+import org.apiguardian.api.API;
+
+import java.util.Set;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * An event filter that only accepts events that contain at least one of a known set of routing keys (see
+ * {@link EventRoutingKeys}). A distributed event bus can use the routing keys to send events only to the nodes that
+ * have a matching subscription.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface RoutableEventFilter {
+
+    /**
+     * Returns the routing keys of this filter. The filter must never accept an event that does not contain one of
+     * the keys.
+     * @return the routing keys
+     */
+    Set<String> getRoutingKeys();
+
+}
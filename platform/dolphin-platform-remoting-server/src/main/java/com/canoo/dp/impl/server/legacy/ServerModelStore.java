@@ -116,6 +116,21 @@ public class ServerModelStore extends ModelStore<ServerAttribute, ServerPresenta
         return id;
     }
 
+    /**
+     * Returns the counter that is used to create unique presentation model ids within this store
+     */
+    public long getPmInstanceCount() {
+        return pmInstanceCount;
+    }
+
+    /**
+     * Sets the counter that is used to create unique presentation model ids within this store. This is needed if the
+     * content of the store is restored.
+     */
+    public void setPmInstanceCount(final long pmInstanceCount) {
+        this.pmInstanceCount = pmInstanceCount;
+    }
+
     /**
      * Convenience method to let Dolphin removePresentationModel a presentation model directly on the server and notify the client.
      */
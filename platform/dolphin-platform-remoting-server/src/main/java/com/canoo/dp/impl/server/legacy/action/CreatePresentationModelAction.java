@@ -16,6 +16,7 @@
 package com.canoo.dp.impl.server.legacy.action;
 
 import com.canoo.dp.impl.remoting.legacy.RemotingConstants;
+import com.canoo.dp.impl.remoting.legacy.communication.AttributeDescriptor;
 import com.canoo.dp.impl.remoting.legacy.communication.CreatePresentationModelCommand;
 import com.canoo.dp.impl.server.legacy.ServerAttribute;
 import com.canoo.dp.impl.server.legacy.ServerModelStore;
@@ -28,7 +29,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
@@ -58,9 +58,9 @@ public class CreatePresentationModelAction extends DolphinServerAction {
         }
 
         List<ServerAttribute> attributes = new LinkedList();
-        for (Map<String, Object> attr : command.getAttributes()) {
-            ServerAttribute attribute = new ServerAttribute((String) attr.get("propertyName"), attr.get("value"), (String) attr.get("qualifier"));
-            attribute.setId((String) attr.get("id"));
+        for (AttributeDescriptor attr : command.getAttributeDescriptors()) {
+            ServerAttribute attribute = new ServerAttribute(attr.getPropertyName(), attr.getValue(), attr.getQualifier());
+            attribute.setId(attr.getId());
             attributes.add(attribute);
         }
 
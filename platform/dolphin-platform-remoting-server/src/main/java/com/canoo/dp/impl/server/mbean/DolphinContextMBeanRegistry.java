@@ -16,6 +16,7 @@
 package com.canoo.dp.impl.server.mbean;
 
 import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.server.context.DolphinContextTaskQueue;
 import com.canoo.dp.impl.server.gc.GarbageCollector;
 import com.canoo.dp.impl.server.mbean.beans.*;
 import com.canoo.platform.core.functional.Subscription;
@@ -43,12 +44,15 @@ public class DolphinContextMBeanRegistry {
     /**
      * Register a new dolphin session as a MBean
      * @param session the session
+     * @param garbageCollector the garbage collector of the session
+     * @param taskQueue the task queue of the session
      * @return the subscription for deregistration
      */
-    public Subscription registerDolphinContext(ClientSession session, GarbageCollector garbageCollector) {
+    public Subscription registerDolphinContext(ClientSession session, GarbageCollector garbageCollector, DolphinContextTaskQueue taskQueue) {
         Assert.requireNonNull(session, "session");
         Assert.requireNonNull(garbageCollector, "garbageCollector");
-        DolphinSessionInfoMBean mBean = new DolphinSessionInfo(session, garbageCollector);
+        Assert.requireNonNull(taskQueue, "taskQueue");
+        DolphinSessionInfoMBean mBean = new DolphinSessionInfo(session, garbageCollector, taskQueue);
         return MBeanRegistry.getInstance().register(mBean, new MBeanDescription("com.canoo.dolphin", "DolphinSession", "session"));
     }
 
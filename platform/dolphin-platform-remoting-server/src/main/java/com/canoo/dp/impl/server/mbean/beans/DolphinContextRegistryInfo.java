@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.mbean.beans;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.server.context.DolphinContextRegistry;
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ *  MBean implementation for the {@link DolphinContextRegistryInfoMBean} MBean interface
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class DolphinContextRegistryInfo implements DolphinContextRegistryInfoMBean {
+
+    private final DolphinContextRegistry registry;
+
+    public DolphinContextRegistryInfo(final DolphinContextRegistry registry) {
+        this.registry = Assert.requireNonNull(registry, "registry");
+    }
+
+    @Override
+    public int getContextCount() {
+        return registry.getContextCount();
+    }
+
+    @Override
+    public int getMaxContextCount() {
+        return registry.getMaxContextCount();
+    }
+
+    @Override
+    public long getIdleTimeout() {
+        return registry.getIdleTimeout();
+    }
+
+    @Override
+    public long getRegisteredContextCount() {
+        return registry.getRegisteredContextCount();
+    }
+
+    @Override
+    public long getRejectedContextCount() {
+        return registry.getRejectedContextCount();
+    }
+
+    @Override
+    public long getEvictedContextCount() {
+        return registry.getEvictedContextCount();
+    }
+
+    @Override
+    public boolean isPassivationActive() {
+        return registry.isPassivationActive();
+    }
+
+    @Override
+    public int getPassivatedContextCount() {
+        return registry.getPassivatedContextCount();
+    }
+
+    @Override
+    public long getPassivationCount() {
+        return registry.getPassivationCount();
+    }
+
+    @Override
+    public long getRestoredContextCount() {
+        return registry.getRestoredContextCount();
+    }
+
+    @Override
+    public boolean isReplicationActive() {
+        return registry.isReplicationActive();
+    }
+
+    @Override
+    public long getReplicationInterval() {
+        return registry.getReplicationInterval();
+    }
+
+    @Override
+    public long getReplicatedDeltaCount() {
+        return registry.getReplicatedDeltaCount();
+    }
+
+    @Override
+    public long getRecoveredContextCount() {
+        return registry.getRecoveredContextCount();
+    }
+}
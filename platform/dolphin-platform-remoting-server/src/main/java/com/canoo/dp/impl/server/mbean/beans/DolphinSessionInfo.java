@@ -16,11 +16,13 @@
 package com.canoo.dp.impl.server.mbean.beans;
 
 import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.server.context.DolphinContextTaskQueue;
 import com.canoo.dp.impl.server.gc.GarbageCollector;
 import com.canoo.platform.server.client.ClientSession;
 import org.apiguardian.api.API;
 
 import java.lang.ref.WeakReference;
+import java.util.Map;
 import java.util.Set;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -35,9 +37,12 @@ public class DolphinSessionInfo implements DolphinSessionInfoMBean {
 
     private final WeakReference<GarbageCollector> garbageCollectionRef;
 
-    public DolphinSessionInfo(ClientSession dolphinSession, GarbageCollector garbageCollector) {
+    private final WeakReference<DolphinContextTaskQueue> taskQueueRef;
+
+    public DolphinSessionInfo(ClientSession dolphinSession, GarbageCollector garbageCollector, DolphinContextTaskQueue taskQueue) {
         this.dolphinSessionRef = new WeakReference<>(dolphinSession);
         this.garbageCollectionRef = new WeakReference<>(garbageCollector);
+        this.taskQueueRef = new WeakReference<>(taskQueue);
     }
 
     private ClientSession getSession() {
@@ -52,6 +57,12 @@ public class DolphinSessionInfo implements DolphinSessionInfoMBean {
         return garbageCollector;
     }
 
+    private DolphinContextTaskQueue getTaskQueue() {
+        DolphinContextTaskQueue taskQueue = taskQueueRef.get();
+        Assert.requireNonNull(taskQueue, "taskQueue");
+        return taskQueue;
+    }
+
     @Override
     public String getDolphinSessionId() {
         return getSession().getId();
@@ -81,4 +92,14 @@ public class DolphinSessionInfo implements DolphinSessionInfoMBean {
     public int getGarbageCollectionCurrentManagedBeansCount() {
         return getGarbageCollection().getManagedInstancesCount();
     }
+
+    @Override
+    public int getPendingTaskCount() {
+        return getTaskQueue().getPendingTaskCount();
+    }
+
+    @Override
+    public Map<String, Long> getDroppedTaskCountPerTopic() {
+        return getTaskQueue().getDroppedTaskCounts();
+    }
 }
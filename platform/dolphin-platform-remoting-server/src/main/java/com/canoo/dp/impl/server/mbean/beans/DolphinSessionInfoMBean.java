@@ -17,6 +17,7 @@ package com.canoo.dp.impl.server.mbean.beans;
 
 import org.apiguardian.api.API;
 
+import java.util.Map;
 import java.util.Set;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -38,4 +39,8 @@ public interface DolphinSessionInfoMBean {
     long getGarbageCollectionRemovedBeansTotal();
 
     int getGarbageCollectionCurrentManagedBeansCount();
+
+    int getPendingTaskCount();
+
+    Map<String, Long> getDroppedTaskCountPerTopic();
 }
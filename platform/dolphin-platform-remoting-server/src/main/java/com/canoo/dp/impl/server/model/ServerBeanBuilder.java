@@ -16,6 +16,7 @@
 package com.canoo.dp.impl.server.model;
 
 import com.canoo.dp.impl.remoting.BeanBuilder;
+import com.canoo.dp.impl.remoting.legacy.core.PresentationModel;
 import org.apiguardian.api.API;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -36,4 +37,14 @@ public interface ServerBeanBuilder extends BeanBuilder {
     * @return the created model instance
      */
    <T> T createRootModel(Class<T> beanClass);
+
+   /**
+    * Creates a model instance for a presentation model that already exists in the model store. This is used when a
+    * passivated context is restored. No commands will be sent to the client.
+    *
+    * @param model the presentation model of the bean
+    * @param rootBean true if the model is a root model
+    * @return the created model instance
+    */
+   Object restore(PresentationModel model, boolean rootBean);
 }
@@ -27,6 +27,8 @@ import com.canoo.dp.impl.remoting.BeanRepository;
 import com.canoo.dp.impl.remoting.ClassRepository;
 import com.canoo.dp.impl.remoting.EventDispatcher;
 import com.canoo.dp.impl.remoting.ListMapper;
+import com.canoo.dp.impl.remoting.UpdateSource;
+import com.canoo.dp.impl.remoting.info.ClassInfo;
 import com.canoo.dp.impl.remoting.info.PropertyInfo;
 import com.canoo.platform.remoting.Property;
 import com.canoo.dp.impl.platform.core.Assert;
@@ -42,9 +44,12 @@ public class ServerBeanBuilderImpl extends AbstractBeanBuilder implements Server
 
     private final GarbageCollector garbageCollector;
 
+    private final ClassRepository classRepository;
+
     public ServerBeanBuilderImpl(final ClassRepository classRepository, final BeanRepository beanRepository, final ListMapper listMapper, final PresentationModelBuilderFactory builderFactory, final EventDispatcher dispatcher, final GarbageCollector garbageCollector) {
         super(classRepository, beanRepository, listMapper, builderFactory, dispatcher);
         this.garbageCollector = Assert.requireNonNull(garbageCollector, "garbageCollector");
+        this.classRepository = classRepository;
     }
 
     public <T> T createRootModel(Class<T> beanClass) {
@@ -53,6 +58,16 @@ public class ServerBeanBuilderImpl extends AbstractBeanBuilder implements Server
         return bean;
     }
 
+    @Override
+    public Object restore(final PresentationModel model, final boolean rootBean) {
+        Assert.requireNonNull(model, "model");
+        final ClassInfo classInfo = classRepository.getClassInfo(model.getPresentationModelType());
+        Assert.requireNonNull(classInfo, "classInfo");
+        final Object bean = createInstanceForClass(classInfo, classInfo.getBeanClass(), model, UpdateSource.SELF);
+        garbageCollector.onBeanCreated(bean, rootBean);
+        return bean;
+    }
+
     @Override
     public <T> T create(Class<T> beanClass) {
         T bean = super.create(beanClass);
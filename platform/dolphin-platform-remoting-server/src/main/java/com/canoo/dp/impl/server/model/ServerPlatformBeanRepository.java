@@ -36,6 +36,18 @@ public class ServerPlatformBeanRepository {
     private final InternalAttributesBean internalAttributesBean;
 
     public ServerPlatformBeanRepository(ServerModelStore serverModelStore, BeanRepository beanRepository, EventDispatcher dispatcher, final Converters converters) {
+        this(beanRepository, dispatcher, converters, new InternalAttributesBean(beanRepository, new ServerPresentationModelBuilder(serverModelStore)));
+    }
+
+    /**
+     * Constructor that reuses an existing presentation model for the internal attributes bean. This is used when a
+     * passivated context is restored.
+     */
+    public ServerPlatformBeanRepository(BeanRepository beanRepository, EventDispatcher dispatcher, final Converters converters, final PresentationModel internalAttributesModel) {
+        this(beanRepository, dispatcher, converters, new InternalAttributesBean(beanRepository, internalAttributesModel));
+    }
+
+    private ServerPlatformBeanRepository(BeanRepository beanRepository, EventDispatcher dispatcher, final Converters converters, final InternalAttributesBean internalAttributesBean) {
         Assert.requireNonNull(dispatcher, "dispatcher");
         dispatcher.addControllerActionCallBeanAddedHandler(new DolphinEventHandler() {
             @Override
@@ -61,7 +73,7 @@ public class ServerPlatformBeanRepository {
             }
         });
 
-        internalAttributesBean = new InternalAttributesBean(beanRepository, new ServerPresentationModelBuilder(serverModelStore));
+        this.internalAttributesBean = Assert.requireNonNull(internalAttributesBean, "internalAttributesBean");
     }
 
     public ServerControllerActionCallBean getControllerActionCallBean() {
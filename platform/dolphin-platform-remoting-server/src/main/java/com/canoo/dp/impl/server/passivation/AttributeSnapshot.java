@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Snapshot of a server attribute that is part of a {@link PresentationModelSnapshot}
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class AttributeSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 3417690311384862147L;
+
+    private final String id;
+
+    private final String propertyName;
+
+    private final Object value;
+
+    private final String qualifier;
+
+    public AttributeSnapshot(final String id, final String propertyName, final Object value, final String qualifier) {
+        this.id = Assert.requireNonBlank(id, "id");
+        this.propertyName = Assert.requireNonBlank(propertyName, "propertyName");
+        this.value = value;
+        this.qualifier = qualifier;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public String getQualifier() {
+        return qualifier;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Snapshot of a controller of a passivated context. Only the information that is needed to create the controller
+ * again is stored. The internal state of the controller instance is not part of the snapshot.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class ControllerSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 7361926574410873551L;
+
+    private final String id;
+
+    private final String name;
+
+    private final String parentControllerId;
+
+    private final String modelId;
+
+    public ControllerSnapshot(final String id, final String name, final String parentControllerId, final String modelId) {
+        this.id = Assert.requireNonBlank(id, "id");
+        this.name = Assert.requireNonBlank(name, "name");
+        this.parentControllerId = parentControllerId;
+        this.modelId = modelId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getParentControllerId() {
+        return parentControllerId;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+}
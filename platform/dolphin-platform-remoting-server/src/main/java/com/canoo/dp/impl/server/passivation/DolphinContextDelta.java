@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.dp.impl.remoting.PlatformRemotingConstants;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Incremental change of a {@link com.canoo.dp.impl.server.context.DolphinContext}. A delta contains the snapshots
+ * of all presentation models that were added or changed since the last delta and the ids of all removed
+ * presentation models. Since the controller hierarchy is small it is always part of a delta. A full delta contains
+ * all presentation models of the context and replaces any state that was replicated before.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class DolphinContextDelta implements Serializable {
+
+    private static final long serialVersionUID = 2834097012867533617L;
+
+    private final String contextId;
+
+    private final boolean full;
+
+    private final long pmInstanceCount;
+
+    private final ArrayList<PresentationModelSnapshot> changedModels;
+
+    private final ArrayList<String> removedModelIds;
+
+    private final ArrayList<ControllerSnapshot> controllers;
+
+    private final String ownerId;
+
+    public DolphinContextDelta(final String contextId, final boolean full, final long pmInstanceCount, final List<PresentationModelSnapshot> changedModels, final List<String> removedModelIds, final List<ControllerSnapshot> controllers) {
+        this(contextId, null, full, pmInstanceCount, changedModels, removedModelIds, controllers);
+    }
+
+    public DolphinContextDelta(final String contextId, final String ownerId, final boolean full, final long pmInstanceCount, final List<PresentationModelSnapshot> changedModels, final List<String> removedModelIds, final List<ControllerSnapshot> controllers) {
+        this.contextId = Assert.requireNonBlank(contextId, "contextId");
+        this.ownerId = ownerId;
+        this.full = full;
+        this.pmInstanceCount = pmInstanceCount;
+        this.changedModels = new ArrayList<>(Assert.requireNonNull(changedModels, "changedModels"));
+        this.removedModelIds = new ArrayList<>(Assert.requireNonNull(removedModelIds, "removedModelIds"));
+        this.controllers = new ArrayList<>(Assert.requireNonNull(controllers, "controllers"));
+    }
+
+    public String getContextId() {
+        return contextId;
+    }
+
+    /**
+     * Returns the id of the HTTP session that owned the client session of the context when the delta was created.
+     * Since the id of a HTTP session can change it is part of each delta.
+     * @return the id of the HTTP session or null if the owner is unknown
+     */
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public long getPmInstanceCount() {
+        return pmInstanceCount;
+    }
+
+    public List<PresentationModelSnapshot> getChangedModels() {
+        return Collections.unmodifiableList(changedModels);
+    }
+
+    public List<String> getRemovedModelIds() {
+        return Collections.unmodifiableList(removedModelIds);
+    }
+
+    public List<ControllerSnapshot> getControllers() {
+        return Collections.unmodifiableList(controllers);
+    }
+
+    /**
+     * Applies this delta to the given snapshot
+     * @param snapshot the snapshot that contains the state before this delta, can be null if this is a full delta
+     * @return a new snapshot that contains the state after this delta
+     */
+    public DolphinContextSnapshot applyTo(final DolphinContextSnapshot snapshot) {
+        final Map<String, PresentationModelSnapshot> models = new LinkedHashMap<>();
+        if (!full) {
+            if (snapshot == null) {
+                throw new IllegalStateException("Delta for context " + contextId + " can not be applied without a snapshot");
+            }
+            if (!contextId.equals(snapshot.getContextId())) {
+                throw new IllegalArgumentException("Delta for context " + contextId + " can not be applied to snapshot of context " + snapshot.getContextId());
+            }
+            for (final PresentationModelSnapshot model : snapshot.getPresentationModels()) {
+                models.put(model.getId(), model);
+            }
+        }
+        final Set<String> removed = new HashSet<>(removedModelIds);
+        for (final String modelId : removed) {
+            models.remove(modelId);
+        }
+        for (final PresentationModelSnapshot model : changedModels) {
+            models.put(model.getId(), model);
+        }
+
+        final List<PresentationModelSnapshot> presentationModels = new ArrayList<>(models.size());
+        final List<PresentationModelSnapshot> beanModels = new ArrayList<>(models.size());
+        for (final PresentationModelSnapshot model : models.values()) {
+            if (PlatformRemotingConstants.DOLPHIN_BEAN.equals(model.getType())) {
+                presentationModels.add(model);
+            } else {
+                beanModels.add(model);
+            }
+        }
+        presentationModels.addAll(beanModels);
+        return new DolphinContextSnapshot(contextId, ownerId, pmInstanceCount, presentationModels, controllers);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Replicates the state of contexts to a replica (like a second server node or a local store). Deltas of the same
+ * context must be applied in the order in that they are passed to {@link #replicate(DolphinContextDelta)}. A
+ * replicator can be provided by using the Java {@link java.util.ServiceLoader}.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface DolphinContextReplicator {
+
+    /**
+     * Replicates the given delta. This method should not block until the delta is applied.
+     * @param delta the delta
+     */
+    void replicate(DolphinContextDelta delta);
+
+    /**
+     * Returns the replicated state of the context with the given id. All deltas that were passed to
+     * {@link #replicate(DolphinContextDelta)} before are part of the returned snapshot.
+     * @param contextId the id of the context
+     * @return the snapshot or null if no state is replicated for the context
+     */
+    DolphinContextSnapshot recover(String contextId);
+
+    /**
+     * Removes the replicated state of the context with the given id
+     * @param contextId the id of the context
+     */
+    void remove(String contextId);
+
+    /**
+     * Closes the replicator
+     */
+    void close();
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Snapshot of the state of a {@link com.canoo.dp.impl.server.context.DolphinContext} that is needed to restore the
+ * context after it was passivated. The snapshot contains all presentation models (with the ids that are known by the
+ * client) and the controller hierarchy.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class DolphinContextSnapshot implements Serializable {
+
+    private static final long serialVersionUID = -6474377914850271376L;
+
+    private final String contextId;
+
+    private final long pmInstanceCount;
+
+    private final ArrayList<PresentationModelSnapshot> presentationModels;
+
+    private final ArrayList<ControllerSnapshot> controllers;
+
+    private final String ownerId;
+
+    public DolphinContextSnapshot(final String contextId, final long pmInstanceCount, final List<PresentationModelSnapshot> presentationModels, final List<ControllerSnapshot> controllers) {
+        this(contextId, null, pmInstanceCount, presentationModels, controllers);
+    }
+
+    public DolphinContextSnapshot(final String contextId, final String ownerId, final long pmInstanceCount, final List<PresentationModelSnapshot> presentationModels, final List<ControllerSnapshot> controllers) {
+        this.contextId = Assert.requireNonBlank(contextId, "contextId");
+        this.ownerId = ownerId;
+        this.pmInstanceCount = pmInstanceCount;
+        this.presentationModels = new ArrayList<>(Assert.requireNonNull(presentationModels, "presentationModels"));
+        this.controllers = new ArrayList<>(Assert.requireNonNull(controllers, "controllers"));
+    }
+
+    public String getContextId() {
+        return contextId;
+    }
+
+    /**
+     * Returns the id of the HTTP session that owned the client session of the context when the snapshot was created.
+     * A replicated context must only be recovered for a request of this HTTP session.
+     * @return the id of the HTTP session or null if the owner is unknown
+     */
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public long getPmInstanceCount() {
+        return pmInstanceCount;
+    }
+
+    /**
+     * Returns the snapshots of all presentation models. Presentation models that describe a bean class are always
+     * part of the list before the presentation models of the beans.
+     * @return the presentation model snapshots
+     */
+    public List<PresentationModelSnapshot> getPresentationModels() {
+        return Collections.unmodifiableList(presentationModels);
+    }
+
+    /**
+     * Returns the snapshots of all controllers. A parent controller is always part of the list before its children.
+     * @return the controller snapshots
+     */
+    public List<ControllerSnapshot> getControllers() {
+        return Collections.unmodifiableList(controllers);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Converts a {@link DolphinContextSnapshot} to bytes and back
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class DolphinContextSnapshotSerializer {
+
+    private DolphinContextSnapshotSerializer() {
+    }
+
+    public static byte[] serialize(final DolphinContextSnapshot snapshot) {
+        Assert.requireNonNull(snapshot, "snapshot");
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (final ObjectOutputStream outputStream = new ObjectOutputStream(byteStream)) {
+            outputStream.writeObject(snapshot);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not serialize snapshot of context " + snapshot.getContextId(), e);
+        }
+        return byteStream.toByteArray();
+    }
+
+    public static DolphinContextSnapshot deserialize(final byte[] data) {
+        Assert.requireNonNull(data, "data");
+        try (final ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (DolphinContextSnapshot) inputStream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Can not deserialize context snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * A store for snapshots of passivated contexts
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface DolphinContextSnapshotStore {
+
+    /**
+     * Stores the given snapshot. A snapshot that was stored before for the same context will be replaced.
+     * @param snapshot the snapshot
+     */
+    void store(DolphinContextSnapshot snapshot);
+
+    /**
+     * Loads the snapshot of the context with the given id
+     * @param contextId the id of the context
+     * @return the snapshot or null if no snapshot is stored for the context
+     */
+    DolphinContextSnapshot load(String contextId);
+
+    /**
+     * Removes the snapshot of the context with the given id
+     * @param contextId the id of the context
+     * @return true if a snapshot was removed
+     */
+    boolean remove(String contextId);
+
+    /**
+     * Returns the number of stored snapshots
+     * @return the number of stored snapshots
+     */
+    int size();
+
+    /**
+     * Closes the store and removes all stored snapshots
+     */
+    void close();
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * A {@link DolphinContextReplicator} that applies all deltas in a background thread to snapshots in a local
+ * {@link DolphinContextSnapshotStore}. If several deltas are queued the resulting snapshot of a context is only
+ * written once to the store.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class LocalDolphinContextReplicator implements DolphinContextReplicator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalDolphinContextReplicator.class);
+
+    private final DolphinContextSnapshotStore store;
+
+    private final ExecutorService executor;
+
+    private final Map<String, DolphinContextSnapshot> pendingSnapshots = new HashMap<>();
+
+    private final AtomicInteger queuedDeltaCount = new AtomicInteger(0);
+
+    private final AtomicLong appliedDeltaCount = new AtomicLong(0);
+
+    public LocalDolphinContextReplicator(final DolphinContextSnapshotStore store) {
+        this.store = Assert.requireNonNull(store, "store");
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Dolphin Platform context replication");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public void replicate(final DolphinContextDelta delta) {
+        Assert.requireNonNull(delta, "delta");
+        queuedDeltaCount.incrementAndGet();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    apply(delta);
+                } finally {
+                    if (queuedDeltaCount.decrementAndGet() == 0) {
+                        flush();
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public DolphinContextSnapshot recover(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        try {
+            return executor.submit(new Callable<DolphinContextSnapshot>() {
+                @Override
+                public DolphinContextSnapshot call() throws Exception {
+                    flush();
+                    return store.load(contextId);
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recovering context " + contextId, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Can not recover context " + contextId, e.getCause());
+        }
+    }
+
+    @Override
+    public void remove(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                pendingSnapshots.remove(contextId);
+                store.remove(contextId);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOG.warn("Context replication did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.close();
+    }
+
+    public int getQueuedDeltaCount() {
+        return queuedDeltaCount.get();
+    }
+
+    public long getAppliedDeltaCount() {
+        return appliedDeltaCount.get();
+    }
+
+    private void apply(final DolphinContextDelta delta) {
+        final String contextId = delta.getContextId();
+        try {
+            DolphinContextSnapshot snapshot = null;
+            if (!delta.isFull()) {
+                snapshot = pendingSnapshots.get(contextId);
+                if (snapshot == null) {
+                    snapshot = store.load(contextId);
+                }
+            }
+            pendingSnapshots.put(contextId, delta.applyTo(snapshot));
+            appliedDeltaCount.incrementAndGet();
+        } catch (Exception e) {
+            LOG.error("Can not apply delta for context " + contextId + ", replicated state will be removed", e);
+            pendingSnapshots.remove(contextId);
+            store.remove(contextId);
+        }
+    }
+
+    private void flush() {
+        for (final DolphinContextSnapshot snapshot : pendingSnapshots.values()) {
+            try {
+                store.store(snapshot);
+            } catch (Exception e) {
+                LOG.error("Can not store replicated state of context " + snapshot.getContextId(), e);
+                store.remove(snapshot.getContextId());
+            }
+        }
+        pendingSnapshots.clear();
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * A {@link DolphinContextSnapshotStore} that stores snapshots in memory-mapped segment files. Snapshots are appended
+ * to the current segment. If a segment is full a new segment will be created. A segment file will be deleted once
+ * it is full and all snapshots in the segment were removed or replaced. If less than half of a full segment is used
+ * by live snapshots the segment is compacted: the live snapshots are copied to the current segment and the segment
+ * file is deleted. A snapshot that is bigger than the segment size is stored in a segment of its own. The memory
+ * mapping of a segment is released explicitly before its file is deleted.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class MappedFileSnapshotStore implements DolphinContextSnapshotStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFileSnapshotStore.class);
+
+    private static final String SEGMENT_FILE_PREFIX = "dolphin-context-";
+
+    private static final String SEGMENT_FILE_SUFFIX = ".segment";
+
+    private static final int HEADER_SIZE = 4;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final Map<String, SnapshotLocation> index = new HashMap<>();
+
+    private final List<Segment> segments = new ArrayList<>();
+
+    private Segment activeSegment;
+
+    private boolean closed = false;
+
+    private long compactionCount = 0;
+
+    public MappedFileSnapshotStore(final File directory, final int segmentSize) {
+        this.directory = Assert.requireNonNull(directory, "directory");
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be bigger than " + HEADER_SIZE);
+        }
+        this.segmentSize = segmentSize;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Can not create directory " + directory);
+        }
+    }
+
+    @Override
+    public synchronized void store(final DolphinContextSnapshot snapshot) {
+        Assert.requireNonNull(snapshot, "snapshot");
+        checkNotClosed();
+        final byte[] data = DolphinContextSnapshotSerializer.serialize(snapshot);
+        final Segment segment = getSegmentForRecord(HEADER_SIZE + data.length);
+        final int position = segment.append(data);
+        final SnapshotLocation previous = index.put(snapshot.getContextId(), new SnapshotLocation(segment, position, HEADER_SIZE + data.length));
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    @Override
+    public synchronized DolphinContextSnapshot load(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        checkNotClosed();
+        final SnapshotLocation location = index.get(contextId);
+        if (location == null) {
+            return null;
+        }
+        return DolphinContextSnapshotSerializer.deserialize(location.segment.read(location.position));
+    }
+
+    @Override
+    public synchronized boolean remove(final String contextId) {
+        Assert.requireNonNull(contextId, "contextId");
+        final SnapshotLocation location = index.remove(contextId);
+        if (location == null) {
+            return false;
+        }
+        release(location);
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of segment files that are currently used by the store
+     * @return the number of segment files
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns the number of segments that were compacted since the store was created
+     * @return the number of compacted segments
+     */
+    public synchronized long getCompactionCount() {
+        return compactionCount;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        index.clear();
+        for (final Segment segment : new ArrayList<>(segments)) {
+            deleteSegment(segment);
+        }
+        activeSegment = null;
+    }
+
+    private Segment getSegmentForRecord(final int recordSize) {
+        if (recordSize > segmentSize) {
+            return createSegment(recordSize);
+        }
+        // compacting the full segment can fill the new segment, too
+        while (activeSegment == null || activeSegment.remaining() < recordSize) {
+            final Segment fullSegment = activeSegment;
+            activeSegment = createSegment(segmentSize);
+            if (fullSegment != null) {
+                deleteOrCompact(fullSegment);
+            }
+        }
+        return activeSegment;
+    }
+
+    private void release(final SnapshotLocation location) {
+        final Segment segment = location.segment;
+        segment.liveRecords--;
+        segment.liveBytes = segment.liveBytes - location.size;
+        if (segment != activeSegment) {
+            deleteOrCompact(segment);
+        }
+    }
+
+    private void deleteOrCompact(final Segment segment) {
+        if (segment.liveRecords == 0) {
+            deleteSegment(segment);
+        } else if (segment.liveBytes < segment.writePosition / 2) {
+            compact(segment);
+        }
+    }
+
+    private void compact(final Segment segment) {
+        final List<Map.Entry<String, SnapshotLocation>> liveEntries = new ArrayList<>();
+        for (final Map.Entry<String, SnapshotLocation> entry : index.entrySet()) {
+            if (entry.getValue().segment == segment) {
+                liveEntries.add(entry);
+            }
+        }
+        LOG.debug("Compacting segment file {} with {} of {} bytes in use", segment.file, segment.liveBytes, segment.writePosition);
+        for (final Map.Entry<String, SnapshotLocation> entry : liveEntries) {
+            final byte[] data = segment.read(entry.getValue().position);
+            final Segment target = getSegmentForRecord(HEADER_SIZE + data.length);
+            final int position = target.append(data);
+            entry.setValue(new SnapshotLocation(target, position, HEADER_SIZE + data.length));
+        }
+        compactionCount++;
+        deleteSegment(segment);
+    }
+
+    private Segment createSegment(final int size) {
+        try {
+            final File file = File.createTempFile(SEGMENT_FILE_PREFIX, SEGMENT_FILE_SUFFIX, directory);
+            final Segment segment = new Segment(file, size);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not create segment file in " + directory, e);
+        }
+    }
+
+    private void deleteSegment(final Segment segment) {
+        segments.remove(segment);
+        try {
+            segment.close();
+        } catch (IOException e) {
+            LOG.warn("Can not close segment file {}", segment.file, e);
+        }
+        if (!segment.file.delete()) {
+            LOG.warn("Can not delete segment file {}", segment.file);
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Snapshot store is closed");
+        }
+    }
+
+    private static final class SnapshotLocation {
+
+        private final Segment segment;
+
+        private final int position;
+
+        private final int size;
+
+        private SnapshotLocation(final Segment segment, final int position, final int size) {
+            this.segment = segment;
+            this.position = position;
+            this.size = size;
+        }
+    }
+
+    private static final class Segment {
+
+        private final File file;
+
+        private final RandomAccessFile randomAccessFile;
+
+        private final MappedByteBuffer buffer;
+
+        private int writePosition = 0;
+
+        private int liveRecords = 0;
+
+        private int liveBytes = 0;
+
+        private Segment(final File file, final int size) throws IOException {
+            this.file = file;
+            this.randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(size);
+            this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private int remaining() {
+            return buffer.capacity() - writePosition;
+        }
+
+        private int append(final byte[] data) {
+            final int position = writePosition;
+            buffer.putInt(position, data.length);
+            final ByteBuffer target = buffer.duplicate();
+            target.position(position + HEADER_SIZE);
+            target.put(data);
+            writePosition = position + HEADER_SIZE + data.length;
+            liveRecords++;
+            liveBytes = liveBytes + HEADER_SIZE + data.length;
+            return position;
+        }
+
+        private byte[] read(final int position) {
+            final byte[] data = new byte[buffer.getInt(position)];
+            final ByteBuffer source = buffer.duplicate();
+            source.position(position + HEADER_SIZE);
+            source.get(data);
+            return data;
+        }
+
+        private void close() throws IOException {
+            unmap(buffer);
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Releases the memory mapping of the given buffer. Without this the mapping (and on some systems the file) is only
+     * released once the buffer is garbage collected. The buffer must not be used afterwards.
+     * @param buffer the buffer
+     */
+    private static void unmap(final MappedByteBuffer buffer) {
+        try {
+            try {
+                // Java 9 and later
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (final NoSuchMethodException e) {
+                // Java 8
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    final Method cleanMethod = cleaner.getClass().getMethod("clean");
+                    cleanMethod.setAccessible(true);
+                    cleanMethod.invoke(cleaner);
+                }
+            }
+        } catch (final Exception e) {
+            LOG.debug("Can not unmap segment buffer, it will be released by the garbage collector", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Snapshot of a presentation model of a passivated context. If the presentation model belongs to a Dolphin bean the
+ * snapshot contains the content of all observable lists of the bean since the lists are not part of the
+ * presentation model.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public final class PresentationModelSnapshot implements Serializable {
+
+    private static final long serialVersionUID = -2950446307254818127L;
+
+    private final String id;
+
+    private final String type;
+
+    private final ArrayList<AttributeSnapshot> attributes;
+
+    private final HashMap<String, ArrayList<Object>> lists;
+
+    public PresentationModelSnapshot(final String id, final String type, final List<AttributeSnapshot> attributes, final Map<String, ? extends List<Object>> lists) {
+        this.id = Assert.requireNonBlank(id, "id");
+        this.type = type;
+        this.attributes = new ArrayList<>(Assert.requireNonNull(attributes, "attributes"));
+        this.lists = new HashMap<>();
+        for (final Map.Entry<String, ? extends List<Object>> entry : Assert.requireNonNull(lists, "lists").entrySet()) {
+            this.lists.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<AttributeSnapshot> getAttributes() {
+        return Collections.unmodifiableList(attributes);
+    }
+
+    /**
+     * Returns the content of the observable lists of the bean as Dolphin values
+     * @return the list content by attribute name
+     */
+    public Map<String, List<Object>> getLists() {
+        return Collections.<String, List<Object>>unmodifiableMap(lists);
+    }
+}
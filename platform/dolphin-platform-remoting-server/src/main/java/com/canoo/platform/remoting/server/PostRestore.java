@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.platform.remoting.server;
+
+import org.apiguardian.api.API;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Can be used to annotate a method in a dolphin controller (see {@link DolphinController}) that will automatically be
+ * called once the controller was restored for a passivated or replicated context. Since the model of a restored
+ * controller already contains the state of the user the post construct methods of the controller will not be called
+ * in that case. A method that is annotated with this annotation can be used to recreate all state that is not part of
+ * the model, like subscriptions to the event bus.
+ * The method must not have any parameters.
+ *
+ * @see DolphinController
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+@API(since = "1.0.0", status = EXPERIMENTAL)
+public @interface PostRestore {
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.platform.remoting.server.event;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A topic for data where only the latest value is of interest (like prices, progress or status information).
+ * A listener that subscribes to a conflating topic will not receive every published message. If several messages
+ * are pending for the listener at the time its Dolphin Platform context processes its tasks only the newest
+ * message will be delivered. By defining a key function the conflation can be done per key (for example
+ * the id of a stock). In that case the newest message for each key will be delivered.
+ *
+ * A conflating topic is equal to a {@link Topic} with the same name. Conflation is only defined by the topic
+ * that is used for the subscription.
+ *
+ * @param <T> the type of data that can be send to the topic
+ */
+@API(since = "1.0.0", status = EXPERIMENTAL)
+public class ConflatingTopic<T extends Serializable> extends Topic<T> {
+
+    private static final long serialVersionUID = 6523817604532913745L;
+
+    private final transient Function<T, ?> keyFunction;
+
+    /**
+     * Constructor that creates a conflating topic based on its name. All pending messages of the topic will
+     * be conflated to the newest one.
+     *
+     * @param name the name
+     */
+    public ConflatingTopic(final String name) {
+        this(name, null);
+    }
+
+    /**
+     * Constructor that creates a conflating topic based on its name and a function that extracts the conflation
+     * key from the data of a message. Only pending messages with the same key will be conflated.
+     *
+     * @param name        the name
+     * @param keyFunction the function that extracts the key from the data, can be {@code null}
+     */
+    public ConflatingTopic(final String name, final Function<T, ?> keyFunction) {
+        super(name);
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Returns the function that extracts the conflation key from the data of a message
+     *
+     * @return the key function or {@code null} if all messages of the topic will be conflated
+     */
+    public Function<T, ?> getKeyFunction() {
+        return keyFunction;
+    }
+
+    /**
+     * Convenience methods that creates a new conflating topic based on the given unique name
+     *
+     * @param uniqueName the name
+     * @param <T>        the type of data that can be send to the created topic
+     * @return the topic
+     */
+    public static <T extends Serializable> ConflatingTopic<T> createConflating(final String uniqueName) {
+        return new ConflatingTopic<>(uniqueName);
+    }
+
+    /**
+     * Convenience methods that creates a new conflating topic based on the given unique name and key function
+     *
+     * @param uniqueName  the name
+     * @param keyFunction the function that extracts the key from the data
+     * @param <T>         the type of data that can be send to the created topic
+     * @return the topic
+     */
+    public static <T extends Serializable> ConflatingTopic<T> createConflating(final String uniqueName, final Function<T, ?> keyFunction) {
+        return new ConflatingTopic<>(uniqueName, keyFunction);
+    }
+}
@@ -2,18 +2,23 @@ package com.canoo.platform.remoting.server.event;
 
 import com.canoo.dp.impl.platform.core.Assert;
 import com.canoo.dp.impl.server.event.EventConstants;
+import com.canoo.dp.impl.server.event.EventRoutingKeys;
+import com.canoo.dp.impl.server.event.RoutableEventFilter;
 import org.apiguardian.api.API;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
 @API(since = "0.x", status = INTERNAL)
-public class HttpSessionEventFilter<T extends Serializable> implements Predicate<MessageEventContext<T>> {
+public class HttpSessionEventFilter<T extends Serializable> implements Predicate<MessageEventContext<T>>, RoutableEventFilter {
 
     private final List<String> sessionIds;
 
@@ -37,4 +42,13 @@ public class HttpSessionEventFilter<T extends Serializable> implements Predicate
 
         return true;
     }
+
+    @Override
+    public Set<String> getRoutingKeys() {
+        final Set<String> keys = new HashSet<>();
+        for (final String sessionId : sessionIds) {
+            keys.add(EventRoutingKeys.forHttpSession(sessionId));
+        }
+        return Collections.unmodifiableSet(keys);
+    }
 }
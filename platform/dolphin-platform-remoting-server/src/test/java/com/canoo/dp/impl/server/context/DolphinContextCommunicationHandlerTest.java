@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import com.canoo.dp.impl.remoting.codec.OptimizedJsonCodec;
+import com.canoo.dp.impl.remoting.commands.CreateContextCommand;
+import com.canoo.dp.impl.remoting.legacy.communication.Command;
+import com.canoo.dp.impl.server.beans.PostConstructInterceptor;
+import com.canoo.dp.impl.server.client.ClientSessionProvider;
+import com.canoo.dp.impl.server.client.HttpClientSessionImpl;
+import com.canoo.dp.impl.server.config.DefaultPlatformConfiguration;
+import com.canoo.dp.impl.server.config.RemotingConfiguration;
+import com.canoo.dp.impl.server.controller.ControllerRepository;
+import com.canoo.dp.impl.server.scanner.DefaultClasspathScanner;
+import com.canoo.impl.server.util.HttpSessionMock;
+import com.canoo.platform.core.functional.Callback;
+import com.canoo.platform.server.client.ClientSession;
+import com.canoo.platform.server.spi.components.ManagedBeanFactory;
+import org.testng.annotations.Test;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class DolphinContextCommunicationHandlerTest {
+
+    @Test
+    public void testOverflowedContextIsDisconnected() throws Exception {
+        //given:
+        final DefaultPlatformConfiguration platformConfiguration = new DefaultPlatformConfiguration();
+        platformConfiguration.setIntProperty(RemotingConfiguration.TASK_QUEUE_MAX_SIZE, 1);
+        platformConfiguration.setProperty(RemotingConfiguration.TASK_QUEUE_OVERFLOW_POLICY, TaskQueueOverflowPolicy.DISCONNECT.name());
+        final RemotingConfiguration configuration = new RemotingConfiguration(platformConfiguration);
+        final HttpSessionMock httpSession = new HttpSessionMock();
+        final ClientSession session = new HttpClientSessionImpl(httpSession);
+        final ClientSessionProvider sessionProvider = new ClientSessionProvider() {
+            @Override
+            public ClientSession getCurrentClientSession() {
+                return session;
+            }
+        };
+        final ControllerRepository controllerRepository = new ControllerRepository(new DefaultClasspathScanner("com.canoo.dolphin"));
+        final DolphinContextRegistry contextRegistry = new DolphinContextRegistry(0, 0);
+        final DolphinContextCommunicationHandler communicationHandler = new DolphinContextCommunicationHandler(sessionProvider, new DolphinContextFactory() {
+            @Override
+            public DolphinContext create(final ClientSession clientSession, final Callback<DolphinContext> onDestroyCallback) {
+                return new DolphinContext(configuration, clientSession, sessionProvider, new ManagedBeanFactoryMock(), controllerRepository, onDestroyCallback);
+            }
+        }, contextRegistry);
+        final Map<String, Object> responseValues = new HashMap<>();
+        final String createContextRequest = OptimizedJsonCodec.getInstance().encode(Collections.<Command>singletonList(new CreateContextCommand()));
+        communicationHandler.handle(createRequest(httpSession, createContextRequest), createResponse(responseValues));
+        assertNull(responseValues.get("setStatus"));
+        final DolphinContext context = contextRegistry.get(session.getId());
+        assertNotNull(context);
+
+        //when:
+        for (int i = 0; i < 2; i++) {
+            context.runLaterForEvent("topic", "listener", new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+        communicationHandler.handle(createRequest(httpSession, "[]"), createResponse(responseValues));
+
+        //then:
+        assertEquals(responseValues.get("setStatus"), HttpServletResponse.SC_GONE);
+        assertNull(contextRegistry.get(session.getId()));
+        assertNull(communicationHandler.getContext(session));
+    }
+
+    private HttpServletRequest createRequest(final HttpSession httpSession, final String content) {
+        final BufferedReader reader = new BufferedReader(new StringReader(content));
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HttpServletRequest.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (method.getName().equals("getSession")) {
+                    return httpSession;
+                }
+                if (method.getName().equals("getReader")) {
+                    return reader;
+                }
+                return null;
+            }
+        });
+    }
+
+    private HttpServletResponse createResponse(final Map<String, Object> values) {
+        final PrintWriter writer = new PrintWriter(new StringWriter());
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HttpServletResponse.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (method.getName().equals("getWriter")) {
+                    return writer;
+                }
+                if (method.getName().equals("sendError") || method.getName().equals("setStatus")) {
+                    values.put(method.getName(), args[0]);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static class ManagedBeanFactoryMock implements ManagedBeanFactory {
+
+        @Override
+        public void init(ServletContext servletContext) {
+
+        }
+
+        @Override
+        public <T> T createDependentInstance(Class<T> cls) {
+            return null;
+        }
+
+        @Override
+        public <T> T createDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+            return null;
+        }
+
+        @Override
+        public <T> void destroyDependentInstance(T instance, Class<T> cls) {
+
+        }
+    }
+}
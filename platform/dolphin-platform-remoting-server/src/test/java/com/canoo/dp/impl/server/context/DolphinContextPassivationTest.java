@@ -0,0 +1,498 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import com.canoo.dp.impl.platform.core.ReflectionHelper;
+import com.canoo.dp.impl.remoting.commands.CreateContextCommand;
+import com.canoo.dp.impl.remoting.commands.CreateControllerCommand;
+import com.canoo.dp.impl.remoting.legacy.communication.Command;
+import com.canoo.dp.impl.server.beans.PostConstructInterceptor;
+import com.canoo.dp.impl.platform.core.PlatformConstants;
+import com.canoo.dp.impl.server.client.ClientSessionFilter;
+import com.canoo.dp.impl.server.client.ClientSessionLifecycleHandlerImpl;
+import com.canoo.dp.impl.server.client.ClientSessionManager;
+import com.canoo.dp.impl.server.client.ClientSessionProvider;
+import com.canoo.dp.impl.server.client.ClientSessionRecoveryHandler;
+import com.canoo.dp.impl.server.client.HttpClientSessionImpl;
+import com.canoo.dp.impl.server.config.RemotingConfiguration;
+import com.canoo.dp.impl.server.controller.ControllerRepository;
+import com.canoo.dp.impl.server.config.DefaultPlatformConfiguration;
+import com.canoo.dp.impl.server.passivation.DolphinContextDelta;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshot;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshotSerializer;
+import com.canoo.dp.impl.server.passivation.LocalDolphinContextReplicator;
+import com.canoo.dp.impl.server.passivation.MappedFileSnapshotStore;
+import com.canoo.impl.server.util.HttpSessionMock;
+import com.canoo.platform.core.functional.Callback;
+import com.canoo.platform.remoting.DolphinBean;
+import com.canoo.platform.remoting.ObservableList;
+import com.canoo.platform.remoting.Property;
+import com.canoo.platform.remoting.server.DolphinController;
+import com.canoo.platform.remoting.server.DolphinModel;
+import com.canoo.platform.remoting.server.PostRestore;
+import com.canoo.platform.server.client.ClientSession;
+import com.canoo.platform.server.spi.components.ClasspathScanner;
+import com.canoo.platform.server.spi.components.ManagedBeanFactory;
+import org.testng.annotations.Test;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class DolphinContextPassivationTest {
+
+    @Test
+    public void testPassivateAndRestore() throws Exception {
+        //given:
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final AtomicInteger controllerCount = new AtomicInteger();
+        final AtomicInteger destroyCount = new AtomicInteger();
+        final DolphinContext context = createContext(session, controllerCount, destroyCount);
+        final CreateControllerCommand createControllerCommand = new CreateControllerCommand();
+        createControllerCommand.setControllerName(PassivationTestController.class.getName());
+        context.handle(Arrays.<Command>asList(new CreateContextCommand(), createControllerCommand));
+
+        final PassivationTestModel model = context.getBeanManager().findAll(PassivationTestModel.class).get(0);
+        final PassivationTestChildModel child = context.getBeanManager().create(PassivationTestChildModel.class);
+        child.getValue().set(42);
+        model.getName().set("Hello");
+        model.getChild().set(child);
+        model.getItems().addAll(Arrays.asList("a", "b", "c"));
+        final String modelId = context.getServerModelStore().findAllPresentationModelsByType(PassivationTestModel.class.getName()).get(0).getId();
+
+        //when:
+        final byte[] data = DolphinContextSnapshotSerializer.serialize(context.createSnapshot());
+        context.passivate();
+        final DolphinContext restoredContext = createContext(session, controllerCount, destroyCount);
+        restoredContext.restore(DolphinContextSnapshotSerializer.deserialize(data));
+
+        //then:
+        assertEquals(destroyCount.get(), 1);
+        assertEquals(controllerCount.get(), 2);
+        final List<PassivationTestModel> restoredModels = restoredContext.getBeanManager().findAll(PassivationTestModel.class);
+        assertEquals(restoredModels.size(), 1);
+        final PassivationTestModel restoredModel = restoredModels.get(0);
+        assertEquals(restoredModel.getName().get(), "Hello");
+        assertEquals(restoredModel.getItems(), Arrays.asList("a", "b", "c"));
+        assertNotNull(restoredModel.getChild().get());
+        assertEquals(restoredModel.getChild().get().getValue().get(), Integer.valueOf(42));
+        assertEquals(restoredContext.getServerModelStore().findAllPresentationModelsByType(PassivationTestModel.class.getName()).get(0).getId(), modelId);
+        assertTrue(restoredContext.handle(Collections.<Command>emptyList()).isEmpty());
+
+        //when:
+        restoredModel.getName().set("World");
+
+        //then:
+        assertEquals(restoredContext.getServerModelStore().findPresentationModelById(modelId).getAttribute("name").getValue(), "World");
+    }
+
+    @Test
+    public void testRestoreDoesNotCallPostConstruct() throws Exception {
+        //given:
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final DolphinContext context = createContext(session, new AtomicInteger(), new AtomicInteger());
+        final CreateControllerCommand createControllerCommand = new CreateControllerCommand();
+        createControllerCommand.setControllerName(PostConstructTestController.class.getName());
+        context.handle(Arrays.<Command>asList(new CreateContextCommand(), createControllerCommand));
+        final PassivationTestModel model = context.getBeanManager().findAll(PassivationTestModel.class).get(0);
+        assertEquals(model.getName().get(), "initial");
+        assertEquals(model.getItems(), Collections.singletonList("initial"));
+        model.getName().set("changed by user");
+        model.getItems().add("added by user");
+        final int postConstructCount = PostConstructTestController.POST_CONSTRUCT_COUNT.get();
+        final int postRestoreCount = PostConstructTestController.POST_RESTORE_COUNT.get();
+
+        //when:
+        final DolphinContextSnapshot snapshot = context.createSnapshot();
+        context.passivate();
+        final DolphinContext restoredContext = createContext(session, new AtomicInteger(), new AtomicInteger());
+        restoredContext.restore(snapshot);
+
+        //then:
+        assertEquals(PostConstructTestController.POST_CONSTRUCT_COUNT.get(), postConstructCount);
+        assertEquals(PostConstructTestController.POST_RESTORE_COUNT.get(), postRestoreCount + 1);
+        final PassivationTestModel restoredModel = restoredContext.getBeanManager().findAll(PassivationTestModel.class).get(0);
+        assertEquals(restoredModel.getName().get(), "changed by user");
+        assertEquals(restoredModel.getItems(), Arrays.asList("initial", "added by user"));
+        assertTrue(restoredContext.handle(Collections.<Command>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testReplicateAndRecover() throws Exception {
+        //given:
+        final DefaultPlatformConfiguration platformConfiguration = new DefaultPlatformConfiguration();
+        platformConfiguration.setBooleanProperty(RemotingConfiguration.CONTEXT_REPLICATION_ACTIVE, true);
+        final RemotingConfiguration configuration = new RemotingConfiguration(platformConfiguration);
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final AtomicInteger controllerCount = new AtomicInteger();
+        final DolphinContext context = createContext(session, configuration, controllerCount, new AtomicInteger());
+        final CreateControllerCommand createControllerCommand = new CreateControllerCommand();
+        createControllerCommand.setControllerName(PassivationTestController.class.getName());
+        context.handle(Arrays.<Command>asList(new CreateContextCommand(), createControllerCommand));
+
+        final PassivationTestModel model = context.getBeanManager().findAll(PassivationTestModel.class).get(0);
+        final PassivationTestChildModel child = context.getBeanManager().create(PassivationTestChildModel.class);
+        child.getValue().set(42);
+        model.getName().set("Hello");
+        model.getChild().set(child);
+        model.getItems().addAll(Arrays.asList("a", "b"));
+        final String modelId = context.getServerModelStore().findAllPresentationModelsByType(PassivationTestModel.class.getName()).get(0).getId();
+
+        final File directory = Files.createTempDirectory("dolphin-replication-test").toFile();
+        final LocalDolphinContextReplicator replicator = new LocalDolphinContextReplicator(new MappedFileSnapshotStore(directory, 64 * 1024));
+        try {
+            //when:
+            final DolphinContextDelta fullDelta = context.createDelta();
+            model.getName().set("World");
+            model.getItems().add("c");
+            final DolphinContextDelta delta = context.createDelta();
+
+            //then:
+            assertTrue(fullDelta.isFull());
+            assertFalse(delta.isFull());
+            assertEquals(delta.getChangedModels().size(), 1);
+            assertEquals(delta.getChangedModels().get(0).getId(), modelId);
+            assertTrue(delta.getRemovedModelIds().isEmpty());
+            assertNull(context.createDelta());
+
+            //when:
+            replicator.replicate(fullDelta);
+            replicator.replicate(delta);
+            final DolphinContext recoveredContext = createContext(session, configuration, controllerCount, new AtomicInteger());
+            recoveredContext.restore(replicator.recover(context.getId()));
+
+            //then:
+            final PassivationTestModel recoveredModel = recoveredContext.getBeanManager().findAll(PassivationTestModel.class).get(0);
+            assertEquals(recoveredModel.getName().get(), "World");
+            assertEquals(recoveredModel.getItems(), Arrays.asList("a", "b", "c"));
+            assertEquals(recoveredModel.getChild().get().getValue().get(), Integer.valueOf(42));
+            assertEquals(controllerCount.get(), 2);
+            assertEquals(replicator.getAppliedDeltaCount(), 2);
+        } finally {
+            replicator.close();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testRecoverClientSessionAfterFailover() throws Exception {
+        //given:
+        final DefaultPlatformConfiguration platformConfiguration = new DefaultPlatformConfiguration();
+        platformConfiguration.setBooleanProperty(RemotingConfiguration.CONTEXT_REPLICATION_ACTIVE, true);
+        final RemotingConfiguration configuration = new RemotingConfiguration(platformConfiguration);
+        // the container replicates the HTTP session, so it has the same id on the surviving node
+        final HttpSessionMock httpSession = new HttpSessionMock();
+        final ClientSession session = new HttpClientSessionImpl(httpSession);
+        final AtomicInteger controllerCount = new AtomicInteger();
+        final DolphinContext context = createContext(session, configuration, controllerCount, new AtomicInteger());
+        final CreateControllerCommand createControllerCommand = new CreateControllerCommand();
+        createControllerCommand.setControllerName(PassivationTestController.class.getName());
+        context.handle(Arrays.<Command>asList(new CreateContextCommand(), createControllerCommand));
+        context.getBeanManager().findAll(PassivationTestModel.class).get(0).getName().set("Hello");
+
+        final File directory = Files.createTempDirectory("dolphin-failover-test").toFile();
+        final LocalDolphinContextReplicator replicator = new LocalDolphinContextReplicator(new MappedFileSnapshotStore(directory, 64 * 1024));
+        replicator.replicate(context.createDelta());
+
+        final ClientSessionLifecycleHandlerImpl lifecycleHandler = new ClientSessionLifecycleHandlerImpl();
+        final ClientSessionManager clientSessionManager = new ClientSessionManager(platformConfiguration, lifecycleHandler);
+        final DolphinContextRegistry contextRegistry = new DolphinContextRegistry(10, 60_000, null, replicator, 0);
+        clientSessionManager.setRecoveryHandler(new ClientSessionRecoveryHandler() {
+            @Override
+            public boolean isRecoverable(final String clientSessionId, final String httpSessionId) {
+                return contextRegistry.isRecoverable(clientSessionId, httpSessionId);
+            }
+        });
+        final ControllerRepository controllerRepository = new ControllerRepository(new ClasspathScanner() {
+            @Override
+            public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation) {
+                return Collections.<Class<?>>singleton(PassivationTestController.class);
+            }
+        });
+        final ClientSessionProvider sessionProvider = new ClientSessionProvider() {
+            @Override
+            public ClientSession getCurrentClientSession() {
+                return lifecycleHandler.getCurrentDolphinSession();
+            }
+        };
+        final DolphinContextCommunicationHandler communicationHandler = new DolphinContextCommunicationHandler(sessionProvider, new DolphinContextFactory() {
+            @Override
+            public DolphinContext create(final ClientSession clientSession, final Callback<DolphinContext> onDestroyCallback) {
+                return new DolphinContext(configuration, clientSession, sessionProvider, new ManagedBeanFactoryMock(controllerCount), controllerRepository, onDestroyCallback);
+            }
+        }, contextRegistry);
+        final ClientSessionFilter filter = new ClientSessionFilter(clientSessionManager);
+        final Map<String, Object> responseValues = new HashMap<>();
+
+        try {
+            //when:
+            final HttpSessionMock foreignHttpSession = new HttpSessionMock();
+            filter.doFilter(createRequest(foreignHttpSession, session.getId()), createResponse(responseValues), new FilterChain() {
+                @Override
+                public void doFilter(final ServletRequest request, final ServletResponse response) {
+                    fail("Client session must not be recovered in a foreign http session");
+                }
+            });
+
+            //then:
+            assertEquals(responseValues.get("sendError"), HttpServletResponse.SC_REQUEST_TIMEOUT);
+            assertFalse(clientSessionManager.checkValidClientSession(foreignHttpSession, session.getId()));
+            assertNull(contextRegistry.get(session.getId()));
+
+            //when:
+            responseValues.clear();
+            filter.doFilter(createRequest(httpSession, session.getId()), createResponse(responseValues), new FilterChain() {
+                @Override
+                public void doFilter(final ServletRequest request, final ServletResponse response) {
+                    communicationHandler.handle((HttpServletRequest) request, (HttpServletResponse) response);
+                }
+            });
+
+            //then:
+            assertNull(responseValues.get("sendError"));
+            assertNull(responseValues.get("setStatus"));
+            assertEquals(responseValues.get("setHeader"), session.getId());
+            assertTrue(clientSessionManager.checkValidClientSession(httpSession, session.getId()));
+            final DolphinContext recoveredContext = contextRegistry.get(session.getId());
+            assertNotNull(recoveredContext);
+            assertEquals(recoveredContext.getBeanManager().findAll(PassivationTestModel.class).get(0).getName().get(), "Hello");
+            assertEquals(contextRegistry.getRecoveredContextCount(), 1);
+
+            //when:
+            responseValues.clear();
+            filter.doFilter(createRequest(new HttpSessionMock(), "unknown"), createResponse(responseValues), new FilterChain() {
+                @Override
+                public void doFilter(final ServletRequest request, final ServletResponse response) {
+                    fail("Unknown client session must not be recovered");
+                }
+            });
+
+            //then:
+            assertEquals(responseValues.get("sendError"), HttpServletResponse.SC_REQUEST_TIMEOUT);
+        } finally {
+            contextRegistry.shutdown();
+            directory.delete();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRestoreInOtherContext() throws Exception {
+        //given:
+        final DolphinContext context = createContext(new HttpClientSessionImpl(new HttpSessionMock()), new AtomicInteger(), new AtomicInteger());
+        final DolphinContextSnapshot snapshot = context.createSnapshot();
+
+        //when:
+        createContext(new HttpClientSessionImpl(new HttpSessionMock()), new AtomicInteger(), new AtomicInteger()).restore(snapshot);
+    }
+
+    private DolphinContext createContext(final ClientSession session, final AtomicInteger controllerCount, final AtomicInteger destroyCount) throws Exception {
+        return createContext(session, new RemotingConfiguration(), controllerCount, destroyCount);
+    }
+
+    private DolphinContext createContext(final ClientSession session, final RemotingConfiguration configuration, final AtomicInteger controllerCount, final AtomicInteger destroyCount) throws Exception {
+        final ControllerRepository controllerRepository = new ControllerRepository(new ClasspathScanner() {
+            @Override
+            public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation) {
+                return new HashSet<Class<?>>(Arrays.<Class<?>>asList(PassivationTestController.class, PostConstructTestController.class));
+            }
+        });
+        return new DolphinContext(configuration, session, new ClientSessionProvider() {
+            @Override
+            public ClientSession getCurrentClientSession() {
+                return session;
+            }
+        }, new ManagedBeanFactoryMock(controllerCount), controllerRepository, new Callback<DolphinContext>() {
+            @Override
+            public void call(final DolphinContext dolphinContext) {
+                destroyCount.incrementAndGet();
+            }
+        });
+    }
+
+    private HttpServletRequest createRequest(final HttpSession httpSession, final String clientSessionId) {
+        final BufferedReader reader = new BufferedReader(new StringReader("[]"));
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HttpServletRequest.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (method.getName().equals("getSession")) {
+                    return httpSession;
+                }
+                if (method.getName().equals("getHeader") && PlatformConstants.CLIENT_ID_HTTP_HEADER_NAME.equals(args[0])) {
+                    return clientSessionId;
+                }
+                if (method.getName().equals("getReader")) {
+                    return reader;
+                }
+                return null;
+            }
+        });
+    }
+
+    private HttpServletResponse createResponse(final Map<String, Object> values) {
+        final PrintWriter writer = new PrintWriter(new StringWriter());
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HttpServletResponse.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (method.getName().equals("getWriter")) {
+                    return writer;
+                }
+                if (method.getName().equals("sendError") || method.getName().equals("setStatus")) {
+                    values.put(method.getName(), args[0]);
+                }
+                if (method.getName().equals("setHeader") && PlatformConstants.CLIENT_ID_HTTP_HEADER_NAME.equals(args[0])) {
+                    values.put(method.getName(), args[1]);
+                }
+                return null;
+            }
+        });
+    }
+
+    @DolphinController
+    public static class PassivationTestController {
+
+        @DolphinModel
+        private PassivationTestModel model;
+    }
+
+    @DolphinController
+    public static class PostConstructTestController {
+
+        private static final AtomicInteger POST_CONSTRUCT_COUNT = new AtomicInteger();
+
+        private static final AtomicInteger POST_RESTORE_COUNT = new AtomicInteger();
+
+        @DolphinModel
+        private PassivationTestModel model;
+
+        @PostConstruct
+        public void init() {
+            POST_CONSTRUCT_COUNT.incrementAndGet();
+            model.getName().set("initial");
+            model.getItems().add("initial");
+        }
+
+        @PostRestore
+        public void onRestore() {
+            POST_RESTORE_COUNT.incrementAndGet();
+        }
+    }
+
+    @DolphinBean
+    public static class PassivationTestModel {
+
+        private Property<String> name;
+
+        private Property<PassivationTestChildModel> child;
+
+        private ObservableList<String> items;
+
+        public Property<String> getName() {
+            return name;
+        }
+
+        public Property<PassivationTestChildModel> getChild() {
+            return child;
+        }
+
+        public ObservableList<String> getItems() {
+            return items;
+        }
+    }
+
+    @DolphinBean
+    public static class PassivationTestChildModel {
+
+        private Property<Integer> value;
+
+        public Property<Integer> getValue() {
+            return value;
+        }
+    }
+
+    private static class ManagedBeanFactoryMock implements ManagedBeanFactory {
+
+        private final AtomicInteger createCount;
+
+        private ManagedBeanFactoryMock(final AtomicInteger createCount) {
+            this.createCount = createCount;
+        }
+
+        @Override
+        public void init(ServletContext servletContext) {
+
+        }
+
+        @Override
+        public <T> T createDependentInstance(Class<T> cls) {
+            return createDependentInstance(cls, null);
+        }
+
+        @Override
+        public <T> T createDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+            final T instance = restoreDependentInstance(cls, interceptor);
+            for (final Method method : ReflectionHelper.getInheritedDeclaredMethods(cls)) {
+                if (method.isAnnotationPresent(PostConstruct.class)) {
+                    ReflectionHelper.invokePrivileged(method, instance);
+                }
+            }
+            return instance;
+        }
+
+        @Override
+        public <T> T restoreDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+            try {
+                final T instance = cls.newInstance();
+                if (interceptor != null) {
+                    interceptor.intercept(instance);
+                }
+                createCount.incrementAndGet();
+                return instance;
+            } catch (Exception e) {
+                throw new RuntimeException("Can not create " + cls, e);
+            }
+        }
+
+        @Override
+        public <T> void destroyDependentInstance(T instance, Class<T> cls) {
+
+        }
+    }
+}
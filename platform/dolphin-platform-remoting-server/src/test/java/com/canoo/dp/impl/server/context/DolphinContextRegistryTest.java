@@ -0,0 +1,385 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import com.canoo.dp.impl.server.beans.PostConstructInterceptor;
+import com.canoo.dp.impl.server.client.ClientSessionProvider;
+import com.canoo.dp.impl.server.client.HttpClientSessionImpl;
+import com.canoo.dp.impl.server.config.RemotingConfiguration;
+import com.canoo.dp.impl.server.controller.ControllerRepository;
+import com.canoo.dp.impl.server.passivation.DolphinContextDelta;
+import com.canoo.dp.impl.server.passivation.DolphinContextReplicator;
+import com.canoo.dp.impl.server.passivation.DolphinContextSnapshot;
+import com.canoo.dp.impl.server.passivation.MappedFileSnapshotStore;
+import com.canoo.dp.impl.server.scanner.DefaultClasspathScanner;
+import com.canoo.impl.server.util.HttpSessionMock;
+import com.canoo.platform.core.functional.Callback;
+import com.canoo.platform.server.client.ClientSession;
+import com.canoo.platform.server.spi.components.ManagedBeanFactory;
+import org.testng.annotations.Test;
+
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class DolphinContextRegistryTest {
+
+    private final DefaultClasspathScanner classpathScanner = new DefaultClasspathScanner("com.canoo.dolphin");
+
+    @Test
+    public void testRegisterAndRemove() throws Exception {
+        //given:
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 0);
+        final DolphinContext context = createContext(new AtomicInteger());
+
+        //when:
+        registry.register(context);
+
+        //then:
+        assertEquals(registry.get(context.getId()), context);
+        assertEquals(registry.getContextCount(), 1);
+        assertEquals(registry.getRegisteredContextCount(), 1);
+
+        //when:
+        final boolean removed = registry.remove(context.getId());
+
+        //then:
+        assertTrue(removed);
+        assertNull(registry.get(context.getId()));
+        assertEquals(registry.getContextCount(), 0);
+        assertFalse(registry.remove(context.getId()));
+    }
+
+    @Test
+    public void testMaxContextCount() throws Exception {
+        //given:
+        final DolphinContextRegistry registry = new DolphinContextRegistry(2, 0);
+        final DolphinContext context1 = createContext(new AtomicInteger());
+        registry.register(context1);
+        registry.register(createContext(new AtomicInteger()));
+
+        //when:
+        try {
+            registry.register(createContext(new AtomicInteger()));
+            fail("Register must fail if the maximum is reached");
+        } catch (MaxContextCountReachedException expected) {
+        }
+
+        //then:
+        assertEquals(registry.getContextCount(), 2);
+        assertEquals(registry.getRejectedContextCount(), 1);
+
+        //when:
+        registry.remove(context1.getId());
+        registry.register(createContext(new AtomicInteger()));
+
+        //then:
+        assertEquals(registry.getContextCount(), 2);
+    }
+
+    @Test
+    public void testEvictIdleContexts() throws Exception {
+        //given:
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 60_000);
+        try {
+            final AtomicInteger destroyCount = new AtomicInteger();
+            final DolphinContext idleContext = createContext(destroyCount);
+            final DolphinContext activeContext = createContext(destroyCount);
+            registry.register(idleContext);
+            registry.register(activeContext);
+            registry.onRequestStarted(activeContext);
+
+            //when:
+            final int evictedBeforeTimeout = registry.evictIdleContexts(System.currentTimeMillis());
+            final int evicted = registry.evictIdleContexts(System.currentTimeMillis() + 120_000);
+
+            //then:
+            assertEquals(evictedBeforeTimeout, 0);
+            assertEquals(evicted, 1);
+            assertEquals(destroyCount.get(), 1);
+            assertNull(registry.get(idleContext.getId()));
+            assertEquals(registry.get(activeContext.getId()), activeContext);
+            assertEquals(registry.getEvictedContextCount(), 1);
+
+            //when:
+            registry.onRequestFinished(activeContext);
+            final int evictedAfterRequest = registry.evictIdleContexts(System.currentTimeMillis() + 120_000);
+
+            //then:
+            assertEquals(evictedAfterRequest, 1);
+            assertEquals(destroyCount.get(), 2);
+            assertEquals(registry.getContextCount(), 0);
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    public void testRequestIsNotStartedForEvictedContext() throws Exception {
+        //given:
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 60_000);
+        try {
+            final AtomicInteger destroyCount = new AtomicInteger();
+            final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+            final DolphinContext context = createContext(session, destroyCount);
+            registry.register(context);
+            final DolphinContext resolvedContext = registry.get(context.getId());
+
+            //when:
+            final int evicted = registry.evictIdleContexts(System.currentTimeMillis() + 120_000);
+
+            //then:
+            assertEquals(evicted, 1);
+            assertFalse(registry.onRequestStarted(resolvedContext));
+
+            //when:
+            final DolphinContext newContext = createContext(session, destroyCount);
+            registry.register(newContext);
+
+            //then:
+            assertFalse(registry.onRequestStarted(resolvedContext));
+            assertTrue(registry.onRequestStarted(newContext));
+
+            //when:
+            registry.onRequestFinished(resolvedContext);
+            registry.remove(resolvedContext);
+
+            //then:
+            assertEquals(registry.evictIdleContexts(System.currentTimeMillis() + 120_000), 0);
+            assertEquals(registry.get(context.getId()), newContext);
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentEvictionAndRequest() throws Exception {
+        //given:
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 60_000);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 0; i < 500; i++) {
+                final AtomicInteger destroyCount = new AtomicInteger();
+                final DolphinContext context = createContext(destroyCount);
+                registry.register(context);
+                final CountDownLatch start = new CountDownLatch(1);
+
+                //when:
+                final Future<Integer> eviction = executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        return registry.evictIdleContexts(System.currentTimeMillis() + 120_000);
+                    }
+                });
+                start.countDown();
+                final boolean started = registry.onRequestStarted(context);
+                final int evicted = eviction.get(10, TimeUnit.SECONDS);
+
+                //then:
+                assertEquals(started, evicted == 0, "A request must only start if the context was not evicted");
+                assertEquals(destroyCount.get(), evicted);
+                if (started) {
+                    registry.onRequestFinished(context);
+                    registry.remove(context);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoEvictionWithoutIdleTimeout() throws Exception {
+        //given:
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 0);
+        final AtomicInteger destroyCount = new AtomicInteger();
+        registry.register(createContext(destroyCount));
+
+        //when:
+        final int evicted = registry.evictIdleContexts(Long.MAX_VALUE);
+
+        //then:
+        assertEquals(evicted, 0);
+        assertEquals(destroyCount.get(), 0);
+        assertEquals(registry.getContextCount(), 1);
+    }
+
+    @Test
+    public void testPassivateAndRestoreIdleContext() throws Exception {
+        //given:
+        final File directory = Files.createTempDirectory("dolphin-passivation-test").toFile();
+        final MappedFileSnapshotStore snapshotStore = new MappedFileSnapshotStore(directory, 64 * 1024);
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 60_000, snapshotStore);
+        try {
+            final AtomicInteger destroyCount = new AtomicInteger();
+            final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+            final DolphinContext context = createContext(session, destroyCount);
+            final int modelCount = context.createSnapshot().getPresentationModels().size();
+            registry.register(context);
+
+            //when:
+            final int evicted = registry.evictIdleContexts(System.currentTimeMillis() + 120_000);
+
+            //then:
+            assertEquals(evicted, 1);
+            assertEquals(destroyCount.get(), 1);
+            assertNull(registry.get(context.getId()));
+            assertEquals(registry.getContextCount(), 0);
+            assertEquals(registry.getPassivatedContextCount(), 1);
+            assertEquals(registry.getPassivationCount(), 1);
+            assertEquals(snapshotStore.size(), 1);
+
+            //when:
+            final DolphinContextSnapshot snapshot = registry.takePassivatedSnapshot(context.getId());
+            final DolphinContext restoredContext = createContext(session, destroyCount);
+            restoredContext.restore(snapshot);
+            registry.register(restoredContext);
+
+            //then:
+            assertNotNull(snapshot);
+            assertEquals(snapshot.getContextId(), context.getId());
+            assertEquals(restoredContext.createSnapshot().getPresentationModels().size(), modelCount);
+            assertEquals(registry.getPassivatedContextCount(), 0);
+            assertEquals(registry.getRestoredContextCount(), 1);
+            assertEquals(snapshotStore.size(), 0);
+            assertNull(registry.takePassivatedSnapshot(context.getId()));
+        } finally {
+            registry.shutdown();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        //given:
+        final File directory = Files.createTempDirectory("dolphin-passivation-test").toFile();
+        final MappedFileSnapshotStore snapshotStore = new MappedFileSnapshotStore(directory, 64 * 1024);
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 60_000, snapshotStore);
+        try {
+            final DolphinContext context = createContext(new AtomicInteger());
+            registry.register(context);
+            registry.evictIdleContexts(System.currentTimeMillis() + 120_000);
+
+            //when:
+            registry.discard(context.getId());
+
+            //then:
+            assertEquals(registry.getPassivatedContextCount(), 0);
+            assertEquals(snapshotStore.size(), 0);
+            assertNull(registry.takePassivatedSnapshot(context.getId()));
+        } finally {
+            registry.shutdown();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testReplicationAfterRequestIsDoneByMaintenanceThread() throws Exception {
+        //given:
+        final List<String> replicationThreads = new CopyOnWriteArrayList<>();
+        final CountDownLatch replicated = new CountDownLatch(1);
+        final DolphinContextReplicator replicator = new DolphinContextReplicator() {
+            @Override
+            public void replicate(final DolphinContextDelta delta) {
+                replicationThreads.add(Thread.currentThread().getName());
+                replicated.countDown();
+            }
+
+            @Override
+            public DolphinContextSnapshot recover(final String contextId) {
+                return null;
+            }
+
+            @Override
+            public void remove(final String contextId) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final DolphinContextRegistry registry = new DolphinContextRegistry(0, 0, null, replicator, 60_000);
+        try {
+            final DolphinContext context = createContext(new AtomicInteger());
+            registry.register(context);
+
+            //when:
+            registry.onRequestStarted(context);
+            registry.onRequestFinished(context);
+
+            //then:
+            assertTrue(replicated.await(10, TimeUnit.SECONDS));
+            assertEquals(replicationThreads.size(), 1);
+            assertNotEquals(replicationThreads.get(0), Thread.currentThread().getName());
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    private DolphinContext createContext(final AtomicInteger destroyCount) throws Exception {
+        return createContext(new HttpClientSessionImpl(new HttpSessionMock()), destroyCount);
+    }
+
+    private DolphinContext createContext(final ClientSession session, final AtomicInteger destroyCount) throws Exception {
+        return new DolphinContext(new RemotingConfiguration(), session, new ClientSessionProvider() {
+            @Override
+            public ClientSession getCurrentClientSession() {
+                return session;
+            }
+        }, new ManagedBeanFactoryMock(), new ControllerRepository(classpathScanner), new Callback<DolphinContext>() {
+            @Override
+            public void call(final DolphinContext dolphinContext) {
+                destroyCount.incrementAndGet();
+            }
+        });
+    }
+
+    private class ManagedBeanFactoryMock implements ManagedBeanFactory {
+
+        @Override
+        public void init(ServletContext servletContext) {
+
+        }
+
+        @Override
+        public <T> T createDependentInstance(Class<T> cls) {
+            return null;
+        }
+
+        @Override
+        public <T> T createDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+            return null;
+        }
+
+        @Override
+        public <T> void destroyDependentInstance(T instance, Class<T> cls) {
+
+        }
+    }
+}
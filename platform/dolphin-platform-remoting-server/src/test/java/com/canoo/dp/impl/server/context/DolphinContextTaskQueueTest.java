@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import com.canoo.dp.impl.server.client.ClientSessionProvider;
+import com.canoo.dp.impl.server.client.HttpClientSessionImpl;
+import com.canoo.impl.server.util.HttpSessionMock;
+import com.canoo.platform.server.client.ClientSession;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class DolphinContextTaskQueueTest {
+
+    @Test
+    public void testDropOldest() {
+        //given
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final DolphinContextTaskQueue queue = createQueue(session, 2, TaskQueueOverflowPolicy.DROP_OLDEST);
+        final List<String> executed = new CopyOnWriteArrayList<>();
+
+        //when
+        final CompletableFuture<Void> first = queue.addTask(createTask(executed, "1"), "topic-a", "listener-a");
+        queue.addTask(createTask(executed, "2"), "topic-b", "listener-b");
+        queue.addTask(createTask(executed, "3"), "topic-b", "listener-b");
+        queue.executeTasks();
+
+        //then
+        Assert.assertTrue(first.isCancelled());
+        Assert.assertEquals(executed.size(), 2);
+        Assert.assertEquals(executed.get(0), "2");
+        Assert.assertEquals(executed.get(1), "3");
+        Assert.assertEquals(queue.getDroppedTaskCounts().get("topic-a"), Long.valueOf(1));
+        Assert.assertNull(queue.getDroppedTaskCounts().get("topic-b"));
+    }
+
+    @Test
+    public void testTasksWithoutTopicAreNeverDropped() {
+        //given
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final DolphinContextTaskQueue queue = createQueue(session, 1, TaskQueueOverflowPolicy.DROP_OLDEST);
+        final List<String> executed = new CopyOnWriteArrayList<>();
+
+        //when
+        final CompletableFuture<Void> firstRunLater = queue.addTask(createTask(executed, "runLater-1"));
+        final CompletableFuture<Void> firstEvent = queue.addTask(createTask(executed, "event-1"), "topic-a", "listener-a");
+        queue.addTask(createTask(executed, "event-2"), "topic-a", "listener-a");
+        final CompletableFuture<Void> secondRunLater = queue.addTask(createTask(executed, "runLater-2"));
+        queue.executeTasks();
+
+        //then
+        Assert.assertFalse(firstRunLater.isCancelled());
+        Assert.assertFalse(secondRunLater.isCancelled());
+        Assert.assertTrue(firstEvent.isCancelled());
+        Assert.assertEquals(executed, Arrays.asList("runLater-1", "event-2", "runLater-2"));
+        Assert.assertEquals(queue.getDroppedTaskCounts().get("topic-a"), Long.valueOf(1));
+        Assert.assertNull(queue.getDroppedTaskCounts().get(""));
+    }
+
+    @Test
+    public void testConflate() {
+        //given
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final DolphinContextTaskQueue queue = createQueue(session, 2, TaskQueueOverflowPolicy.CONFLATE);
+        final List<String> executed = new CopyOnWriteArrayList<>();
+
+        //when
+        queue.addTask(createTask(executed, "a1"), "topic-a", "listener-a");
+        final CompletableFuture<Void> firstB = queue.addTask(createTask(executed, "b1"), "topic-b", "listener-b");
+        queue.addTask(createTask(executed, "b2"), "topic-b", "listener-b");
+        queue.executeTasks();
+
+        //then
+        Assert.assertTrue(firstB.isCancelled());
+        Assert.assertEquals(executed.size(), 2);
+        Assert.assertEquals(executed.get(0), "a1");
+        Assert.assertEquals(executed.get(1), "b2");
+        Assert.assertEquals(queue.getDroppedTaskCounts().get("topic-b"), Long.valueOf(1));
+    }
+
+    @Test
+    public void testDisconnect() {
+        //given
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final DolphinContextTaskQueue queue = createQueue(session, 2, TaskQueueOverflowPolicy.DISCONNECT);
+        final List<String> executed = new CopyOnWriteArrayList<>();
+
+        //when
+        queue.addTask(createTask(executed, "1"), "topic-a", "listener-a");
+        queue.addTask(createTask(executed, "2"), "topic-a", "listener-a");
+        final CompletableFuture<Void> third = queue.addTask(createTask(executed, "3"), "topic-a", "listener-a");
+        queue.executeTasks();
+
+        //then
+        Assert.assertTrue(queue.isOverflowed());
+        Assert.assertTrue(third.isCancelled());
+        Assert.assertEquals(executed.size(), 0);
+        Assert.assertEquals(queue.getPendingTaskCount(), 0);
+        Assert.assertEquals(queue.getDroppedTaskCounts().get("topic-a"), Long.valueOf(3));
+    }
+
+    @Test
+    public void testUnboundedQueue() {
+        //given
+        final ClientSession session = new HttpClientSessionImpl(new HttpSessionMock());
+        final DolphinContextTaskQueue queue = createQueue(session, -1, TaskQueueOverflowPolicy.DROP_OLDEST);
+        final List<String> executed = new CopyOnWriteArrayList<>();
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            queue.addTask(createTask(executed, Integer.toString(i)), "topic-a", "listener-a");
+        }
+        queue.executeTasks();
+
+        //then
+        Assert.assertEquals(executed.size(), 100);
+        Assert.assertTrue(queue.getDroppedTaskCounts().isEmpty());
+    }
+
+    private Callable<Void> createTask(final List<String> executed, final String name) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                executed.add(name);
+                return null;
+            }
+        };
+    }
+
+    private DolphinContextTaskQueue createQueue(final ClientSession session, final int maxTasks, final TaskQueueOverflowPolicy policy) {
+        return new DolphinContextTaskQueue(session.getId(), new ClientSessionProvider() {
+            @Override
+            public ClientSession getCurrentClientSession() {
+                return session;
+            }
+        }, new CommunicationManager() {
+            @Override
+            public boolean hasResponseCommands() {
+                return false;
+            }
+        }, 100, TimeUnit.MILLISECONDS, maxTasks, policy);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.context;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RequestSequenceTest {
+
+    @Test
+    public void testRequestsAreHandledInOrder() throws Exception {
+        //given
+        final RequestSequence sequence = new RequestSequence();
+        final List<Long> handled = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+
+        //when
+        for (long i = 3; i > 0; i--) {
+            final long sequenceNumber = i;
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        sequence.awaitTurn(sequenceNumber, 5_000);
+                        handled.add(sequenceNumber);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        sequence.finished(sequenceNumber);
+                        done.countDown();
+                    }
+                }
+            });
+            thread.start();
+            Thread.sleep(50);
+        }
+
+        //then
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(handled.size(), 3);
+        Assert.assertEquals(handled.get(0), Long.valueOf(1));
+        Assert.assertEquals(handled.get(1), Long.valueOf(2));
+        Assert.assertEquals(handled.get(2), Long.valueOf(3));
+        Assert.assertEquals(sequence.getLastFinishedSequenceNumber(), 3);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        //given
+        final RequestSequence sequence = new RequestSequence();
+
+        //when
+        final boolean inOrder = sequence.awaitTurn(2, 50);
+
+        //then
+        Assert.assertFalse(inOrder);
+    }
+
+    @Test
+    public void testFirstRequestStartsNewPipeline() throws Exception {
+        //given
+        final RequestSequence sequence = new RequestSequence();
+        sequence.awaitTurn(1, 50);
+        sequence.finished(1);
+        Assert.assertTrue(sequence.awaitTurn(2, 50));
+        sequence.finished(2);
+
+        //when
+        final boolean inOrder = sequence.awaitTurn(1, 50);
+
+        //then
+        Assert.assertTrue(inOrder);
+        Assert.assertEquals(sequence.getLastFinishedSequenceNumber(), 0);
+    }
+}
@@ -1,5 +1,7 @@
 package com.canoo.dp.impl.server.event;
 
+import com.canoo.dp.impl.remoting.legacy.commands.StartLongPollCommand;
+import com.canoo.dp.impl.remoting.legacy.communication.Command;
 import com.canoo.platform.server.spi.components.ManagedBeanFactory;
 import com.canoo.dp.impl.server.beans.PostConstructInterceptor;
 import com.canoo.dp.impl.server.client.ClientSessionLifecycleHandlerImpl;
@@ -13,16 +15,26 @@ import com.canoo.dp.impl.server.scanner.DefaultClasspathScanner;
 import com.canoo.impl.server.util.HttpSessionMock;
 import com.canoo.platform.core.functional.Callback;
 import com.canoo.platform.core.functional.Subscription;
+import com.canoo.platform.remoting.server.event.ConflatingTopic;
 import com.canoo.platform.remoting.server.event.RemotingEventBus;
 import com.canoo.platform.server.client.ClientSession;
 import com.canoo.platform.remoting.server.event.MessageEvent;
+import com.canoo.platform.remoting.server.event.MessageEventContext;
 import com.canoo.platform.remoting.server.event.MessageListener;
 import com.canoo.platform.remoting.server.event.Topic;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import javax.servlet.ServletContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class DefaultDolphinEventBusTest {
 
@@ -91,6 +103,252 @@ public class DefaultDolphinEventBusTest {
         Assert.assertFalse(calledCheck.get());
     }
 
+    @Test
+    public void TestConflatingTopicDeliversOnlyNewestPendingEvent() {
+        //given
+        final ConflatingTopic<String> topic = ConflatingTopic.createConflating("conflating-topic");
+        final List<String> receivedMessages = new CopyOnWriteArrayList<>();
+        final DolphinContext context = createContext();
+        final AtomicReference<DolphinContext> currentContext = new AtomicReference<>(context);
+        final RemotingEventBus eventBus = create(context, currentContext);
+        eventBus.subscribe(topic, new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        });
+
+        //when
+        currentContext.set(null);
+        eventBus.publish(topic, "1");
+        eventBus.publish(topic, "2");
+        eventBus.publish(topic, "3");
+        executeTasks(context);
+
+        //then
+        Assert.assertEquals(receivedMessages.size(), 1);
+        Assert.assertEquals(receivedMessages.get(0), "3");
+    }
+
+    @Test
+    public void TestConflatingTopicWithKeyFunction() {
+        //given
+        final ConflatingTopic<String> topic = ConflatingTopic.createConflating("conflating-key-topic", new Function<String, Object>() {
+            @Override
+            public Object apply(String data) {
+                return data.substring(0, 1);
+            }
+        });
+        final List<String> receivedMessages = new CopyOnWriteArrayList<>();
+        final DolphinContext context = createContext();
+        final AtomicReference<DolphinContext> currentContext = new AtomicReference<>(context);
+        final RemotingEventBus eventBus = create(context, currentContext);
+        eventBus.subscribe(topic, new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        });
+
+        //when
+        currentContext.set(null);
+        eventBus.publish(topic, "A1");
+        eventBus.publish(topic, "B1");
+        eventBus.publish(topic, "A2");
+        eventBus.publish(topic, "B2");
+        executeTasks(context);
+
+        //then
+        Assert.assertEquals(receivedMessages.size(), 2);
+        Assert.assertTrue(receivedMessages.contains("A2"));
+        Assert.assertTrue(receivedMessages.contains("B2"));
+    }
+
+    @Test
+    public void TestConflatingTopicOnlyConflatesEventsThatPassTheFilter() {
+        //given
+        final ConflatingTopic<String> topic = ConflatingTopic.createConflating("conflating-filter-topic");
+        final List<String> receivedMessages = new CopyOnWriteArrayList<>();
+        final DolphinContext context = createContext();
+        final AtomicReference<DolphinContext> currentContext = new AtomicReference<>(context);
+        final DefaultDolphinEventBus eventBus = create(context, currentContext);
+        eventBus.subscribe(topic, new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        }, new Predicate<MessageEventContext<String>>() {
+            @Override
+            public boolean test(final MessageEventContext<String> eventContext) {
+                return Boolean.TRUE.equals(eventContext.getMetadata().get("accepted"));
+            }
+        });
+
+        //when
+        currentContext.set(null);
+        final DolphinEvent<String> acceptedEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), "1");
+        acceptedEvent.addMetadata("accepted", true);
+        final DolphinEvent<String> filteredEvent = new DolphinEvent<>(topic, System.currentTimeMillis(), "2");
+        filteredEvent.addMetadata("accepted", false);
+        eventBus.triggerEventHandling(acceptedEvent);
+        eventBus.triggerEventHandling(filteredEvent);
+        executeTasks(context);
+
+        //then
+        Assert.assertEquals(receivedMessages, Collections.singletonList("1"));
+    }
+
+    @Test
+    public void TestNonConflatingTopicDeliversAllEvents() {
+        //given
+        final Topic<String> topic = Topic.create("non-conflating-topic");
+        final List<String> receivedMessages = new CopyOnWriteArrayList<>();
+        final DolphinContext context = createContext();
+        final AtomicReference<DolphinContext> currentContext = new AtomicReference<>(context);
+        final RemotingEventBus eventBus = create(context, currentContext);
+        eventBus.subscribe(topic, new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        });
+
+        //when
+        currentContext.set(null);
+        eventBus.publish(topic, "1");
+        eventBus.publish(topic, "2");
+        eventBus.publish(topic, "3");
+        executeTasks(context);
+
+        //then
+        Assert.assertEquals(receivedMessages.size(), 3);
+    }
+
+    @Test
+    public void TestInactiveContextDoesNotStopDelivery() {
+        //given
+        final Topic<String> topic = Topic.create("inactive-context-topic");
+        final List<String> receivedMessages = new CopyOnWriteArrayList<>();
+        final DolphinContext inactiveContext = createContext();
+        final DolphinContext activeContext = createContext();
+        final Map<String, DolphinContext> activeContexts = new ConcurrentHashMap<>();
+        activeContexts.put(inactiveContext.getId(), inactiveContext);
+        activeContexts.put(activeContext.getId(), activeContext);
+        final AtomicReference<DolphinContext> currentContext = new AtomicReference<>();
+        final DefaultDolphinEventBus eventBus = create(activeContexts, currentContext);
+        final MessageListener<String> listener = new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        };
+        currentContext.set(inactiveContext);
+        eventBus.subscribe(topic, listener);
+        currentContext.set(activeContext);
+        eventBus.subscribe(topic, new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        });
+
+        //when
+        activeContexts.remove(inactiveContext.getId());
+        currentContext.set(null);
+        eventBus.publish(topic, "1");
+        executeTasks(activeContext);
+
+        //then
+        Assert.assertEquals(receivedMessages, Collections.singletonList("1"));
+    }
+
+    @Test
+    public void TestSubscriptionsRemovedWhenContextDestroyed() {
+        //given
+        final Topic<String> topic = Topic.create("destroyed-context-topic");
+        final List<String> receivedMessages = new CopyOnWriteArrayList<>();
+        final DolphinContext context = createContext();
+        final AtomicReference<DolphinContext> currentContext = new AtomicReference<>(context);
+        final DefaultDolphinEventBus eventBus = create(context, currentContext);
+        final MessageListener<String> listener = new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        };
+        eventBus.subscribe(topic, listener);
+
+        //when
+        eventBus.onContextDestroyed(context.getId());
+        eventBus.subscribe(topic, new MessageListener<String>() {
+            @Override
+            public void onMessage(MessageEvent<String> message) {
+                receivedMessages.add(message.getData());
+            }
+        });
+        currentContext.set(null);
+        eventBus.publish(topic, "1");
+        executeTasks(context);
+
+        //then
+        Assert.assertEquals(receivedMessages, Collections.singletonList("1"));
+    }
+
+    private void executeTasks(final DolphinContext context) {
+        context.runLater(new Runnable() {
+            @Override
+            public void run() {
+                context.interrupt();
+            }
+        });
+        context.handle(Collections.<Command>singletonList(new StartLongPollCommand()));
+    }
+
+    private DefaultDolphinEventBus create(final DolphinContext context, final AtomicReference<DolphinContext> currentContext) {
+        DefaultDolphinEventBus eventBus = new DefaultDolphinEventBus();
+        eventBus.init(new DolphinContextProvider() {
+            @Override
+            public DolphinContext getContext(ClientSession clientSession) {
+                return getContextById(clientSession.getId());
+            }
+
+            @Override
+            public DolphinContext getContextById(String clientSessionId) {
+                if (context.getId().equals(clientSessionId)) {
+                    return context;
+                }
+                return null;
+            }
+
+            @Override
+            public DolphinContext getCurrentDolphinContext() {
+                return currentContext.get();
+            }
+        }, new ClientSessionLifecycleHandlerImpl());
+        return eventBus;
+    }
+
+    private DefaultDolphinEventBus create(final Map<String, DolphinContext> activeContexts, final AtomicReference<DolphinContext> currentContext) {
+        DefaultDolphinEventBus eventBus = new DefaultDolphinEventBus();
+        eventBus.init(new DolphinContextProvider() {
+            @Override
+            public DolphinContext getContext(ClientSession clientSession) {
+                return getContextById(clientSession.getId());
+            }
+
+            @Override
+            public DolphinContext getContextById(String clientSessionId) {
+                return activeContexts.get(clientSessionId);
+            }
+
+            @Override
+            public DolphinContext getCurrentDolphinContext() {
+                return currentContext.get();
+            }
+        }, new ClientSessionLifecycleHandlerImpl());
+        return eventBus;
+    }
+
     private DefaultDolphinEventBus create(final DolphinContext context) {
         DefaultDolphinEventBus eventBus = new DefaultDolphinEventBus();
         eventBus.init(new DolphinContextProvider() {
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import com.canoo.dp.impl.remoting.PlatformRemotingConstants;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class LocalDolphinContextReplicatorTest {
+
+    private File directory;
+
+    private LocalDolphinContextReplicator replicator;
+
+    @BeforeMethod
+    public void init() throws Exception {
+        directory = Files.createTempDirectory("dolphin-replication-test").toFile();
+        replicator = new LocalDolphinContextReplicator(new MappedFileSnapshotStore(directory, 64 * 1024));
+    }
+
+    @AfterMethod
+    public void destroy() {
+        replicator.close();
+        directory.delete();
+    }
+
+    @Test
+    public void testApplyDeltas() {
+        //given:
+        final PresentationModelSnapshot classModel = createModel("class-1", PlatformRemotingConstants.DOLPHIN_BEAN, "MyBean");
+        final PresentationModelSnapshot bean1 = createModel("1S", "MyBean", "a");
+        final PresentationModelSnapshot bean2 = createModel("2S", "MyBean", "b");
+
+        //when:
+        replicator.replicate(new DolphinContextDelta("context-1", true, 2, Arrays.asList(bean1, bean2), Collections.<String>emptyList(), Collections.<ControllerSnapshot>emptyList()));
+        replicator.replicate(new DolphinContextDelta("context-1", false, 3, Arrays.asList(createModel("1S", "MyBean", "c"), classModel), Collections.singletonList("2S"), Collections.singletonList(new ControllerSnapshot("controller-1", "MyController", null, "1S"))));
+        final DolphinContextSnapshot snapshot = replicator.recover("context-1");
+
+        //then:
+        assertNotNull(snapshot);
+        assertEquals(snapshot.getPmInstanceCount(), 3);
+        final List<PresentationModelSnapshot> models = snapshot.getPresentationModels();
+        assertEquals(models.size(), 2);
+        assertEquals(models.get(0).getId(), "class-1");
+        assertEquals(models.get(1).getId(), "1S");
+        assertEquals(models.get(1).getAttributes().get(0).getValue(), "c");
+        assertEquals(snapshot.getControllers().size(), 1);
+        assertEquals(replicator.getAppliedDeltaCount(), 2);
+    }
+
+    @Test
+    public void testFullDeltaReplacesState() {
+        //given:
+        replicator.replicate(new DolphinContextDelta("context-1", true, 1, Collections.singletonList(createModel("1S", "MyBean", "a")), Collections.<String>emptyList(), Collections.<ControllerSnapshot>emptyList()));
+
+        //when:
+        replicator.replicate(new DolphinContextDelta("context-1", true, 1, Collections.singletonList(createModel("5S", "MyBean", "b")), Collections.<String>emptyList(), Collections.<ControllerSnapshot>emptyList()));
+        final DolphinContextSnapshot snapshot = replicator.recover("context-1");
+
+        //then:
+        assertEquals(snapshot.getPresentationModels().size(), 1);
+        assertEquals(snapshot.getPresentationModels().get(0).getId(), "5S");
+    }
+
+    @Test
+    public void testDeltaWithoutStateIsDropped() {
+        //when:
+        replicator.replicate(new DolphinContextDelta("context-1", false, 1, Collections.singletonList(createModel("1S", "MyBean", "a")), Collections.<String>emptyList(), Collections.<ControllerSnapshot>emptyList()));
+
+        //then:
+        assertNull(replicator.recover("context-1"));
+    }
+
+    @Test
+    public void testRemove() {
+        //given:
+        replicator.replicate(new DolphinContextDelta("context-1", true, 1, Collections.singletonList(createModel("1S", "MyBean", "a")), Collections.<String>emptyList(), Collections.<ControllerSnapshot>emptyList()));
+
+        //when:
+        replicator.remove("context-1");
+
+        //then:
+        assertNull(replicator.recover("context-1"));
+    }
+
+    private PresentationModelSnapshot createModel(final String id, final String type, final String value) {
+        final AttributeSnapshot attribute = new AttributeSnapshot(id + "-value", "value", value, null);
+        return new PresentationModelSnapshot(id, type, Collections.singletonList(attribute), new HashMap<String, List<Object>>());
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.passivation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class MappedFileSnapshotStoreTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("dolphin-passivation-test").toFile();
+    }
+
+    @AfterMethod
+    public void deleteDirectory() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        //given:
+        final MappedFileSnapshotStore store = new MappedFileSnapshotStore(directory, 64 * 1024);
+        try {
+            final DolphinContextSnapshot snapshot = createSnapshot("context-1", 1);
+
+            //when:
+            store.store(snapshot);
+            final DolphinContextSnapshot loaded = store.load("context-1");
+
+            //then:
+            assertEquals(store.size(), 1);
+            assertNotNull(loaded);
+            assertEquals(loaded.getContextId(), "context-1");
+            assertEquals(loaded.getPmInstanceCount(), 42L);
+            assertEquals(loaded.getPresentationModels().size(), 1);
+            final PresentationModelSnapshot model = loaded.getPresentationModels().get(0);
+            assertEquals(model.getId(), "1S");
+            assertEquals(model.getType(), "my.Type");
+            assertEquals(model.getAttributes().get(0).getId(), "2S");
+            assertEquals(model.getAttributes().get(0).getValue(), "value-0");
+            assertEquals(model.getLists().get("list"), createListContent());
+            assertEquals(loaded.getControllers().get(0).getName(), "MyController");
+            assertEquals(loaded.getControllers().get(0).getModelId(), "1S");
+            assertNull(store.load("unknown"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        //given:
+        final MappedFileSnapshotStore store = new MappedFileSnapshotStore(directory, 64 * 1024);
+        try {
+            store.store(createSnapshot("context-1", 1));
+
+            //when:
+            store.store(createSnapshot("context-1", 3));
+
+            //then:
+            assertEquals(store.size(), 1);
+            assertEquals(store.load("context-1").getPresentationModels().get(0).getAttributes().size(), 3);
+
+            //when:
+            final boolean removed = store.remove("context-1");
+
+            //then:
+            assertTrue(removed);
+            assertFalse(store.remove("context-1"));
+            assertNull(store.load("context-1"));
+            assertEquals(store.size(), 0);
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testSegmentRollingAndDeletion() {
+        //given:
+        final int snapshotSize = DolphinContextSnapshotSerializer.serialize(createSnapshot("context-0", 10)).length;
+        final MappedFileSnapshotStore store = new MappedFileSnapshotStore(directory, 2 * (snapshotSize + 4) + 1);
+        try {
+            //when:
+            for (int i = 0; i < 4; i++) {
+                store.store(createSnapshot("context-" + i, 10));
+            }
+
+            //then:
+            assertEquals(store.size(), 4);
+            assertEquals(store.getSegmentCount(), 2);
+            assertEquals(directory.listFiles().length, 2);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(store.load("context-" + i).getContextId(), "context-" + i);
+            }
+
+            //when:
+            store.remove("context-0");
+            store.remove("context-1");
+
+            //then:
+            assertEquals(store.getSegmentCount(), 1);
+            assertEquals(directory.listFiles().length, 1);
+            assertEquals(store.load("context-2").getContextId(), "context-2");
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testCompactionOfMostlyUnusedSegment() {
+        //given:
+        final int snapshotSize = DolphinContextSnapshotSerializer.serialize(createSnapshot("context-0", 10)).length;
+        final MappedFileSnapshotStore store = new MappedFileSnapshotStore(directory, 4 * (snapshotSize + 4) + 1);
+        try {
+            for (int i = 0; i < 5; i++) {
+                store.store(createSnapshot("context-" + i, 10));
+            }
+            assertEquals(store.getSegmentCount(), 2);
+
+            //when:
+            store.remove("context-0");
+            store.remove("context-1");
+
+            //then:
+            assertEquals(store.getSegmentCount(), 2);
+            assertEquals(store.getCompactionCount(), 0);
+
+            //when:
+            store.remove("context-2");
+
+            //then:
+            assertEquals(store.getCompactionCount(), 1);
+            assertEquals(store.getSegmentCount(), 1);
+            assertEquals(directory.listFiles().length, 1);
+            assertEquals(store.size(), 2);
+            assertEquals(store.load("context-3").getContextId(), "context-3");
+            assertEquals(store.load("context-4").getContextId(), "context-4");
+
+            //when:
+            store.remove("context-3");
+            store.remove("context-4");
+
+            //then:
+            assertEquals(store.size(), 0);
+            assertEquals(store.getSegmentCount(), 1);
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testSnapshotBiggerThanSegment() {
+        //given:
+        final MappedFileSnapshotStore store = new MappedFileSnapshotStore(directory, 256);
+        try {
+            //when:
+            store.store(createSnapshot("context-1", 100));
+
+            //then:
+            assertEquals(store.load("context-1").getPresentationModels().get(0).getAttributes().size(), 100);
+
+            //when:
+            store.remove("context-1");
+
+            //then:
+            assertEquals(store.getSegmentCount(), 0);
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testClose() {
+        //given:
+        final MappedFileSnapshotStore store = new MappedFileSnapshotStore(directory, 64 * 1024);
+        store.store(createSnapshot("context-1", 1));
+
+        //when:
+        store.close();
+
+        //then:
+        assertEquals(store.size(), 0);
+        assertEquals(directory.listFiles().length, 0);
+        try {
+            store.load("context-1");
+            fail("A closed store can not be used");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private DolphinContextSnapshot createSnapshot(final String contextId, final int attributeCount) {
+        final List<AttributeSnapshot> attributes = new ArrayList<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.add(new AttributeSnapshot((i + 2) + "S", "property" + i, "value-" + i, null));
+        }
+        final Map<String, List<Object>> lists = new HashMap<>();
+        lists.put("list", createListContent());
+        final PresentationModelSnapshot model = new PresentationModelSnapshot("1S", "my.Type", attributes, lists);
+        final ControllerSnapshot controller = new ControllerSnapshot("controller-1", "MyController", null, "1S");
+        return new DolphinContextSnapshot(contextId, 42, Collections.singletonList(model), Collections.singletonList(controller));
+    }
+
+    private List<Object> createListContent() {
+        final List<Object> content = new ArrayList<>();
+        content.add("a");
+        content.add(1);
+        content.add(null);
+        return content;
+    }
+}
@@ -73,6 +73,15 @@ public class CdiManagedBeanFactory implements ManagedBeanFactory {
 
     @Override
     public <T> T createDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+        return createDependentInstance(cls, interceptor, true);
+    }
+
+    @Override
+    public <T> T restoreDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+        return createDependentInstance(cls, interceptor, false);
+    }
+
+    private <T> T createDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor, boolean callPostConstruct) {
         Assert.requireNonNull(cls, "cls");
         Assert.requireNonNull(interceptor, "interceptor");
         BeanManager bm = BeanManagerProvider.getInstance().getBeanManager();
@@ -82,7 +91,7 @@ public class CdiManagedBeanFactory implements ManagedBeanFactory {
                 .beanClass(cls)
                 .name(UUID.randomUUID().toString())
                 .scope(Dependent.class)
-                .beanLifecycle(new DolphinPlatformContextualLifecycle<T>(injectionTarget, interceptor))
+                .beanLifecycle(new DolphinPlatformContextualLifecycle<T>(injectionTarget, interceptor, callPostConstruct))
                 .create();
         Class<?> beanClass = bean.getBeanClass();
         CreationalContext<T> creationalContext = bm.createCreationalContext(bean);
@@ -40,9 +40,16 @@ public class DolphinPlatformContextualLifecycle<T> implements ContextualLifecycl
 
     private PostConstructInterceptor<T> interceptor;
 
+    private final boolean callPostConstruct;
+
     public DolphinPlatformContextualLifecycle(InjectionTarget<T> injectionTarget, PostConstructInterceptor<T> interceptor) {
+        this(injectionTarget, interceptor, true);
+    }
+
+    public DolphinPlatformContextualLifecycle(InjectionTarget<T> injectionTarget, PostConstructInterceptor<T> interceptor, boolean callPostConstruct) {
         this.injectionTarget = Assert.requireNonNull(injectionTarget, "injectionTarget");
         this.interceptor = Assert.requireNonNull(interceptor, "interceptor");
+        this.callPostConstruct = callPostConstruct;
     }
 
     @Override
@@ -56,7 +63,9 @@ public class DolphinPlatformContextualLifecycle<T> implements ContextualLifecycl
             T instance = injectionTarget.produce(creationalContext);
             interceptor.intercept(instance);
             injectionTarget.inject(instance, creationalContext);
-            injectionTarget.postConstruct(instance);
+            if (callPostConstruct) {
+                injectionTarget.postConstruct(instance);
+            }
             return instance;
         } finally {
             interceptor = null;
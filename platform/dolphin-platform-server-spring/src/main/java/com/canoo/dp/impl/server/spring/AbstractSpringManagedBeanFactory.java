@@ -59,6 +59,18 @@ public abstract class AbstractSpringManagedBeanFactory implements ManagedBeanFac
         return beanFactory.createBean(cls);
     }
 
+    @Override
+    public <T> T restoreDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+        Assert.requireNonNull(cls, "cls");
+        Assert.requireNonNull(interceptor, "interceptor");
+        ApplicationContext context = getContext();
+        AutowireCapableBeanFactory beanFactory = context.getAutowireCapableBeanFactory();
+        SpringPreInjector.getInstance().prepare(cls, interceptor);
+        // autowire(...) injects all dependencies but does not initialize the bean (no post construct methods)
+        final Object instance = beanFactory.autowire(cls, AutowireCapableBeanFactory.AUTOWIRE_NO, false);
+        return (T) beanFactory.applyBeanPostProcessorsAfterInitialization(instance, cls.getName());
+    }
+
     @Override
     public <T> void destroyDependentInstance(T instance, Class<T> cls) {
         Assert.requireNonNull(instance, "instance");
@@ -19,6 +19,9 @@ import com.canoo.dp.impl.platform.core.Assert;
 import com.canoo.platform.core.functional.Callback;
 import com.canoo.platform.server.spi.components.ManagedBeanFactory;
 import com.canoo.dp.impl.server.client.*;
+import com.canoo.dp.impl.server.mbean.MBeanDescription;
+import com.canoo.dp.impl.server.mbean.MBeanRegistry;
+import com.canoo.dp.impl.server.mbean.beans.ClientSessionRegistryInfo;
 import com.canoo.platform.server.ServerListener;
 import com.canoo.platform.server.client.ClientSession;
 import com.canoo.platform.server.client.ClientSessionListener;
@@ -80,7 +83,12 @@ public class ClientSessionModule extends AbstractBaseModule {
         });
 
 
-        final ClientSessionManager clientSessionManager = new ClientSessionManager(configuration, lifecycleHandler);
+        final ClientSessionRegistry clientSessionRegistry = new ClientSessionRegistry();
+        coreComponents.provideInstance(ClientSessionRegistry.class, clientSessionRegistry);
+        MBeanRegistry.getInstance().register(new ClientSessionRegistryInfo(clientSessionRegistry), new MBeanDescription("com.canoo.dolphin", "ClientSessionRegistry", "registry"));
+
+        final ClientSessionManager clientSessionManager = new ClientSessionManager(configuration, lifecycleHandler, clientSessionRegistry);
+        coreComponents.provideInstance(ClientSessionManager.class, clientSessionManager);
 
         final List<String> endpointList = configuration.getListProperty(ID_FILTER_URL_MAPPINGS, ID_FILTER_URL_MAPPINGS_DEFAULT_VALUE);
         final String[] endpoints = endpointList.toArray(new String[endpointList.size()]);
@@ -60,7 +60,9 @@ public class ClientSessionFilter implements Filter {
                 }
             } else {
                 LOG.trace("Trying to find client session {} in http session {}", clientId, httpSession.getId());
-                if (!clientSessionManager.checkValidClientSession(httpSession, clientId)) {
+                if (clientSessionManager.checkValidClientSession(httpSession, clientId) || clientSessionManager.recoverClientSession(httpSession, clientId)) {
+                    continueRequest(servletRequest, servletResponse, chain, httpSession, clientId);
+                } else {
                     if (httpSession.getAttribute(INITIALIZED_IN_SESSION) == null) {
                         LOG.warn("Can not find requested client for id {} in session {} (session timeout)", clientId, httpSession.getId());
                         servletResponse.sendError(HttpServletResponse.SC_REQUEST_TIMEOUT, "Can not find requested client (session timeout)!");
@@ -68,8 +70,6 @@ public class ClientSessionFilter implements Filter {
                         LOG.warn("Can not find requested client for id {} in session {} (unknown error)", clientId, httpSession.getId());
                         servletResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Can not find requested client (unknown error)!");
                     }
-                } else {
-                    continueRequest(servletRequest, servletResponse, chain, httpSession, clientId);
                 }
             }
         } catch (Exception e) {
@@ -23,10 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpSession;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static com.canoo.dp.impl.server.config.DefaultPlatformConfiguration.MAX_CLIENTS_PER_SESSION;
@@ -37,104 +33,96 @@ public class ClientSessionManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(ClientSessionManager.class);
 
-    private static final String DOLPHIN_CONTEXT_MAP = "DOLPHIN_CONTEXT_MAP";
+    private final ClientSessionLifecycleHandlerImpl lifecycleHandler;
 
-    private static final String CLIENT_SESSION_LOCK = "CLIENT_SESSION_LOCK";
+    private final ClientSessionRegistry registry;
 
-    private final PlatformConfiguration configuration;
+    private final int maxClientSessionsPerHttpSession;
 
-    private final ClientSessionLifecycleHandlerImpl lifecycleHandler;
+    private volatile ClientSessionRecoveryHandler recoveryHandler;
 
     public ClientSessionManager(PlatformConfiguration configuration, ClientSessionLifecycleHandlerImpl lifecycleHandler) {
-        this.configuration = configuration;
-        this.lifecycleHandler = lifecycleHandler;
+        this(configuration, lifecycleHandler, new ClientSessionRegistry());
+    }
+
+    public ClientSessionManager(PlatformConfiguration configuration, ClientSessionLifecycleHandlerImpl lifecycleHandler, ClientSessionRegistry registry) {
+        Assert.requireNonNull(configuration, "configuration");
+        this.lifecycleHandler = Assert.requireNonNull(lifecycleHandler, "lifecycleHandler");
+        this.registry = Assert.requireNonNull(registry, "registry");
+        this.maxClientSessionsPerHttpSession = configuration.getIntProperty(MAX_CLIENTS_PER_SESSION, MAX_CLIENTS_PER_SESSION_DEFAULT_VALUE);
     }
 
     public String createClientSession(HttpSession httpSession) throws MaxSessionCountReachedException {
-        if (!canAddInSession(httpSession)) {
+        Assert.requireNonNull(httpSession, "httpSession");
+        final ClientSession clientSession = new HttpClientSessionImpl(httpSession);
+        if (!registry.add(clientSession, maxClientSessionsPerHttpSession)) {
             throw new MaxSessionCountReachedException();
         }
 
-        final ClientSession clientSession = new HttpClientSessionImpl(httpSession);
-        add(httpSession, clientSession);
-
         lifecycleHandler.onSessionCreated(clientSession);
         LOG.trace("Created new DolphinContext {} in http session {}", clientSession.getId(), httpSession.getId());
         return clientSession.getId();
     }
 
-    public boolean checkValidClientSession(HttpSession httpSession, String clientSessionId) {
-        Lock lock = getOrCreateClientSessionLockForHttpSession(httpSession);
-        lock.lock();
-        try {
-            return getOrCreateClientSessionMapInHttpSession(httpSession).containsKey(clientSessionId);
-        } finally {
-            lock.unlock();
+    /**
+     * Creates a client session with the given id if the id is unknown on this node and the client session can be
+     * recovered by the {@link ClientSessionRecoveryHandler} in the given HTTP session. The handler only accepts the
+     * HTTP session that created the client session, so recovery after a failover needs a container that replicates
+     * HTTP sessions (or keeps their ids).
+     * @param httpSession the HTTP session
+     * @param clientSessionId the id of the client session
+     * @return true if the client session was recovered
+     */
+    public boolean recoverClientSession(final HttpSession httpSession, final String clientSessionId) {
+        Assert.requireNonNull(httpSession, "httpSession");
+        Assert.requireNonBlank(clientSessionId, "clientSessionId");
+        final ClientSessionRecoveryHandler handler = recoveryHandler;
+        if (handler == null || !handler.isRecoverable(clientSessionId, httpSession.getId())) {
+            return false;
         }
-    }
-
-    public void removeAllClientSessionsInHttpSession(HttpSession httpSession) {
-        Lock lock = getOrCreateClientSessionLockForHttpSession(httpSession);
-        lock.lock();
-        try {
-            Map<String, ClientSession> map = getOrCreateClientSessionMapInHttpSession(httpSession);
-            for(ClientSession session : map.values()) {
-                lifecycleHandler.onSessionDestroyed(session);
-            }
-            map.clear();
-        } finally {
-            lock.unlock();
+        final ClientSession clientSession = new HttpClientSessionImpl(httpSession, clientSessionId);
+        if (!registry.add(clientSession, maxClientSessionsPerHttpSession)) {
+            LOG.warn("Can not recover client session {} in http session {}", clientSessionId, httpSession.getId());
+            return false;
         }
+
+        lifecycleHandler.onSessionCreated(clientSession);
+        LOG.info("Recovered client session {} in http session {}", clientSessionId, httpSession.getId());
+        return true;
     }
 
-    public void setClientSessionForThread(HttpSession httpSession, String clientSessionId) {
-        Lock lock = getOrCreateClientSessionLockForHttpSession(httpSession);
-        lock.lock();
-        try {
-            lifecycleHandler.setCurrentSession(getOrCreateClientSessionMapInHttpSession(httpSession).get(clientSessionId));
-        } finally {
-            lock.unlock();
-        }
+    public void setRecoveryHandler(final ClientSessionRecoveryHandler recoveryHandler) {
+        this.recoveryHandler = recoveryHandler;
     }
 
-    public void resetClientSessionForThread() {
-        lifecycleHandler.setCurrentSession(null);
+    public boolean checkValidClientSession(HttpSession httpSession, String clientSessionId) {
+        Assert.requireNonNull(httpSession, "httpSession");
+        return registry.get(httpSession.getId(), clientSessionId) != null;
     }
 
-    private void add(HttpSession httpSession, ClientSession clientSession) {
-        Lock lock = getOrCreateClientSessionLockForHttpSession(httpSession);
-        lock.lock();
-        try {
-            getOrCreateClientSessionMapInHttpSession(httpSession).put(clientSession.getId(), clientSession);
-        } finally {
-            lock.unlock();
+    public void removeAllClientSessionsInHttpSession(HttpSession httpSession) {
+        Assert.requireNonNull(httpSession, "httpSession");
+        for(ClientSession session : registry.removeAll(httpSession.getId())) {
+            lifecycleHandler.onSessionDestroyed(session);
         }
     }
 
-    private boolean canAddInSession(HttpSession httpSession) {
-        Lock lock = getOrCreateClientSessionLockForHttpSession(httpSession);
-        lock.lock();
-        try {
-            return getOrCreateClientSessionMapInHttpSession(httpSession).size() < configuration.getIntProperty(MAX_CLIENTS_PER_SESSION, MAX_CLIENTS_PER_SESSION_DEFAULT_VALUE);
-        } finally {
-            lock.unlock();
-        }
+    public void onHttpSessionIdChanged(HttpSession httpSession, String oldHttpSessionId) {
+        Assert.requireNonNull(httpSession, "httpSession");
+        LOG.trace("Id of http session {} changed to {}", oldHttpSessionId, httpSession.getId());
+        registry.changeHttpSessionId(oldHttpSessionId, httpSession.getId());
     }
 
-    private Map<String, ClientSession> getOrCreateClientSessionMapInHttpSession(HttpSession session) {
-        Assert.requireNonNull(session, "session");
-        if (session.getAttribute(DOLPHIN_CONTEXT_MAP) == null) {
-            session.setAttribute(DOLPHIN_CONTEXT_MAP, new HashMap<>());
-        }
-        return (Map<String, ClientSession>) session.getAttribute(DOLPHIN_CONTEXT_MAP);
+    public void setClientSessionForThread(HttpSession httpSession, String clientSessionId) {
+        Assert.requireNonNull(httpSession, "httpSession");
+        lifecycleHandler.setCurrentSession(registry.get(httpSession.getId(), clientSessionId));
     }
 
-    private synchronized Lock getOrCreateClientSessionLockForHttpSession(HttpSession session) {
-        Assert.requireNonNull(session, "session");
-        if (session.getAttribute(CLIENT_SESSION_LOCK) == null) {
-            session.setAttribute(CLIENT_SESSION_LOCK, new ReentrantLock());
-        }
-        return (Lock) session.getAttribute(CLIENT_SESSION_LOCK);
+    public void resetClientSessionForThread() {
+        lifecycleHandler.setCurrentSession(null);
     }
 
+    public ClientSessionRegistry getRegistry() {
+        return registry;
+    }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.client;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Decides if a client session that is unknown on this server node can be recovered. This is the case after a failover
+ * if the state of the client session was replicated by the node that created the client session. A client session must
+ * only be recovered in the HTTP session that created it. Otherwise a leaked client id would be enough to take over the
+ * client session of another user.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface ClientSessionRecoveryHandler {
+
+    /**
+     * Returns true if the client session with the given id can be recovered on this node in the given HTTP session
+     * @param clientSessionId the id of the client session
+     * @param httpSessionId the id of the HTTP session of the request
+     * @return true if the client session can be recovered
+     */
+    boolean isRecoverable(String clientSessionId, String httpSessionId);
+}
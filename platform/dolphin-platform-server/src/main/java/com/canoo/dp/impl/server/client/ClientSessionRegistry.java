@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.client;
+
+import com.canoo.dp.impl.platform.core.Assert;
+import com.canoo.platform.server.client.ClientSession;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Registry of all client sessions of a server node. The sessions are stored in several shards based on the hash of
+ * the client session id. Lookups on the request path never need a lock. Adding and removing a client session only
+ * locks the entry of the HTTP session in the index that is used to count the client sessions per HTTP session.
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public class ClientSessionRegistry {
+
+    public static final int DEFAULT_SHARD_COUNT = 16;
+
+    private final ConcurrentHashMap<String, ClientSession>[] shards;
+
+    private final ConcurrentHashMap<String, Set<String>> clientSessionIdsPerHttpSession = new ConcurrentHashMap<>();
+
+    public ClientSessionRegistry() {
+        this(DEFAULT_SHARD_COUNT);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ClientSessionRegistry(final int shardCount) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("shardCount must be a power of 2");
+        }
+        this.shards = new ConcurrentHashMap[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Adds a client session to the registry if the HTTP session of the client session contains less than the given
+     * number of client sessions and no client session with the same id is registered
+     * @param clientSession the client session
+     * @param maxClientSessionsPerHttpSession maximum number of client sessions in one HTTP session
+     * @return true if the client session was added
+     */
+    public boolean add(final ClientSession clientSession, final int maxClientSessionsPerHttpSession) {
+        Assert.requireNonNull(clientSession, "clientSession");
+        final String clientSessionId = clientSession.getId();
+        final String httpSessionId = Assert.requireNonNull(clientSession.getHttpSession(), "httpSession").getId();
+        final boolean[] added = new boolean[1];
+        clientSessionIdsPerHttpSession.compute(httpSessionId, new BiFunction<String, Set<String>, Set<String>>() {
+            @Override
+            public Set<String> apply(final String key, final Set<String> current) {
+                final Set<String> clientSessionIds = current == null ? ConcurrentHashMap.<String>newKeySet() : current;
+                if (clientSessionIds.size() < maxClientSessionsPerHttpSession && getShard(clientSessionId).putIfAbsent(clientSessionId, clientSession) == null) {
+                    clientSessionIds.add(clientSessionId);
+                    added[0] = true;
+                }
+                return clientSessionIds.isEmpty() ? null : clientSessionIds;
+            }
+        });
+        return added[0];
+    }
+
+    /**
+     * Returns the client session with the given id if it is part of the given HTTP session
+     * @param httpSessionId the id of the HTTP session
+     * @param clientSessionId the id of the client session
+     * @return the client session or null
+     */
+    public ClientSession get(final String httpSessionId, final String clientSessionId) {
+        Assert.requireNonNull(httpSessionId, "httpSessionId");
+        if (clientSessionId == null) {
+            return null;
+        }
+        final ClientSession clientSession = getShard(clientSessionId).get(clientSessionId);
+        if (clientSession == null || !httpSessionId.equals(clientSession.getHttpSession().getId())) {
+            return null;
+        }
+        return clientSession;
+    }
+
+    /**
+     * Removes all client sessions of the given HTTP session
+     * @param httpSessionId the id of the HTTP session
+     * @return the removed client sessions
+     */
+    public List<ClientSession> removeAll(final String httpSessionId) {
+        Assert.requireNonNull(httpSessionId, "httpSessionId");
+        final List<ClientSession> removed = new ArrayList<>();
+        final Set<String> clientSessionIds = clientSessionIdsPerHttpSession.remove(httpSessionId);
+        if (clientSessionIds != null) {
+            for (final String clientSessionId : clientSessionIds) {
+                final ClientSession clientSession = getShard(clientSessionId).remove(clientSessionId);
+                if (clientSession != null) {
+                    removed.add(clientSession);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Moves all client sessions of a HTTP session to the new id of the HTTP session. This must be called whenever the
+     * id of a HTTP session changes (see {@link javax.servlet.http.HttpServletRequest#changeSessionId()}). Otherwise the
+     * client sessions can not be removed once the HTTP session is destroyed.
+     * @param oldHttpSessionId the old id of the HTTP session
+     * @param newHttpSessionId the new id of the HTTP session
+     */
+    public void changeHttpSessionId(final String oldHttpSessionId, final String newHttpSessionId) {
+        Assert.requireNonNull(oldHttpSessionId, "oldHttpSessionId");
+        Assert.requireNonNull(newHttpSessionId, "newHttpSessionId");
+        final Set<String> clientSessionIds = clientSessionIdsPerHttpSession.remove(oldHttpSessionId);
+        if (clientSessionIds != null) {
+            clientSessionIdsPerHttpSession.merge(newHttpSessionId, clientSessionIds, new BiFunction<Set<String>, Set<String>, Set<String>>() {
+                @Override
+                public Set<String> apply(final Set<String> current, final Set<String> moved) {
+                    current.addAll(moved);
+                    return current;
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of client sessions on this node
+     * @return the number of client sessions
+     */
+    public int getClientSessionCount() {
+        int count = 0;
+        for (final Map<String, ClientSession> shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of client sessions in the given HTTP session
+     * @param httpSessionId the id of the HTTP session
+     * @return the number of client sessions
+     */
+    public int getClientSessionCount(final String httpSessionId) {
+        Assert.requireNonNull(httpSessionId, "httpSessionId");
+        final Set<String> clientSessionIds = clientSessionIdsPerHttpSession.get(httpSessionId);
+        return clientSessionIds == null ? 0 : clientSessionIds.size();
+    }
+
+    /**
+     * Returns the number of HTTP sessions that contain at least one client session
+     * @return the number of HTTP sessions
+     */
+    public int getHttpSessionCount() {
+        return clientSessionIdsPerHttpSession.size();
+    }
+
+    /**
+     * Returns the number of client sessions for each HTTP session
+     * @return the number of client sessions by HTTP session id
+     */
+    public Map<String, Integer> getClientSessionCountPerHttpSession() {
+        final Map<String, Integer> counts = new HashMap<>();
+        for (final Map.Entry<String, Set<String>> entry : clientSessionIdsPerHttpSession.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().size());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private ConcurrentHashMap<String, ClientSession> getShard(final String clientSessionId) {
+        final int hash = clientSessionId.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+}
@@ -41,8 +41,18 @@ public class HttpClientSessionImpl implements ClientSession {
     private final String dolphinSessionId;
 
     public HttpClientSessionImpl(final HttpSession httpSession) {
+        this(httpSession, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Creates a client session with a given id. This is used to recover a client session that was created on another
+     * server node.
+     * @param httpSession the HTTP session
+     * @param clientSessionId the id of the client session
+     */
+    public HttpClientSessionImpl(final HttpSession httpSession, final String clientSessionId) {
         this.httpSession = Assert.requireNonNull(httpSession, "httpSession");
-        this.dolphinSessionId = UUID.randomUUID().toString();
+        this.dolphinSessionId = Assert.requireNonBlank(clientSessionId, "clientSessionId");
         this.store = new ConcurrentHashMap<>();
     }
 
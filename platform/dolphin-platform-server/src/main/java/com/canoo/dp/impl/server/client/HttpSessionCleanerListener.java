@@ -21,15 +21,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionIdListener;
 import javax.servlet.http.HttpSessionListener;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
 /**
- * A {@link HttpSessionListener} that destroys all {@link DolphinContext} instances for a session
+ * A {@link HttpSessionListener} that destroys all {@link DolphinContext} instances for a session. Since the client
+ * sessions are registered by the id of the http session the listener updates the registry if the id of a http session
+ * changes.
  */
 @API(since = "0.x", status = INTERNAL)
-public class HttpSessionCleanerListener implements HttpSessionListener {
+public class HttpSessionCleanerListener implements HttpSessionListener, HttpSessionIdListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(HttpSessionCleanerListener.class);
 
@@ -48,4 +51,10 @@ public class HttpSessionCleanerListener implements HttpSessionListener {
         LOG.trace("Http session {} destroyed! Will remove all client sessions for the http session.", sessionEvent.getSession().getId());
         clientSessionManager.removeAllClientSessionsInHttpSession(sessionEvent.getSession());
     }
+
+    @Override
+    public void sessionIdChanged(HttpSessionEvent sessionEvent, String oldSessionId) {
+        Assert.requireNonNull(sessionEvent, "sessionEvent");
+        clientSessionManager.onHttpSessionIdChanged(sessionEvent.getSession(), oldSessionId);
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.dp.impl.server.mbean.beans;
+
+import org.apiguardian.api.API;
+
+import java.util.Map;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * Interface for a MBean that provides statistics about the client sessions of a server node
+ */
+@API(since = "1.0.0", status = INTERNAL)
+public interface ClientSessionRegistryInfoMBean {
+
+    int getClientSessionCount();
+
+    int getHttpSessionCount();
+
+    Map<String, Integer> getClientSessionCountPerHttpSession();
+}
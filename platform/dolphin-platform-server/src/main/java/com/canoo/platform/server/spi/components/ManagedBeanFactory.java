@@ -31,5 +31,15 @@ public interface ManagedBeanFactory {
 
     <T> T createDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor);
 
+    /**
+     * Creates an instance like {@link #createDependentInstance(Class, PostConstructInterceptor)} but without calling
+     * the post construct methods of the instance. This is used to recreate controllers of a restored context since
+     * the restored models already contain the state that is normally initialized in the post construct methods. The
+     * default implementation calls the post construct methods.
+     */
+    default <T> T restoreDependentInstance(Class<T> cls, PostConstructInterceptor<T> interceptor) {
+        return createDependentInstance(cls, interceptor);
+    }
+
     <T> void destroyDependentInstance(T instance, Class<T> cls);
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2015-2017 Canoo Engineering AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.canoo.impl.server;
+
+import com.canoo.dp.impl.server.client.ClientSessionLifecycleHandlerImpl;
+import com.canoo.dp.impl.server.client.ClientSessionManager;
+import com.canoo.dp.impl.server.client.ClientSessionRecoveryHandler;
+import com.canoo.dp.impl.server.client.ClientSessionRegistry;
+import com.canoo.dp.impl.server.client.HttpClientSessionImpl;
+import com.canoo.dp.impl.server.client.HttpSessionCleanerListener;
+import com.canoo.dp.impl.server.config.DefaultPlatformConfiguration;
+import com.canoo.impl.server.util.HttpSessionMock;
+import com.canoo.platform.core.functional.Callback;
+import com.canoo.platform.server.client.ClientSession;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClientSessionRegistryTest {
+
+    @Test
+    public void testAddAndGet() {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry();
+        final HttpSession httpSession = new HttpSessionMock();
+        final ClientSession clientSession = new HttpClientSessionImpl(httpSession);
+
+        //when:
+        final boolean added = registry.add(clientSession, 10);
+
+        //then:
+        Assert.assertTrue(added);
+        Assert.assertEquals(registry.get(httpSession.getId(), clientSession.getId()), clientSession);
+        Assert.assertNull(registry.get(httpSession.getId(), "unknown"));
+        Assert.assertNull(registry.get(httpSession.getId(), null));
+        Assert.assertEquals(registry.getClientSessionCount(), 1);
+        Assert.assertEquals(registry.getClientSessionCount(httpSession.getId()), 1);
+        Assert.assertEquals(registry.getHttpSessionCount(), 1);
+    }
+
+    @Test
+    public void testClientSessionNotVisibleInOtherHttpSession() {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry();
+        final ClientSession clientSession = new HttpClientSessionImpl(new HttpSessionMock());
+        registry.add(clientSession, 10);
+
+        //then:
+        Assert.assertNull(registry.get(new HttpSessionMock().getId(), clientSession.getId()));
+    }
+
+    @Test
+    public void testMaxClientSessionsPerHttpSession() {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry();
+        final HttpSession httpSession = new HttpSessionMock();
+
+        //when:
+        final boolean firstAdded = registry.add(new HttpClientSessionImpl(httpSession), 2);
+        final boolean secondAdded = registry.add(new HttpClientSessionImpl(httpSession), 2);
+        final boolean thirdAdded = registry.add(new HttpClientSessionImpl(httpSession), 2);
+        final boolean otherHttpSessionAdded = registry.add(new HttpClientSessionImpl(new HttpSessionMock()), 2);
+
+        //then:
+        Assert.assertTrue(firstAdded);
+        Assert.assertTrue(secondAdded);
+        Assert.assertFalse(thirdAdded);
+        Assert.assertTrue(otherHttpSessionAdded);
+        Assert.assertEquals(registry.getClientSessionCount(httpSession.getId()), 2);
+        Assert.assertEquals(registry.getClientSessionCount(), 3);
+    }
+
+    @Test
+    public void testRemoveAll() {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry();
+        final HttpSession httpSession = new HttpSessionMock();
+        final HttpSession otherHttpSession = new HttpSessionMock();
+        final ClientSession clientSession1 = new HttpClientSessionImpl(httpSession);
+        final ClientSession clientSession2 = new HttpClientSessionImpl(httpSession);
+        final ClientSession otherClientSession = new HttpClientSessionImpl(otherHttpSession);
+        registry.add(clientSession1, 10);
+        registry.add(clientSession2, 10);
+        registry.add(otherClientSession, 10);
+
+        //when:
+        final List<ClientSession> removed = registry.removeAll(httpSession.getId());
+
+        //then:
+        Assert.assertEquals(removed.size(), 2);
+        Assert.assertTrue(removed.contains(clientSession1));
+        Assert.assertTrue(removed.contains(clientSession2));
+        Assert.assertNull(registry.get(httpSession.getId(), clientSession1.getId()));
+        Assert.assertEquals(registry.get(otherHttpSession.getId(), otherClientSession.getId()), otherClientSession);
+        Assert.assertEquals(registry.getClientSessionCount(), 1);
+        Assert.assertEquals(registry.getHttpSessionCount(), 1);
+        Assert.assertTrue(registry.removeAll(httpSession.getId()).isEmpty());
+    }
+
+    @Test
+    public void testChangeHttpSessionId() {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry();
+        final HttpSessionMock httpSession = new HttpSessionMock();
+        final ClientSession clientSession1 = new HttpClientSessionImpl(httpSession);
+        final ClientSession clientSession2 = new HttpClientSessionImpl(httpSession);
+        registry.add(clientSession1, 10);
+        registry.add(clientSession2, 10);
+
+        //when:
+        final String oldId = httpSession.changeId();
+        registry.changeHttpSessionId(oldId, httpSession.getId());
+
+        //then:
+        Assert.assertEquals(registry.get(httpSession.getId(), clientSession1.getId()), clientSession1);
+        Assert.assertEquals(registry.getClientSessionCount(httpSession.getId()), 2);
+        Assert.assertEquals(registry.getClientSessionCount(oldId), 0);
+        Assert.assertTrue(registry.removeAll(oldId).isEmpty());
+        final List<ClientSession> removed = registry.removeAll(httpSession.getId());
+        Assert.assertEquals(removed.size(), 2);
+        Assert.assertEquals(registry.getClientSessionCount(), 0);
+        Assert.assertEquals(registry.getHttpSessionCount(), 0);
+    }
+
+    @Test
+    public void testClientSessionsDestroyedAfterHttpSessionIdChanged() throws Exception {
+        //given:
+        final ClientSessionLifecycleHandlerImpl lifecycleHandler = new ClientSessionLifecycleHandlerImpl();
+        final List<ClientSession> destroyed = new ArrayList<>();
+        lifecycleHandler.addSessionDestroyedListener(new Callback<ClientSession>() {
+            @Override
+            public void call(final ClientSession clientSession) {
+                destroyed.add(clientSession);
+            }
+        });
+        final ClientSessionManager manager = new ClientSessionManager(new DefaultPlatformConfiguration(), lifecycleHandler);
+        final HttpSessionCleanerListener listener = new HttpSessionCleanerListener(manager);
+        final HttpSessionMock httpSession = new HttpSessionMock();
+        final String clientSessionId = manager.createClientSession(httpSession);
+
+        //when:
+        final String oldId = httpSession.changeId();
+        listener.sessionIdChanged(new HttpSessionEvent(httpSession), oldId);
+
+        //then:
+        Assert.assertTrue(manager.checkValidClientSession(httpSession, clientSessionId));
+
+        //when:
+        listener.sessionDestroyed(new HttpSessionEvent(httpSession));
+
+        //then:
+        Assert.assertEquals(destroyed.size(), 1);
+        Assert.assertEquals(destroyed.get(0).getId(), clientSessionId);
+        Assert.assertEquals(manager.getRegistry().getClientSessionCount(), 0);
+    }
+
+    @Test
+    public void testConcurrentAddRespectsMaxCount() throws Exception {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry(4);
+        final HttpSession httpSession = new HttpSessionMock();
+        final int threadCount = 16;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        final AtomicInteger addedCount = new AtomicInteger(0);
+
+        //when:
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            startLatch.await();
+                            if (registry.add(new HttpClientSessionImpl(httpSession), 5)) {
+                                addedCount.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            doneLatch.countDown();
+                        }
+                    }
+                });
+            }
+            startLatch.countDown();
+            Assert.assertTrue(doneLatch.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //then:
+        Assert.assertEquals(addedCount.get(), 5);
+        Assert.assertEquals(registry.getClientSessionCount(), 5);
+        Assert.assertEquals(registry.getClientSessionCount(httpSession.getId()), 5);
+    }
+
+    @Test
+    public void testClientSessionIdCanNotBeAddedTwice() {
+        //given:
+        final ClientSessionRegistry registry = new ClientSessionRegistry();
+        final ClientSession clientSession = new HttpClientSessionImpl(new HttpSessionMock());
+        registry.add(clientSession, 10);
+        final HttpSession otherHttpSession = new HttpSessionMock();
+
+        //when:
+        final boolean added = registry.add(new HttpClientSessionImpl(otherHttpSession, clientSession.getId()), 10);
+
+        //then:
+        Assert.assertFalse(added);
+        Assert.assertNull(registry.get(otherHttpSession.getId(), clientSession.getId()));
+        Assert.assertEquals(registry.get(clientSession.getHttpSession().getId(), clientSession.getId()), clientSession);
+        Assert.assertEquals(registry.getClientSessionCount(), 1);
+        Assert.assertEquals(registry.getHttpSessionCount(), 1);
+    }
+
+    @Test
+    public void testRecoverClientSession() {
+        //given:
+        final ClientSessionLifecycleHandlerImpl lifecycleHandler = new ClientSessionLifecycleHandlerImpl();
+        final List<ClientSession> created = new ArrayList<>();
+        lifecycleHandler.addSessionCreatedListener(new Callback<ClientSession>() {
+            @Override
+            public void call(final ClientSession clientSession) {
+                created.add(clientSession);
+            }
+        });
+        final ClientSessionManager manager = new ClientSessionManager(new DefaultPlatformConfiguration(), lifecycleHandler);
+        final HttpSession httpSession = new HttpSessionMock();
+        manager.setRecoveryHandler(new ClientSessionRecoveryHandler() {
+            @Override
+            public boolean isRecoverable(final String clientSessionId, final String httpSessionId) {
+                return "replicated".equals(clientSessionId) && httpSession.getId().equals(httpSessionId);
+            }
+        });
+
+        //when:
+        final boolean recovered = manager.recoverClientSession(httpSession, "replicated");
+
+        //then:
+        Assert.assertTrue(recovered);
+        Assert.assertTrue(manager.checkValidClientSession(httpSession, "replicated"));
+        Assert.assertEquals(created.size(), 1);
+        Assert.assertEquals(created.get(0).getId(), "replicated");
+        Assert.assertFalse(manager.recoverClientSession(httpSession, "unknown"));
+        Assert.assertFalse(manager.recoverClientSession(new HttpSessionMock(), "replicated"));
+        Assert.assertEquals(created.size(), 1);
+    }
+
+    @Test
+    public void testClientSessionIsNotRecoveredInForeignHttpSession() {
+        //given:
+        final ClientSessionManager manager = new ClientSessionManager(new DefaultPlatformConfiguration(), new ClientSessionLifecycleHandlerImpl());
+        final HttpSession ownerHttpSession = new HttpSessionMock();
+        manager.setRecoveryHandler(new ClientSessionRecoveryHandler() {
+            @Override
+            public boolean isRecoverable(final String clientSessionId, final String httpSessionId) {
+                return ownerHttpSession.getId().equals(httpSessionId);
+            }
+        });
+        final HttpSession foreignHttpSession = new HttpSessionMock();
+
+        //when:
+        final boolean recovered = manager.recoverClientSession(foreignHttpSession, "replicated");
+
+        //then:
+        Assert.assertFalse(recovered);
+        Assert.assertFalse(manager.checkValidClientSession(foreignHttpSession, "replicated"));
+        Assert.assertEquals(manager.getRegistry().getClientSessionCount(), 0);
+    }
+
+    @Test
+    public void testNoRecoveryWithoutRecoveryHandler() {
+        //given:
+        final ClientSessionManager manager = new ClientSessionManager(new DefaultPlatformConfiguration(), new ClientSessionLifecycleHandlerImpl());
+        final HttpSession httpSession = new HttpSessionMock();
+
+        //when:
+        final boolean recovered = manager.recoverClientSession(httpSession, "replicated");
+
+        //then:
+        Assert.assertFalse(recovered);
+        Assert.assertFalse(manager.checkValidClientSession(httpSession, "replicated"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidShardCount() {
+        new ClientSessionRegistry(3);
+    }
+}
@@ -8,7 +8,7 @@ import java.util.UUID;
 
 public class HttpSessionMock implements HttpSession {
 
-    private final String id = UUID.randomUUID().toString();
+    private String id = UUID.randomUUID().toString();
 
     @Override
     public long getCreationTime() {
@@ -20,6 +20,12 @@ public class HttpSessionMock implements HttpSession {
         return id;
     }
 
+    public String changeId() {
+        final String oldId = id;
+        id = UUID.randomUUID().toString();
+        return oldId;
+    }
+
     @Override
     public long getLastAccessedTime() {
         return 0;
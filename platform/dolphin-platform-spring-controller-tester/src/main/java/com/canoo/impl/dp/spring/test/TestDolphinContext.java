@@ -67,4 +67,19 @@ public class TestDolphinContext extends DolphinContext {
         });
         return result;
     }
+
+    @Override
+    public CompletableFuture<Void> runLaterForEvent(final String topicName, final Object overflowKey, final Runnable runnable) {
+        Assert.requireNonNull(runnable, "runnable");
+        final CompletableFuture<Void> result = new CompletableFuture<Void>();
+        callLaterTasks.offer(() -> {
+            try {
+                runnable.run();
+                result.complete(null);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
 }